@@ -88,13 +88,13 @@ public class TestAvoidCornersStrategy {
     Assert.assertEquals(view.arrayHexString(),
         "      _   _   _   _   \n"
             + "    _   _   B   _   _   \n"
-            + "  _   W   W   W   W   _   \n"
-            + "_   _   W   _   B   _   _   \n"
-            + "  _   _   B   B   B   _   \n"
-            + "    _   _   _   _   _   \n"
+            + "  _   _   B   B   W   _   \n"
+            + "_   _   W   _   W   _   _   \n"
+            + "  _   _   W   W   B   _   \n"
+            + "    _   _   W   _   _   \n"
             + "      _   _   _   _   \n"
-            + "Black Score = 5\n"
-            + "White Score = 5\n");
+            + "Black Score = 4\n"
+            + "White Score = 6\n");
     Move move5 = strat.chooseMove(model, model.getCurrentPlayer());
     model.play(move5.getQ(), move5.getR(), move5.getPlayer());
 
@@ -103,10 +103,10 @@ public class TestAvoidCornersStrategy {
     Assert.assertEquals(view.arrayHexString(),
         "      _   _   _   _   \n"
             + "    _   _   B   _   _   \n"
-            + "  _   W   B   W   W   _   \n"
-            + "_   _   B   _   B   _   _   \n"
+            + "  _   _   B   B   W   _   \n"
+            + "_   _   B   _   W   _   _   \n"
             + "  _   B   B   B   B   _   \n"
-            + "    _   _   _   _   _   \n"
+            + "    _   _   W   _   _   \n"
             + "      _   _   _   _   \n"
             + "Black Score = 8\n"
             + "White Score = 3\n");
@@ -117,11 +117,11 @@ public class TestAvoidCornersStrategy {
     // WHEN NO OTHER MOVES NEXT TO CORNERS CAN BE AVOIDED, IT MOVES NEXT TO A CORNER
     Assert.assertEquals(view.arrayHexString(),
         "      _   _   _   _   \n"
-            + "    _   _   B   _   _   \n"
-            + "  _   W   B   B   B   B   \n"
+            + "    _   _   B   _   B   \n"
+            + "  _   _   B   B   B   _   \n"
             + "_   _   B   _   B   _   _   \n"
             + "  _   B   B   B   B   _   \n"
-            + "    _   _   _   _   _   \n"
+            + "    _   _   W   _   _   \n"
             + "      _   _   _   _   \n"
             + "Black Score = 11\n"
             + "White Score = 1\n");
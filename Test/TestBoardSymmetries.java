@@ -0,0 +1,92 @@
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the rotations and reflections of the boards and the canonical images of positions.
+ */
+public class TestBoardSymmetries {
+
+  @Test
+  public void testSymmetryCounts() {
+    Assert.assertEquals(12, BoardSymmetries.of(BoardTopology.of(BoardShape.HEXAGON, 6)).size());
+    Assert.assertEquals(8, BoardSymmetries.of(BoardTopology.of(BoardShape.SQUARE, 8)).size());
+  }
+
+  @Test
+  public void testSymmetriesPreserveNeighbors() {
+    for (BoardTopology topology : Arrays.asList(BoardTopology.of(BoardShape.HEXAGON, 5),
+        BoardTopology.of(BoardShape.SQUARE, 6))) {
+      BoardSymmetries symmetries = BoardSymmetries.of(topology);
+      for (int s = 0; s < symmetries.size(); s++) {
+        for (int cell = 0; cell < topology.getCellCount(); cell++) {
+          for (int d = 0; d < topology.getDirectionCount(); d++) {
+            int neighbor = topology.neighbor(cell, d);
+            if (neighbor >= 0) {
+              boolean adjacent = false;
+              for (int e = 0; e < topology.getDirectionCount(); e++) {
+                adjacent |= topology.neighbor(symmetries.map(s, cell), e)
+                    == symmetries.map(s, neighbor);
+              }
+              Assert.assertTrue(adjacent);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testStartingSquarePositionIsSymmetricUnderHalfTurn() {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 8);
+    BoardSymmetries symmetries = BoardSymmetries.of(topology);
+    byte[] start = new byte[topology.getCellCount()];
+    topology.readCells(BoardShape.SQUARE.newBoard(8), start);
+    byte[] image = new byte[start.length];
+    // symmetry 2 is the rotation by 180 degrees
+    symmetries.transform(2, start, image);
+    Assert.assertArrayEquals(start, image);
+  }
+
+  @Test
+  public void testCanonicalImageMatchesCanonicalHash() {
+    for (BoardTopology topology : Arrays.asList(BoardTopology.of(BoardShape.HEXAGON, 5),
+        BoardTopology.of(BoardShape.SQUARE, 6))) {
+      BoardSymmetries symmetries = BoardSymmetries.of(topology);
+      byte[] cells = new byte[topology.getCellCount()];
+      topology.readCells(topology.getShape().newBoard(topology.getSize()), cells);
+      CompactBoard board = new CompactBoard(topology);
+      board.set(cells, BoardTopology.BLACK);
+      Random random = new Random(3);
+      int[] moves = new int[topology.getCellCount()];
+      byte[] image = new byte[cells.length];
+      byte[] canonical = new byte[cells.length];
+      while (!board.isGameOver()) {
+        board.copyCells(cells);
+        int side = board.getSideToMove();
+        long hash = symmetries.canonicalHash(cells, side);
+        int symmetry = symmetries.canonicalize(cells, side, canonical);
+        Assert.assertEquals(hash, topology.hash(canonical, side));
+        for (int s = 0; s < symmetries.size(); s++) {
+          symmetries.transform(s, cells, image);
+          Assert.assertTrue(hash <= topology.hash(image, side));
+          Assert.assertEquals(hash, symmetries.canonicalHash(image, side));
+          if (s == symmetry) {
+            Assert.assertArrayEquals(canonical, image);
+          }
+        }
+        int count = board.legalMoves(moves);
+        if (count == 0) {
+          board.pass();
+        } else {
+          board.play(moves[random.nextInt(count)]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.Candidates;
+import cs3500.reversi.strategy.GoForCornersStrategy;
+import cs3500.reversi.strategy.MinimaxStrategy;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Strategies;
+import cs3500.reversi.strategy.TryTwo;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the shared candidate set and the strategies that choose from it.
+ */
+public class TestCandidates {
+  private ReversiBoard model;
+
+  @Before
+  public void setup() {
+    model = new ReversiBoard(4);
+    model.startGame();
+  }
+
+  @Test
+  public void testNarrowAndRestore() {
+    Candidates candidates = Candidates.of(model, HexagonPlayer.BLACK);
+    Assert.assertEquals(6, candidates.size());
+    int before = candidates.narrow(id -> candidates.getR(id) < 3);
+    Assert.assertEquals(6, before);
+    Assert.assertEquals(3, candidates.size());
+    for (int i = 0; i < candidates.size(); i++) {
+      Assert.assertTrue(candidates.getR(candidates.get(i)) < 3);
+    }
+    candidates.restore(before);
+    Assert.assertEquals(6, candidates.size());
+    Assert.assertEquals(Candidates.NONE, candidates.indexOf(0, 0));
+    int id = candidates.indexOf(4, 1);
+    Assert.assertEquals(4, candidates.toMove(id).getQ());
+    Assert.assertEquals(1, candidates.toMove(id).getR());
+  }
+
+  @Test
+  public void testNoCandidatesOutOfTurn() {
+    Assert.assertEquals(0, Candidates.of(model, HexagonPlayer.WHITE).size());
+  }
+
+  @Test
+  public void testStagesLeaveTheCandidatesAsFound() {
+    Candidates candidates = Candidates.of(model, HexagonPlayer.BLACK);
+    Assert.assertEquals(Candidates.NONE, new GoForCornersStrategy().choose(candidates));
+    Assert.assertEquals(6, candidates.size());
+    int id = new TryTwo(new GoForCornersStrategy(), new AggressiveReversiStrategy())
+        .choose(candidates);
+    Assert.assertEquals(candidates.indexOf(4, 1), id);
+    Assert.assertEquals(6, candidates.size());
+  }
+
+  @Test
+  public void testFallsBackToStrategiesOutsideThePipeline() {
+    Candidates candidates = Candidates.of(model, HexagonPlayer.BLACK);
+    Move expected = new MinimaxStrategy(new AggressiveReversiStrategy())
+        .chooseMove(model, HexagonPlayer.BLACK);
+    int id = new TryTwo(new GoForCornersStrategy(),
+        new MinimaxStrategy(new AggressiveReversiStrategy())).choose(candidates);
+    Assert.assertEquals(candidates.indexOf(expected.getQ(), expected.getR()), id);
+  }
+
+  @Test
+  public void testPlayerPassesWithoutAMove() {
+    AIPlayer corners = new AIPlayer(model, HexagonPlayer.BLACK, new GoForCornersStrategy());
+    Assert.assertTrue(corners.play(0, 0).getPass());
+    AIPlayer chain = new AIPlayer(model, HexagonPlayer.BLACK, Strategies.named("strategy123"));
+    Move move = chain.play(0, 0);
+    Assert.assertFalse(move.getPass());
+    Assert.assertTrue(model.canMove(move.getQ(), move.getR(), HexagonPlayer.BLACK));
+  }
+}
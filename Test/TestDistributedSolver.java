@@ -0,0 +1,224 @@
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.server.SolveCoordinator;
+import cs3500.reversi.server.SolveWorker;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests solving a position with workers pulling jobs from a coordinator.
+ */
+public class TestDistributedSolver {
+  private static final String HOST = InetAddress.getLoopbackAddress().getHostAddress();
+
+  /**
+   * Plays random moves on a square board of size 6 until a number of empties is left.
+   */
+  private static CompactBoard endgame(int empties, long seed) {
+    Random random = new Random(seed);
+    int[] moves = new int[36];
+    while (true) {
+      ReversiBoard model = BoardShape.SQUARE.newBoard(6);
+      model.startGame();
+      CompactBoard board = CompactBoard.of(model);
+      while (!board.isGameOver() && board.getEmptyCount() > empties) {
+        int count = board.legalMoves(moves);
+        if (count == 0) {
+          board.pass();
+        } else {
+          board.play(moves[random.nextInt(count)]);
+        }
+      }
+      if (!board.isGameOver()) {
+        return board;
+      }
+    }
+  }
+
+  /**
+   * A worker driven by hand, one line at a time.
+   */
+  private static final class Client implements AutoCloseable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    Client(int port) throws IOException {
+      socket = new Socket(HOST, port);
+      in = new BufferedReader(
+          new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+      out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+    }
+
+    String send(String line) throws IOException {
+      out.write(line + "\n");
+      out.flush();
+      return in.readLine();
+    }
+
+    /**
+     * Solves the position of a SOLVE line and reports its score.
+     */
+    void solve(String job) throws IOException {
+      String[] words = job.split(" ");
+      BoardTopology topology = BoardTopology.of(BoardShape.parse(words[2]),
+          Integer.parseInt(words[3]));
+      byte[] cells = new byte[topology.getCellCount()];
+      for (int cell = 0; cell < cells.length; cell++) {
+        cells[cell] = (byte) (words[5].charAt(cell) - '0');
+      }
+      CompactBoard board = new CompactBoard(topology);
+      board.set(cells, Integer.parseInt(words[4]));
+      AlphaBetaSearch search = new AlphaBetaSearch(null);
+      search.solve(board);
+      Assert.assertEquals("OK", send("RESULT " + words[1] + " " + search.getScore()));
+    }
+
+    @Override
+    public void close() throws IOException {
+      socket.close();
+    }
+  }
+
+  @Test
+  public void testWorkerProcesses() throws Exception {
+    CompactBoard board = endgame(12, 46);
+    AlphaBetaSearch search = new AlphaBetaSearch(null);
+    int expected = search.solve(board);
+    try (SolveCoordinator coordinator = new SolveCoordinator(board, 2, null, 0)) {
+      coordinator.start();
+      List<Process> workers = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        workers.add(new ProcessBuilder(
+            System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+            "-cp", System.getProperty("java.class.path"), SolveWorker.class.getName(), HOST,
+            String.valueOf(coordinator.getPort()), "1")
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.INHERIT).start());
+      }
+      Assert.assertTrue(coordinator.awaitSolved(120_000));
+      for (Process worker : workers) {
+        Assert.assertTrue(worker.waitFor(30, TimeUnit.SECONDS));
+        Assert.assertEquals(0, worker.exitValue());
+      }
+      Assert.assertEquals(search.getScore(), coordinator.getScore());
+      Assert.assertEquals(expected, coordinator.getBestMove());
+    }
+  }
+
+  @Test
+  public void testLostWorkersJobsAreHandedOutAgain() throws IOException {
+    try (SolveCoordinator coordinator = new SolveCoordinator(endgame(10, 47), 1, null, 0)) {
+      coordinator.start();
+      String job;
+      try (Client lost = new Client(coordinator.getPort())) {
+        job = lost.send("JOB");
+        Assert.assertTrue(job.startsWith("SOLVE "));
+      }
+      try (Client worker = new Client(coordinator.getPort())) {
+        // the job comes back once the coordinator sees the connection close
+        String next = worker.send("JOB");
+        for (int tries = 0; !next.equals(job) && tries < 100; tries++) {
+          worker.solve(next);
+          next = worker.send("JOB");
+        }
+        Assert.assertEquals(job, next);
+      }
+    }
+  }
+
+  @Test
+  public void testExpiredLeasesAreHandedOutAgain() throws Exception {
+    CompactBoard board = endgame(10, 48);
+    try (SolveCoordinator coordinator = new SolveCoordinator(board, 1, null,
+        InetAddress.getLoopbackAddress(), 0, 1)) {
+      coordinator.start();
+      try (Client slow = new Client(coordinator.getPort());
+          Client fast = new Client(coordinator.getPort())) {
+        List<String> jobs = new ArrayList<>();
+        for (int i = 0; i < coordinator.getJobCount(); i++) {
+          jobs.add(slow.send("JOB"));
+        }
+        Thread.sleep(5);
+        String again = fast.send("JOB");
+        Assert.assertTrue(jobs.contains(again));
+        fast.solve(again);
+        // the late result of the same job is accepted and ignored
+        slow.solve(again);
+        Assert.assertEquals(1, coordinator.getSolvedCount());
+      }
+    }
+  }
+
+  @Test
+  public void testCheckpoint() throws Exception {
+    CompactBoard board = endgame(11, 49);
+    AlphaBetaSearch search = new AlphaBetaSearch(null);
+    int expected = search.solve(board);
+    Path file = Files.createTempFile("reversi", ".checkpoint");
+    Files.delete(file);
+    try {
+      try (SolveCoordinator coordinator = new SolveCoordinator(board, 2, file, 0)) {
+        coordinator.start();
+        try (Client worker = new Client(coordinator.getPort())) {
+          worker.solve(worker.send("JOB"));
+          worker.solve(worker.send("JOB"));
+        }
+      }
+      // as if the coordinator died writing a result
+      Files.write(file, "12345".getBytes(StandardCharsets.US_ASCII),
+          StandardOpenOption.APPEND);
+      try (SolveCoordinator coordinator = new SolveCoordinator(board, 2, file, 0)) {
+        Assert.assertEquals(2, coordinator.getSolvedCount());
+        coordinator.start();
+        int solved = new SolveWorker(HOST, coordinator.getPort(), 1).run();
+        Assert.assertEquals(coordinator.getJobCount() - 2, solved);
+        Assert.assertTrue(coordinator.awaitSolved(0));
+        Assert.assertEquals(search.getScore(), coordinator.getScore());
+        Assert.assertEquals(expected, coordinator.getBestMove());
+      }
+      try (SolveCoordinator coordinator = new SolveCoordinator(board, 2, file, 0)) {
+        Assert.assertEquals(coordinator.getJobCount(), coordinator.getSolvedCount());
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testCheckpointOfAnotherSolve() throws IOException {
+    Path file = Files.createTempFile("reversi", ".checkpoint");
+    try {
+      new SolveCoordinator(endgame(10, 50), 1, file, 0).close();
+      new SolveCoordinator(endgame(10, 51), 1, file, 0).close();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNotSolvedYet() throws IOException {
+    try (SolveCoordinator coordinator = new SolveCoordinator(endgame(10, 52), 1, null, 0)) {
+      coordinator.getScore();
+    }
+  }
+}
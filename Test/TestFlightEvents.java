@@ -0,0 +1,111 @@
+import cs3500.reversi.jfr.ChooseMoveEvent;
+import cs3500.reversi.jfr.MoveEvent;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.search.SearchStrategy;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Strategies;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the Flight Recorder events of the model and the AI players.
+ */
+public class TestFlightEvents {
+  int moves;
+  int passes;
+
+  /**
+   * Plays a game between a searching and an aggressive player.
+   */
+  private void playGame() {
+    ReversiBoard board = new ReversiBoard(4);
+    board.startGame();
+    AIPlayer black = new AIPlayer(board, HexagonPlayer.BLACK,
+        new SearchStrategy(2, Strategies::evaluator));
+    AIPlayer white = new AIPlayer(board, HexagonPlayer.WHITE, new AggressiveReversiStrategy());
+    while (!board.isGameOver()) {
+      Move move = black.isPlayerTurn() ? black.play(0, 0) : white.play(0, 0);
+      if (move.getPass()) {
+        board.pass();
+        passes++;
+      } else {
+        board.play(move.getQ(), move.getR(), move.getPlayer());
+        moves++;
+      }
+    }
+  }
+
+  /**
+   * Plays a game while recording, with or without this package's events enabled.
+   */
+  private List<RecordedEvent> record(boolean enable) throws IOException {
+    Path file = Files.createTempFile("reversi", ".jfr");
+    try (Recording recording = new Recording()) {
+      if (enable) {
+        recording.enable(MoveEvent.class).withoutThreshold();
+        recording.enable(ChooseMoveEvent.class).withoutThreshold();
+      }
+      recording.start();
+      playGame();
+      recording.stop();
+      recording.dump(file);
+    }
+    return RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().startsWith("cs3500.reversi."))
+        .collect(Collectors.toList());
+  }
+
+  private List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+    return events.stream().filter(event -> event.getEventType().getName().equals(name))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testEveryMoveAndPassIsRecorded() throws IOException {
+    List<RecordedEvent> events = named(record(true), "cs3500.reversi.Move");
+    Assert.assertEquals(moves + passes, events.size());
+    for (RecordedEvent event : events) {
+      if (event.getBoolean("pass")) {
+        Assert.assertEquals(0, event.getInt("flipped"));
+      } else {
+        Assert.assertTrue(event.getInt("flipped") >= 1);
+      }
+    }
+    Assert.assertEquals(passes, events.stream().filter(e -> e.getBoolean("pass")).count());
+  }
+
+  @Test
+  public void testChoicesCountCandidatesAndNodes() throws IOException {
+    List<RecordedEvent> events = named(record(true), "cs3500.reversi.ChooseMove");
+    Assert.assertEquals(moves + passes, events.size());
+    long searched = 0;
+    for (RecordedEvent event : events) {
+      Assert.assertTrue(event.getInt("candidates") >= 0);
+      if (event.getString("strategy").equals("SearchStrategy")) {
+        Assert.assertEquals("BLACK", event.getString("player"));
+        // positions found in the transposition table are not searched again
+        searched += event.getLong("nodes");
+      } else {
+        Assert.assertEquals("AggressiveReversiStrategy", event.getString("strategy"));
+        Assert.assertEquals(0, event.getLong("nodes"));
+      }
+    }
+    Assert.assertTrue(searched > 0);
+  }
+
+  @Test
+  public void testNothingIsRecordedUnlessEnabled() throws IOException {
+    Assert.assertTrue(record(false).isEmpty());
+  }
+}
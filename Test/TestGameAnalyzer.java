@@ -0,0 +1,125 @@
+import cs3500.reversi.analysis.GameAnalyzer;
+import cs3500.reversi.analysis.GameAnalyzer.Summary;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.model.ReversiSquareBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.record.GameHeader;
+import cs3500.reversi.record.GameRecordReader;
+import cs3500.reversi.record.GameRecordWriter;
+import cs3500.reversi.record.GameRecorder;
+import cs3500.reversi.search.SearchDriver;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.AvoidCornersStrategy;
+import cs3500.reversi.strategy.Move;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests annotating recorded games with search evaluations.
+ */
+public class TestGameAnalyzer {
+  static final int GAMES = 6;
+
+  ByteArrayOutputStream bytes;
+  int moves;
+
+  @Before
+  public void setup() throws IOException {
+    bytes = new ByteArrayOutputStream();
+    GameRecordWriter writer = new GameRecordWriter(bytes);
+    for (int game = 0; game < GAMES; game++) {
+      ReversiBoard board = game % 2 == 0 ? new ReversiBoard(3) : new ReversiSquareBoard(6);
+      new GameRecorder(board, writer, "strategy1", "strategy2");
+      board.startGame();
+      AIPlayer black = new AIPlayer(board, HexagonPlayer.BLACK, new AggressiveReversiStrategy());
+      AIPlayer white = new AIPlayer(board, HexagonPlayer.WHITE, new AvoidCornersStrategy());
+      while (!board.isGameOver()) {
+        Move move = black.isPlayerTurn() ? black.play(0, 0) : white.play(0, 0);
+        if (move.getPass()) {
+          board.pass();
+        } else {
+          board.play(move.getQ(), move.getR(), move.getPlayer());
+          moves++;
+        }
+      }
+    }
+    writer.flush();
+  }
+
+  private GameRecordReader reader() {
+    return new GameRecordReader(new ByteArrayInputStream(bytes.toByteArray()));
+  }
+
+  private String analyze(GameAnalyzer analyzer) throws IOException {
+    StringWriter out = new StringWriter();
+    Summary summary = analyzer.analyze(reader(), out);
+    Assert.assertEquals(GAMES, summary.getGames());
+    Assert.assertEquals(moves, summary.getPositions());
+    return out.toString();
+  }
+
+  @Test
+  public void testEveryGameIsAnnotatedInRecordOrder() throws IOException {
+    String text = analyze(new GameAnalyzer(2, SearchDriver.PVS, 4, 3, 2));
+    int at = 0;
+    for (int game = 0; game < GAMES; game++) {
+      int next = text.indexOf("game " + game + ": strategy1 (black) vs strategy2 (white)", at);
+      Assert.assertTrue(next >= at);
+      at = next;
+    }
+    Assert.assertTrue(text.contains("SQUARE 6"));
+    Assert.assertTrue(text.contains(" best "));
+    Assert.assertTrue(text.contains("result "));
+  }
+
+  @Test
+  public void testAnnotationsDoNotDependOnThreads() throws IOException {
+    Assert.assertEquals(analyze(new GameAnalyzer(3, SearchDriver.ALPHA_BETA, 2, 1, 1)),
+        analyze(new GameAnalyzer(3, SearchDriver.ALPHA_BETA, 2, 4, 3)));
+  }
+
+  @Test
+  public void testThresholdFlagsBlunders() throws IOException {
+    StringWriter out = new StringWriter();
+    Summary strict = new GameAnalyzer(2, SearchDriver.PVS, 0, 2).analyze(reader(), out);
+    Assert.assertTrue(strict.getBlunders() > 0);
+    Assert.assertTrue(out.toString().contains(" blunder -"));
+    Summary lenient = new GameAnalyzer(2, SearchDriver.PVS, 1000, 2)
+        .analyze(reader(), new StringWriter());
+    Assert.assertEquals(0, lenient.getBlunders());
+  }
+
+  @Test(expected = IOException.class)
+  public void testIllegalMoveInRecord() throws IOException {
+    ByteArrayOutputStream broken = new ByteArrayOutputStream();
+    GameRecordWriter writer = new GameRecordWriter(broken);
+    writer.beginGame(new GameHeader(BoardShape.HEXAGON, 3, "a", "b"));
+    // a cell that is occupied from the start
+    CompactBoard start = CompactBoard.of(new GameHeader(BoardShape.HEXAGON, 3, "a", "b")
+        .newModel());
+    int cell = 0;
+    while (start.get(cell) == BoardTopology.EMPTY) {
+      cell++;
+    }
+    BoardTopology topology = start.getTopology();
+    writer.writeMove(topology.getQ(cell), topology.getR(cell));
+    writer.endGame();
+    writer.flush();
+    new GameAnalyzer(1, SearchDriver.PVS, 4, 2).analyze(
+        new GameRecordReader(new ByteArrayInputStream(broken.toByteArray())), new StringWriter());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidDepth() {
+    new GameAnalyzer(0, SearchDriver.PVS, 4, 2);
+  }
+}
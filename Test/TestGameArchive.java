@@ -0,0 +1,168 @@
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.record.ArchiveCursor;
+import cs3500.reversi.record.GameArchive;
+import cs3500.reversi.record.GameArchiveWriter;
+import cs3500.reversi.record.GameHeader;
+import cs3500.reversi.record.GameRecordReader;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.AvoidCornersStrategy;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.TryTwo;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests appending games to a memory-mapped archive and reading them back by index.
+ */
+public class TestGameArchive {
+  Path base;
+
+  @Before
+  public void setup() throws IOException {
+    base = Files.createTempDirectory("archive").resolve("games");
+  }
+
+  /**
+   * Plays a game on the given board and appends it to the writer, using the game's size as the
+   * black player's name so games can be told apart.
+   */
+  private ReversiBoard writeGame(GameArchiveWriter writer, BoardShape shape, int size)
+      throws IOException {
+    ReversiBoard board = shape.newBoard(size);
+    board.startGame();
+    writer.beginGame(new GameHeader(shape, size, "size" + size, "strategy12"));
+    AIPlayer black = new AIPlayer(board, HexagonPlayer.BLACK, new AggressiveReversiStrategy());
+    AIPlayer white = new AIPlayer(board, HexagonPlayer.WHITE,
+        new TryTwo(new AvoidCornersStrategy(), new AggressiveReversiStrategy()));
+    while (!board.isGameOver()) {
+      Move move = black.isPlayerTurn() ? black.play(0, 0) : white.play(0, 0);
+      if (move.getPass()) {
+        board.pass();
+      } else {
+        board.play(move.getQ(), move.getR(), move.getPlayer());
+      }
+      writer.writeMove(move);
+    }
+    writer.endGame();
+    return board;
+  }
+
+  @Test
+  public void testJumpToAnyGame() throws IOException {
+    ReversiBoard[] boards = new ReversiBoard[4];
+    try (GameArchiveWriter writer = new GameArchiveWriter(base)) {
+      for (int i = 0; i < boards.length; i++) {
+        boards[i] = writeGame(writer, BoardShape.HEXAGON, 3 + i);
+      }
+    }
+    try (GameArchive archive = new GameArchive(base)) {
+      Assert.assertEquals(4, archive.size());
+      ArchiveCursor cursor = archive.newCursor();
+      for (int i : new int[] {2, 0, 3, 1}) {
+        GameHeader header = cursor.moveTo(i);
+        Assert.assertEquals("size" + (3 + i), header.getBlackPlayer());
+        ReversiBoard replayed = header.newModel();
+        cursor.replay(replayed);
+        Assert.assertEquals(boards[i].getScore(HexagonPlayer.BLACK),
+            replayed.getScore(HexagonPlayer.BLACK));
+        Assert.assertEquals(boards[i].getScore(HexagonPlayer.WHITE),
+            replayed.getScore(HexagonPlayer.WHITE));
+      }
+    }
+  }
+
+  @Test
+  public void testReopeningAppends() throws IOException {
+    try (GameArchiveWriter writer = new GameArchiveWriter(base)) {
+      writeGame(writer, BoardShape.SQUARE, 4);
+    }
+    try (GameArchiveWriter writer = new GameArchiveWriter(base)) {
+      writeGame(writer, BoardShape.SQUARE, 6);
+    }
+    try (GameArchive archive = new GameArchive(base)) {
+      Assert.assertEquals(2, archive.size());
+      Assert.assertEquals(6, archive.newCursor().moveTo(1).getSize());
+    }
+  }
+
+  @Test
+  public void testIndexNeverRunsAheadOfTheData() throws IOException {
+    try (GameArchiveWriter writer = new GameArchiveWriter(base)) {
+      // enough games for the index to fill buffers of its own before any explicit flush
+      for (int i = 0; i < 20000; i++) {
+        writer.beginGame(new GameHeader(BoardShape.HEXAGON, 3, "a", "b"));
+        writer.writePass();
+        writer.endGame();
+        if (i % 1000 == 999) {
+          long dataLength = Files.size(GameArchive.dataFile(base));
+          byte[] index = Files.readAllBytes(GameArchive.indexFile(base));
+          for (int entry = 0; entry + 8 <= index.length; entry += 8) {
+            long offset = 0;
+            for (int b = 0; b < 8; b++) {
+              offset = (offset << 8) | (index[entry + b] & 0xFF);
+            }
+            Assert.assertTrue(offset < dataLength);
+          }
+        }
+      }
+    }
+    try (GameArchive archive = new GameArchive(base)) {
+      Assert.assertEquals(20000, archive.size());
+      Assert.assertEquals("a", archive.newCursor().moveTo(19999).getBlackPlayer());
+    }
+  }
+
+  @Test
+  public void testUnfinishedGameIsNotIndexed() throws IOException {
+    GameArchiveWriter writer = new GameArchiveWriter(base);
+    writeGame(writer, BoardShape.HEXAGON, 4);
+    writer.beginGame(new GameHeader(BoardShape.HEXAGON, 4, "a", "b"));
+    writer.writeMove(4, 1);
+    writer.flush();
+    try (GameArchive archive = new GameArchive(base)) {
+      Assert.assertEquals(1, archive.size());
+    }
+    writer.close();
+  }
+
+  @Test
+  public void testParallelScanVisitsEveryGameOnce() throws IOException {
+    try (GameArchiveWriter writer = new GameArchiveWriter(base)) {
+      for (int i = 0; i < 25; i++) {
+        writeGame(writer, BoardShape.HEXAGON, 3);
+      }
+    }
+    try (GameArchive archive = new GameArchive(base)) {
+      AtomicIntegerArray visits = new AtomicIntegerArray(archive.size());
+      archive.parallelScan(4, (index, cursor) -> {
+        visits.incrementAndGet(index);
+        int moves = 0;
+        while (cursor.nextMove() != GameRecordReader.END_OF_GAME) {
+          moves++;
+        }
+        Assert.assertTrue(moves > 0);
+      });
+      for (int i = 0; i < visits.length(); i++) {
+        Assert.assertEquals(1, visits.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testMissingGameIsRejected() throws IOException {
+    try (GameArchiveWriter writer = new GameArchiveWriter(base)) {
+      writeGame(writer, BoardShape.HEXAGON, 3);
+    }
+    try (GameArchive archive = new GameArchive(base)) {
+      Assert.assertThrows(IndexOutOfBoundsException.class, () -> archive.newCursor().moveTo(1));
+    }
+  }
+}
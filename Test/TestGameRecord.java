@@ -0,0 +1,140 @@
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.model.ReversiSquareBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.record.GameHeader;
+import cs3500.reversi.record.GameRecordReader;
+import cs3500.reversi.record.GameRecordWriter;
+import cs3500.reversi.record.GameRecorder;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.textualview.ReversiModelTextView;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests writing games in the binary record format and replaying them onto a model.
+ */
+public class TestGameRecord {
+  ByteArrayOutputStream bytes;
+  GameRecordWriter writer;
+
+  @Before
+  public void setup() {
+    bytes = new ByteArrayOutputStream();
+    writer = new GameRecordWriter(bytes);
+  }
+
+  /**
+   * Plays a whole game between two aggressive AI players while a recorder is observing it.
+   */
+  private ReversiBoard playRecordedGame(ReversiBoard board) throws IOException {
+    new GameRecorder(board, writer, "strategy1", "strategy1");
+    board.startGame();
+    AIPlayer black = new AIPlayer(board, HexagonPlayer.BLACK, new AggressiveReversiStrategy());
+    AIPlayer white = new AIPlayer(board, HexagonPlayer.WHITE, new AggressiveReversiStrategy());
+    while (!board.isGameOver()) {
+      Move move = black.isPlayerTurn() ? black.play(0, 0) : white.play(0, 0);
+      if (move.getPass()) {
+        board.pass();
+      } else {
+        board.play(move.getQ(), move.getR(), move.getPlayer());
+      }
+    }
+    return board;
+  }
+
+  private GameRecordReader reader() throws IOException {
+    writer.flush();
+    return new GameRecordReader(new ByteArrayInputStream(bytes.toByteArray()));
+  }
+
+  @Test
+  public void testRecordedHexGameReplaysToTheSamePosition() throws IOException {
+    ReversiBoard played = playRecordedGame(new ReversiBoard(4));
+    GameRecordReader reader = reader();
+    GameHeader header = reader.nextGame();
+    Assert.assertEquals(BoardShape.HEXAGON, header.getShape());
+    Assert.assertEquals(4, header.getSize());
+    Assert.assertEquals("strategy1", header.getBlackPlayer());
+
+    ReversiBoard replayed = header.newModel();
+    reader.replay(replayed);
+    Assert.assertEquals(new ReversiModelTextView(played).arrayHexString(),
+        new ReversiModelTextView(replayed).arrayHexString());
+    Assert.assertNull(reader.nextGame());
+  }
+
+  @Test
+  public void testSeveralGamesInOneStream() throws IOException {
+    ReversiBoard first = playRecordedGame(new ReversiSquareBoard(6));
+    ReversiBoard second = playRecordedGame(new ReversiBoard(3));
+    GameRecordReader reader = reader();
+
+    // skip the first game without replaying it
+    Assert.assertEquals(BoardShape.SQUARE, reader.nextGame().getShape());
+    GameHeader header = reader.nextGame();
+    Assert.assertEquals(BoardShape.HEXAGON, header.getShape());
+    ReversiBoard replayed = header.newModel();
+    reader.replay(replayed);
+    Assert.assertEquals(second.getScore(HexagonPlayer.BLACK),
+        replayed.getScore(HexagonPlayer.BLACK));
+    Assert.assertEquals(second.getScore(HexagonPlayer.WHITE),
+        replayed.getScore(HexagonPlayer.WHITE));
+    Assert.assertNull(reader.nextGame());
+    Assert.assertTrue(first.isGameOver());
+  }
+
+  @Test
+  public void testMovesAndPassesAreReadBackInOrder() throws IOException {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 4);
+    writer.beginGame(new GameHeader(BoardShape.HEXAGON, 4, "a", "b"));
+    writer.writeMove(4, 1);
+    writer.writePass();
+    writer.writeMove(2, 2);
+    writer.endGame();
+
+    GameRecordReader reader = reader();
+    reader.nextGame();
+    Assert.assertEquals(topology.cellId(4, 1), reader.nextMove());
+    Assert.assertEquals(HexagonPlayer.BLACK, reader.getLastMover());
+    Assert.assertEquals(GameRecordReader.PASS, reader.nextMove());
+    Assert.assertEquals(HexagonPlayer.WHITE, reader.getLastMover());
+    Assert.assertEquals(topology.cellId(2, 2), reader.nextMove());
+    Assert.assertEquals(GameRecordReader.END_OF_GAME, reader.nextMove());
+  }
+
+  @Test
+  public void testMovesTakeOneByteEach() throws IOException {
+    writer.beginGame(new GameHeader(BoardShape.HEXAGON, 6, "", ""));
+    long headerBytes = writer.getBytesWritten();
+    writer.writeMove(6, 3);
+    writer.writeMove(1, 9);
+    writer.writePass();
+    writer.endGame();
+    Assert.assertEquals(headerBytes + 4, writer.getBytesWritten());
+  }
+
+  @Test
+  public void testWritingOutsideOfAGameIsRejected() {
+    Assert.assertThrows(IllegalStateException.class, () -> writer.writeMove(4, 1));
+    Assert.assertThrows(IllegalStateException.class, () -> writer.endGame());
+  }
+
+  @Test
+  public void testPositionOffTheBoardIsRejected() throws IOException {
+    writer.beginGame(new GameHeader(BoardShape.HEXAGON, 4, "a", "b"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> writer.writeMove(0, 0));
+  }
+
+  @Test(expected = IOException.class)
+  public void testGarbageIsNotReadAsAGame() throws IOException {
+    new GameRecordReader(new ByteArrayInputStream(new byte[] {1, 2, 3})).nextGame();
+  }
+}
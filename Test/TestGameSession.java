@@ -0,0 +1,79 @@
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.server.GameSession;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.ReversiStrategy;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the replies a server-hosted game sends back for each protocol command.
+ */
+public class TestGameSession {
+  GameSession session;
+
+  @Before
+  public void setup() {
+    session = new GameSession(BoardShape.HEXAGON, 4, new AggressiveReversiStrategy(),
+        HexagonPlayer.BLACK);
+  }
+
+  @Test
+  public void testStartWhenClientMovesFirst() {
+    Assert.assertEquals("READY", session.start());
+    Assert.assertEquals("STATE BLACK 3 3 ___________BW____W_B____BW___________",
+        session.state());
+  }
+
+  @Test
+  public void testPlayIsAnsweredByTheAI() {
+    session.start();
+    Assert.assertEquals("MOVE 5 0", session.play(4, 1));
+    Assert.assertEquals("STATE BLACK 3 5 __W___W____WB____W_B____BW___________",
+        session.state());
+  }
+
+  @Test
+  public void testInvalidMoveIsRejectedWithoutChangingTheGame() {
+    session.start();
+    Assert.assertEquals("ERR not allowable by game rules", session.play(3, 3));
+    Assert.assertEquals("STATE BLACK 3 3 ___________BW____W_B____BW___________",
+        session.state());
+  }
+
+  @Test
+  public void testAIMovesFirstWhenClientIsWhite() {
+    GameSession white = new GameSession(BoardShape.SQUARE, 4, new AggressiveReversiStrategy(),
+        HexagonPlayer.WHITE);
+    Assert.assertEquals("MOVE 2 0", white.start());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testClientCannotPlayNone() {
+    new GameSession(BoardShape.HEXAGON, 4, new AggressiveReversiStrategy(), HexagonPlayer.NONE);
+  }
+
+  @Test
+  public void testAFailingAIAbandonsTheGame() {
+    AtomicInteger calls = new AtomicInteger();
+    ReversiStrategy failsOnce = (model, player) -> {
+      if (calls.getAndIncrement() == 0) {
+        throw new IllegalArgumentException("strategy failed");
+      }
+      return new AggressiveReversiStrategy().chooseMove(model, player);
+    };
+    GameSession failing = new GameSession(BoardShape.HEXAGON, 4, failsOnce, HexagonPlayer.BLACK);
+    failing.start();
+    Assert.assertThrows(IllegalArgumentException.class, () -> failing.play(4, 1));
+    // the AI player is left to move, so the client cannot go on with this game
+    Assert.assertEquals("ERR game abandoned after the AI player failed, start a NEW one",
+        failing.play(5, 0));
+    Assert.assertEquals("ERR game abandoned after the AI player failed, start a NEW one",
+        failing.pass());
+    Assert.assertEquals(1, calls.get());
+    Assert.assertEquals("STATE WHITE 5 2 ______B____BB____W_B____BW___________",
+        failing.state());
+  }
+}
@@ -0,0 +1,189 @@
+import cs3500.reversi.metrics.Counter;
+import cs3500.reversi.metrics.Histogram;
+import cs3500.reversi.metrics.MetricsRegistry;
+import cs3500.reversi.metrics.MetricsServer;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.search.SearchStrategy;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Strategies;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the metrics registry, its text format, the HTTP endpoint and the game's instruments.
+ */
+public class TestMetrics {
+
+  private String text(MetricsRegistry registry) throws IOException {
+    StringWriter out = new StringWriter();
+    registry.write(out);
+    return out.toString();
+  }
+
+  @Test
+  public void testCountersAreSharedByNameAndLabels() {
+    MetricsRegistry registry = new MetricsRegistry();
+    Counter a = registry.counter("test_total", "help", "kind", "a");
+    Assert.assertTrue(a == registry.counter("test_total", "help", "kind", "a"));
+    Assert.assertFalse(a == registry.counter("test_total", "help", "kind", "b"));
+    a.increment();
+    a.add(4);
+    Assert.assertEquals(5, registry.counter("test_total", "help", "kind", "a").get());
+  }
+
+  @Test
+  public void testTextFormat() throws IOException {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("moves_total", "Moves played.", "kind", "say \"hi\"").add(3);
+    Histogram histogram = registry.histogram("latency_seconds", "Latency.",
+        new double[] {0.001, 0.1});
+    histogram.observeNanos(500_000);
+    histogram.observeNanos(50_000_000);
+    histogram.observeNanos(2_000_000_000L);
+    String text = text(registry);
+    Assert.assertEquals("# HELP latency_seconds Latency.\n"
+        + "# TYPE latency_seconds histogram\n"
+        + "latency_seconds_bucket{le=\"0.001\"} 1\n"
+        + "latency_seconds_bucket{le=\"0.1\"} 2\n"
+        + "latency_seconds_bucket{le=\"+Inf\"} 3\n"
+        + "latency_seconds_sum 2.0505\n"
+        + "latency_seconds_count 3\n"
+        + "# HELP moves_total Moves played.\n"
+        + "# TYPE moves_total counter\n"
+        + "moves_total{kind=\"say \\\"hi\\\"\"} 3\n", text);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNameTakenByAnotherType() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("things", "help");
+    registry.histogram("things", "help", Histogram.LATENCY_SECONDS);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidName() {
+    new MetricsRegistry().counter("not a name", "help");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnpairedLabels() {
+    new MetricsRegistry().counter("things_total", "help", "kind");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCountersCannotGoDown() {
+    new MetricsRegistry().counter("things_total", "help").add(-1);
+  }
+
+  @Test
+  public void testCountingFromManyThreads() throws InterruptedException {
+    Counter counter = new MetricsRegistry().counter("things_total", "help");
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(() -> {
+        for (int n = 0; n < 100_000; n++) {
+          counter.increment();
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(400_000, counter.get());
+  }
+
+  @Test
+  public void testServedOverHttp() throws IOException {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("served_total", "Served.").add(7);
+    try (MetricsServer server = new MetricsServer(registry, 0)) {
+      URL url = new URL("http://127.0.0.1:" + server.getPort() + "/metrics");
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      Assert.assertEquals(200, connection.getResponseCode());
+      Assert.assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+      try (InputStream in = connection.getInputStream()) {
+        Assert.assertEquals(text(registry),
+            new String(in.readAllBytes(), StandardCharsets.UTF_8));
+      }
+      connection = (HttpURLConnection) url.openConnection();
+      connection.setRequestMethod("DELETE");
+      Assert.assertEquals(405, connection.getResponseCode());
+    }
+  }
+
+  @Test
+  public void testDecisionsAreLabelledByStrategyName() {
+    MetricsRegistry metrics = MetricsRegistry.DEFAULT;
+    Histogram ab = metrics.histogram("reversi_ai_decision_seconds", "",
+        Histogram.LATENCY_SECONDS, "strategy", "strategy5-ab");
+    Histogram mtdf = metrics.histogram("reversi_ai_decision_seconds", "",
+        Histogram.LATENCY_SECONDS, "strategy", "strategy5-mtdf");
+    long abBefore = ab.getCount();
+    long mtdfBefore = mtdf.getCount();
+    ReversiBoard board = new ReversiBoard(3);
+    board.startGame();
+    new AIPlayer(board, HexagonPlayer.BLACK, Strategies.named("strategy5-ab"), "strategy5-ab")
+        .play(0, 0);
+    Assert.assertEquals(abBefore + 1, ab.getCount());
+    Assert.assertEquals(mtdfBefore, mtdf.getCount());
+    new AIPlayer(board, HexagonPlayer.BLACK, Strategies.named("strategy5-mtdf"),
+        "strategy5-mtdf").play(0, 0);
+    Assert.assertEquals(abBefore + 1, ab.getCount());
+    Assert.assertEquals(mtdfBefore + 1, mtdf.getCount());
+  }
+
+  @Test
+  public void testGamesReportToTheDefaultRegistry() {
+    MetricsRegistry metrics = MetricsRegistry.DEFAULT;
+    Counter moves = metrics.counter("reversi_moves_total", "", "kind", "move");
+    Histogram decisions = metrics.histogram("reversi_ai_decision_seconds", "",
+        Histogram.LATENCY_SECONDS, "strategy", "SearchStrategy");
+    Counter nodes = metrics.counter("reversi_search_nodes_total", "",
+        "strategy", "SearchStrategy");
+    Counter probes = metrics.counter("reversi_cache_probes_total", "",
+        "cache", "transposition");
+    long movesBefore = moves.get();
+    long decisionsBefore = decisions.getCount();
+    long nodesBefore = nodes.get();
+    long probesBefore = probes.get();
+
+    ReversiBoard board = new ReversiBoard(4);
+    board.startGame();
+    AIPlayer black = new AIPlayer(board, HexagonPlayer.BLACK,
+        new SearchStrategy(3, Strategies::evaluator));
+    AIPlayer white = new AIPlayer(board, HexagonPlayer.WHITE, new AggressiveReversiStrategy());
+    int played = 0;
+    int searched = 0;
+    while (!board.isGameOver()) {
+      boolean blackToMove = black.isPlayerTurn();
+      Move move = blackToMove ? black.play(0, 0) : white.play(0, 0);
+      if (blackToMove) {
+        searched++;
+      }
+      if (move.getPass()) {
+        board.pass();
+      } else {
+        board.play(move.getQ(), move.getR(), move.getPlayer());
+        played++;
+      }
+    }
+    // other tests may play at the same time, so only lower bounds hold
+    Assert.assertTrue(moves.get() - movesBefore >= played);
+    Assert.assertTrue(decisions.getCount() - decisionsBefore >= searched);
+    Assert.assertTrue(nodes.get() > nodesBefore);
+    Assert.assertTrue(probes.get() > probesBefore);
+  }
+}
@@ -0,0 +1,159 @@
+import cs3500.reversi.eval.Evaluator;
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.MoveOrdering;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the move ordering of the search and that it never changes what the search finds.
+ */
+public class TestMoveOrdering {
+
+  @Test
+  public void testSquarePriors() {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 8);
+    int[] priors = MoveOrdering.priors(topology);
+    Assert.assertEquals(MoveOrdering.CORNER, priors[topology.cellId(0, 0)]);
+    Assert.assertEquals(MoveOrdering.CORNER, priors[topology.cellId(7, 7)]);
+    Assert.assertEquals(MoveOrdering.X_SQUARE, priors[topology.cellId(1, 1)]);
+    Assert.assertEquals(MoveOrdering.X_SQUARE, priors[topology.cellId(6, 1)]);
+    Assert.assertEquals(MoveOrdering.C_SQUARE, priors[topology.cellId(1, 0)]);
+    Assert.assertEquals(MoveOrdering.C_SQUARE, priors[topology.cellId(7, 6)]);
+    Assert.assertEquals(MoveOrdering.PLAIN, priors[topology.cellId(3, 0)]);
+    Assert.assertEquals(MoveOrdering.PLAIN, priors[topology.cellId(3, 4)]);
+  }
+
+  @Test
+  public void testHexagonPriors() {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 6);
+    int[] priors = MoveOrdering.priors(topology);
+    int corners = 0;
+    int xSquares = 0;
+    int cSquares = 0;
+    for (int prior : priors) {
+      corners += prior == MoveOrdering.CORNER ? 1 : 0;
+      xSquares += prior == MoveOrdering.X_SQUARE ? 1 : 0;
+      cSquares += prior == MoveOrdering.C_SQUARE ? 1 : 0;
+    }
+    // every corner of a hexagon has one neighbor inside the board and two along its edges
+    Assert.assertEquals(6, corners);
+    Assert.assertEquals(6, xSquares);
+    Assert.assertEquals(12, cSquares);
+    Assert.assertEquals(MoveOrdering.CORNER, priors[topology.cellId(5, 0)]);
+    Assert.assertEquals(MoveOrdering.X_SQUARE, priors[topology.cellId(5, 1)]);
+  }
+
+  @Test
+  public void testHashMoveAndKillersComeFirst() {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 8);
+    CompactBoard board = new CompactBoard(topology);
+    MoveOrdering ordering = new MoveOrdering(topology, 4);
+    int corner = topology.cellId(0, 0);
+    int xSquare = topology.cellId(1, 1);
+    int plain = topology.cellId(3, 3);
+    int killer = topology.cellId(4, 4);
+    int hashed = topology.cellId(1, 0);
+    int[] moves = {xSquare, plain, killer, corner, hashed};
+    ordering.store(board.getHash(), hashed);
+    ordering.cutoff(board, 2, killer, 3);
+    ordering.order(board, 2, moves, moves.length);
+    Assert.assertArrayEquals(new int[] {hashed, killer, corner, plain, xSquare}, moves);
+
+    Assert.assertEquals(hashed, ordering.hashMove(board.getHash()));
+    Assert.assertEquals(-1, ordering.hashMove(board.getHash() + 1));
+    // the killers belong to the last search, but the best moves are kept
+    ordering.newSearch();
+    moves = new int[] {xSquare, plain, killer};
+    ordering.order(board, 2, moves, moves.length);
+    Assert.assertEquals(xSquare, moves[2]);
+    Assert.assertEquals(hashed, ordering.hashMove(board.getHash()));
+  }
+
+  @Test
+  public void testHistoryOrdersPlainMoves() {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 6);
+    CompactBoard board = new CompactBoard(topology);
+    MoveOrdering ordering = new MoveOrdering(topology, 4);
+    int first = topology.cellId(5, 5);
+    int second = topology.cellId(6, 5);
+    // a cutoff deep in another ply counts in history but makes no killer here
+    ordering.cutoff(board, 7, second, 4);
+    int[] moves = {first, second};
+    ordering.order(board, 1, moves, moves.length);
+    Assert.assertArrayEquals(new int[] {second, first}, moves);
+  }
+
+  /**
+   * Scores a position to a fixed depth without pruning or ordering.
+   */
+  private int minimax(CompactBoard board, Evaluator evaluator, int depth, boolean passed) {
+    if (depth == 0) {
+      return evaluator.evaluate(board);
+    }
+    int[] moves = new int[board.getTopology().getCellCount()];
+    int count = board.legalMoves(moves);
+    if (count == 0) {
+      if (passed) {
+        return AlphaBetaSearch.finalScore(board);
+      }
+      board.pass();
+      int value = -minimax(board, evaluator, depth, true);
+      board.undo();
+      return value;
+    }
+    int best = -AlphaBetaSearch.INFINITY;
+    for (int i = 0; i < count; i++) {
+      board.play(moves[i]);
+      best = Math.max(best, -minimax(board, evaluator, depth - 1, false));
+      board.undo();
+    }
+    return best;
+  }
+
+  @Test
+  public void testOrderedSearchFindsTheMinimaxMove() {
+    Random random = new Random(41);
+    for (BoardShape shape : BoardShape.values()) {
+      BoardTopology topology = BoardTopology.of(shape, 6);
+      Evaluator evaluator = PatternEvaluator.defaults(topology);
+      Evaluator reference = PatternEvaluator.defaults(topology);
+      AlphaBetaSearch search = new AlphaBetaSearch(evaluator);
+      ReversiBoard model = shape.newBoard(6);
+      model.startGame();
+      CompactBoard board = CompactBoard.of(model);
+      int[] moves = new int[topology.getCellCount()];
+      for (int ply = 0; ply < 14 && !board.isGameOver(); ply++) {
+        int move = search.search(board, 3);
+        int count = board.legalMoves(moves);
+        if (count == 0) {
+          Assert.assertEquals(CompactBoard.PASS, move);
+          board.pass();
+          continue;
+        }
+        reference.attach(board);
+        int best = -AlphaBetaSearch.INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+          board.play(moves[i]);
+          int value = -minimax(board, reference, 2, false);
+          board.undo();
+          if (value > best) {
+            best = value;
+            bestMove = moves[i];
+          }
+        }
+        reference.detach();
+        // the same value, and between equal moves the one on the lowest cell
+        Assert.assertEquals(best, search.getScore());
+        Assert.assertEquals(bestMove, move);
+        board.play(moves[random.nextInt(count)]);
+      }
+    }
+  }
+}
@@ -0,0 +1,137 @@
+import cs3500.reversi.model.Hexagon;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.MockReversiModel;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.model.ReversiMutableModel;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import cs3500.reversi.model.ReversiSquareBoard;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests scoring all the moves of a player in one pass over the model.
+ */
+public class TestMoveScoring {
+
+  /**
+   * Counts the moves of a player by asking the model about every position.
+   */
+  private int countMoves(ReversiReadOnlyModel model, HexagonPlayer player) {
+    Hexagon[][] hexList = model.getHexList();
+    int moves = 0;
+    for (int r = 0; r < model.getArrayWidth(); r++) {
+      for (int q = 0; q < model.getArrayWidth(); q++) {
+        if (hexList[r][q] != null && model.canMove(q, r, player)) {
+          moves++;
+        }
+      }
+    }
+    return moves;
+  }
+
+  /**
+   * Checks the scores of the player to move against playing every move on a copy.
+   */
+  private void checkScores(ReversiBoard model) {
+    HexagonPlayer player = model.getCurrentPlayer();
+    HexagonPlayer opponent =
+        player == HexagonPlayer.BLACK ? HexagonPlayer.WHITE : HexagonPlayer.BLACK;
+    int width = model.getArrayWidth();
+    int[] scores = model.scoreMovesWithMobility(player);
+    Assert.assertArrayEquals(model.scoreMoves(player), Arrays.copyOf(scores, width * width));
+    Hexagon[][] hexList = model.getHexList();
+    for (int r = 0; r < width; r++) {
+      for (int q = 0; q < width; q++) {
+        int cell = r * width + q;
+        if (hexList[r][q] == null || !model.canMove(q, r, player)) {
+          Assert.assertEquals(0, scores[cell]);
+          Assert.assertEquals(0, scores[width * width + cell]);
+          continue;
+        }
+        ReversiMutableModel copy = model.mutableCopy();
+        copy.play(q, r, player);
+        Assert.assertEquals(copy.getScore(player) - model.getScore(player) - 1, scores[cell]);
+        Assert.assertEquals(countMoves((ReversiReadOnlyModel) copy, opponent),
+            scores[width * width + cell]);
+      }
+    }
+  }
+
+  private void playRandomly(ReversiBoard model, Random random) {
+    model.startGame();
+    while (!model.isGameOver()) {
+      checkScores(model);
+      HexagonPlayer player = model.getCurrentPlayer();
+      int[] scores = model.scoreMoves(player);
+      int width = model.getArrayWidth();
+      int moves = 0;
+      for (int score : scores) {
+        moves += score > 0 ? 1 : 0;
+      }
+      if (moves == 0) {
+        model.pass();
+        continue;
+      }
+      int pick = random.nextInt(moves);
+      for (int cell = 0; cell < scores.length; cell++) {
+        if (scores[cell] > 0 && pick-- == 0) {
+          model.play(cell % width, cell / width, player);
+          break;
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testScoresMatchPlayingOnACopyOnHexagons() {
+    Random random = new Random(39);
+    for (int game = 0; game < 4; game++) {
+      playRandomly(new ReversiBoard(4 + game % 2), random);
+    }
+  }
+
+  @Test
+  public void testScoresMatchPlayingOnACopyOnSquares() {
+    Random random = new Random(39);
+    for (int game = 0; game < 4; game++) {
+      playRandomly(new ReversiSquareBoard(6 + 2 * (game % 2)), random);
+    }
+  }
+
+  @Test
+  public void testScoringLeavesTheBoardAsFound() {
+    ReversiBoard model = new ReversiBoard(5);
+    model.startGame();
+    String before = Arrays.deepToString(model.getHexList());
+    model.scoreMovesWithMobility(HexagonPlayer.BLACK);
+    Assert.assertEquals(before, Arrays.deepToString(model.getHexList()));
+    Assert.assertEquals(HexagonPlayer.BLACK, model.getCurrentPlayer());
+  }
+
+  @Test
+  public void testScoresIgnoreWhoseTurnItIs() {
+    ReversiBoard model = new ReversiBoard(4);
+    model.startGame();
+    int[] scores = model.scoreMoves(HexagonPlayer.WHITE);
+    int legal = 0;
+    for (int score : scores) {
+      Assert.assertTrue(score == 0 || score == 1);
+      legal += score;
+    }
+    Assert.assertEquals(countMoves(model, HexagonPlayer.WHITE), legal);
+    Assert.assertEquals(0, model.scoreMoves(HexagonPlayer.NONE)[0]);
+  }
+
+  @Test
+  public void testMockRecordsScoredMovesInOrder() {
+    ReversiBoard board = new ReversiBoard(4);
+    board.startGame();
+    MockReversiModel mock = new MockReversiModel(board);
+    mock.scoreMoves(HexagonPlayer.BLACK);
+    Assert.assertEquals(6, mock.getInspectedPossibleMoves().size());
+    Assert.assertEquals(Integer.valueOf(4), mock.getInspectedPossibleMoves().get(0).getKey());
+    Assert.assertEquals(Integer.valueOf(1), mock.getInspectedPossibleMoves().get(0).getValue());
+  }
+}
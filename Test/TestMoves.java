@@ -0,0 +1,99 @@
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.strategy.AvoidCornersStrategy;
+import cs3500.reversi.strategy.Candidates;
+import cs3500.reversi.strategy.GoForCornersStrategy;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Moves;
+import cs3500.reversi.strategy.Strategies;
+import cs3500.reversi.strategy.TryTwo;
+import java.lang.management.ManagementFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests encoding moves as ints and sharing the Move objects of a board.
+ */
+public class TestMoves {
+
+  @Test
+  public void testCodesRoundTrip() {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 4);
+    Moves moves = Moves.of(topology);
+    for (int cell = 0; cell < topology.getCellCount(); cell++) {
+      for (HexagonPlayer player : new HexagonPlayer[] {HexagonPlayer.BLACK,
+          HexagonPlayer.WHITE}) {
+        int code = Moves.encode(cell, player);
+        Assert.assertFalse(Moves.isPass(code));
+        Assert.assertEquals(cell, Moves.getCell(code));
+        Assert.assertEquals(player, Moves.getPlayer(code));
+        Move move = moves.get(code);
+        Assert.assertEquals(topology.getQ(cell), move.getQ());
+        Assert.assertEquals(topology.getR(cell), move.getR());
+        Assert.assertEquals(player, move.getPlayer());
+        Assert.assertEquals(code, moves.encode(move));
+        Assert.assertEquals(code, moves.encode(move.getQ(), move.getR(), player));
+      }
+    }
+    int pass = Moves.encodePass(HexagonPlayer.WHITE);
+    Assert.assertTrue(Moves.isPass(pass));
+    Assert.assertEquals(HexagonPlayer.WHITE, Moves.getPlayer(pass));
+    Assert.assertTrue(moves.get(pass).getPass());
+    Assert.assertEquals(pass, moves.encode(new Move(true, HexagonPlayer.WHITE)));
+  }
+
+  @Test
+  public void testMovesAreShared() {
+    Moves moves = Moves.of(BoardTopology.of(BoardShape.SQUARE, 6));
+    Assert.assertSame(moves, Moves.of(BoardTopology.of(BoardShape.SQUARE, 6)));
+    Assert.assertSame(moves.get(7, HexagonPlayer.BLACK), moves.get(7, HexagonPlayer.BLACK));
+    Assert.assertNotSame(moves.get(7, HexagonPlayer.BLACK), moves.get(7, HexagonPlayer.WHITE));
+    Assert.assertSame(Moves.pass(HexagonPlayer.BLACK), moves.get(Moves.encodePass(
+        HexagonPlayer.BLACK)));
+
+    ReversiBoard model = new ReversiBoard(4);
+    model.startGame();
+    Move chosen = new AIPlayer(model, HexagonPlayer.BLACK, Strategies.named("strategy1"))
+        .play(0, 0);
+    Assert.assertSame(Moves.of(model).get(Moves.of(model).encode(chosen)), chosen);
+    Assert.assertSame(Moves.pass(HexagonPlayer.WHITE),
+        new AIPlayer(model, HexagonPlayer.WHITE, Strategies.named("strategy1")).play(0, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoMoveOffTheBoard() {
+    Moves.of(BoardTopology.of(BoardShape.HEXAGON, 4)).encode(0, 0, HexagonPlayer.BLACK);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoMoveWithoutPlayer() {
+    Moves.encode(0, HexagonPlayer.NONE);
+  }
+
+  @Test
+  public void testChoosingAllocatesNothing() {
+    ReversiBoard model = new ReversiBoard(5);
+    model.startGame();
+    Candidates candidates = Candidates.of(model, HexagonPlayer.BLACK);
+    TryTwo strategy = new TryTwo(new GoForCornersStrategy(), new AvoidCornersStrategy());
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+    int id = Candidates.NONE;
+    for (int i = 0; i < 20_000; i++) {
+      id = strategy.choose(candidates);
+    }
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < 20_000; i++) {
+      id = strategy.choose(candidates);
+      candidates.toMove(id);
+    }
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+    Assert.assertNotEquals(Candidates.NONE, id);
+    // a few bytes of slack for the measuring itself, far less than one object per choice
+    Assert.assertTrue("allocated " + allocated + " bytes", allocated < 20_000);
+  }
+}
@@ -0,0 +1,155 @@
+import cs3500.reversi.book.OpeningBook;
+import cs3500.reversi.book.OpeningBookBuilder;
+import cs3500.reversi.book.OpeningBookStrategy;
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.model.ReversiSquareBoard;
+import cs3500.reversi.record.GameArchive;
+import cs3500.reversi.record.GameArchiveWriter;
+import cs3500.reversi.selfplay.SampleWriter;
+import cs3500.reversi.search.SearchStrategy;
+import cs3500.reversi.selfplay.SelfPlayGenerator;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Strategies;
+import cs3500.reversi.strategy.TryTwo;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests building an opening book from archived self-play games and playing from it.
+ */
+public class TestOpeningBook {
+  static final int GAMES = 12;
+
+  BoardTopology topology;
+  Path bookFile;
+
+  @Before
+  public void setup() throws Exception {
+    topology = BoardTopology.of(BoardShape.HEXAGON, 4);
+    Path directory = Files.createTempDirectory("book");
+    Path archiveBase = directory.resolve("games");
+    try (GameArchiveWriter archive = new GameArchiveWriter(archiveBase);
+        SampleWriter samples = new SampleWriter(new ByteArrayOutputStream(), topology)) {
+      new SelfPlayGenerator(topology,
+          Collections.singletonList(new String[] {"strategy1", "strategy12"}), 3, false, 5)
+          .run(GAMES, 2, samples, archive);
+    }
+    OpeningBookBuilder builder = new OpeningBookBuilder(topology, 6);
+    try (GameArchive archive = new GameArchive(archiveBase)) {
+      Assert.assertEquals(GAMES, builder.add(archive, 2));
+    }
+    bookFile = directory.resolve("book.bin");
+    builder.write(bookFile);
+  }
+
+  private byte[] cellsOf(ReversiBoard board) {
+    byte[] cells = new byte[topology.getCellCount()];
+    topology.readCells(board, cells);
+    return cells;
+  }
+
+  @Test
+  public void testEveryGameReachesTheStartingPosition() throws IOException {
+    ReversiBoard board = new ReversiBoard(4);
+    board.startGame();
+    try (OpeningBook book = new OpeningBook(bookFile)) {
+      Assert.assertSame(topology, book.getTopology());
+      int entry = book.find(cellsOf(board), BoardTopology.BLACK);
+      Assert.assertTrue(entry >= 0);
+      Assert.assertEquals(GAMES, book.getGames(entry));
+      Assert.assertTrue(book.getWins(entry, HexagonPlayer.BLACK)
+          + book.getWins(entry, HexagonPlayer.WHITE) <= GAMES);
+      Assert.assertEquals(1.0, book.getScore(entry, HexagonPlayer.BLACK)
+          + book.getScore(entry, HexagonPlayer.WHITE), 1e-9);
+    }
+  }
+
+  @Test
+  public void testSymmetricPositionsShareAnEntry() throws IOException {
+    ReversiBoard board = new ReversiBoard(4);
+    board.startGame();
+    Move move = new AggressiveReversiStrategy().chooseMove(board, HexagonPlayer.BLACK);
+    board.play(move.getQ(), move.getR(), HexagonPlayer.BLACK);
+    byte[] cells = cellsOf(board);
+    BoardSymmetries symmetries = BoardSymmetries.of(topology);
+    long hash = symmetries.canonicalHash(cells, BoardTopology.WHITE);
+    byte[] image = new byte[cells.length];
+    for (int symmetry = 0; symmetry < symmetries.size(); symmetry++) {
+      symmetries.transform(symmetry, cells, image);
+      Assert.assertEquals(hash, symmetries.canonicalHash(image, BoardTopology.WHITE));
+    }
+    Assert.assertNotEquals(hash, symmetries.canonicalHash(cells, BoardTopology.BLACK));
+  }
+
+  @Test
+  public void testBookMoveLeadsToABookPosition() throws IOException {
+    ReversiBoard board = new ReversiBoard(4);
+    board.startGame();
+    try (OpeningBook book = new OpeningBook(bookFile)) {
+      Move move = new OpeningBookStrategy(book, 1).chooseMove(board, HexagonPlayer.BLACK);
+      board.play(move.getQ(), move.getR(), HexagonPlayer.BLACK);
+      Assert.assertTrue(book.find(cellsOf(board), BoardTopology.WHITE) >= 0);
+    }
+  }
+
+  @Test
+  public void testFallsBackOutsideTheBook() throws IOException {
+    ReversiBoard board = new ReversiBoard(4);
+    board.startGame();
+    ReversiSquareBoard square = new ReversiSquareBoard(8);
+    square.startGame();
+    try (OpeningBook book = new OpeningBook(bookFile)) {
+      Assert.assertThrows(IllegalStateException.class,
+          () -> new OpeningBookStrategy(book, GAMES + 1).chooseMove(board, HexagonPlayer.BLACK));
+      Assert.assertThrows(IllegalStateException.class,
+          () -> new OpeningBookStrategy(book, 1).chooseMove(square, HexagonPlayer.BLACK));
+      Move move = new TryTwo(new OpeningBookStrategy(book, 1), new AggressiveReversiStrategy())
+          .chooseMove(square, HexagonPlayer.BLACK);
+      Assert.assertTrue(square.canMove(move.getQ(), move.getR(), HexagonPlayer.BLACK));
+    }
+  }
+
+  @Test
+  public void testStrategy5PlaysBookMovesWithoutSearching() throws IOException {
+    Path directory = Files.createTempDirectory("weights");
+    Files.copy(bookFile, directory.resolve(OpeningBook.fileName(topology)));
+    String previous = System.getProperty(BoardFiles.DIRECTORY_PROPERTY);
+    System.setProperty(BoardFiles.DIRECTORY_PROPERTY, directory.toString());
+    try {
+      ReversiBoard board = new ReversiBoard(4);
+      board.startGame();
+      SearchStrategy strategy = (SearchStrategy) Strategies.named("strategy5");
+      Move move = strategy.chooseMove(board, HexagonPlayer.BLACK);
+      Assert.assertEquals(0, strategy.getNodes());
+      try (OpeningBook book = new OpeningBook(bookFile)) {
+        Move expected = new OpeningBookStrategy(book, Strategies.BOOK_MIN_GAMES)
+            .chooseMove(board, HexagonPlayer.BLACK);
+        Assert.assertEquals(expected.getQ(), move.getQ());
+        Assert.assertEquals(expected.getR(), move.getR());
+      }
+      // a board without a book is searched
+      ReversiSquareBoard square = new ReversiSquareBoard(6);
+      square.startGame();
+      strategy.chooseMove(square, HexagonPlayer.BLACK);
+      Assert.assertTrue(strategy.getNodes() > 0);
+    } finally {
+      if (previous == null) {
+        System.clearProperty(BoardFiles.DIRECTORY_PROPERTY);
+      } else {
+        System.setProperty(BoardFiles.DIRECTORY_PROPERTY, previous);
+      }
+    }
+  }
+}
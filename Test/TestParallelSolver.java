@@ -0,0 +1,81 @@
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.ParallelSolver;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that solving endgames on several threads finds what solving on one does.
+ */
+public class TestParallelSolver {
+
+  /**
+   * Plays random moves from the start until a number of empties is left, or to the last
+   * position before the game ended if it ended first.
+   */
+  private static CompactBoard endgame(BoardTopology topology, int empties, Random random) {
+    int[] moves = new int[topology.getCellCount()];
+    ReversiBoard model = topology.getShape().newBoard(topology.getSize());
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    CompactBoard last = board.copy();
+    while (!board.isGameOver() && board.getEmptyCount() > empties) {
+      last = board.copy();
+      int count = board.legalMoves(moves);
+      if (count == 0) {
+        board.pass();
+      } else {
+        board.play(moves[random.nextInt(count)]);
+      }
+    }
+    return board.isGameOver() ? last : board;
+  }
+
+  @Test
+  public void testSameMoveAndScore() {
+    Random random = new Random(45);
+    for (BoardShape shape : BoardShape.values()) {
+      BoardTopology topology = BoardTopology.of(shape, shape == BoardShape.SQUARE ? 6 : 5);
+      AlphaBetaSearch sequential = new AlphaBetaSearch(null);
+      // splitting this low exercises the parallel part rather than the sequential searches
+      try (ParallelSolver parallel = new ParallelSolver(4, 4)) {
+        for (int game = 0; game < 6; game++) {
+          CompactBoard board = endgame(topology, 8 + game, random);
+          long hash = board.getHash();
+          int expected = sequential.solve(board);
+          int move = parallel.solve(board);
+          String where = shape + " with " + board.getEmptyCount() + " empties";
+          Assert.assertEquals(where, sequential.getScore(), parallel.getScore());
+          Assert.assertEquals(where, expected, move);
+          Assert.assertEquals(hash, board.getHash());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFinishedGame() {
+    // neither side can move on a board of black discs with one empty cell
+    ReversiBoard model = BoardShape.SQUARE.newBoard(4);
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    byte[] cells = new byte[board.getTopology().getCellCount()];
+    Arrays.fill(cells, BoardTopology.BLACK);
+    cells[0] = BoardTopology.EMPTY;
+    board.set(cells, BoardTopology.WHITE);
+    try (ParallelSolver parallel = new ParallelSolver(2)) {
+      Assert.assertEquals(CompactBoard.PASS, parallel.solve(board));
+      Assert.assertEquals(AlphaBetaSearch.finalScore(board), parallel.getScore());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new ParallelSolver(0);
+  }
+}
@@ -0,0 +1,208 @@
+import cs3500.reversi.eval.FrontierTracker;
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.eval.PatternSet;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.SearchStrategy;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.Move;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the compact search board, the pattern and mobility evaluation and the search strategy
+ * built on them.
+ */
+public class TestPatternEvaluation {
+
+  /**
+   * Plays an aggressive game on a model and the same moves on a compact board, checking that
+   * they agree after every move, then undoes every move.
+   */
+  private void playAlong(BoardShape shape, int size) {
+    ReversiBoard model = shape.newBoard(size);
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    BoardTopology topology = board.getTopology();
+    byte[] start = new byte[topology.getCellCount()];
+    board.copyCells(start);
+    long startHash = board.getHash();
+    AIPlayer black = new AIPlayer(model, HexagonPlayer.BLACK, new AggressiveReversiStrategy());
+    AIPlayer white = new AIPlayer(model, HexagonPlayer.WHITE, new AggressiveReversiStrategy());
+    byte[] expected = new byte[topology.getCellCount()];
+    byte[] actual = new byte[topology.getCellCount()];
+    while (!model.isGameOver()) {
+      Move move = black.isPlayerTurn() ? black.play(0, 0) : white.play(0, 0);
+      if (move.getPass()) {
+        model.pass();
+        board.pass();
+      } else {
+        model.play(move.getQ(), move.getR(), move.getPlayer());
+        board.play(topology.cellId(move.getQ(), move.getR()));
+      }
+      topology.readCells(model, expected);
+      board.copyCells(actual);
+      Assert.assertArrayEquals(expected, actual);
+      Assert.assertEquals(BoardTopology.colorOf(model.getCurrentPlayer()), board.getSideToMove());
+      Assert.assertEquals(topology.hash(actual, board.getSideToMove()), board.getHash());
+    }
+    Assert.assertTrue(board.isGameOver());
+    while (board.getPly() > 0) {
+      board.undo();
+    }
+    board.copyCells(actual);
+    Assert.assertArrayEquals(start, actual);
+    Assert.assertEquals(startHash, board.getHash());
+  }
+
+  @Test
+  public void testCompactBoardFollowsTheModel() {
+    playAlong(BoardShape.HEXAGON, 5);
+    playAlong(BoardShape.SQUARE, 6);
+  }
+
+  @Test
+  public void testPatternsCoverEveryCornerOnce() {
+    PatternSet hexagon = PatternSet.of(BoardTopology.of(BoardShape.HEXAGON, 6));
+    PatternSet square = PatternSet.of(BoardTopology.of(BoardShape.SQUARE, 8));
+    int[] hexagonCounts = new int[PatternSet.CLASS_NAMES.size()];
+    for (int p = 0; p < hexagon.size(); p++) {
+      hexagonCounts[hexagon.getClass(p)]++;
+    }
+    int[] squareCounts = new int[PatternSet.CLASS_NAMES.size()];
+    for (int p = 0; p < square.size(); p++) {
+      squareCounts[square.getClass(p)]++;
+    }
+    // edges are shared by two corners, corner regions are not
+    Assert.assertEquals(6, hexagonCounts[0]);
+    Assert.assertEquals(6, hexagonCounts[3]);
+    Assert.assertEquals(4, squareCounts[0]);
+    Assert.assertEquals(4, squareCounts[3]);
+    Assert.assertEquals(6, hexagon.getTopology().getCorners().length);
+    Assert.assertEquals(PatternSet.MAX_LENGTH, square.getClassLength(0));
+  }
+
+  @Test
+  public void testIncrementalScoreMatchesAFreshEvaluation() {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 5);
+    ReversiBoard model = new ReversiBoard(5);
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    PatternEvaluator incremental = PatternEvaluator.defaults(topology);
+    PatternEvaluator fresh = PatternEvaluator.defaults(topology);
+    incremental.attach(board);
+    int[] moves = new int[topology.getCellCount()];
+    while (!board.isGameOver()) {
+      int count = board.legalMoves(moves);
+      if (count == 0) {
+        board.pass();
+      } else {
+        board.play(moves[count / 2]);
+      }
+      CompactBoard copy = board.copy();
+      fresh.attach(copy);
+      Assert.assertEquals(fresh.evaluate(copy), incremental.evaluate(board));
+    }
+    while (board.getPly() > 0) {
+      board.undo();
+    }
+    CompactBoard copy = board.copy();
+    fresh.attach(copy);
+    Assert.assertEquals(fresh.evaluate(copy), incremental.evaluate(board));
+  }
+
+  /**
+   * Checks the tracker's counts against counting them on the whole board.
+   */
+  private void assertTrackerCounts(FrontierTracker tracker, CompactBoard board) {
+    BoardTopology topology = board.getTopology();
+    int[] moves = new int[topology.getCellCount()];
+    for (int color = BoardTopology.BLACK; color <= BoardTopology.WHITE; color++) {
+      int opponent = BoardTopology.BLACK + BoardTopology.WHITE - color;
+      int frontier = 0;
+      int potential = 0;
+      for (int cell = 0; cell < topology.getCellCount(); cell++) {
+        boolean emptyNeighbor = false;
+        boolean opponentNeighbor = false;
+        for (int d = 0; d < topology.getDirectionCount(); d++) {
+          int next = topology.neighbor(cell, d);
+          emptyNeighbor |= next >= 0 && board.get(next) == BoardTopology.EMPTY;
+          opponentNeighbor |= next >= 0 && board.get(next) == opponent;
+        }
+        if (board.get(cell) == color && emptyNeighbor) {
+          frontier++;
+        }
+        if (board.get(cell) == BoardTopology.EMPTY && opponentNeighbor) {
+          potential++;
+        }
+      }
+      Assert.assertEquals(frontier, tracker.getFrontier(color));
+      Assert.assertEquals(potential, tracker.getPotentialMobility(color));
+    }
+    Assert.assertEquals(board.legalMoves(moves), tracker.getMobility(board.getSideToMove()));
+  }
+
+  @Test
+  public void testFrontierTrackerFollowsMovesAndUndo() {
+    for (BoardShape shape : BoardShape.values()) {
+      ReversiBoard model = shape.newBoard(6);
+      model.startGame();
+      CompactBoard board = CompactBoard.of(model);
+      FrontierTracker tracker = new FrontierTracker(board.getTopology());
+      tracker.attach(board);
+      int[] moves = new int[board.getTopology().getCellCount()];
+      while (!board.isGameOver()) {
+        assertTrackerCounts(tracker, board);
+        int count = board.legalMoves(moves);
+        if (count == 0) {
+          board.pass();
+        } else {
+          board.play(moves[count - 1]);
+        }
+      }
+      while (board.getPly() > 0) {
+        board.undo();
+        assertTrackerCounts(tracker, board);
+      }
+    }
+  }
+
+  @Test
+  public void testSearchTakesAFreeCorner() {
+    // black can take the top left corner, flipping the white disc next to it
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 6);
+    CompactBoard board = new CompactBoard(topology);
+    byte[] cells = new byte[topology.getCellCount()];
+    cells[topology.cellId(1, 0)] = BoardTopology.WHITE;
+    cells[topology.cellId(2, 0)] = BoardTopology.BLACK;
+    cells[topology.cellId(3, 3)] = BoardTopology.WHITE;
+    cells[topology.cellId(3, 2)] = BoardTopology.BLACK;
+    board.set(cells, BoardTopology.BLACK);
+    AlphaBetaSearch search = new AlphaBetaSearch(PatternEvaluator.defaults(topology));
+    Assert.assertEquals(topology.cellId(0, 0), search.search(board, 2));
+    Assert.assertEquals(0, board.getPly());
+  }
+
+  @Test
+  public void testSearchStrategyPlaysLegalMoves() {
+    ReversiBoard model = new ReversiBoard(4);
+    model.startGame();
+    AIPlayer black = new AIPlayer(model, HexagonPlayer.BLACK,
+        new SearchStrategy(3, PatternEvaluator::defaults));
+    AIPlayer white = new AIPlayer(model, HexagonPlayer.WHITE, new AggressiveReversiStrategy());
+    while (!model.isGameOver()) {
+      Move move = black.isPlayerTurn() ? black.play(0, 0) : white.play(0, 0);
+      if (move.getPass()) {
+        model.pass();
+      } else {
+        Assert.assertTrue(model.canMove(move.getQ(), move.getR(), move.getPlayer()));
+        model.play(move.getQ(), move.getR(), move.getPlayer());
+      }
+    }
+  }
+}
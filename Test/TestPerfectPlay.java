@@ -0,0 +1,195 @@
+import cs3500.reversi.book.PerfectPlayBuilder;
+import cs3500.reversi.book.PerfectPlayDatabase;
+import cs3500.reversi.book.PerfectPlayStrategy;
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.SearchStrategy;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Strategies;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests solving small boards completely and playing from the result.
+ */
+public class TestPerfectPlay {
+
+  /**
+   * Gets the disc differential of a solved score.
+   */
+  private static int differential(int score) {
+    return (score - Integer.signum(score) * AlphaBetaSearch.WIN) / 100;
+  }
+
+  private static CompactBoard start(BoardTopology topology) {
+    ReversiBoard model = topology.getShape().newBoard(topology.getSize());
+    model.startGame();
+    return CompactBoard.of(model);
+  }
+
+  @Test
+  public void testValuesMatchTheSolver() {
+    Random random = new Random(44);
+    for (BoardTopology topology : new BoardTopology[] {BoardTopology.of(BoardShape.SQUARE, 4),
+        BoardTopology.of(BoardShape.HEXAGON, 3)}) {
+      PerfectPlayBuilder builder = new PerfectPlayBuilder(topology);
+      Assert.assertTrue(builder.solve() > 0);
+      AlphaBetaSearch search = new AlphaBetaSearch(PatternEvaluator.defaults(topology));
+      byte[] cells = new byte[topology.getCellCount()];
+      int[] moves = new int[topology.getCellCount()];
+      for (int game = 0; game < 20; game++) {
+        CompactBoard board = start(topology);
+        while (!board.isGameOver()) {
+          search.solve(board);
+          board.copyCells(cells);
+          Assert.assertEquals(differential(search.getScore()),
+              builder.getValue(cells, board.getSideToMove()));
+          int count = board.legalMoves(moves);
+          if (count == 0) {
+            board.pass();
+          } else {
+            board.play(moves[random.nextInt(count)]);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDatabaseFile() throws IOException {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 4);
+    PerfectPlayBuilder builder = new PerfectPlayBuilder(topology);
+    Path file = Files.createTempFile("reversi", ".perfect");
+    try {
+      builder.write(file);
+      try (PerfectPlayDatabase database = new PerfectPlayDatabase(file)) {
+        Assert.assertSame(topology, database.getTopology());
+        Assert.assertEquals(builder.solve(), database.size());
+        CompactBoard board = start(topology);
+        byte[] cells = new byte[topology.getCellCount()];
+        board.copyCells(cells);
+        Assert.assertEquals(builder.getValue(cells, board.getSideToMove()),
+            database.getValue(cells, board.getSideToMove()));
+        // an empty board is never reached
+        Arrays.fill(cells, BoardTopology.EMPTY);
+        Assert.assertEquals(PerfectPlayDatabase.UNKNOWN,
+            database.getValue(cells, BoardTopology.WHITE));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotADatabase() throws IOException {
+    Path file = Files.createTempFile("reversi", ".perfect");
+    try {
+      Files.write(file, new byte[64]);
+      new PerfectPlayDatabase(file).close();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLargeBoardsAreRefused() {
+    new PerfectPlayBuilder(BoardTopology.of(BoardShape.SQUARE, 6));
+  }
+
+  @Test
+  public void testPerfectPlayGetsTheValue() throws IOException {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 4);
+    Path file = Files.createTempFile("reversi", ".perfect");
+    try {
+      new PerfectPlayBuilder(topology).write(file);
+      try (PerfectPlayDatabase database = new PerfectPlayDatabase(file)) {
+        ReversiBoard model = BoardShape.SQUARE.newBoard(4);
+        model.startGame();
+        byte[] cells = new byte[topology.getCellCount()];
+        topology.readCells(model, cells);
+        int value = database.getValue(cells, BoardTopology.colorOf(model.getCurrentPlayer()));
+        HexagonPlayer perfect = model.getCurrentPlayer();
+        AIPlayer first = new AIPlayer(model, perfect, new PerfectPlayStrategy(database));
+        AIPlayer second = new AIPlayer(model, perfect == HexagonPlayer.BLACK
+            ? HexagonPlayer.WHITE : HexagonPlayer.BLACK, Strategies.named("strategy1"));
+        while (!model.isGameOver()) {
+          AIPlayer player = model.getCurrentPlayer() == perfect ? first : second;
+          Move move = player.play(0, 0);
+          if (move.getPass()) {
+            model.pass();
+          } else {
+            model.play(move.getQ(), move.getR(), move.getPlayer());
+          }
+        }
+        HexagonPlayer other = perfect == HexagonPlayer.BLACK ? HexagonPlayer.WHITE
+            : HexagonPlayer.BLACK;
+        // the opponent can only do worse than perfect play
+        Assert.assertTrue(model.getScore(perfect) - model.getScore(other) >= value);
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testOtherBoard() throws IOException {
+    Path file = Files.createTempFile("reversi", ".perfect");
+    try {
+      new PerfectPlayBuilder(BoardTopology.of(BoardShape.HEXAGON, 3)).write(file);
+      try (PerfectPlayDatabase database = new PerfectPlayDatabase(file)) {
+        ReversiBoard model = BoardShape.SQUARE.newBoard(4);
+        model.startGame();
+        new PerfectPlayStrategy(database).chooseMove(model, HexagonPlayer.BLACK);
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testStrategy5PlaysPerfectlyOnSolvedBoards() throws IOException {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 4);
+    Path directory = Files.createTempDirectory("weights");
+    Path file = directory.resolve(PerfectPlayDatabase.fileName(topology));
+    new PerfectPlayBuilder(topology).write(file);
+    String previous = System.getProperty(BoardFiles.DIRECTORY_PROPERTY);
+    System.setProperty(BoardFiles.DIRECTORY_PROPERTY, directory.toString());
+    try (PerfectPlayDatabase database = new PerfectPlayDatabase(file)) {
+      SearchStrategy strategy = (SearchStrategy) Strategies.named("strategy5-mtdf");
+      PerfectPlayStrategy perfect = new PerfectPlayStrategy(database);
+      ReversiBoard model = BoardShape.SQUARE.newBoard(4);
+      model.startGame();
+      while (!model.isGameOver()) {
+        HexagonPlayer player = model.getCurrentPlayer();
+        if (!model.canMove(player)) {
+          model.pass();
+          continue;
+        }
+        Move move = strategy.chooseMove(model, player);
+        Move expected = perfect.chooseMove(model, player);
+        Assert.assertEquals(expected.getQ(), move.getQ());
+        Assert.assertEquals(expected.getR(), move.getR());
+        model.play(move.getQ(), move.getR(), player);
+      }
+      Assert.assertEquals(0, strategy.getNodes());
+    } finally {
+      if (previous == null) {
+        System.clearProperty(BoardFiles.DIRECTORY_PROPERTY);
+      } else {
+        System.setProperty(BoardFiles.DIRECTORY_PROPERTY, previous);
+      }
+    }
+  }
+}
@@ -78,17 +78,17 @@ public class TestPlayerStrategy {
     Assert.assertEquals(view.arrayHexString(),
         "          B   B   B   B   B   B   \n"
         + "        B   _   W   _   B   _   B   \n"
-        + "      B   B   B   W   B   B   B   B   \n"
+        + "      B   B   B   W   B   B   W   B   \n"
         + "    B   _   W   _   W   _   B   _   B   \n"
-        + "  W   B   W   W   W   B   B   B   B   B   \n"
-        + "W   _   B   _   W   _   W   _   B   _   B   \n"
-        + "  W   W   B   W   W   W   W   B   W   B   \n"
-        + "    W   _   B   _   W   _   B   _   B   \n"
-        + "      B   B   B   B   W   B   B   B   \n"
+        + "  B   B   B   W   W   W   W   B   W   B   \n"
+        + "B   _   B   _   W   _   W   _   B   _   B   \n"
+        + "  B   W   B   W   W   W   W   B   W   B   \n"
+        + "    B   _   W   _   W   _   B   _   B   \n"
+        + "      B   W   B   B   W   B   B   B   \n"
         + "        B   _   B   _   W   _   B   \n"
-        + "          B   B   B   B   B   B   \n"
-        + "Black Score = 50\n"
-        + "White Score = 22\n");
+        + "          B   B   B   B   W   B   \n"
+        + "Black Score = 48\n"
+        + "White Score = 24\n");
   }
 
   @Test
@@ -115,23 +115,23 @@ public class TestPlayerStrategy {
     }
 
     Assert.assertEquals(t.arrayHexString(),
-        "              W   W   W   W   B   B   B   B   \n"
-        + "            W   _   W   _   B   _   B   _   B   \n"
-        + "          W   B   B   B   B   B   B   B   B   B   \n"
-        + "        W   _   W   _   B   _   W   _   B   _   B   \n"
-        + "      W   W   B   B   B   B   B   B   B   B   W   B   \n"
-        + "    W   _   W   _   B   _   W   _   W   _   W   _   B   \n"
-        + "  W   W   W   W   B   B   B   B   B   W   W   W   B   B   \n"
-        + "W   _   W   _   W   _   W   _   W   _   W   _   B   _   W   \n"
-        + "  W   W   W   W   W   W   B   B   B   B   W   B   W   W   \n"
-        + "    W   _   W   _   W   _   W   _   B   _   B   _   W   \n"
-        + "      W   B   B   B   B   B   W   B   B   B   B   W   \n"
-        + "        W   _   B   _   W   _   W   _   B   _   W   \n"
-        + "          B   B   B   W   W   W   W   B   B   B   \n"
+        "              B   B   B   B   B   B   B   B   \n"
         + "            B   _   W   _   W   _   W   _   B   \n"
-        + "              B   W   B   B   B   B   B   B   \n"
-        + "Black Score = 71\n"
-        + "White Score = 61\n");
+        + "          B   B   B   W   B   B   B   B   B   B   \n"
+        + "        B   _   B   _   W   _   W   _   W   _   B   \n"
+        + "      B   W   W   W   W   W   W   W   W   W   W   B   \n"
+        + "    B   _   B   _   B   _   B   _   B   _   B   _   B   \n"
+        + "  B   W   W   W   W   W   W   W   W   W   B   B   B   B   \n"
+        + "B   _   B   _   W   _   W   _   W   _   B   _   B   _   B   \n"
+        + "  B   B   B   W   W   W   W   W   W   W   W   W   W   B   \n"
+        + "    B   _   W   _   W   _   W   _   W   _   W   _   B   \n"
+        + "      B   W   B   B   B   B   B   B   W   B   W   B   \n"
+        + "        B   _   B   _   W   _   B   _   W   _   B   \n"
+        + "          B   B   B   B   B   B   B   B   W   B   \n"
+        + "            B   _   B   _   W   _   B   _   W   \n"
+        + "              B   B   B   B   B   B   B   B   \n"
+        + "Black Score = 80\n"
+        + "White Score = 52\n");
   }
 
 
@@ -161,15 +161,15 @@ public class TestPlayerStrategy {
         "          B   B   B   B   B   B   \n"
             + "        B   _   W   _   B   _   B   \n"
             + "      B   B   B   W   B   B   B   B   \n"
-            + "    B   _   B   _   W   _   B   _   B   \n"
-            + "  W   B   W   W   W   B   B   B   B   B   \n"
-            + "W   _   B   _   W   _   W   _   B   _   W   \n"
-            + "  W   W   B   W   W   B   W   B   B   W   \n"
-            + "    W   _   B   _   W   _   W   _   W   \n"
-            + "      B   B   B   B   W   B   W   W   \n"
-            + "        B   _   B   _   W   _   W   \n"
-            + "          B   B   B   B   B   B   \n"
-            + "Black Score = 46\n"
+            + "    B   _   W   _   W   _   B   _   B   \n"
+            + "  B   B   B   W   W   W   W   B   B   B   \n"
+            + "_   _   B   _   W   _   W   _   B   _   B   \n"
+            + "  W   W   B   W   W   W   W   B   W   B   \n"
+            + "    W   _   B   _   W   _   B   _   B   \n"
+            + "      W   B   B   B   B   B   W   B   \n"
+            + "        W   _   B   _   B   _   B   \n"
+            + "          W   W   W   W   B   B   \n"
+            + "Black Score = 45\n"
             + "White Score = 26\n");
   }
 
@@ -192,19 +192,19 @@ public class TestPlayerStrategy {
       }
     }
     Assert.assertEquals(view.arrayHexString(),
-        "          W   W   W   W   W   W   \n"
-            + "        W   _   W   _   B   _   W   \n"
-            + "      W   B   B   W   B   W   B   W   \n"
-            + "    W   _   B   _   B   _   B   _   W   \n"
-            + "  W   W   B   W   B   W   B   B   B   W   \n"
-            + "B   _   W   _   B   _   B   _   W   _   W   \n"
-            + "  B   W   W   B   B   B   B   W   W   W   \n"
+        "          B   B   B   B   B   W   \n"
+            + "        B   _   W   _   B   _   W   \n"
+            + "      B   B   B   W   B   W   B   W   \n"
             + "    B   _   B   _   B   _   B   _   W   \n"
-            + "      B   B   W   B   B   W   B   W   \n"
+            + "  B   B   B   B   B   W   B   B   B   B   \n"
+            + "_   _   W   _   W   _   W   _   W   _   B   \n"
+            + "  B   B   B   B   W   W   W   W   W   B   \n"
+            + "    B   _   W   _   W   _   W   _   B   \n"
+            + "      B   W   W   B   W   B   W   B   \n"
             + "        B   _   B   _   B   _   W   \n"
-            + "          W   W   W   W   W   W   \n"
-            + "Black Score = 33\n"
-            + "White Score = 39\n");
+            + "          B   B   B   B   B   B   \n"
+            + "Black Score = 46\n"
+            + "White Score = 25\n");
   }
 
 }
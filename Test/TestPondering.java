@@ -0,0 +1,169 @@
+import cs3500.reversi.eval.Evaluator;
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.model.ReversiSquareBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.search.SearchStrategy;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.Candidates;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.ReversiStrategy;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that pondering during the opponent's turn never changes the moves a search strategy
+ * chooses, whether the opponent plays the predicted reply or not.
+ */
+public class TestPondering {
+
+  /**
+   * An evaluator that counts its evaluations, and those made on one thread.
+   */
+  private static final class CountingEvaluator implements Evaluator {
+    private final Evaluator delegate = PatternEvaluator.defaults(BoardTopology.of(
+        BoardShape.HEXAGON, 4));
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private final AtomicInteger onThread = new AtomicInteger();
+    private final Thread thread;
+
+    private CountingEvaluator(Thread thread) {
+      this.thread = thread;
+    }
+
+    @Override
+    public void attach(CompactBoard board) {
+      delegate.attach(board);
+    }
+
+    @Override
+    public void detach() {
+      delegate.detach();
+    }
+
+    @Override
+    public int evaluate(CompactBoard board) {
+      evaluations.incrementAndGet();
+      if (Thread.currentThread() == thread) {
+        onThread.incrementAndGet();
+      }
+      return delegate.evaluate(board);
+    }
+  }
+
+  /**
+   * Plays a game between a pondering black player and the given white strategy, checking every
+   * black move against a strategy that never ponders.
+   */
+  private SearchStrategy playAgainst(ReversiBoard model, ReversiStrategy white) {
+    model.startGame();
+    SearchStrategy pondering = new SearchStrategy(3, 6, PatternEvaluator::defaults);
+    SearchStrategy fresh = new SearchStrategy(3, 6, PatternEvaluator::defaults);
+    AIPlayer black = new AIPlayer(model, HexagonPlayer.BLACK, pondering);
+    AIPlayer other = new AIPlayer(model, HexagonPlayer.WHITE, white);
+    while (!model.isGameOver()) {
+      Move move = black.isPlayerTurn() ? black.play(0, 0) : other.play(0, 0);
+      if (move.getPass()) {
+        model.pass();
+        continue;
+      }
+      if (move.getPlayer() == HexagonPlayer.BLACK) {
+        Move expected = fresh.chooseMove(model, HexagonPlayer.BLACK);
+        Assert.assertEquals(expected.getQ(), move.getQ());
+        Assert.assertEquals(expected.getR(), move.getR());
+      }
+      model.play(move.getQ(), move.getR(), move.getPlayer());
+    }
+    pondering.stopPondering();
+    return pondering;
+  }
+
+  @Test
+  public void testPredictedRepliesUseThePonderedMove() {
+    // the opponent searches as deep as the ponderer predicts with, without pondering itself,
+    // so every prediction hits
+    SearchStrategy predictable = new SearchStrategy(2, PatternEvaluator::defaults);
+    SearchStrategy pondering = playAgainst(new ReversiBoard(4), predictable::chooseMove);
+    Assert.assertTrue(pondering.getPonderHits() > 0);
+    Assert.assertEquals(0, pondering.getPonderMisses());
+  }
+
+  @Test
+  public void testPredictedReplyTakesThePonderedMove() {
+    ReversiBoard model = new ReversiBoard(4);
+    model.startGame();
+    CountingEvaluator evaluator = new CountingEvaluator(Thread.currentThread());
+    SearchStrategy pondering = new SearchStrategy(3, topology -> evaluator);
+    AIPlayer white = new AIPlayer(model, HexagonPlayer.WHITE, pondering);
+    white.startObserverGame();
+    // a fresh search one move shallower predicts the same reply as white's first ponder
+    Move predicted = new SearchStrategy(2, PatternEvaluator::defaults)
+        .chooseMove(model, HexagonPlayer.BLACK);
+    model.play(predicted.getQ(), predicted.getR(), HexagonPlayer.BLACK);
+    long nodes = pondering.getNodes();
+    Move move = white.play(0, 0);
+    Assert.assertEquals(1, pondering.getPonderHits());
+    Assert.assertEquals(0, pondering.getPonderMisses());
+    // the move was searched while pondering, not again on the thread asking for it
+    Assert.assertEquals(0, evaluator.onThread.get());
+    Assert.assertTrue(pondering.getNodes() > nodes);
+    Move expected = new SearchStrategy(3, PatternEvaluator::defaults)
+        .chooseMove(model, HexagonPlayer.WHITE);
+    Assert.assertEquals(expected.getQ(), move.getQ());
+    Assert.assertEquals(expected.getR(), move.getR());
+  }
+
+  @Test
+  public void testMispredictedRepliesSearchAgain() {
+    Assert.assertTrue(playAgainst(new ReversiBoard(4), new AggressiveReversiStrategy())
+        .getPonderMisses() > 0);
+    playAgainst(new ReversiSquareBoard(6), new AggressiveReversiStrategy());
+  }
+
+  @Test
+  public void testAnotherReplyCancelsPonderingAtOnce() throws InterruptedException {
+    ReversiBoard model = new ReversiBoard(4);
+    model.startGame();
+    CountingEvaluator evaluator = new CountingEvaluator(Thread.currentThread());
+    SearchStrategy pondering = new SearchStrategy(3, topology -> evaluator);
+    AIPlayer white = new AIPlayer(model, HexagonPlayer.WHITE, pondering);
+    white.startObserverGame();
+    // let white predict black's reply before black plays
+    while (evaluator.evaluations.get() == 0) {
+      Thread.sleep(1);
+    }
+    // the count of a pondering still running is not read
+    Assert.assertEquals(0, pondering.getNodes());
+    Thread.sleep(20);
+    // black plays a move other than the one white predicts, if it got as far as predicting
+    Move predicted = new SearchStrategy(2, PatternEvaluator::defaults)
+        .chooseMove(model, HexagonPlayer.BLACK);
+    Candidates candidates = Candidates.of(model, HexagonPlayer.BLACK);
+    int other = candidates.get(0);
+    if (candidates.getQ(other) == predicted.getQ() && candidates.getR(other) == predicted.getR()) {
+      other = candidates.get(1);
+    }
+    model.play(candidates.getQ(other), candidates.getR(other), HexagonPlayer.BLACK);
+    Assert.assertEquals(1, pondering.getPonderMisses());
+    white.play(0, 0);
+    Assert.assertEquals(0, pondering.getPonderHits());
+    Assert.assertEquals(1, pondering.getPonderMisses());
+  }
+
+  @Test
+  public void testStopPonderingWithoutPondering() {
+    SearchStrategy strategy = new SearchStrategy(2, PatternEvaluator::defaults);
+    strategy.stopPondering();
+    ReversiBoard model = new ReversiBoard(4);
+    model.startGame();
+    strategy.ponder(model, HexagonPlayer.WHITE);
+    strategy.ponder(model, HexagonPlayer.WHITE);
+    strategy.stopPondering();
+    Assert.assertTrue(model.canMove(HexagonPlayer.BLACK));
+  }
+}
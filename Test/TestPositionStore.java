@@ -0,0 +1,193 @@
+import cs3500.reversi.book.PositionQuery;
+import cs3500.reversi.book.PositionStore;
+import cs3500.reversi.book.PositionStoreBuilder;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.record.GameArchive;
+import cs3500.reversi.record.GameArchiveWriter;
+import cs3500.reversi.selfplay.SampleWriter;
+import cs3500.reversi.selfplay.SelfPlayGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests building a position store from archived self-play games and querying it.
+ */
+public class TestPositionStore {
+  static final int GAMES = 12;
+
+  BoardTopology topology;
+  Path storeFile;
+  int positions;
+
+  @Before
+  public void setup() throws Exception {
+    topology = BoardTopology.of(BoardShape.HEXAGON, 4);
+    Path directory = Files.createTempDirectory("store");
+    Path archiveBase = directory.resolve("games");
+    try (GameArchiveWriter archive = new GameArchiveWriter(archiveBase);
+        SampleWriter samples = new SampleWriter(new ByteArrayOutputStream(), topology)) {
+      new SelfPlayGenerator(topology,
+          Collections.singletonList(new String[] {"strategy1", "strategy12"}), 3, false, 5)
+          .run(GAMES, 2, samples, archive);
+    }
+    // small segments, so that queries span several of them
+    PositionStoreBuilder builder = new PositionStoreBuilder(topology, 16);
+    try (GameArchive archive = new GameArchive(archiveBase)) {
+      Assert.assertEquals(GAMES, builder.add(archive, 2));
+    }
+    positions = builder.getPositions();
+    storeFile = directory.resolve("positions.bin");
+    builder.write(storeFile);
+  }
+
+  private int[] bruteForce(PositionStore store, PositionQuery query, int minEmpties,
+      int maxEmpties, int side, int minDifferential, int maxDifferential) {
+    return IntStream.range(0, store.size())
+        .filter(row -> store.getEmpties(row) >= minEmpties
+            && store.getEmpties(row) <= maxEmpties
+            && (side == BoardTopology.EMPTY || store.getSideToMove(row) == side)
+            && store.getDifferential(row) >= minDifferential
+            && store.getDifferential(row) <= maxDifferential)
+        .toArray();
+  }
+
+  @Test
+  public void testEveryPositionIsARowInHashOrder() throws IOException {
+    try (PositionStore store = new PositionStore(storeFile)) {
+      Assert.assertSame(topology, store.getTopology());
+      Assert.assertEquals(positions, store.size());
+      Assert.assertTrue(store.getSegmentCount() > 1);
+      for (int row = 1; row < store.size(); row++) {
+        Assert.assertTrue(store.getHash(row - 1) < store.getHash(row));
+        Assert.assertEquals(row, store.find(store.getHash(row)));
+      }
+      Assert.assertEquals(-1, store.find(12345L));
+    }
+  }
+
+  @Test
+  public void testEveryGameReachesTheStartingPosition() throws IOException {
+    ReversiBoard board = new ReversiBoard(4);
+    board.startGame();
+    byte[] cells = new byte[topology.getCellCount()];
+    topology.readCells(board, cells);
+    try (PositionStore store = new PositionStore(storeFile)) {
+      int row = store.find(cells, BoardTopology.BLACK);
+      Assert.assertTrue(row >= 0);
+      Assert.assertEquals(GAMES, store.getGames(row));
+      Assert.assertEquals(BoardTopology.BLACK, store.getSideToMove(row));
+      Assert.assertEquals(topology.getCellCount() - 6, store.getEmpties(row));
+      byte[] stored = new byte[cells.length];
+      store.getCells(row, stored);
+      byte[] canonical = new byte[cells.length];
+      BoardSymmetries.of(topology).canonicalize(cells, BoardTopology.BLACK, canonical);
+      Assert.assertArrayEquals(canonical, stored);
+    }
+  }
+
+  @Test
+  public void testQueriesMatchAFullScan() throws IOException {
+    try (PositionStore store = new PositionStore(storeFile)) {
+      int cells = topology.getCellCount();
+      for (int threads : new int[] {1, 4}) {
+        Assert.assertArrayEquals(bruteForce(store, PositionQuery.ALL, 0, cells,
+            BoardTopology.EMPTY, Integer.MIN_VALUE, Integer.MAX_VALUE),
+            store.query(PositionQuery.ALL, threads));
+        for (int empties = 0; empties <= cells; empties += 3) {
+          PositionQuery query = PositionQuery.ALL.withEmpties(empties, empties + 4);
+          Assert.assertArrayEquals(bruteForce(store, query, empties, empties + 4,
+              BoardTopology.EMPTY, Integer.MIN_VALUE, Integer.MAX_VALUE),
+              store.query(query, threads));
+          for (int side : new int[] {BoardTopology.BLACK, BoardTopology.WHITE}) {
+            query = PositionQuery.ALL.withEmpties(empties, empties).withSideToMove(side);
+            Assert.assertArrayEquals(bruteForce(store, query, empties, empties, side,
+                Integer.MIN_VALUE, Integer.MAX_VALUE), store.query(query, threads));
+          }
+        }
+        for (int low = -cells; low <= cells; low += 5) {
+          PositionQuery query = PositionQuery.ALL.withDifferential(low, low + 2)
+              .withSideToMove(BoardTopology.WHITE);
+          Assert.assertArrayEquals(bruteForce(store, query, 0, cells, BoardTopology.WHITE,
+              low, low + 2), store.query(query, threads));
+          query = PositionQuery.ALL.withDifferential(low, Integer.MAX_VALUE);
+          Assert.assertArrayEquals(bruteForce(store, query, 0, cells, BoardTopology.EMPTY,
+              low, Integer.MAX_VALUE), store.query(query, threads));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testNarrowQueriesStillFindRows() throws IOException {
+    try (PositionStore store = new PositionStore(storeFile)) {
+      int start = topology.getCellCount() - 6;
+      int[] found = store.query(PositionQuery.ALL.withEmpties(start, start)
+          .withSideToMove(BoardTopology.BLACK));
+      Assert.assertEquals(1, found.length);
+      Assert.assertTrue(Arrays.stream(store.query(PositionQuery.ALL.withEmpties(0, 0)))
+          .allMatch(row -> store.getEmpties(row) == 0));
+    }
+  }
+
+  @Test
+  public void testBoardsOfMoreThan127Cells() throws Exception {
+    BoardTopology large = BoardTopology.of(BoardShape.HEXAGON, 8);
+    Path directory = Files.createTempDirectory("store");
+    Path archiveBase = directory.resolve("games");
+    try (GameArchiveWriter archive = new GameArchiveWriter(archiveBase);
+        SampleWriter samples = new SampleWriter(new ByteArrayOutputStream(), large)) {
+      new SelfPlayGenerator(large,
+          Collections.singletonList(new String[] {"strategy1", "strategy1"}), 3, false, 5)
+          .run(2, 1, samples, archive);
+    }
+    PositionStoreBuilder builder = new PositionStoreBuilder(large, 64);
+    try (GameArchive archive = new GameArchive(archiveBase)) {
+      builder.add(archive, 1);
+    }
+    Path file = directory.resolve("positions.bin");
+    builder.write(file);
+    int cells = large.getCellCount();
+    try (PositionStore store = new PositionStore(file)) {
+      int high = 0;
+      for (int row = 0; row < store.size(); row++) {
+        Assert.assertTrue(store.getEmpties(row) >= 0 && store.getEmpties(row) <= cells);
+        if (store.getEmpties(row) >= 130) {
+          high++;
+        }
+      }
+      Assert.assertTrue(high > 0);
+      PositionQuery query = PositionQuery.ALL.withEmpties(130, cells);
+      Assert.assertArrayEquals(bruteForce(store, query, 130, cells, BoardTopology.EMPTY,
+          Integer.MIN_VALUE, Integer.MAX_VALUE), store.query(query, 2));
+      Assert.assertEquals(high, store.query(query).length);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBoardTooLargeForAStore() {
+    new PositionStoreBuilder(BoardTopology.of(BoardShape.HEXAGON, 10));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSideToMove() {
+    PositionQuery.ALL.withSideToMove(3);
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotAStore() throws IOException {
+    Path file = Files.createTempFile("store", ".bin");
+    Files.write(file, new byte[64]);
+    new PositionStore(file).close();
+  }
+}
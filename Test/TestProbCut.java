@@ -0,0 +1,143 @@
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.ProbCut;
+import cs3500.reversi.search.ProbCutFitter;
+import cs3500.reversi.search.SearchDriver;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests fitting, storing and searching with Multi-ProbCut parameters.
+ */
+public class TestProbCut {
+
+  @Test
+  public void testFitRecoversALine() {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 6);
+    ProbCutFitter fitter = new ProbCutFitter(topology, new int[][] {{4, 2}, {5, 1}});
+    ProbCutFitter other = new ProbCutFitter(topology, new int[][] {{4, 2}, {5, 1}});
+    Random random = new Random(43);
+    for (int i = 0; i < 2000; i++) {
+      double shallow = random.nextGaussian() * 500;
+      (i % 2 == 0 ? fitter : other).observe(4, shallow, 1.2 * shallow + 30
+          + random.nextGaussian() * 100);
+    }
+    fitter.merge(other);
+    Assert.assertEquals(2000, fitter.getCount(4));
+    ProbCut cut = fitter.fit(2.0);
+    Assert.assertEquals(2, cut.getShallow(4));
+    Assert.assertEquals(1.2, cut.getSlope(4), 0.02);
+    Assert.assertEquals(30, cut.getIntercept(4), 10);
+    Assert.assertEquals(100, cut.getSigma(4), 5);
+    Assert.assertEquals(2.0, cut.getThreshold(), 0);
+    // nothing was observed at depth 5, so it is not cut
+    Assert.assertEquals(0, cut.getShallow(5));
+  }
+
+  @Test
+  public void testFileRoundTrip() throws IOException {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 8);
+    ProbCut cut = new ProbCut(topology, 1.5);
+    cut.set(6, 2, 1.1, -12.5, 310.25);
+    cut.set(9, 3, 0.95, 4, 420);
+    Path file = Files.createTempFile("reversi", ".probcut");
+    try {
+      cut.write(file);
+      ProbCut read = ProbCut.read(file, 1.0);
+      Assert.assertSame(topology, read.getTopology());
+      Assert.assertEquals(1.0, read.getThreshold(), 0);
+      Assert.assertEquals(2, read.getShallow(6));
+      Assert.assertEquals(1.1, read.getSlope(6), 0);
+      Assert.assertEquals(-12.5, read.getIntercept(6), 0);
+      Assert.assertEquals(310.25, read.getSigma(6), 0);
+      Assert.assertEquals(3, read.getShallow(9));
+      Assert.assertEquals(0, read.getShallow(7));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testShallowMustBeShallower() {
+    new ProbCut(BoardTopology.of(BoardShape.SQUARE, 8), 1.5).set(4, 4, 1, 0, 100);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParametersForAnotherBoard() {
+    ProbCut cut = new ProbCut(BoardTopology.of(BoardShape.SQUARE, 8), 1.5);
+    cut.set(4, 2, 1, 0, 100);
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 6);
+    new AlphaBetaSearch(PatternEvaluator.defaults(topology), SearchDriver.PVS, cut)
+        .search(new CompactBoard(topology), 4);
+  }
+
+  @Test
+  public void testLooseCutsChangeNothingAndTightOnesPrune() {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 6);
+    // sigma so wide that nothing is ever predicted with confidence
+    ProbCut loose = new ProbCut(topology, 1.5);
+    ProbCut tight = new ProbCut(topology, 1.5);
+    for (int deep = 3; deep <= 5; deep++) {
+      loose.set(deep, deep - 2, 1, 0, 1e9);
+      tight.set(deep, deep - 2, 1, 0, 20);
+    }
+    AlphaBetaSearch full = new AlphaBetaSearch(PatternEvaluator.defaults(topology));
+    AlphaBetaSearch unpruned = new AlphaBetaSearch(PatternEvaluator.defaults(topology),
+        SearchDriver.ALPHA_BETA, loose);
+    AlphaBetaSearch pruned = new AlphaBetaSearch(PatternEvaluator.defaults(topology),
+        SearchDriver.ALPHA_BETA, tight);
+    ReversiBoard model = BoardShape.HEXAGON.newBoard(6);
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    Random random = new Random(44);
+    int[] moves = new int[topology.getCellCount()];
+    long fullNodes = 0;
+    long prunedNodes = 0;
+    for (int ply = 0; ply < 16 && !board.isGameOver(); ply++) {
+      int count = board.legalMoves(moves);
+      if (count == 0) {
+        board.pass();
+        continue;
+      }
+      long before = full.getNodes();
+      int move = full.search(board, 6);
+      fullNodes += full.getNodes() - before;
+      Assert.assertEquals(move, unpruned.search(board, 6));
+      Assert.assertEquals(full.getScore(), unpruned.getScore());
+      before = pruned.getNodes();
+      Assert.assertTrue(moveIsLegal(board, pruned.search(board, 6)));
+      prunedNodes += pruned.getNodes() - before;
+      board.play(moves[random.nextInt(count)]);
+    }
+    Assert.assertTrue(prunedNodes + " vs " + fullNodes, prunedNodes < fullNodes);
+  }
+
+  private static boolean moveIsLegal(CompactBoard board, int cell) {
+    return cell >= 0 && board.isLegal(cell);
+  }
+
+  @Test
+  public void testSolvingIsNeverCut() {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 4);
+    ProbCut tight = new ProbCut(topology, 0.1);
+    for (int deep = 2; deep <= 12; deep++) {
+      tight.set(deep, 1, 1, 0, 0);
+    }
+    ReversiBoard model = BoardShape.SQUARE.newBoard(4);
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    AlphaBetaSearch full = new AlphaBetaSearch(PatternEvaluator.defaults(topology));
+    AlphaBetaSearch pruned = new AlphaBetaSearch(PatternEvaluator.defaults(topology),
+        SearchDriver.PVS, tight);
+    Assert.assertEquals(full.solve(board), pruned.solve(board));
+    Assert.assertEquals(full.getScore(), pruned.getScore());
+  }
+}
@@ -0,0 +1,112 @@
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.SearchDriver;
+import cs3500.reversi.search.TranspositionTable;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Strategies;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that every search driver finds the same moves and scores.
+ */
+public class TestSearchDrivers {
+
+  @Test
+  public void testTableKeepsBounds() {
+    TranspositionTable table = new TranspositionTable(4);
+    Assert.assertEquals(-1, table.find(17, 3));
+    // failed high, then low: the score is boxed in from both sides
+    table.store(17, 3, 0, 10, 40);
+    table.store(17, 3, 50, 51, 45);
+    int entry = table.find(17, 3);
+    Assert.assertEquals(40, table.getLower(entry));
+    Assert.assertEquals(45, table.getUpper(entry));
+    // only the depth it was searched to
+    Assert.assertEquals(-1, table.find(17, 2));
+    table.store(17, 2, 0, 10, 5);
+    entry = table.find(17, 2);
+    Assert.assertEquals(5, table.getLower(entry));
+    Assert.assertEquals(5, table.getUpper(entry));
+    Assert.assertEquals(-1, table.find(17, 3));
+    table.clear();
+    Assert.assertEquals(-1, table.find(17, 2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTableTooLarge() {
+    new TranspositionTable(25);
+  }
+
+  @Test
+  public void testParse() {
+    Assert.assertEquals(SearchDriver.ALPHA_BETA, SearchDriver.parse("ab"));
+    Assert.assertEquals(SearchDriver.PVS, SearchDriver.parse("PVS"));
+    Assert.assertEquals(SearchDriver.MTDF, SearchDriver.parse("mtdf"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseUnknown() {
+    SearchDriver.parse("negascout");
+  }
+
+  @Test
+  public void testPlayersPickTheirDriver() {
+    ReversiBoard model = new ReversiBoard(5);
+    model.startGame();
+    Move expected = new AIPlayer(model, HexagonPlayer.BLACK, Strategies.named("strategy5"))
+        .play(0, 0);
+    for (String name : new String[] {"strategy5-ab", "strategy5-pvs", "Strategy5-MTDF"}) {
+      Assert.assertSame(expected,
+          new AIPlayer(model, HexagonPlayer.BLACK, Strategies.named(name)).play(0, 0));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownDriverName() {
+    Strategies.named("strategy5-negascout");
+  }
+
+  @Test
+  public void testDriversAgree() {
+    Random random = new Random(42);
+    for (BoardShape shape : BoardShape.values()) {
+      BoardTopology topology = BoardTopology.of(shape, 6);
+      AlphaBetaSearch[] searches = new AlphaBetaSearch[SearchDriver.values().length];
+      for (SearchDriver driver : SearchDriver.values()) {
+        searches[driver.ordinal()] = new AlphaBetaSearch(PatternEvaluator.defaults(topology),
+            driver);
+      }
+      ReversiBoard model = shape.newBoard(6);
+      model.startGame();
+      CompactBoard board = CompactBoard.of(model);
+      int[] moves = new int[topology.getCellCount()];
+      while (!board.isGameOver()) {
+        int count = board.legalMoves(moves);
+        if (count == 0) {
+          board.pass();
+          continue;
+        }
+        boolean solve = board.getEmptyCount() <= 8;
+        // deepening, so the drivers that guess from the last iteration get to
+        for (int depth = 1; depth <= (solve ? 1 : 4); depth++) {
+          int expected = solve ? searches[0].solve(board) : searches[0].search(board, depth);
+          for (int i = 1; i < searches.length; i++) {
+            int move = solve ? searches[i].solve(board) : searches[i].search(board, depth);
+            String where = SearchDriver.values()[i] + " on " + shape + " at depth " + depth;
+            Assert.assertEquals(where, searches[0].getScore(), searches[i].getScore());
+            Assert.assertEquals(where, expected, move);
+          }
+        }
+        board.play(moves[random.nextInt(count)]);
+      }
+    }
+  }
+}
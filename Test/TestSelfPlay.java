@@ -0,0 +1,93 @@
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.selfplay.SampleReader;
+import cs3500.reversi.selfplay.SampleWriter;
+import cs3500.reversi.selfplay.SelfPlayGenerator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the self-play generator and the binary sample format.
+ */
+public class TestSelfPlay {
+
+  private SampleReader generate(BoardTopology topology, int games, boolean augment)
+      throws IOException, InterruptedException {
+    List<String[]> pairs = Collections.singletonList(new String[] {"strategy1", "strategy12"});
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (SampleWriter writer = new SampleWriter(bytes, topology)) {
+      new SelfPlayGenerator(topology, pairs, 2, augment, 7).run(games, 2, writer, null);
+    }
+    return new SampleReader(new ByteArrayInputStream(bytes.toByteArray()));
+  }
+
+  @Test
+  public void testFirstSampleIsTheStartingPosition() throws Exception {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 4);
+    SampleReader reader = generate(topology, 1, false);
+    Assert.assertTrue(reader.next());
+    byte[] start = new byte[topology.getCellCount()];
+    topology.readCells(new ReversiBoard(4), start);
+    Assert.assertArrayEquals(start, reader.getCells());
+    Assert.assertEquals(BoardTopology.BLACK, reader.getSideToMove());
+  }
+
+  @Test
+  public void testSamplesOfAGameShareTheirResult() throws Exception {
+    BoardTopology topology = BoardTopology.of(BoardShape.SQUARE, 6);
+    SampleReader reader = generate(topology, 1, false);
+    Assert.assertTrue(reader.next());
+    int result = reader.getResult();
+    int samples = 1;
+    while (reader.next()) {
+      Assert.assertEquals(result, reader.getResult());
+      samples++;
+    }
+    Assert.assertTrue(samples > 10);
+  }
+
+  @Test
+  public void testAugmentationWritesEveryImage() throws Exception {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 3);
+    int plain = 0;
+    SampleReader reader = generate(topology, 2, false);
+    while (reader.next()) {
+      plain++;
+    }
+    int augmented = 0;
+    reader = generate(topology, 2, true);
+    while (reader.next()) {
+      augmented++;
+    }
+    Assert.assertEquals(plain * 12, augmented);
+  }
+
+  @Test
+  public void testSameSeedWritesTheSameFile() throws Exception {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 4);
+    List<String[]> pairs = Arrays.asList(new String[] {"strategy1", "strategy12"},
+        new String[] {"strategy2", "strategy4"});
+    byte[][] files = new byte[2][];
+    for (int run = 0; run < files.length; run++) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (SampleWriter writer = new SampleWriter(bytes, topology)) {
+        new SelfPlayGenerator(topology, pairs, 4, false, 11).run(12, 4, writer, null);
+      }
+      files[run] = bytes.toByteArray();
+    }
+    Assert.assertArrayEquals(files[0], files[1]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownStrategyIsRejected() {
+    new SelfPlayGenerator(BoardTopology.of(BoardShape.HEXAGON, 4),
+        Collections.singletonList(new String[] {"strategy1", "strategy9"}), 0, false, 0);
+  }
+}
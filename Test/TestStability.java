@@ -0,0 +1,151 @@
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.eval.StabilityAnalyzer;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests finding stable discs and solving endgames with them.
+ */
+public class TestStability {
+
+  /**
+   * Plays random moves from the start of a game until a number of cells are left empty, or the
+   * game ends.
+   */
+  private CompactBoard playRandomly(BoardShape shape, int size, int empties, Random random) {
+    ReversiBoard model = shape.newBoard(size);
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    int[] moves = new int[board.getTopology().getCellCount()];
+    while (board.getEmptyCount() > empties && !board.isGameOver()) {
+      int count = board.legalMoves(moves);
+      if (count == 0) {
+        board.pass();
+      } else {
+        board.play(moves[random.nextInt(count)]);
+      }
+    }
+    return board;
+  }
+
+  @Test
+  public void testCornersAreStable() {
+    for (BoardShape shape : BoardShape.values()) {
+      BoardTopology topology = BoardTopology.of(shape, 6);
+      CompactBoard board = new CompactBoard(topology);
+      byte[] cells = new byte[topology.getCellCount()];
+      for (int corner : topology.getCorners()) {
+        cells[corner] = BoardTopology.WHITE;
+        // a disc next to a corner is not stable while the rest of its lines are open
+        for (int d = 0; d < topology.getDirectionCount(); d++) {
+          if (topology.neighbor(corner, d) >= 0) {
+            cells[topology.neighbor(corner, d)] = BoardTopology.BLACK;
+            break;
+          }
+        }
+      }
+      board.set(cells, BoardTopology.BLACK);
+      StabilityAnalyzer analyzer = new StabilityAnalyzer(topology, 4);
+      Assert.assertEquals(topology.getCorners().length,
+          analyzer.count(board, BoardTopology.WHITE));
+      Assert.assertEquals(0, analyzer.count(board, BoardTopology.BLACK));
+    }
+  }
+
+  @Test
+  public void testStableDiscsNeverFlip() {
+    Random random = new Random(35);
+    for (BoardShape shape : BoardShape.values()) {
+      StabilityAnalyzer analyzer = new StabilityAnalyzer(BoardTopology.of(shape, 4), 8);
+      long[] stable = new long[analyzer.getWords()];
+      for (int game = 0; game < 20; game++) {
+        CompactBoard board = playRandomly(shape, 4, 12 - game / 4, random);
+        analyzer.stableDiscs(board, stable);
+        byte[] before = new byte[board.getTopology().getCellCount()];
+        board.copyCells(before);
+        for (int playout = 0; playout < 10; playout++) {
+          CompactBoard end = board.copy();
+          int[] moves = new int[before.length];
+          while (!end.isGameOver()) {
+            int count = end.legalMoves(moves);
+            if (count == 0) {
+              end.pass();
+            } else {
+              end.play(moves[random.nextInt(count)]);
+            }
+            for (int cell = 0; cell < before.length; cell++) {
+              if (StabilityAnalyzer.isSet(stable, cell)) {
+                Assert.assertEquals(before[cell], end.get(cell));
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFullBoardIsStable() {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, 3);
+    byte[] cells = new byte[topology.getCellCount()];
+    Random random = new Random(3);
+    for (int cell = 0; cell < cells.length; cell++) {
+      cells[cell] = random.nextBoolean() ? BoardTopology.BLACK : BoardTopology.WHITE;
+    }
+    CompactBoard board = new CompactBoard(topology);
+    board.set(cells, BoardTopology.BLACK);
+    StabilityAnalyzer analyzer = new StabilityAnalyzer(board.getTopology(), 0);
+    Assert.assertEquals(board.count(BoardTopology.BLACK),
+        analyzer.count(board, BoardTopology.BLACK));
+    Assert.assertEquals(board.count(BoardTopology.WHITE),
+        analyzer.count(board, BoardTopology.WHITE));
+  }
+
+  /**
+   * Scores a position by trying every line to the end of the game.
+   */
+  private int exhaustive(CompactBoard board, boolean passed) {
+    int[] moves = new int[board.getTopology().getCellCount()];
+    int count = board.legalMoves(moves);
+    if (count == 0) {
+      if (passed) {
+        return AlphaBetaSearch.finalScore(board);
+      }
+      board.pass();
+      int value = -exhaustive(board, true);
+      board.undo();
+      return value;
+    }
+    int best = -AlphaBetaSearch.INFINITY;
+    for (int i = 0; i < count; i++) {
+      board.play(moves[i]);
+      best = Math.max(best, -exhaustive(board, false));
+      board.undo();
+    }
+    return best;
+  }
+
+  @Test
+  public void testSolveFindsTheExactScore() {
+    Random random = new Random(8);
+    for (BoardShape shape : BoardShape.values()) {
+      AlphaBetaSearch search =
+          new AlphaBetaSearch(PatternEvaluator.defaults(BoardTopology.of(shape, 6)));
+      for (int game = 0; game < 6; game++) {
+        CompactBoard board = playRandomly(shape, 6, 7, random);
+        int move = search.solve(board);
+        Assert.assertEquals(exhaustive(board, false), search.getScore());
+        if (move != CompactBoard.PASS) {
+          board.play(move);
+          Assert.assertEquals(search.getScore(), -exhaustive(board, false));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,117 @@
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.SearchStrategy;
+import cs3500.reversi.server.GameSession;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.time.GameClock;
+import cs3500.reversi.time.TimeBudget;
+import cs3500.reversi.time.TimeManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the game clock, the time manager and searches that keep to their budgets.
+ */
+public class TestTimeManagement {
+  private long now;
+
+  @Test
+  public void testClockChargesTheRunningPlayer() {
+    GameClock clock = new GameClock(1000, 100, () -> now);
+    clock.switchTo(HexagonPlayer.BLACK);
+    now += 300_000_000L;
+    Assert.assertEquals(700, clock.getRemainingMillis(HexagonPlayer.BLACK));
+    clock.switchTo(HexagonPlayer.WHITE);
+    now += 50_000_000L;
+    Assert.assertEquals(800, clock.getRemainingMillis(HexagonPlayer.BLACK));
+    Assert.assertEquals(950, clock.getRemainingMillis(HexagonPlayer.WHITE));
+    clock.switchTo(HexagonPlayer.WHITE);
+    now += 2_000_000_000L;
+    Assert.assertTrue(clock.isFlagged(HexagonPlayer.WHITE));
+    Assert.assertFalse(clock.isFlagged(HexagonPlayer.BLACK));
+  }
+
+  @Test
+  public void testClockFollowsTheModel() {
+    ReversiBoard model = new ReversiBoard(4);
+    GameClock clock = new GameClock(1000, 0, () -> now);
+    clock.watch(model);
+    model.startGame();
+    now += 100_000_000L;
+    model.play(4, 1, HexagonPlayer.BLACK);
+    now += 200_000_000L;
+    Assert.assertEquals(900, clock.getRemainingMillis(HexagonPlayer.BLACK));
+    Assert.assertEquals(800, clock.getRemainingMillis(HexagonPlayer.WHITE));
+  }
+
+  @Test
+  public void testBudgetsStayWithinTheLimits() {
+    TimeManager manager = new TimeManager(200);
+    ReversiBoard model = new ReversiBoard(6);
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    TimeBudget plenty = manager.allocate(board, 600_000, 0);
+    Assert.assertEquals(200 - TimeManager.SAFETY_MILLIS, plenty.getHardMillis());
+    TimeBudget scarce = new TimeManager().allocate(board, 50, 0);
+    Assert.assertTrue(scarce.getHardMillis() <= 50 - TimeManager.SAFETY_MILLIS);
+    Assert.assertTrue(scarce.getSoftMillis() <= scarce.getHardMillis());
+    Assert.assertEquals(1, new TimeManager().allocate(board, 0, 0).getHardMillis());
+  }
+
+  @Test
+  public void testBudgetsGrowWithTheChoices() {
+    TimeManager manager = new TimeManager();
+    ReversiBoard model = new ReversiBoard(6);
+    model.startGame();
+    CompactBoard opening = CompactBoard.of(model);
+    // no legal moves at all: as good as forced
+    CompactBoard empty = new CompactBoard(BoardTopology.of(BoardShape.HEXAGON, 6));
+    Assert.assertTrue(manager.allocate(empty, 60_000, 0).getSoftMillis()
+        < manager.allocate(opening, 60_000, 0).getSoftMillis());
+    TimeBudget budget = manager.allocate(opening, 60_000, 0);
+    Assert.assertTrue(budget.getSoftMillis(2) > budget.getSoftMillis());
+    Assert.assertEquals(budget.getHardMillis(), budget.getSoftMillis(100));
+  }
+
+  @Test
+  public void testStoppedSearchReturnsAMove() {
+    ReversiBoard model = new ReversiBoard(6);
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    AlphaBetaSearch search = new AlphaBetaSearch(PatternEvaluator.defaults(board.getTopology()));
+    int cell = search.search(board, 30, () -> true);
+    Assert.assertTrue(search.wasStopped());
+    Assert.assertTrue(board.isLegal(cell));
+    search.search(board, 1);
+    Assert.assertFalse(search.wasStopped());
+  }
+
+  @Test
+  public void testTimedSearchKeepsToTheHardLimit() {
+    ReversiBoard model = new ReversiBoard(7);
+    model.startGame();
+    SearchStrategy strategy = new SearchStrategy(4, 12, PatternEvaluator::defaults);
+    long start = System.nanoTime();
+    Move move = strategy.chooseMove(model, HexagonPlayer.BLACK, new TimeBudget(60, 80));
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    Assert.assertTrue(model.canMove(move.getQ(), move.getR(), HexagonPlayer.BLACK));
+    // generous slack for a loaded machine, the search itself stops at 80ms
+    Assert.assertTrue("took " + millis + "ms", millis < 500);
+  }
+
+  @Test
+  public void testTimedSessionAnswersEveryMove() {
+    GameSession session = new GameSession(BoardShape.HEXAGON, 4,
+        new SearchStrategy(30, PatternEvaluator::defaults), HexagonPlayer.WHITE,
+        new GameClock(2_000, 0), new TimeManager(100));
+    long start = System.nanoTime();
+    String reply = session.start();
+    Assert.assertTrue(reply, reply.startsWith("MOVE"));
+    Assert.assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+  }
+}
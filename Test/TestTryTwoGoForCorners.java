@@ -105,13 +105,13 @@ public class TestTryTwoGoForCorners {
     Assert.assertEquals(view.arrayHexString(),
         "      _   _   _   _   \n"
             + "    _   _   B   _   _   \n"
-            + "  _   W   W   W   W   _   \n"
-            + "_   _   W   _   B   _   _   \n"
-            + "  _   _   B   B   B   _   \n"
-            + "    _   _   _   _   _   \n"
+            + "  _   _   B   B   W   _   \n"
+            + "_   _   W   _   W   _   _   \n"
+            + "  _   _   W   W   B   _   \n"
+            + "    _   _   W   _   _   \n"
             + "      _   _   _   _   \n"
-            + "Black Score = 5\n"
-            + "White Score = 5\n");
+            + "Black Score = 4\n"
+            + "White Score = 6\n");
 
     Move move5 = strat.chooseMove(model, model.getCurrentPlayer());
     model.play(move5.getQ(), move5.getR(), move5.getPlayer());
@@ -123,14 +123,14 @@ public class TestTryTwoGoForCorners {
     Move move7 = strat.chooseMove(model, model.getCurrentPlayer());
     model.play(move7.getQ(), move7.getR(), move7.getPlayer());
 
-    model.play(6, 1, HexagonPlayer.WHITE);
+    model.play(6, 2, HexagonPlayer.WHITE);
 
     Assert.assertEquals(view.arrayHexString(),
         "      _   _   _   _   \n"
-            + "    _   _   B   _   W   \n"
-            + "  _   W   B   B   W   B   \n"
-            + "_   _   W   _   W   _   _   \n"
-            + "  _   B   W   W   B   _   \n"
+            + "    _   _   B   _   B   \n"
+            + "  _   W   W   W   W   W   \n"
+            + "_   _   W   _   B   _   _   \n"
+            + "  _   B   W   B   B   _   \n"
             + "    _   _   W   _   _   \n"
             + "      _   _   _   _   \n"
             + "Black Score = 6\n"
@@ -141,11 +141,11 @@ public class TestTryTwoGoForCorners {
 
     // ENSURES THAT THE MOVE GOES FOR THE CORNER:
     Assert.assertEquals(view.arrayHexString(),
-        "      _   _   _   B   \n"
+        "      _   _   _   _   \n"
             + "    _   _   B   _   B   \n"
-            + "  _   W   B   B   W   B   \n"
-            + "_   _   W   _   W   _   _   \n"
-            + "  _   B   W   W   B   _   \n"
+            + "  _   W   W   W   W   B   \n"
+            + "_   _   W   _   B   _   B   \n"
+            + "  _   B   W   B   B   _   \n"
             + "    _   _   W   _   _   \n"
             + "      _   _   _   _   \n"
             + "Black Score = 8\n"
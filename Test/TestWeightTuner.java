@@ -0,0 +1,87 @@
+import cs3500.reversi.eval.PatternSet;
+import cs3500.reversi.eval.PatternWeights;
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.selfplay.SampleWriter;
+import cs3500.reversi.selfplay.SelfPlayGenerator;
+import cs3500.reversi.tuning.WeightTuner;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests tuning pattern weights from self-play samples and the weight file format.
+ */
+public class TestWeightTuner {
+  BoardTopology topology;
+  Path directory;
+
+  @Before
+  public void setup() throws IOException {
+    topology = BoardTopology.of(BoardShape.HEXAGON, 4);
+    directory = Files.createTempDirectory("weights");
+  }
+
+  @Test
+  public void testTuningReducesTheLoss() throws Exception {
+    Path samples = directory.resolve("samples.bin");
+    try (SampleWriter writer = new SampleWriter(new FileOutputStream(samples.toFile()),
+        topology)) {
+      new SelfPlayGenerator(topology,
+          Collections.singletonList(new String[] {"strategy1", "strategy12"}), 4, true, 3)
+          .run(30, 2, writer, null);
+    }
+    double[] losses = new WeightTuner(topology, 2, 256, 20, 600).tune(samples, 4);
+    Assert.assertTrue(losses[0] < Math.log(2));
+    Assert.assertTrue(losses[3] < losses[0]);
+  }
+
+  @Test
+  public void testWeightFileRoundTrip() throws IOException {
+    PatternWeights weights = PatternWeights.defaults(PatternSet.of(topology));
+    weights.set(0, 5, -1234);
+    Path file = directory.resolve(PatternWeights.fileName(topology));
+    weights.write(file);
+    PatternWeights read = PatternWeights.read(file);
+    Assert.assertSame(weights.getPatterns(), read.getPatterns());
+    for (int c = 0; c < PatternSet.CLASS_NAMES.size(); c++) {
+      for (int index = 0; index < weights.getPatterns().getTableSize(c); index++) {
+        Assert.assertEquals(weights.get(c, index), read.get(c, index));
+      }
+    }
+    Assert.assertEquals("hexagon-4.weights", file.getFileName().toString());
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsOtherFiles() throws IOException {
+    Path file = directory.resolve("other.weights");
+    Files.write(file, new byte[] {'R', 'V', 'S', 'P', 1, 0, 0, 4, 0});
+    PatternWeights.read(file);
+  }
+
+  @Test
+  public void testLoadRejectsTheWeightsOfAnotherBoard() throws IOException {
+    // square weights under the name of a hexagonal board no other test loads weights for
+    BoardTopology hexagon = BoardTopology.of(BoardShape.HEXAGON, 9);
+    PatternWeights.defaults(PatternSet.of(BoardTopology.of(BoardShape.SQUARE, 4)))
+        .write(directory.resolve(PatternWeights.fileName(hexagon)));
+    String previous = System.getProperty(BoardFiles.DIRECTORY_PROPERTY);
+    System.setProperty(BoardFiles.DIRECTORY_PROPERTY, directory.toString());
+    try {
+      Assert.assertThrows(UncheckedIOException.class, () -> PatternWeights.load(hexagon));
+    } finally {
+      if (previous == null) {
+        System.clearProperty(BoardFiles.DIRECTORY_PROPERTY);
+      } else {
+        System.setProperty(BoardFiles.DIRECTORY_PROPERTY, previous);
+      }
+    }
+  }
+}
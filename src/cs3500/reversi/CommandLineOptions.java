@@ -0,0 +1,30 @@
+package cs3500.reversi;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the options of the command line tools, given as pairs such as
+ * {@code --shape hexagon --size 6}.
+ */
+public final class CommandLineOptions {
+
+  private CommandLineOptions() {
+  }
+
+  /**
+   * Reads the options from the arguments of a main method. A leading "--" is dropped from every
+   * name, a later value for the same name replaces an earlier one, and a last name without a
+   * value is ignored.
+   *
+   * @param args the arguments, alternating names and values.
+   * @return the values by name.
+   */
+  public static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+    }
+    return options;
+  }
+}
@@ -1,6 +1,7 @@
 package cs3500.reversi;
 
 import cs3500.reversi.controller.ReversiController;
+import cs3500.reversi.metrics.MetricsServer;
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
 import cs3500.reversi.model.ReversiBoard;
 import cs3500.reversi.model.ReversiSquareBoard;
@@ -12,12 +13,14 @@ import cs3500.reversi.strategy.AvoidCornersStrategy;
 import cs3500.reversi.strategy.GoForCornersStrategy;
 import cs3500.reversi.strategy.MinimaxStrategy;
 import cs3500.reversi.strategy.ReversiStrategy;
+import cs3500.reversi.strategy.Strategies;
 import cs3500.reversi.strategy.TryTwo;
 import cs3500.reversi.view.GameBoardLayout;
 import cs3500.reversi.view.IReversiView;
 
 
 import cs3500.reversi.view.ReversiSquareLayout;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -31,7 +34,8 @@ public final class Reversi {
   // set of possible correct players user can input
   private static final Set<String> correctPlayer =
       Set.of("human", "strategy1", "strategy2", "strategy3",
-          "strategy4", "strategy12", "strategy123");
+          "strategy4", "strategy5", "strategy5-ab", "strategy5-pvs", "strategy5-mtdf",
+          "strategy12", "strategy123");
 
   // represents the main board
   private static ReversiBoard board;
@@ -139,6 +143,11 @@ public final class Reversi {
 //    Player player1 = createPlayer(player1Type, HexagonPlayer.BLACK);
 //    ReversiController controller = new ReversiController(board, view, player1);
 
+    try {
+      MetricsServer.startIfConfigured();
+    } catch (IOException e) {
+      System.out.println("Could not serve metrics: " + e.getMessage());
+    }
     board.startGame();
   }
 
@@ -218,17 +227,22 @@ public final class Reversi {
       ReversiStrategy strat1, ReversiStrategy strat2, ReversiStrategy strat3) {
     playerCommands.put("human", hexagonPlayer -> board -> new HumanPlayer(board, hexagonPlayer));
     playerCommands.put("strategy1",
-        hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer, strat1));
+        hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer, strat1, "strategy1"));
     playerCommands.put("strategy2",
-        hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer, strat2));
+        hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer, strat2, "strategy2"));
     playerCommands.put("strategy3",
-        hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer, strat3));
-    playerCommands.put("strategy12",
-        hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer, new TryTwo(strat2, strat1)));
+        hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer, strat3, "strategy3"));
+    playerCommands.put("strategy12", hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer,
+        new TryTwo(strat2, strat1), "strategy12"));
     playerCommands.put("strategy123", hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer,
-        new TryTwo(strat3, new TryTwo(strat2, strat1))));
-    playerCommands.put("strategy4",
-        hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer, new MinimaxStrategy(strat1)));
+        new TryTwo(strat3, new TryTwo(strat2, strat1)), "strategy123"));
+    playerCommands.put("strategy4", hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer,
+        new MinimaxStrategy(strat1), "strategy4"));
+    for (String name : new String[] {"strategy5", "strategy5-ab", "strategy5-pvs",
+        "strategy5-mtdf"}) {
+      playerCommands.put(name, hexagonPlayer -> board -> new AIPlayer(board, hexagonPlayer,
+          Strategies.named(name), name));
+    }
   }
 
   /**
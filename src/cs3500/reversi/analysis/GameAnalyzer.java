@@ -0,0 +1,367 @@
+package cs3500.reversi.analysis;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.record.GameHeader;
+import cs3500.reversi.record.GameRecordReader;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.ProbCut;
+import cs3500.reversi.search.SearchDriver;
+import cs3500.reversi.strategy.Strategies;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Annotates recorded games with the evaluations of a search, flagging the moves that lose more
+ * than a threshold against the best move found.
+ *
+ * <p>Games are streamed through a pipeline: one thread reads them from the record and hands
+ * them to a pool of analysis threads, each replaying its game on a {@link ReversiBoard} and
+ * searching every position, and the calling thread writes the annotations in the order of the
+ * record. At most a fixed number of games are between the reader and the writer at any time,
+ * and the reader waits for the writer once that many are, so memory stays flat however many
+ * games the record holds.</p>
+ *
+ * <p>A move is scored by searching the position after it one move shallower than the position
+ * before it, so both scores see as far ahead. Scores are in discs for the player to move,
+ * wins and losses counting only their final disc differential. Every game is searched with
+ * empty caches, so its annotations do not depend on which thread analyzed it or what it
+ * analyzed before.</p>
+ */
+public class GameAnalyzer {
+  /**
+   * The number of games in flight per analysis thread when none is given.
+   */
+  public static final int DEFAULT_GAMES_PER_THREAD = 4;
+
+  private final int depth;
+  private final SearchDriver driver;
+  private final double threshold;
+  private final int threads;
+  private final int capacity;
+
+  /**
+   * Constructs an analyzer with the default number of games in flight.
+   *
+   * @param depth     the number of moves to look ahead from every position.
+   * @param driver    how the searches choose their windows.
+   * @param threshold the loss in discs beyond which a move is a blunder.
+   * @param threads   the number of analysis threads.
+   * @throws IllegalArgumentException if the depth or threads is less than 1, or the threshold is
+   *                                  negative.
+   */
+  public GameAnalyzer(int depth, SearchDriver driver, double threshold, int threads) {
+    this(depth, driver, threshold, threads, threads * DEFAULT_GAMES_PER_THREAD);
+  }
+
+  /**
+   * Constructs an analyzer.
+   *
+   * @param depth     the number of moves to look ahead from every position.
+   * @param driver    how the searches choose their windows.
+   * @param threshold the loss in discs beyond which a move is a blunder.
+   * @param threads   the number of analysis threads.
+   * @param capacity  the most games read but not yet written at any time.
+   * @throws IllegalArgumentException if the depth, threads or capacity is less than 1, or the
+   *                                  threshold is negative.
+   */
+  public GameAnalyzer(int depth, SearchDriver driver, double threshold, int threads,
+      int capacity) {
+    if (depth < 1 || threads < 1 || capacity < 1) {
+      throw new IllegalArgumentException("depth, threads and capacity must be positive");
+    }
+    if (threshold < 0) {
+      throw new IllegalArgumentException("threshold must not be negative");
+    }
+    this.depth = depth;
+    this.driver = driver;
+    this.threshold = threshold;
+    this.threads = threads;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Analyzes every game of a record and writes the annotated games.
+   *
+   * @param reader the record to read games from, left at its end.
+   * @param out    the writer for the annotations, flushed but not closed.
+   * @return the totals over all games.
+   * @throws IOException           if reading or writing fails, or a record is invalid.
+   * @throws IllegalStateException if interrupted while waiting for the analysis.
+   */
+  public Summary analyze(GameRecordReader reader, Writer out) throws IOException {
+    ExecutorService workers = Executors.newFixedThreadPool(threads, task -> {
+      Thread thread = new Thread(task, "reversi-analysis");
+      thread.setDaemon(true);
+      return thread;
+    });
+    ExecutorService feeder = Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "reversi-analysis-reader");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // the analyses of the games in record order; a null report ends the record
+    BlockingQueue<Future<Report>> pending = new ArrayBlockingQueue<>(capacity);
+    feeder.execute(() -> feed(reader, workers, pending));
+    try {
+      Summary summary = new Summary();
+      Report report;
+      while ((report = pending.take().get()) != null) {
+        out.write(report.text);
+        summary.add(report);
+      }
+      out.flush();
+      return summary;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while analyzing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("failed to analyze a game", e.getCause());
+    } finally {
+      feeder.shutdownNow();
+      workers.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads games and queues their analyses until the record ends, fails, or the writer gives up
+   * and interrupts it.
+   */
+  private void feed(GameRecordReader reader, ExecutorService workers,
+      BlockingQueue<Future<Report>> pending) {
+    try {
+      Future<Report> end;
+      try {
+        int index = 0;
+        GameHeader header;
+        while ((header = reader.nextGame()) != null) {
+          int[] moves = new int[8];
+          int count = 0;
+          int move;
+          while ((move = reader.nextMove()) != GameRecordReader.END_OF_GAME) {
+            if (count == moves.length) {
+              moves = Arrays.copyOf(moves, count * 2);
+            }
+            moves[count++] = move;
+          }
+          Game game = new Game(index++, header, Arrays.copyOf(moves, count));
+          pending.put(workers.submit(() -> analyze(game)));
+        }
+        end = CompletableFuture.completedFuture(null);
+      } catch (IOException | RuntimeException e) {
+        end = CompletableFuture.failedFuture(e);
+      }
+      pending.put(end);
+    } catch (InterruptedException e) {
+      // the writer stopped waiting for games
+    }
+  }
+
+  /**
+   * Replays one game and annotates every move.
+   *
+   * @throws IOException if a recorded move is not legal.
+   */
+  private Report analyze(Game game) throws IOException {
+    BoardTopology topology = game.header.getTopology();
+    AlphaBetaSearch search = new AlphaBetaSearch(Strategies.evaluator(topology), driver,
+        ProbCut.load(topology));
+    ReversiBoard model = game.header.newModel();
+    StringBuilder text = new StringBuilder();
+    text.append(String.format(Locale.ROOT, "game %d: %s (black) vs %s (white), %s%n",
+        game.index, game.header.getBlackPlayer(), game.header.getWhitePlayer(), topology));
+    Report report = new Report();
+    HexagonPlayer player = HexagonPlayer.BLACK;
+    for (int ply = 0; ply < game.moves.length; ply++) {
+      int move = game.moves[ply];
+      text.append(ply + 1).append(' ').append(player == HexagonPlayer.BLACK ? "black" : "white");
+      if (move == GameRecordReader.PASS) {
+        text.append(" pass");
+      } else {
+        CompactBoard board = CompactBoard.of(model);
+        int best = search.search(board, depth);
+        double bestScore = discs(search.getScore());
+        double playedScore = bestScore;
+        if (move != best && board.isLegal(move)) {
+          board.play(move);
+          playedScore = -discs(score(search, board));
+        }
+        // the shallower search can see a little further than the deeper one
+        double loss = Math.max(0, bestScore - playedScore);
+        text.append(' ').append(cell(topology, move)).append(String.format(Locale.ROOT,
+            " %+.2f best %s %+.2f", playedScore, cell(topology, best), bestScore));
+        report.positions++;
+        if (loss > threshold) {
+          text.append(String.format(Locale.ROOT, " blunder -%.2f", loss));
+          report.blunders[player == HexagonPlayer.BLACK ? 0 : 1]++;
+        }
+      }
+      text.append(System.lineSeparator());
+      try {
+        GameRecordReader.apply(model, topology, move, player);
+      } catch (IllegalStateException | IllegalArgumentException e) {
+        throw new IOException("illegal move " + (ply + 1) + " in game " + game.index, e);
+      }
+      player = player == HexagonPlayer.BLACK ? HexagonPlayer.WHITE : HexagonPlayer.BLACK;
+    }
+    CompactBoard end = CompactBoard.of(model);
+    text.append(String.format(Locale.ROOT, "result %d-%d, blunders %d black %d white%n%n",
+        end.count(BoardTopology.BLACK), end.count(BoardTopology.WHITE), report.blunders[0],
+        report.blunders[1]));
+    report.text = text.toString();
+    return report;
+  }
+
+  /**
+   * Scores the position after a move for its side to move.
+   */
+  private int score(AlphaBetaSearch search, CompactBoard board) {
+    if (board.isGameOver()) {
+      return AlphaBetaSearch.finalScore(board);
+    }
+    search.search(board, Math.max(1, depth - 1));
+    return search.getScore();
+  }
+
+  /**
+   * Converts a search score to discs, dropping the bonus of won and lost games.
+   */
+  private static double discs(int score) {
+    if (score > AlphaBetaSearch.WIN / 2) {
+      score -= AlphaBetaSearch.WIN;
+    } else if (score < -AlphaBetaSearch.WIN / 2) {
+      score += AlphaBetaSearch.WIN;
+    }
+    return score / 100.0;
+  }
+
+  private static String cell(BoardTopology topology, int cell) {
+    return cell == CompactBoard.PASS ? "pass"
+        : "(" + topology.getQ(cell) + "," + topology.getR(cell) + ")";
+  }
+
+  /**
+   * A recorded game waiting for its analysis.
+   */
+  private static final class Game {
+    private final int index;
+    private final GameHeader header;
+    private final int[] moves;
+
+    private Game(int index, GameHeader header, int[] moves) {
+      this.index = index;
+      this.header = header;
+      this.moves = moves;
+    }
+  }
+
+  /**
+   * The annotations of one game and what they found.
+   */
+  private static final class Report {
+    private String text;
+    private int positions;
+    // by black and by white
+    private final int[] blunders = new int[2];
+  }
+
+  /**
+   * The totals of an analysis.
+   */
+  public static final class Summary {
+    private int games;
+    private long positions;
+    private long blunders;
+
+    private void add(Report report) {
+      games++;
+      positions += report.positions;
+      blunders += report.blunders[0] + report.blunders[1];
+    }
+
+    /**
+     * Gets the number of games analyzed.
+     *
+     * @return the number of games.
+     */
+    public int getGames() {
+      return games;
+    }
+
+    /**
+     * Gets the number of positions searched, one for every move that was not a pass.
+     *
+     * @return the number of positions.
+     */
+    public long getPositions() {
+      return positions;
+    }
+
+    /**
+     * Gets the number of moves flagged as blunders.
+     *
+     * @return the number of blunders.
+     */
+    public long getBlunders() {
+      return blunders;
+    }
+  }
+
+  /**
+   * Analyzes a record file from the command line.
+   *
+   * <p>Options: --games path (required), --out analysis.txt, --depth 4, --driver pvs,
+   * --threshold 6 (discs), --threads (all cores), --capacity (4 games per thread).</p>
+   *
+   * @param args the command line options.
+   * @throws IOException if the analysis fails.
+   */
+  public static void main(String[] args) throws IOException {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    if (!options.containsKey("games")) {
+      throw new IllegalArgumentException("--games is required");
+    }
+    int threads = Integer.parseInt(options.getOrDefault("threads",
+        Integer.toString(Runtime.getRuntime().availableProcessors())));
+    GameAnalyzer analyzer = new GameAnalyzer(
+        Integer.parseInt(options.getOrDefault("depth", "4")),
+        SearchDriver.parse(options.getOrDefault("driver", "pvs")),
+        Double.parseDouble(options.getOrDefault("threshold", "6")), threads,
+        Integer.parseInt(options.getOrDefault("capacity",
+            Integer.toString(threads * DEFAULT_GAMES_PER_THREAD))));
+    long start = System.nanoTime();
+    Summary summary;
+    try (InputStream in = new FileInputStream(options.get("games"));
+        GameRecordReader reader = new GameRecordReader(in);
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(options.getOrDefault("out", "analysis.txt")),
+            StandardCharsets.UTF_8))) {
+      summary = analyzer.analyze(reader, out);
+    }
+    System.out.printf("games = %d, positions = %d, blunders = %d, %.2f s%n",
+        summary.getGames(), summary.getPositions(), summary.getBlunders(),
+        (System.nanoTime() - start) / 1e9);
+  }
+}
@@ -0,0 +1,136 @@
+package cs3500.reversi.bench;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.ParallelSolver;
+import cs3500.reversi.strategy.Strategies;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Measures how solving endgames scales with the number of threads, on a fixed suite of
+ * positions with 20 to 26 empties on a square board of size 8 and 24 to 30 empties on a
+ * hexagonal board of size 5.
+ *
+ * <p>The positions come from games that open with random moves and go on with shallow searches,
+ * so that they are not already decided the way random games are. Every position is solved by
+ * the sequential {@link AlphaBetaSearch} and by a {@link ParallelSolver} on one thread, then on
+ * twice as many up to the number of processors, each with an empty cache. The benchmark reports
+ * the solve times and the speedup over the solver on one thread, and the solvers must agree on
+ * every move and score.</p>
+ */
+public final class EndgameBenchmark {
+  private static final int RANDOM_PLIES = 8;
+  private static final int PLAY_DEPTH = 2;
+
+  private EndgameBenchmark() {
+  }
+
+  /**
+   * Plays a game for every number of empties in a range and keeps its position at that number.
+   */
+  static List<CompactBoard> suite(BoardTopology topology, int fewest, int most, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    AlphaBetaSearch search = new AlphaBetaSearch(Strategies.evaluator(topology));
+    List<CompactBoard> suite = new ArrayList<>();
+    int[] legal = new int[topology.getCellCount()];
+    for (int empties = fewest; empties <= most; empties++) {
+      CompactBoard board;
+      do {
+        ReversiBoard model = topology.getShape().newBoard(topology.getSize());
+        model.startGame();
+        board = CompactBoard.of(model);
+        for (int ply = 0; board.getEmptyCount() > empties && !board.isGameOver(); ply++) {
+          int count = board.legalMoves(legal);
+          if (count == 0) {
+            board.pass();
+          } else if (ply < RANDOM_PLIES) {
+            board.play(legal[random.nextInt(count)]);
+          } else {
+            board.play(search.search(board, PLAY_DEPTH));
+          }
+        }
+      } while (board.isGameOver());
+      suite.add(board);
+    }
+    return suite;
+  }
+
+  private static void run(BoardTopology topology, int fewest, int most, int maxThreads) {
+    List<CompactBoard> suite = suite(topology, fewest, most, topology.getSize());
+    List<Integer> levels = new ArrayList<>();
+    for (int threads = 1; threads < maxThreads; threads *= 2) {
+      levels.add(threads);
+    }
+    levels.add(maxThreads);
+    System.out.printf("%s: %d positions, %d to %d empties%n", topology, suite.size(), fewest,
+        most);
+    StringBuilder heading = new StringBuilder("  empties    sequential");
+    for (int threads : levels) {
+      heading.append(String.format(" %10s", threads + " thr"));
+    }
+    System.out.println(heading);
+    double[] totals = new double[levels.size() + 1];
+    for (CompactBoard position : suite) {
+      CompactBoard board = position.copy();
+      AlphaBetaSearch sequential = new AlphaBetaSearch(null);
+      long start = System.nanoTime();
+      int move = sequential.solve(board);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      totals[0] += seconds;
+      StringBuilder line = new StringBuilder(String.format("  %7d %12.2fs",
+          board.getEmptyCount(), seconds));
+      for (int i = 0; i < levels.size(); i++) {
+        try (ParallelSolver solver = new ParallelSolver(levels.get(i))) {
+          start = System.nanoTime();
+          int parallelMove = solver.solve(board);
+          seconds = (System.nanoTime() - start) / 1e9;
+          if (parallelMove != move || solver.getScore() != sequential.getScore()) {
+            throw new IllegalStateException(levels.get(i) + " threads disagree with sequential"
+                + " solving at " + board.getEmptyCount() + " empties");
+          }
+        }
+        totals[i + 1] += seconds;
+        line.append(String.format(" %9.2fs", seconds));
+      }
+      System.out.println(line);
+    }
+    StringBuilder total = new StringBuilder(String.format("  total   %12.2fs", totals[0]));
+    StringBuilder speedup = new StringBuilder("  speedup              ");
+    for (int i = 0; i < levels.size(); i++) {
+      total.append(String.format(" %9.2fs", totals[i + 1]));
+      speedup.append(String.format(" %9.2fx", totals[1] / totals[i + 1]));
+    }
+    System.out.println(total);
+    System.out.println(speedup);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * <p>Options, all optional: --square 20-26 and --hexagon 24-30, the ranges of empties of the
+   * suites, or none to skip a board, and --threads (the number of processors).</p>
+   *
+   * @param args the command line options.
+   */
+  public static void main(String[] args) {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    int threads = Integer.parseInt(options.getOrDefault("threads",
+        String.valueOf(Runtime.getRuntime().availableProcessors())));
+    String[][] boards = {{"square", "8", "20-26"}, {"hexagon", "5", "24-30"}};
+    for (String[] board : boards) {
+      String range = options.getOrDefault(board[0], board[2]);
+      if (!range.equals("none")) {
+        String[] ends = range.split("-");
+        run(BoardTopology.of(BoardShape.parse(board[0]), Integer.parseInt(board[1])),
+            Integer.parseInt(ends[0]), Integer.parseInt(ends[ends.length - 1]), threads);
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package cs3500.reversi.bench;
+
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import cs3500.reversi.search.SearchDriver;
+import cs3500.reversi.strategy.Strategies;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the search drivers on a fixed suite of midgame positions on a hexagonal board of
+ * size 6 and a square board of size 8.
+ *
+ * <p>Every position is searched one move deeper at a time, as a timed game would, with the
+ * evaluation of strategy5. For every driver and depth the benchmark reports the nodes visited
+ * and the time taken to get there, summed over the suite. The drivers start with empty tables
+ * in every round, so node counts do not change between rounds, and must agree on every move
+ * and score.</p>
+ */
+public final class SearchBenchmark {
+  private static final int POSITIONS = 8;
+  private static final int FIRST_PLY = 10;
+  private static final int PLY_STEP = 4;
+  private static final int DEPTH = 7;
+  private static final int ROUNDS = 3;
+
+  private SearchBenchmark() {
+  }
+
+  /**
+   * Plays random games from the start, and keeps one position of each, further into the game
+   * for every game.
+   */
+  static List<CompactBoard> suite(BoardTopology topology, int positions, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    List<CompactBoard> suite = new ArrayList<>();
+    int[] legal = new int[topology.getCellCount()];
+    while (suite.size() < positions) {
+      ReversiBoard model = topology.getShape().newBoard(topology.getSize());
+      model.startGame();
+      CompactBoard board = CompactBoard.of(model);
+      int plies = FIRST_PLY + PLY_STEP * suite.size();
+      for (int ply = 0; ply < plies && !board.isGameOver(); ply++) {
+        int count = board.legalMoves(legal);
+        if (count == 0) {
+          board.pass();
+        } else {
+          board.play(legal[random.nextInt(count)]);
+        }
+      }
+      // a game over this early says nothing about searching, so play another
+      if (!board.isGameOver()) {
+        suite.add(board);
+      }
+    }
+    return suite;
+  }
+
+  private static void run(BoardShape shape, int size) {
+    BoardTopology topology = BoardTopology.of(shape, size);
+    List<CompactBoard> suite = suite(topology, POSITIONS, size);
+    SearchDriver[] drivers = SearchDriver.values();
+    long[][] nodes = new long[drivers.length][DEPTH + 1];
+    double[][] millis = new double[drivers.length][DEPTH + 1];
+    int[][] results = new int[suite.size() * DEPTH][2];
+    for (int round = 0; round < ROUNDS; round++) {
+      for (SearchDriver driver : drivers) {
+        AlphaBetaSearch search = new AlphaBetaSearch(Strategies.evaluator(topology), driver);
+        long[] total = new long[DEPTH + 1];
+        double[] elapsed = new double[DEPTH + 1];
+        for (int p = 0; p < suite.size(); p++) {
+          CompactBoard board = suite.get(p).copy();
+          long start = System.nanoTime();
+          long before = search.getNodes();
+          for (int depth = 1; depth <= DEPTH; depth++) {
+            int move = search.search(board, depth);
+            total[depth] += search.getNodes() - before;
+            elapsed[depth] += (System.nanoTime() - start) / 1e6;
+            check(results[p * DEPTH + depth - 1], driver, move, search.getScore());
+          }
+        }
+        nodes[driver.ordinal()] = total;
+        // the best of several rounds, the first ones also warm up the compiler
+        for (int depth = 1; depth <= DEPTH; depth++) {
+          millis[driver.ordinal()][depth] = round == 0 ? elapsed[depth]
+              : Math.min(millis[driver.ordinal()][depth], elapsed[depth]);
+        }
+      }
+    }
+    System.out.printf("%s %d: %d positions%n", shape.name().toLowerCase(), size, suite.size());
+    for (int depth = 1; depth <= DEPTH; depth++) {
+      StringBuilder line = new StringBuilder(String.format("  depth %d", depth));
+      for (SearchDriver driver : drivers) {
+        line.append(String.format("  %-10s %10d nodes %9.1f ms", driver,
+            nodes[driver.ordinal()][depth], millis[driver.ordinal()][depth]));
+      }
+      System.out.println(line);
+    }
+  }
+
+  /**
+   * Checks that a driver found what the first one did on the same search.
+   */
+  private static void check(int[] expected, SearchDriver driver, int move, int score) {
+    if (driver.ordinal() == 0) {
+      expected[0] = move;
+      expected[1] = score;
+    } else if (expected[0] != move || expected[1] != score) {
+      throw new IllegalStateException(driver + " disagrees with " + SearchDriver.values()[0]);
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args unused.
+   */
+  public static void main(String[] args) {
+    run(BoardShape.HEXAGON, 6);
+    run(BoardShape.SQUARE, 8);
+  }
+}
@@ -0,0 +1,107 @@
+package cs3500.reversi.bench;
+
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures how long it takes to canonicalize positions on hexagonal boards of size 6 and 10.
+ *
+ * <p>Positions come from random games, so they have realistic disc counts. The single-pass
+ * {@link BoardSymmetries#canonicalHash(byte[], int)} is compared with building every image and
+ * hashing it separately.</p>
+ */
+public final class SymmetryBenchmark {
+  private static final int GAMES = 8;
+  private static final int ROUNDS = 20;
+
+  private SymmetryBenchmark() {
+  }
+
+  /**
+   * Plays random games and collects every position in them.
+   */
+  static List<byte[]> randomPositions(BoardTopology topology, int games, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    List<byte[]> positions = new ArrayList<>();
+    int[] legal = new int[topology.getCellCount()];
+    for (int game = 0; game < games; game++) {
+      ReversiBoard board = topology.getShape().newBoard(topology.getSize());
+      board.startGame();
+      while (!board.isGameOver()) {
+        byte[] cells = new byte[topology.getCellCount()];
+        topology.readCells(board, cells);
+        positions.add(cells);
+        HexagonPlayer player = board.getCurrentPlayer();
+        int count = 0;
+        for (int cell = 0; cell < legal.length; cell++) {
+          if (board.canMove(topology.getQ(cell), topology.getR(cell), player)) {
+            legal[count++] = cell;
+          }
+        }
+        if (count == 0) {
+          board.pass();
+        } else {
+          int cell = legal[random.nextInt(count)];
+          board.play(topology.getQ(cell), topology.getR(cell), player);
+        }
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Canonicalizes by building and hashing every image, the way it is done without tables.
+   */
+  private static long naiveCanonicalHash(BoardSymmetries symmetries, byte[] cells, byte[] image) {
+    long best = Long.MAX_VALUE;
+    for (int symmetry = 0; symmetry < symmetries.size(); symmetry++) {
+      symmetries.transform(symmetry, cells, image);
+      best = Math.min(best, symmetries.getTopology().hash(image, BoardTopology.BLACK));
+    }
+    return best;
+  }
+
+  private static void run(int size) {
+    BoardTopology topology = BoardTopology.of(BoardShape.HEXAGON, size);
+    BoardSymmetries symmetries = BoardSymmetries.of(topology);
+    List<byte[]> positions = randomPositions(topology, GAMES, size);
+    byte[] image = new byte[topology.getCellCount()];
+    long checksum = 0;
+    double naive = Double.MAX_VALUE;
+    double fast = Double.MAX_VALUE;
+    // the best of several rounds, the first ones also warm up the compiler
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (byte[] cells : positions) {
+        checksum += naiveCanonicalHash(symmetries, cells, image);
+      }
+      naive = Math.min(naive, (System.nanoTime() - start) / (double) positions.size());
+      start = System.nanoTime();
+      for (byte[] cells : positions) {
+        checksum -= symmetries.canonicalHash(cells, BoardTopology.BLACK);
+      }
+      fast = Math.min(fast, (System.nanoTime() - start) / (double) positions.size());
+    }
+    if (checksum != 0) {
+      throw new IllegalStateException("canonical hashes disagree");
+    }
+    System.out.printf("hexagon %d: %d cells, %d positions, naive %.0f ns, single pass %.0f ns"
+        + " per position%n", size, topology.getCellCount(), positions.size(), naive, fast);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args unused.
+   */
+  public static void main(String[] args) {
+    run(6);
+    run(10);
+  }
+}
@@ -0,0 +1,26 @@
+package cs3500.reversi.book;
+
+/**
+ * The layout of opening book files.
+ *
+ * <p>A book starts with a header of {@link #HEADER_LENGTH} bytes: the magic number, a version
+ * byte, the board shape's ordinal, the board size as two bytes and the number of entries as
+ * eight. It is followed by the entries, sorted by position hash, each {@link #ENTRY_LENGTH}
+ * bytes long: the canonical hash of the position, the number of games that reached it, how many
+ * of those black and white won, and the sum of the final disc differentials (black minus white)
+ * of those games. All numbers are big-endian.</p>
+ */
+final class BookFormat {
+  static final int MAGIC = 0x5256424B; // "RVBK"
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 16;
+  static final int ENTRY_LENGTH = 24;
+
+  static final int GAMES_OFFSET = 8;
+  static final int BLACK_WINS_OFFSET = 12;
+  static final int WHITE_WINS_OFFSET = 16;
+  static final int DISC_SUM_OFFSET = 20;
+
+  private BookFormat() {
+  }
+}
@@ -0,0 +1,223 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A read-only opening book, memory-mapped from a file written by {@link OpeningBookBuilder}.
+ *
+ * <p>Entries are sorted by position hash, so a lookup is a binary search over the mapped file
+ * that touches about twenty entries and allocates nothing. Lookups are safe from several
+ * threads at once.</p>
+ */
+public class OpeningBook implements Closeable {
+  private static final Map<Path, OpeningBook> LOADED = new ConcurrentHashMap<>();
+
+  private final FileChannel channel;
+  private final MappedByteBuffer entries;
+  private final BoardTopology topology;
+  private final BoardSymmetries symmetries;
+  private final int size;
+
+  /**
+   * Opens a book file.
+   *
+   * @param file the book file.
+   * @throws IOException if the file cannot be read or is not a book.
+   */
+  public OpeningBook(Path file) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      long length = channel.size();
+      if (length < BookFormat.HEADER_LENGTH || length > Integer.MAX_VALUE) {
+        throw new IOException("not an opening book: " + file);
+      }
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+      if (mapped.getInt(0) != BookFormat.MAGIC) {
+        throw new IOException("not an opening book: " + file);
+      }
+      if (mapped.get(4) != BookFormat.VERSION) {
+        throw new IOException("unsupported opening book version " + mapped.get(4));
+      }
+      BoardShape[] shapes = BoardShape.values();
+      int shape = mapped.get(5);
+      if (shape < 0 || shape >= shapes.length) {
+        throw new IOException("unknown board shape " + shape);
+      }
+      long count = mapped.getLong(8);
+      if (count != (length - BookFormat.HEADER_LENGTH) / BookFormat.ENTRY_LENGTH) {
+        throw new IOException("truncated opening book: " + file);
+      }
+      this.topology = BoardTopology.of(shapes[shape], mapped.getShort(6));
+      this.symmetries = BoardSymmetries.of(topology);
+      this.size = (int) count;
+      this.entries = mapped;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the book strategies should play from on a board: the book file of the board in the
+   * data directory of {@link BoardFiles}, if there is one. Books are
+   * opened once and shared, and stay open.
+   *
+   * @param topology the topology of the board.
+   * @return the shared book, or null if the board has none.
+   * @throws UncheckedIOException if the book file exists but cannot be read.
+   */
+  public static OpeningBook load(BoardTopology topology) {
+    Path file = BoardFiles.find(topology, "book");
+    if (file == null) {
+      return null;
+    }
+    return LOADED.computeIfAbsent(file, path -> {
+      try {
+        OpeningBook book = new OpeningBook(path);
+        if (book.getTopology() != topology) {
+          book.close();
+          throw new IOException("book for " + book.getTopology() + " in " + path);
+        }
+        return book;
+      } catch (IOException e) {
+        throw new UncheckedIOException("cannot read opening book " + path, e);
+      }
+    });
+  }
+
+  /**
+   * Gets the name of the book file of a board.
+   *
+   * @param topology the topology of the board.
+   * @return the file name, such as hexagon-6.book.
+   */
+  public static String fileName(BoardTopology topology) {
+    return BoardFiles.fileName(topology, "book");
+  }
+
+  /**
+   * Gets the board this book is for.
+   *
+   * @return the topology of the book's board.
+   */
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the number of positions in the book.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Finds the entry of a position by its canonical hash.
+   *
+   * @param hash the canonical hash, see {@link BoardSymmetries#canonicalHash(byte[], int)}.
+   * @return the entry index, or -1 if the position is not in the book.
+   */
+  public int find(long hash) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long key = entries.getLong(position(middle));
+      if (key < hash) {
+        low = middle + 1;
+      } else if (key > hash) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the entry of a position, or of any of its rotations and reflections.
+   *
+   * @param cells      the position, indexed by cell id of the book's topology.
+   * @param sideToMove the color of the player to move.
+   * @return the entry index, or -1 if the position is not in the book.
+   */
+  public int find(byte[] cells, int sideToMove) {
+    return find(symmetries.canonicalHash(cells, sideToMove));
+  }
+
+  /**
+   * Gets the number of games that reached the position of an entry.
+   *
+   * @param entry the entry index.
+   * @return the number of games.
+   */
+  public int getGames(int entry) {
+    return entries.getInt(position(entry) + BookFormat.GAMES_OFFSET);
+  }
+
+  /**
+   * Gets the number of games through the position of an entry that a player won.
+   *
+   * @param entry  the entry index.
+   * @param player BLACK or WHITE.
+   * @return the number of wins.
+   */
+  public int getWins(int entry, HexagonPlayer player) {
+    return entries.getInt(position(entry) + (player == HexagonPlayer.BLACK
+        ? BookFormat.BLACK_WINS_OFFSET : BookFormat.WHITE_WINS_OFFSET));
+  }
+
+  /**
+   * Gets the sum of the final disc differentials, black minus white, of the games through the
+   * position of an entry.
+   *
+   * @param entry the entry index.
+   * @return the sum of the differentials.
+   */
+  public int getDiscSum(int entry) {
+    return entries.getInt(position(entry) + BookFormat.DISC_SUM_OFFSET);
+  }
+
+  /**
+   * Gets how well a player did from the position of an entry, counting a win as 1 and a draw
+   * as one half.
+   *
+   * @param entry  the entry index.
+   * @param player BLACK or WHITE.
+   * @return the player's score between 0 and 1.
+   */
+  public double getScore(int entry, HexagonPlayer player) {
+    int games = getGames(entry);
+    int wins = getWins(entry, player);
+    int losses = getWins(entry, player == HexagonPlayer.BLACK
+        ? HexagonPlayer.WHITE : HexagonPlayer.BLACK);
+    return (wins + (games - wins - losses) / 2.0) / games;
+  }
+
+  private int position(int entry) {
+    if (entry < 0 || entry >= size) {
+      throw new IndexOutOfBoundsException("no entry " + entry + " in the book");
+    }
+    return BookFormat.HEADER_LENGTH + entry * BookFormat.ENTRY_LENGTH;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,217 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.record.GameArchive;
+import cs3500.reversi.record.GameHeader;
+import cs3500.reversi.record.GameRecordReader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds an opening book for one board from recorded games.
+ *
+ * <p>Every game is replayed and each of its first positions, up to a maximum number of plies,
+ * is credited with the game's outcome. Positions are keyed by their canonical hash, so a
+ * position and all of its rotations and reflections share statistics. Games played on other
+ * boards are skipped, so one archive can feed the books of several boards.</p>
+ */
+public class OpeningBookBuilder {
+  private final BoardTopology topology;
+  private final BoardSymmetries symmetries;
+  private final int maxPlies;
+  private final PositionTable table = new PositionTable();
+  private int games;
+
+  /**
+   * Constructs a builder with no games.
+   *
+   * @param topology the board of the book.
+   * @param maxPlies the number of plies from the start whose positions are added.
+   * @throws IllegalArgumentException if maxPlies is negative.
+   */
+  public OpeningBookBuilder(BoardTopology topology, int maxPlies) {
+    if (maxPlies < 0) {
+      throw new IllegalArgumentException("negative ply count");
+    }
+    this.topology = topology;
+    this.symmetries = BoardSymmetries.of(topology);
+    this.maxPlies = maxPlies;
+  }
+
+  /**
+   * Adds all remaining games of a record stream.
+   *
+   * @param reader the stream of games.
+   * @return the number of games added, not counting games on other boards.
+   * @throws IOException if a record is invalid.
+   */
+  public int add(GameRecordReader reader) throws IOException {
+    int added = 0;
+    GameHeader header;
+    while ((header = reader.nextGame()) != null) {
+      if (addGame(header, reader::nextMove, table)) {
+        added++;
+      }
+    }
+    games += added;
+    return added;
+  }
+
+  /**
+   * Adds all games of an archive, replaying them on several threads.
+   *
+   * @param archive the archive.
+   * @param threads the number of threads to replay games on.
+   * @return the number of games added, not counting games on other boards.
+   * @throws IOException if a record is invalid.
+   */
+  public int add(GameArchive archive, int threads) throws IOException {
+    // every scanning thread fills its own table, they are merged once the scan is done
+    List<PositionTable> tables = new ArrayList<>();
+    AtomicInteger added = new AtomicInteger();
+    ThreadLocal<PositionTable> local = ThreadLocal.withInitial(() -> {
+      PositionTable part = new PositionTable();
+      synchronized (tables) {
+        tables.add(part);
+      }
+      return part;
+    });
+    archive.parallelScan(threads, (index, cursor) -> {
+      if (addGame(cursor.getHeader(), cursor::nextMove, local.get())) {
+        added.incrementAndGet();
+      }
+    });
+    for (PositionTable part : tables) {
+      table.addAll(part);
+    }
+    games += added.get();
+    return added.get();
+  }
+
+  /**
+   * Replays one game and credits its first positions with the outcome.
+   *
+   * @return false if the game was played on another board.
+   */
+  private boolean addGame(GameHeader header, MoveSource moves, PositionTable into)
+      throws IOException {
+    if (header.getTopology() != topology) {
+      return false;
+    }
+    ReversiBoard board = header.newModel();
+    byte[] cells = new byte[topology.getCellCount()];
+    long[] hashes = new long[maxPlies + 1];
+    int positions = 0;
+    while (true) {
+      if (positions <= maxPlies) {
+        topology.readCells(board, cells);
+        hashes[positions++] = symmetries.canonicalHash(cells,
+            BoardTopology.colorOf(board.getCurrentPlayer()));
+      }
+      int move = moves.next();
+      if (move == GameRecordReader.END_OF_GAME) {
+        break;
+      }
+      GameRecordReader.apply(board, topology, move, board.getCurrentPlayer());
+    }
+    int result = board.getScore(HexagonPlayer.BLACK) - board.getScore(HexagonPlayer.WHITE);
+    for (int i = 0; i < positions; i++) {
+      into.addGame(hashes[i], result);
+    }
+    return true;
+  }
+
+  /**
+   * Gets the number of games added so far.
+   *
+   * @return the number of games.
+   */
+  public int getGames() {
+    return games;
+  }
+
+  /**
+   * Gets the number of distinct positions collected so far.
+   *
+   * @return the number of positions.
+   */
+  public int getPositions() {
+    return table.size();
+  }
+
+  /**
+   * Writes the book to a file, replacing it if it exists.
+   *
+   * @param file the book file.
+   * @throws IOException if writing fails.
+   */
+  public void write(Path file) throws IOException {
+    long[] keys = table.sortedKeys();
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file.toFile()), 1 << 16))) {
+      out.writeInt(BookFormat.MAGIC);
+      out.writeByte(BookFormat.VERSION);
+      out.writeByte(topology.getShape().ordinal());
+      out.writeShort(topology.getSize());
+      out.writeLong(keys.length);
+      for (long key : keys) {
+        int slot = table.find(key);
+        out.writeLong(key);
+        out.writeInt(table.games(slot));
+        out.writeInt(table.blackWins(slot));
+        out.writeInt(table.whiteWins(slot));
+        out.writeInt(table.discSum(slot));
+      }
+    }
+  }
+
+  /**
+   * Supplies the moves of the game being added.
+   */
+  private interface MoveSource {
+    int next() throws IOException;
+  }
+
+  /**
+   * Builds a book from an archive from the command line.
+   *
+   * <p>Options: --archive path (required), --out (hexagon-6.book), --shape hexagon, --size 6,
+   * --plies 16, --threads (all cores).</p>
+   *
+   * @param args the command line options.
+   * @throws Exception if the build fails.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    if (!options.containsKey("archive")) {
+      throw new IllegalArgumentException("--archive is required");
+    }
+    BoardTopology topology = BoardTopology.of(
+        BoardShape.parse(options.getOrDefault("shape", "hexagon")),
+        Integer.parseInt(options.getOrDefault("size", "6")));
+    OpeningBookBuilder builder = new OpeningBookBuilder(topology,
+        Integer.parseInt(options.getOrDefault("plies", "16")));
+    int threads = Integer.parseInt(options.getOrDefault("threads",
+        Integer.toString(Runtime.getRuntime().availableProcessors())));
+    long start = System.nanoTime();
+    try (GameArchive archive = new GameArchive(Paths.get(options.get("archive")))) {
+      builder.add(archive, threads);
+    }
+    builder.write(Paths.get(options.getOrDefault("out", OpeningBook.fileName(topology))));
+    System.out.printf("games = %d, positions = %d, %.2f s%n", builder.getGames(),
+        builder.getPositions(), (System.nanoTime() - start) / 1e9);
+  }
+}
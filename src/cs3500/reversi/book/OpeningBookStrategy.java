@@ -0,0 +1,80 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiMutableModel;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Moves;
+import cs3500.reversi.strategy.ReversiStrategy;
+
+/**
+ * A strategy that plays the move whose resulting position scored best for the player in an
+ * opening book.
+ *
+ * <p>Only positions reached by enough games are trusted. When no move leads to one, or the game
+ * is on another board than the book's, the strategy throws like any strategy without a move, so
+ * it is meant to be the first strategy of a {@link cs3500.reversi.strategy.TryTwo}, with a
+ * searching strategy as the second.</p>
+ */
+public class OpeningBookStrategy implements ReversiStrategy {
+  private final OpeningBook book;
+  private final int minGames;
+
+  /**
+   * Constructs a strategy that plays from the given book.
+   *
+   * @param book     the book to play from.
+   * @param minGames the number of games a position needs in the book to be played into.
+   * @throws IllegalArgumentException if minGames is less than 1.
+   */
+  public OpeningBookStrategy(OpeningBook book, int minGames) {
+    if (minGames < 1) {
+      throw new IllegalArgumentException("minGames must be at least 1");
+    }
+    this.book = book;
+    this.minGames = minGames;
+  }
+
+  @Override
+  public Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player) {
+    BoardTopology topology = book.getTopology();
+    if (BoardTopology.of(model) != topology) {
+      throw new IllegalStateException("the book is for another board");
+    }
+    BoardSymmetries symmetries = BoardSymmetries.of(topology);
+    byte[] cells = new byte[topology.getCellCount()];
+    int bestCell = -1;
+    double bestScore = -1;
+    int bestGames = 0;
+    for (int cell = 0; cell < topology.getCellCount(); cell++) {
+      int q = topology.getQ(cell);
+      int r = topology.getR(cell);
+      if (!model.canMove(q, r, player)) {
+        continue;
+      }
+      ReversiMutableModel copy = model.mutableCopy();
+      copy.play(q, r, player);
+      ReversiReadOnlyModel child = copy.readOnlyCopy();
+      topology.readCells(child, cells);
+      int entry = book.find(symmetries.canonicalHash(cells,
+          BoardTopology.colorOf(child.getCurrentPlayer())));
+      if (entry < 0 || book.getGames(entry) < minGames) {
+        continue;
+      }
+      double score = book.getScore(entry, player);
+      int games = book.getGames(entry);
+      // between equally good moves, trust the one with more games
+      if (score > bestScore || (score == bestScore && games > bestGames)) {
+        bestCell = cell;
+        bestScore = score;
+        bestGames = games;
+      }
+    }
+    if (bestCell < 0) {
+      throw new IllegalStateException("no book move");
+    }
+    return Moves.of(topology).get(bestCell, player);
+  }
+}
@@ -0,0 +1,347 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Solves a small board completely by retrograde analysis and writes the result as a
+ * {@link PerfectPlayDatabase}.
+ *
+ * <p>Every position reachable from the starting setup is enumerated first, layer by layer,
+ * since every move adds exactly one disc; positions are told apart by their canonical hash, so
+ * rotations and reflections are enumerated once. The layers are then valued from the full board
+ * back to the start: a finished game is worth its disc differential, a position with moves the
+ * best of its children, and a position whose side must pass the opposite of the same discs with
+ * the opponent to move, which has moves and so is valued first.</p>
+ *
+ * <p>Positions are packed two bits a cell into a long, which limits the builder to boards of at
+ * most {@link #MAX_CELLS} cells: the hexagon of size 3 and the squares up to size 4. A square
+ * of size 6 has far too many reachable positions to enumerate.</p>
+ */
+public class PerfectPlayBuilder {
+  /**
+   * The most cells a board may have to be solved.
+   */
+  public static final int MAX_CELLS = 31;
+
+  // marks a position that was enumerated but not valued yet
+  private static final byte UNKNOWN = Byte.MIN_VALUE;
+  private static final int SIDE_SHIFT = 62;
+
+  private final BoardTopology topology;
+  private final BoardSymmetries symmetries;
+  // the positions of every disc count, packed
+  private final long[][] layers;
+  private final int[] layerSizes;
+  private final ValueTable values = new ValueTable();
+  private final byte[] cells;
+  private boolean solved;
+
+  /**
+   * Constructs a builder for a board.
+   *
+   * @param topology the board to solve.
+   * @throws IllegalArgumentException if the board has more than {@link #MAX_CELLS} cells.
+   */
+  public PerfectPlayBuilder(BoardTopology topology) {
+    if (topology.getCellCount() > MAX_CELLS) {
+      throw new IllegalArgumentException("a board of " + topology.getCellCount()
+          + " cells is too large to solve completely");
+    }
+    this.topology = topology;
+    this.symmetries = BoardSymmetries.of(topology);
+    this.layers = new long[topology.getCellCount() + 1][];
+    this.layerSizes = new int[layers.length];
+    for (int discs = 0; discs < layers.length; discs++) {
+      layers[discs] = new long[16];
+    }
+    this.cells = new byte[topology.getCellCount()];
+  }
+
+  /**
+   * Enumerates and values every position reachable from the starting setup. Does nothing if
+   * the board is solved already.
+   *
+   * @return the number of distinct positions, up to symmetry.
+   */
+  public int solve() {
+    if (!solved) {
+      ReversiBoard model = topology.getShape().newBoard(topology.getSize());
+      model.startGame();
+      CompactBoard board = CompactBoard.of(model);
+      enumerate(board);
+      for (int discs = layers.length - 1; discs >= 0; discs--) {
+        value(board, discs);
+      }
+      solved = true;
+    }
+    return values.size();
+  }
+
+  private void enumerate(CompactBoard start) {
+    CompactBoard board = new CompactBoard(topology);
+    int[] moves = new int[topology.getCellCount()];
+    start.copyCells(cells);
+    add(cells, start.getSideToMove(), cellCount() - start.getEmptyCount());
+    for (int discs = 0; discs < layers.length; discs++) {
+      // passes add to the layer being walked, so its size is read every time
+      for (int i = 0; i < layerSizes[discs]; i++) {
+        load(board, layers[discs][i]);
+        int count = board.legalMoves(moves);
+        if (count == 0) {
+          if (board.hasLegalMove(opponent(board.getSideToMove()))) {
+            board.pass();
+            board.copyCells(cells);
+            add(cells, board.getSideToMove(), discs);
+          }
+          continue;
+        }
+        for (int m = 0; m < count; m++) {
+          board.play(moves[m]);
+          board.copyCells(cells);
+          add(cells, board.getSideToMove(), discs + 1);
+          board.undo();
+        }
+      }
+    }
+  }
+
+  /**
+   * Values the positions of one disc count, all of whose children are valued.
+   */
+  private void value(CompactBoard board, int discs) {
+    int[] moves = new int[topology.getCellCount()];
+    // positions with moves first, since the ones that must pass are valued from them
+    for (int pass = 0; pass < 2; pass++) {
+      for (int i = 0; i < layerSizes[discs]; i++) {
+        load(board, layers[discs][i]);
+        int count = board.legalMoves(moves);
+        if ((count == 0) != (pass == 1)) {
+          continue;
+        }
+        int value;
+        if (count > 0) {
+          value = -Byte.MAX_VALUE;
+          for (int m = 0; m < count; m++) {
+            board.play(moves[m]);
+            value = Math.max(value, -valueOf(board));
+            board.undo();
+          }
+        } else if (board.isGameOver()) {
+          int own = board.count(board.getSideToMove());
+          value = own - board.count(opponent(board.getSideToMove()));
+        } else {
+          board.pass();
+          value = -valueOf(board);
+          board.undo();
+        }
+        board.copyCells(cells);
+        values.put(symmetries.canonicalHash(cells, board.getSideToMove()), (byte) value);
+      }
+    }
+  }
+
+  private int valueOf(CompactBoard board) {
+    board.copyCells(cells);
+    byte value = values.get(symmetries.canonicalHash(cells, board.getSideToMove()));
+    if (value == UNKNOWN) {
+      throw new IllegalStateException("position valued before its children");
+    }
+    return value;
+  }
+
+  private void add(byte[] position, int sideToMove, int discs) {
+    long hash = symmetries.canonicalHash(position, sideToMove);
+    if (hash == 0) {
+      // zero marks an empty slot of the database
+      throw new IllegalStateException("position with a zero hash");
+    }
+    if (values.get(hash) != ValueTable.ABSENT) {
+      return;
+    }
+    values.put(hash, UNKNOWN);
+    if (layerSizes[discs] == layers[discs].length) {
+      layers[discs] = Arrays.copyOf(layers[discs], layers[discs].length * 2);
+    }
+    layers[discs][layerSizes[discs]++] = pack(position, sideToMove);
+  }
+
+  private static long pack(byte[] position, int sideToMove) {
+    long packed = (long) (sideToMove - 1) << SIDE_SHIFT;
+    for (int cell = 0; cell < position.length; cell++) {
+      packed |= (long) position[cell] << (2 * cell);
+    }
+    return packed;
+  }
+
+  private void load(CompactBoard board, long packed) {
+    for (int cell = 0; cell < cells.length; cell++) {
+      cells[cell] = (byte) ((packed >>> (2 * cell)) & 3);
+    }
+    board.set(cells, (int) (packed >>> SIDE_SHIFT) + 1);
+  }
+
+  private int cellCount() {
+    return topology.getCellCount();
+  }
+
+  private static int opponent(int color) {
+    return BoardTopology.BLACK + BoardTopology.WHITE - color;
+  }
+
+  /**
+   * Gets the value of a position under perfect play.
+   *
+   * @param position   the cells of the position.
+   * @param sideToMove the color of the player to move.
+   * @return the final disc differential for the side to move.
+   * @throws IllegalStateException if the board is not solved or the position not reachable.
+   */
+  public int getValue(byte[] position, int sideToMove) {
+    byte value = values.get(symmetries.canonicalHash(position, sideToMove));
+    if (!solved || value == ValueTable.ABSENT) {
+      throw new IllegalStateException("position not solved");
+    }
+    return value;
+  }
+
+  /**
+   * Solves the board if needed and writes the database, replacing the file if it exists. The
+   * table is at most three quarters full, so lookups stay short.
+   *
+   * @param file the database file.
+   * @throws IOException if writing fails.
+   */
+  public void write(Path file) throws IOException {
+    solve();
+    int slots = Integer.highestOneBit(Math.max(1, values.size() * 4 / 3)) * 2;
+    int mask = slots - 1;
+    long[] keys = new long[slots];
+    byte[] slotValues = new byte[slots];
+    for (int i = 0; i < values.capacity(); i++) {
+      long key = values.keyAt(i);
+      if (key != 0) {
+        int slot = PerfectPlayFormat.slot(key, mask);
+        while (keys[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        slotValues[slot] = values.valueAt(i);
+      }
+    }
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file.toFile()), 1 << 16))) {
+      out.writeInt(PerfectPlayFormat.MAGIC);
+      out.writeByte(PerfectPlayFormat.VERSION);
+      out.writeByte(topology.getShape().ordinal());
+      out.writeShort(topology.getSize());
+      out.writeInt(slots);
+      out.writeInt(values.size());
+      for (long key : keys) {
+        out.writeLong(key);
+      }
+      out.write(slotValues);
+    }
+  }
+
+  /**
+   * A growing hash table from canonical hashes to values, in flat arrays.
+   */
+  private static final class ValueTable {
+    static final byte ABSENT = Byte.MAX_VALUE;
+
+    private long[] keys = new long[1 << 10];
+    private byte[] values = new byte[1 << 10];
+    private int size;
+
+    byte get(long key) {
+      int slot = find(key);
+      return keys[slot] == 0 ? ABSENT : values[slot];
+    }
+
+    void put(long key, byte value) {
+      if (size * 4 >= keys.length * 3) {
+        grow();
+      }
+      int slot = find(key);
+      if (keys[slot] == 0) {
+        keys[slot] = key;
+        size++;
+      }
+      values[slot] = value;
+    }
+
+    private int find(long key) {
+      int mask = keys.length - 1;
+      int slot = PerfectPlayFormat.slot(key, mask);
+      while (keys[slot] != 0 && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    private void grow() {
+      long[] oldKeys = keys;
+      byte[] oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new byte[oldKeys.length * 2];
+      for (int old = 0; old < oldKeys.length; old++) {
+        if (oldKeys[old] != 0) {
+          int slot = find(oldKeys[old]);
+          keys[slot] = oldKeys[old];
+          values[slot] = oldValues[old];
+        }
+      }
+    }
+
+    int size() {
+      return size;
+    }
+
+    int capacity() {
+      return keys.length;
+    }
+
+    long keyAt(int slot) {
+      return keys[slot];
+    }
+
+    byte valueAt(int slot) {
+      return values[slot];
+    }
+  }
+
+  /**
+   * Solves a board from the command line and writes its database.
+   *
+   * <p>Options, all optional: --shape hexagon, --size 3, --out (hexagon-3.perfect).</p>
+   *
+   * @param args the command line options.
+   * @throws IOException if writing the database fails.
+   */
+  public static void main(String[] args) throws IOException {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    BoardTopology topology = BoardTopology.of(
+        BoardShape.parse(options.getOrDefault("shape", "hexagon")),
+        Integer.parseInt(options.getOrDefault("size", "3")));
+    Path out = Paths.get(options.getOrDefault("out", PerfectPlayDatabase.fileName(topology)));
+    long start = System.nanoTime();
+    PerfectPlayBuilder builder = new PerfectPlayBuilder(topology);
+    int positions = builder.solve();
+    builder.write(out);
+    System.out.printf("%s: %d positions, %.1f s, written to %s%n", topology, positions,
+        (System.nanoTime() - start) / 1e9, out);
+  }
+}
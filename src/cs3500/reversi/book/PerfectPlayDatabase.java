@@ -0,0 +1,177 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The value under perfect play of every position reachable on a small board, memory-mapped from
+ * a file written by {@link PerfectPlayBuilder}.
+ *
+ * <p>The file is a hash table keyed by canonical hash, so a lookup reads a slot or two of the
+ * mapped file and allocates nothing, however many positions there are. Lookups are safe from
+ * several threads at once. Since it is exact, the database is also the reference the faster
+ * engines are tested against.</p>
+ */
+public class PerfectPlayDatabase implements Closeable {
+  /**
+   * Returned by {@link #getValue(long)} for a position that is not in the database.
+   */
+  public static final int UNKNOWN = Integer.MIN_VALUE;
+
+  private static final Map<Path, PerfectPlayDatabase> LOADED = new ConcurrentHashMap<>();
+
+  private final FileChannel channel;
+  private final MappedByteBuffer table;
+  private final BoardTopology topology;
+  private final BoardSymmetries symmetries;
+  private final int mask;
+  private final int size;
+  private final int valuesStart;
+
+  /**
+   * Opens a database file.
+   *
+   * @param file the database file.
+   * @throws IOException if the file cannot be read or is not a database.
+   */
+  public PerfectPlayDatabase(Path file) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      long length = channel.size();
+      if (length < PerfectPlayFormat.HEADER_LENGTH || length > Integer.MAX_VALUE) {
+        throw new IOException("not a perfect-play database: " + file);
+      }
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+      if (mapped.getInt(0) != PerfectPlayFormat.MAGIC) {
+        throw new IOException("not a perfect-play database: " + file);
+      }
+      if (mapped.get(4) != PerfectPlayFormat.VERSION) {
+        throw new IOException("unsupported perfect-play database version " + mapped.get(4));
+      }
+      BoardShape[] shapes = BoardShape.values();
+      int shape = mapped.get(5);
+      if (shape < 0 || shape >= shapes.length) {
+        throw new IOException("unknown board shape " + shape);
+      }
+      int slots = mapped.getInt(8);
+      if (slots <= 0 || Integer.bitCount(slots) != 1
+          || length != PerfectPlayFormat.HEADER_LENGTH + 9L * slots) {
+        throw new IOException("truncated perfect-play database: " + file);
+      }
+      this.topology = BoardTopology.of(shapes[shape], mapped.getShort(6));
+      this.symmetries = BoardSymmetries.of(topology);
+      this.mask = slots - 1;
+      this.size = mapped.getInt(12);
+      this.valuesStart = PerfectPlayFormat.HEADER_LENGTH + 8 * slots;
+      this.table = mapped;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the database strategies should play from on a board: the database file of the board
+   * in the data directory of {@link BoardFiles}, if there is one.
+   * Databases are opened once and shared, and stay open.
+   *
+   * @param topology the topology of the board.
+   * @return the shared database, or null if the board has none.
+   * @throws UncheckedIOException if the database file exists but cannot be read.
+   */
+  public static PerfectPlayDatabase load(BoardTopology topology) {
+    Path file = BoardFiles.find(topology, "perfect");
+    if (file == null) {
+      return null;
+    }
+    return LOADED.computeIfAbsent(file, path -> {
+      try {
+        PerfectPlayDatabase database = new PerfectPlayDatabase(path);
+        if (database.getTopology() != topology) {
+          database.close();
+          throw new IOException("database for " + database.getTopology() + " in " + path);
+        }
+        return database;
+      } catch (IOException e) {
+        throw new UncheckedIOException("cannot read perfect-play database " + path, e);
+      }
+    });
+  }
+
+  /**
+   * Gets the name of the database file of a board.
+   *
+   * @param topology the topology of the board.
+   * @return the file name, such as hexagon-3.perfect.
+   */
+  public static String fileName(BoardTopology topology) {
+    return BoardFiles.fileName(topology, "perfect");
+  }
+
+  /**
+   * Gets the board this database is for.
+   *
+   * @return the topology of the database's board.
+   */
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the number of positions in the database, counting rotations and reflections once.
+   *
+   * @return the number of positions.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the value of a position by its canonical hash.
+   *
+   * @param hash the canonical hash, see {@link BoardSymmetries#canonicalHash(byte[], int)}.
+   * @return the final disc differential for the side to move under perfect play, or
+   *         {@link #UNKNOWN} if the position is not in the database.
+   */
+  public int getValue(long hash) {
+    int slot = PerfectPlayFormat.slot(hash, mask);
+    while (true) {
+      long key = table.getLong(PerfectPlayFormat.HEADER_LENGTH + 8 * slot);
+      if (key == hash) {
+        return table.get(valuesStart + slot);
+      }
+      if (key == 0) {
+        return UNKNOWN;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * Gets the value of a position, or of any of its rotations and reflections.
+   *
+   * @param cells      the position, indexed by cell id of the database's topology.
+   * @param sideToMove the color of the player to move.
+   * @return the final disc differential for the side to move under perfect play, or
+   *         {@link #UNKNOWN} if the position is not in the database.
+   */
+  public int getValue(byte[] cells, int sideToMove) {
+    return getValue(symmetries.canonicalHash(cells, sideToMove));
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,32 @@
+package cs3500.reversi.book;
+
+/**
+ * The layout of perfect-play database files.
+ *
+ * <p>A database starts with a header of {@link #HEADER_LENGTH} bytes: the magic number, a
+ * version byte, the board shape's ordinal, the board size as two bytes, the number of slots as
+ * four bytes (a power of two) and the number of positions as four. It is followed by an open
+ * addressing hash table: first the canonical hash of every slot as eight bytes, zero for an
+ * empty slot, then the value of every slot as one signed byte, the final disc differential of
+ * the side to move under perfect play. A position lives in the first slot at or after
+ * {@link #slot(long, int)} of its hash that holds it. All numbers are big-endian.</p>
+ */
+final class PerfectPlayFormat {
+  static final int MAGIC = 0x52565050; // "RVPP"
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 16;
+
+  private PerfectPlayFormat() {
+  }
+
+  /**
+   * Gets the home slot of a canonical hash.
+   *
+   * @param hash the canonical hash.
+   * @param mask the number of slots minus one.
+   */
+  static int slot(long hash, int mask) {
+    // the low bits of a zobrist hash are already random, mixing only spreads sequential keys
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+}
@@ -0,0 +1,65 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Moves;
+import cs3500.reversi.strategy.ReversiStrategy;
+
+/**
+ * A strategy that plays perfectly from a {@link PerfectPlayDatabase}: the move whose resulting
+ * position is worst for the opponent, and of equally good moves the one on the lowest cell id.
+ *
+ * <p>When the game is on another board than the database's, or a position after a move is not
+ * in it, the strategy throws like any strategy without a move, so that a
+ * {@link cs3500.reversi.strategy.TryTwo} can fall back to a searching strategy.</p>
+ */
+public class PerfectPlayStrategy implements ReversiStrategy {
+  private final PerfectPlayDatabase database;
+
+  /**
+   * Constructs a strategy that plays from the given database.
+   *
+   * @param database the database to play from.
+   */
+  public PerfectPlayStrategy(PerfectPlayDatabase database) {
+    this.database = database;
+  }
+
+  @Override
+  public Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player) {
+    BoardTopology topology = database.getTopology();
+    if (BoardTopology.of(model) != topology) {
+      throw new IllegalStateException("the database is for another board");
+    }
+    CompactBoard board = CompactBoard.of(model);
+    if (board.getSideToMove() != BoardTopology.colorOf(player)) {
+      board.pass();
+    }
+    int[] moves = new int[topology.getCellCount()];
+    int count = board.legalMoves(moves);
+    byte[] cells = new byte[topology.getCellCount()];
+    int bestCell = -1;
+    int bestValue = Integer.MIN_VALUE;
+    // moves come in cell order, so the first of equal moves is kept
+    for (int i = 0; i < count; i++) {
+      board.play(moves[i]);
+      board.copyCells(cells);
+      int value = database.getValue(cells, board.getSideToMove());
+      board.undo();
+      if (value == PerfectPlayDatabase.UNKNOWN) {
+        throw new IllegalStateException("position not in the database");
+      }
+      if (-value > bestValue) {
+        bestValue = -value;
+        bestCell = moves[i];
+      }
+    }
+    if (bestCell < 0) {
+      throw new IllegalStateException("no move available, must be passed");
+    }
+    return Moves.of(topology).get(bestCell, player);
+  }
+}
@@ -0,0 +1,101 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.model.BoardTopology;
+
+/**
+ * The conditions a {@link PositionStore} query puts on positions: a range of empties, the side
+ * to move and a range of final disc differentials for the side to move. A query is immutable;
+ * every condition added gives a new query.
+ *
+ * <p>For example, the positions with 12 empties where black is to move and wins by more than
+ * 10 discs are {@code PositionQuery.ALL.withEmpties(12, 12).withSideToMove(BoardTopology.BLACK)
+ * .withDifferential(11, Integer.MAX_VALUE)}.</p>
+ */
+public final class PositionQuery {
+  /**
+   * The query every position matches.
+   */
+  public static final PositionQuery ALL = new PositionQuery(0, Integer.MAX_VALUE,
+      BoardTopology.EMPTY, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+  private final int minEmpties;
+  private final int maxEmpties;
+  private final int side;
+  private final int minDifferential;
+  private final int maxDifferential;
+
+  private PositionQuery(int minEmpties, int maxEmpties, int side, int minDifferential,
+      int maxDifferential) {
+    this.minEmpties = minEmpties;
+    this.maxEmpties = maxEmpties;
+    this.side = side;
+    this.minDifferential = minDifferential;
+    this.maxDifferential = maxDifferential;
+  }
+
+  /**
+   * Limits the number of empty cells.
+   *
+   * @param min the fewest empties, inclusive.
+   * @param max the most empties, inclusive.
+   * @return the query with the range of empties replaced.
+   */
+  public PositionQuery withEmpties(int min, int max) {
+    return new PositionQuery(Math.max(0, min), max, side, minDifferential, maxDifferential);
+  }
+
+  /**
+   * Limits the side to move.
+   *
+   * @param color {@link BoardTopology#BLACK}, {@link BoardTopology#WHITE}, or
+   *              {@link BoardTopology#EMPTY} for either.
+   * @return the query with the side to move replaced.
+   * @throws IllegalArgumentException if the color is none of those.
+   */
+  public PositionQuery withSideToMove(int color) {
+    if (color < BoardTopology.EMPTY || color > BoardTopology.WHITE) {
+      throw new IllegalArgumentException("invalid color " + color);
+    }
+    return new PositionQuery(minEmpties, maxEmpties, color, minDifferential, maxDifferential);
+  }
+
+  /**
+   * Limits the mean final disc differential for the side to move.
+   *
+   * @param min the lowest differential, inclusive.
+   * @param max the highest differential, inclusive.
+   * @return the query with the range of differentials replaced.
+   */
+  public PositionQuery withDifferential(int min, int max) {
+    return new PositionQuery(minEmpties, maxEmpties, side, min, max);
+  }
+
+  int getMinEmpties() {
+    return minEmpties;
+  }
+
+  int getMaxEmpties() {
+    return maxEmpties;
+  }
+
+  int getSide() {
+    return side;
+  }
+
+  int getMinDifferential() {
+    return minDifferential;
+  }
+
+  int getMaxDifferential() {
+    return maxDifferential;
+  }
+
+  /**
+   * Checks whether a row matches every condition.
+   */
+  boolean matches(int empties, int sideToMove, int differential) {
+    return empties >= minEmpties && empties <= maxEmpties
+        && (side == BoardTopology.EMPTY || side == sideToMove)
+        && differential >= minDifferential && differential <= maxDifferential;
+  }
+}
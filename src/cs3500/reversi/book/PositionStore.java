@@ -0,0 +1,440 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The positions of recorded games, memory-mapped from a file written by
+ * {@link PositionStoreBuilder}, to be looked up by position or queried by empties, side to move
+ * and outcome.
+ *
+ * <p>The file is laid out in columns, so a query only reads the columns it tests, and rows are
+ * sorted by canonical hash, so a position is found by binary search. The rows are cut into
+ * segments that carry their own secondary indexes on empties, side to move and differential. A
+ * query runs on every segment at once: each picks the index that leaves the fewest candidate
+ * rows for the query, and tests only those against the other conditions.</p>
+ *
+ * <p>A row is identified by its number, from 0 to {@link #size()}, and queries return row
+ * numbers in ascending order, which is the order of their hashes. Reads are safe from several
+ * threads at once.</p>
+ */
+public class PositionStore implements Closeable {
+  private final FileChannel channel;
+  private final BoardTopology topology;
+  private final BoardSymmetries symmetries;
+  private final int rows;
+  private final int segmentRows;
+  private final int cellBytes;
+  private final MappedByteBuffer[] columns;
+  private final MappedByteBuffer[] indexes;
+
+  /**
+   * Opens a store file.
+   *
+   * @param file the store file.
+   * @throws IOException if the file cannot be read or is not a position store.
+   */
+  public PositionStore(Path file) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          Math.min(channel.size(), PositionStoreFormat.HEADER_LENGTH));
+      if (header.limit() < PositionStoreFormat.HEADER_LENGTH
+          || header.getInt(0) != PositionStoreFormat.MAGIC) {
+        throw new IOException("not a position store: " + file);
+      }
+      if (header.get(4) != PositionStoreFormat.VERSION) {
+        throw new IOException("unsupported position store version " + header.get(4));
+      }
+      BoardShape[] shapes = BoardShape.values();
+      int shape = header.get(5);
+      if (shape < 0 || shape >= shapes.length) {
+        throw new IOException("unknown board shape " + shape);
+      }
+      this.topology = BoardTopology.of(shapes[shape], header.getShort(6));
+      this.symmetries = BoardSymmetries.of(topology);
+      this.rows = header.getInt(8);
+      this.segmentRows = header.getInt(12);
+      int cellCount = topology.getCellCount();
+      this.cellBytes = PositionStoreFormat.cellBytes(cellCount);
+      if (rows < 0 || segmentRows < 1) {
+        throw new IOException("corrupt position store: " + file);
+      }
+      this.columns = new MappedByteBuffer[PositionStoreFormat.CELLS + 1];
+      for (int column = 0; column < columns.length; column++) {
+        long length = (long) rows * PositionStoreFormat.width(column, cellCount);
+        if (length > Integer.MAX_VALUE) {
+          throw new IOException("too many rows to map: " + rows);
+        }
+        columns[column] = map(PositionStoreFormat.columnOffset(column, rows, cellCount),
+            length, file);
+      }
+      this.indexes = new MappedByteBuffer[(int) ((rows + (long) segmentRows - 1) / segmentRows)];
+      long offset = PositionStoreFormat.columnOffset(columns.length, rows, cellCount);
+      for (int segment = 0; segment < indexes.length; segment++) {
+        long length = PositionStoreFormat.indexLength(segmentLength(segment), cellCount);
+        indexes[segment] = map(offset, length, file);
+        offset += length;
+      }
+      if (offset != channel.size()) {
+        throw new IOException("truncated position store: " + file);
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private MappedByteBuffer map(long offset, long length, Path file) throws IOException {
+    if (offset + length > channel.size()) {
+      throw new IOException("truncated position store: " + file);
+    }
+    return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+  }
+
+  private int segmentLength(int segment) {
+    return Math.min(segmentRows, rows - segment * segmentRows);
+  }
+
+  /**
+   * Gets the board this store is for.
+   *
+   * @return the topology of the store's board.
+   */
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the number of positions in the store, counting rotations and reflections once.
+   *
+   * @return the number of rows.
+   */
+  public int size() {
+    return rows;
+  }
+
+  /**
+   * Gets the number of segments the rows are cut into.
+   *
+   * @return the number of segments.
+   */
+  public int getSegmentCount() {
+    return indexes.length;
+  }
+
+  /**
+   * Finds a position by its canonical hash.
+   *
+   * @param hash the canonical hash, see {@link BoardSymmetries#canonicalHash(byte[], int)}.
+   * @return the row of the position, or -1 if it is not in the store.
+   */
+  public int find(long hash) {
+    int low = 0;
+    int high = rows - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long key = getHash(middle);
+      if (key < hash) {
+        low = middle + 1;
+      } else if (key > hash) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Finds a position, or any of its rotations and reflections.
+   *
+   * @param cells      the position, indexed by cell id of the store's topology.
+   * @param sideToMove the color of the player to move.
+   * @return the row of the position, or -1 if it is not in the store.
+   */
+  public int find(byte[] cells, int sideToMove) {
+    return find(symmetries.canonicalHash(cells, sideToMove));
+  }
+
+  /**
+   * Gets the canonical hash of a row.
+   *
+   * @param row the row number.
+   * @return the hash.
+   */
+  public long getHash(int row) {
+    return columns[PositionStoreFormat.HASH].getLong(row * 8);
+  }
+
+  /**
+   * Gets the number of empty cells of a row.
+   *
+   * @param row the row number.
+   * @return the number of empties.
+   */
+  public int getEmpties(int row) {
+    return columns[PositionStoreFormat.EMPTIES].get(row) & 0xFF;
+  }
+
+  /**
+   * Gets the side to move of a row.
+   *
+   * @param row the row number.
+   * @return {@link BoardTopology#BLACK} or {@link BoardTopology#WHITE}.
+   */
+  public int getSideToMove(int row) {
+    return columns[PositionStoreFormat.SIDE].get(row);
+  }
+
+  /**
+   * Gets the mean final disc differential of the games that reached a row.
+   *
+   * @param row the row number.
+   * @return the differential for the side to move, rounded.
+   */
+  public int getDifferential(int row) {
+    return columns[PositionStoreFormat.DIFFERENTIAL].getShort(row * 2);
+  }
+
+  /**
+   * Gets the number of games that reached a row.
+   *
+   * @param row the row number.
+   * @return the number of games.
+   */
+  public int getGames(int row) {
+    return columns[PositionStoreFormat.GAMES].getInt(row * 4);
+  }
+
+  /**
+   * Gets the cells of a row, in the orientation of the position's canonical image.
+   *
+   * @param row   the row number.
+   * @param cells filled with the cells, indexed by cell id.
+   */
+  public void getCells(int row, byte[] cells) {
+    MappedByteBuffer column = columns[PositionStoreFormat.CELLS];
+    int start = row * cellBytes;
+    for (int cell = 0; cell < topology.getCellCount(); cell++) {
+      cells[cell] = (byte) ((column.get(start + cell / 4) >> (2 * (cell % 4))) & 3);
+    }
+  }
+
+  /**
+   * Finds the rows that match a query on the calling thread.
+   *
+   * @param query the conditions on the rows.
+   * @return the matching row numbers, in ascending order.
+   */
+  public int[] query(PositionQuery query) {
+    List<int[]> parts = new ArrayList<>();
+    for (int segment = 0; segment < indexes.length; segment++) {
+      parts.add(scan(segment, query));
+    }
+    return concatenate(parts);
+  }
+
+  /**
+   * Finds the rows that match a query, scanning the segments on several threads.
+   *
+   * @param query   the conditions on the rows.
+   * @param threads the number of threads to scan with.
+   * @return the matching row numbers, in ascending order.
+   * @throws IllegalStateException if interrupted while waiting for the scans.
+   */
+  public int[] query(PositionQuery query, int threads) {
+    int parts = Math.max(1, Math.min(threads, indexes.length));
+    if (parts == 1) {
+      return query(query);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(parts);
+    try {
+      List<Future<int[]>> scans = new ArrayList<>();
+      for (int segment = 0; segment < indexes.length; segment++) {
+        int which = segment;
+        scans.add(executor.submit(() -> scan(which, query)));
+      }
+      List<int[]> results = new ArrayList<>();
+      for (Future<int[]> scan : scans) {
+        results.add(scan.get());
+      }
+      return concatenate(results);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while querying", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("failed to query the store", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static int[] concatenate(List<int[]> parts) {
+    int length = 0;
+    for (int[] part : parts) {
+      length += part.length;
+    }
+    int[] all = new int[length];
+    int at = 0;
+    for (int[] part : parts) {
+      System.arraycopy(part, 0, all, at, part.length);
+      at += part.length;
+    }
+    return all;
+  }
+
+  /**
+   * Finds the rows of one segment that match a query, through the index that leaves the fewest
+   * candidates.
+   */
+  private int[] scan(int segment, PositionQuery query) {
+    MappedByteBuffer index = indexes[segment];
+    int first = segment * segmentRows;
+    int length = segmentLength(segment);
+    int buckets = topology.getCellCount() + 2;
+    int byEmpties = 4 * buckets;
+    int sideStarts = byEmpties + 4 * length;
+    int bySide = sideStarts + 4 * 4;
+    int byDifferential = bySide + 4 * length;
+
+    // the candidates of every index, as a range of its list
+    int lowEmpties = Math.max(0, Math.min(buckets - 1, query.getMinEmpties()));
+    int highEmpties = (int) Math.max(0, Math.min(buckets - 1, query.getMaxEmpties() + 1L));
+    int from = index.getInt(4 * lowEmpties);
+    int to = Math.max(from, index.getInt(4 * highEmpties));
+    int list = byEmpties;
+    if (query.getSide() != BoardTopology.EMPTY) {
+      int sideFrom = index.getInt(sideStarts + 4 * query.getSide());
+      int sideTo = index.getInt(sideStarts + 4 * (query.getSide() + 1));
+      if (sideTo - sideFrom < to - from) {
+        from = sideFrom;
+        to = sideTo;
+        list = bySide;
+      }
+    }
+    int differentialFrom = lowerBound(index, byDifferential, first, length,
+        query.getMinDifferential());
+    int differentialTo = lowerBound(index, byDifferential, first, length,
+        query.getMaxDifferential() + 1L);
+    if (differentialTo - differentialFrom < to - from) {
+      from = differentialFrom;
+      to = differentialTo;
+      list = byDifferential;
+    }
+
+    int[] found = new int[Math.max(0, to - from)];
+    int count = 0;
+    for (int i = from; i < to; i++) {
+      int row = first + index.getInt(list + 4 * i);
+      if (query.matches(getEmpties(row), getSideToMove(row), getDifferential(row))) {
+        found[count++] = row;
+      }
+    }
+    found = Arrays.copyOf(found, count);
+    if (list != byEmpties || lowEmpties + 1 < highEmpties) {
+      // the lists are in hash order within a key only
+      Arrays.sort(found);
+    }
+    return found;
+  }
+
+  /**
+   * Gets the first place in the differential list of a segment whose row has at least a given
+   * differential.
+   */
+  private int lowerBound(MappedByteBuffer index, int list, int first, int length, long value) {
+    int low = 0;
+    int high = length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (getDifferential(first + index.getInt(list + 4 * middle)) < value) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Queries a store from the command line and prints the number of matching positions and the
+   * first few of them.
+   *
+   * <p>Options: --store path (required), --empties 12 or 10-14, --side black|white,
+   * --differential 11-64, --threads (all cores), --show 10.</p>
+   *
+   * @param args the command line options.
+   * @throws IOException if the store cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    if (!options.containsKey("store")) {
+      throw new IllegalArgumentException("--store is required");
+    }
+    PositionQuery query = PositionQuery.ALL;
+    if (options.containsKey("empties")) {
+      int[] range = range(options.get("empties"));
+      query = query.withEmpties(range[0], range[1]);
+    }
+    if (options.containsKey("side")) {
+      query = query.withSideToMove(options.get("side").equalsIgnoreCase("black")
+          ? BoardTopology.BLACK : BoardTopology.WHITE);
+    }
+    if (options.containsKey("differential")) {
+      int[] range = range(options.get("differential"));
+      query = query.withDifferential(range[0], range[1]);
+    }
+    int threads = Integer.parseInt(options.getOrDefault("threads",
+        Integer.toString(Runtime.getRuntime().availableProcessors())));
+    int show = Integer.parseInt(options.getOrDefault("show", "10"));
+    try (PositionStore store = new PositionStore(Paths.get(options.get("store")))) {
+      long start = System.nanoTime();
+      int[] found = store.query(query, threads);
+      System.out.printf("%d of %d positions match, %.2f ms%n", found.length, store.size(),
+          (System.nanoTime() - start) / 1e6);
+      for (int i = 0; i < Math.min(show, found.length); i++) {
+        int row = found[i];
+        System.out.printf("%016x empties %d side %d differential %d games %d%n",
+            store.getHash(row), store.getEmpties(row), store.getSideToMove(row),
+            store.getDifferential(row), store.getGames(row));
+      }
+    }
+  }
+
+  /**
+   * Parses a single number or a range such as 10-14; a leading minus sign is part of the
+   * first number.
+   */
+  private static int[] range(String text) {
+    int dash = text.indexOf('-', 1);
+    if (dash < 0) {
+      int value = Integer.parseInt(text);
+      return new int[] {value, value};
+    }
+    return new int[] {Integer.parseInt(text.substring(0, dash)),
+        Integer.parseInt(text.substring(dash + 1))};
+  }
+}
@@ -0,0 +1,415 @@
+package cs3500.reversi.book;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.record.ArchiveCursor;
+import cs3500.reversi.record.GameArchive;
+import cs3500.reversi.record.GameRecordReader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects every position of recorded games on one board and writes them as a
+ * {@link PositionStore}.
+ *
+ * <p>Positions are keyed by their canonical hash, so a position and its rotations and
+ * reflections are one row, which keeps the cells of the canonical image. A row counts the
+ * games that reached it and averages their final disc differentials, seen from the side to move.
+ * Games played on other boards are skipped.</p>
+ */
+public class PositionStoreBuilder {
+  /**
+   * The number of rows per segment when none is given.
+   */
+  public static final int DEFAULT_SEGMENT_ROWS = 1 << 16;
+
+  private final BoardTopology topology;
+  private final BoardSymmetries symmetries;
+  private final int segmentRows;
+  private final RowTable table;
+  private int games;
+
+  /**
+   * Constructs a builder with no games and segments of the default size.
+   *
+   * @param topology the board of the store.
+   * @throws IllegalArgumentException if the board has more cells than a store can count.
+   */
+  public PositionStoreBuilder(BoardTopology topology) {
+    this(topology, DEFAULT_SEGMENT_ROWS);
+  }
+
+  /**
+   * Constructs a builder with no games.
+   *
+   * @param topology    the board of the store.
+   * @param segmentRows the number of rows per segment, the unit queries run in parallel in.
+   * @throws IllegalArgumentException if segmentRows is not positive, or the board has more
+   *                                  cells than a store can count.
+   */
+  public PositionStoreBuilder(BoardTopology topology, int segmentRows) {
+    if (segmentRows < 1) {
+      throw new IllegalArgumentException("segments must have rows");
+    }
+    if (topology.getCellCount() > PositionStoreFormat.MAX_CELLS) {
+      throw new IllegalArgumentException("a store holds boards of at most "
+          + PositionStoreFormat.MAX_CELLS + " cells");
+    }
+    this.topology = topology;
+    this.symmetries = BoardSymmetries.of(topology);
+    this.segmentRows = segmentRows;
+    this.table = new RowTable(PositionStoreFormat.cellBytes(topology.getCellCount()));
+  }
+
+  /**
+   * Adds all games of an archive, replaying them on several threads.
+   *
+   * @param archive the archive.
+   * @param threads the number of threads to replay games on.
+   * @return the number of games added, not counting games on other boards.
+   * @throws IOException if a record is invalid.
+   */
+  public int add(GameArchive archive, int threads) throws IOException {
+    // every scanning thread fills its own table, they are merged once the scan is done
+    List<RowTable> tables = new ArrayList<>();
+    AtomicInteger added = new AtomicInteger();
+    ThreadLocal<RowTable> local = ThreadLocal.withInitial(() -> {
+      RowTable part = new RowTable(table.cellBytes);
+      synchronized (tables) {
+        tables.add(part);
+      }
+      return part;
+    });
+    archive.parallelScan(threads, (index, cursor) -> {
+      if (addGame(cursor, local.get())) {
+        added.incrementAndGet();
+      }
+    });
+    for (RowTable part : tables) {
+      table.addAll(part);
+    }
+    games += added.get();
+    return added.get();
+  }
+
+  /**
+   * Replays one game and adds all of its positions with its outcome.
+   *
+   * @return false if the game was played on another board.
+   */
+  private boolean addGame(ArchiveCursor cursor, RowTable into) throws IOException {
+    if (cursor.getHeader().getTopology() != topology) {
+      return false;
+    }
+    CompactBoard board = CompactBoard.of(cursor.getHeader().newModel());
+    List<byte[]> positions = new ArrayList<>();
+    List<Integer> sides = new ArrayList<>();
+    while (true) {
+      byte[] cells = new byte[topology.getCellCount()];
+      board.copyCells(cells);
+      positions.add(cells);
+      sides.add(board.getSideToMove());
+      int move = cursor.nextMove();
+      if (move == GameRecordReader.END_OF_GAME) {
+        break;
+      }
+      if (move == GameRecordReader.PASS) {
+        board.pass();
+      } else if (board.isLegal(move)) {
+        board.play(move);
+      } else {
+        throw new IOException("illegal move " + move + " in game " + cursor.getIndex());
+      }
+    }
+    int result = board.count(BoardTopology.BLACK) - board.count(BoardTopology.WHITE);
+    for (int i = 0; i < positions.size(); i++) {
+      add(into, positions.get(i), sides.get(i), result);
+    }
+    return true;
+  }
+
+  /**
+   * Adds one position reached by a game.
+   *
+   * @param cells      the position, indexed by cell id.
+   * @param sideToMove the color of the player to move.
+   * @param result     the final disc differential of the game, black minus white.
+   */
+  public void add(byte[] cells, int sideToMove, int result) {
+    add(table, cells, sideToMove, result);
+  }
+
+  private void add(RowTable into, byte[] cells, int sideToMove, int result) {
+    // store the canonical image, so a row's cells do not depend on which game reached it first
+    byte[] canonical = new byte[cells.length];
+    symmetries.canonicalize(cells, sideToMove, canonical);
+    into.add(topology.hash(canonical, sideToMove), canonical, sideToMove,
+        sideToMove == BoardTopology.BLACK ? result : -result);
+  }
+
+  /**
+   * Gets the number of games added from archives so far.
+   *
+   * @return the number of games.
+   */
+  public int getGames() {
+    return games;
+  }
+
+  /**
+   * Gets the number of distinct positions collected so far.
+   *
+   * @return the number of rows the store will have.
+   */
+  public int getPositions() {
+    return table.size();
+  }
+
+  /**
+   * Writes the store to a file, replacing it if it exists.
+   *
+   * @param file the store file.
+   * @throws IOException if writing fails.
+   */
+  public void write(Path file) throws IOException {
+    int cellCount = topology.getCellCount();
+    int[] slots = table.slotsByKey();
+    int rows = slots.length;
+    byte[] cells = new byte[cellCount];
+    int[] empties = new int[rows];
+    int[] sides = new int[rows];
+    int[] differentials = new int[rows];
+    for (int row = 0; row < rows; row++) {
+      int slot = slots[row];
+      table.cells(slot, cells);
+      int empty = 0;
+      for (byte cell : cells) {
+        if (cell == BoardTopology.EMPTY) {
+          empty++;
+        }
+      }
+      empties[row] = empty;
+      sides[row] = table.sides[slot];
+      differentials[row] = Math.round((float) table.sums[slot] / table.games[slot]);
+    }
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file.toFile()), 1 << 16))) {
+      out.writeInt(PositionStoreFormat.MAGIC);
+      out.writeByte(PositionStoreFormat.VERSION);
+      out.writeByte(topology.getShape().ordinal());
+      out.writeShort(topology.getSize());
+      out.writeInt(rows);
+      out.writeInt(segmentRows);
+      for (int slot : slots) {
+        out.writeLong(table.keys[slot]);
+      }
+      for (int empty : empties) {
+        out.writeByte(empty);
+      }
+      for (int side : sides) {
+        out.writeByte(side);
+      }
+      for (int differential : differentials) {
+        out.writeShort(differential);
+      }
+      for (int slot : slots) {
+        out.writeInt(table.games[slot]);
+      }
+      for (int slot : slots) {
+        out.write(table.packed, slot * table.cellBytes, table.cellBytes);
+      }
+      for (int first = 0; first < rows; first += segmentRows) {
+        int last = Math.min(rows, first + segmentRows);
+        writeIndex(out, empties, first, last, cellCount + 2);
+        writeIndex(out, sides, first, last, 4);
+        writeIndex(out, differentials, first, last, 0);
+      }
+    }
+  }
+
+  /**
+   * Writes the rows of a segment sorted by a key, after the first row of every key value from
+   * zero up to the number of buckets, so that the rows of key k run from bucket k to k + 1.
+   */
+  private static void writeIndex(DataOutputStream out, int[] keys, int first, int last,
+      int buckets) throws IOException {
+    long[] sorted = new long[last - first];
+    for (int row = first; row < last; row++) {
+      // the key in the high half, so that rows of equal keys stay in order
+      sorted[row - first] = ((long) keys[row] << 32) | (row - first);
+    }
+    Arrays.sort(sorted);
+    int row = 0;
+    for (int key = 0; key < buckets; key++) {
+      while (row < sorted.length && (int) (sorted[row] >> 32) < key) {
+        row++;
+      }
+      out.writeInt(row);
+    }
+    for (long entry : sorted) {
+      out.writeInt((int) entry);
+    }
+  }
+
+  /**
+   * A growing hash table from canonical hashes to rows, in flat arrays.
+   */
+  private static final class RowTable {
+    final int cellBytes;
+    long[] keys = new long[1 << 10];
+    int[] games = new int[1 << 10];
+    int[] sums = new int[1 << 10];
+    byte[] sides = new byte[1 << 10];
+    byte[] packed;
+    private int size;
+
+    RowTable(int cellBytes) {
+      this.cellBytes = cellBytes;
+      this.packed = new byte[keys.length * cellBytes];
+    }
+
+    int size() {
+      return size;
+    }
+
+    /**
+     * Adds one game to a position's row, creating the row with its cells if needed.
+     */
+    void add(long key, byte[] cells, int side, int differential) {
+      int slot = find(key);
+      if (keys[slot] == 0) {
+        keys[slot] = key;
+        sides[slot] = (byte) side;
+        Arrays.fill(packed, slot * cellBytes, (slot + 1) * cellBytes, (byte) 0);
+        for (int cell = 0; cell < cells.length; cell++) {
+          packed[slot * cellBytes + cell / 4] |= (byte) (cells[cell] << (2 * (cell % 4)));
+        }
+        size++;
+      }
+      games[slot]++;
+      sums[slot] += differential;
+      if (size * 4 >= keys.length * 3) {
+        grow();
+      }
+    }
+
+    void addAll(RowTable other) {
+      for (int from = 0; from < other.keys.length; from++) {
+        if (other.keys[from] != 0) {
+          int slot = find(other.keys[from]);
+          if (keys[slot] == 0) {
+            keys[slot] = other.keys[from];
+            sides[slot] = other.sides[from];
+            System.arraycopy(other.packed, from * cellBytes, packed, slot * cellBytes,
+                cellBytes);
+            size++;
+          }
+          games[slot] += other.games[from];
+          sums[slot] += other.sums[from];
+          if (size * 4 >= keys.length * 3) {
+            grow();
+          }
+        }
+      }
+    }
+
+    void cells(int slot, byte[] out) {
+      for (int cell = 0; cell < out.length; cell++) {
+        out[cell] = (byte) ((packed[slot * cellBytes + cell / 4] >> (2 * (cell % 4))) & 3);
+      }
+    }
+
+    /**
+     * Gets the occupied slots in the order of their keys.
+     */
+    int[] slotsByKey() {
+      long[] sorted = new long[size];
+      int count = 0;
+      for (long key : keys) {
+        if (key != 0) {
+          sorted[count++] = key;
+        }
+      }
+      Arrays.sort(sorted);
+      int[] slots = new int[size];
+      for (int i = 0; i < size; i++) {
+        slots[i] = find(sorted[i]);
+      }
+      return slots;
+    }
+
+    private int find(long key) {
+      int mask = keys.length - 1;
+      int slot = PerfectPlayFormat.slot(key, mask);
+      while (keys[slot] != 0 && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    private void grow() {
+      long[] oldKeys = keys;
+      int[] oldGames = games;
+      int[] oldSums = sums;
+      byte[] oldSides = sides;
+      byte[] oldPacked = packed;
+      keys = new long[oldKeys.length * 2];
+      games = new int[keys.length];
+      sums = new int[keys.length];
+      sides = new byte[keys.length];
+      packed = new byte[keys.length * cellBytes];
+      for (int old = 0; old < oldKeys.length; old++) {
+        if (oldKeys[old] != 0) {
+          int slot = find(oldKeys[old]);
+          keys[slot] = oldKeys[old];
+          games[slot] = oldGames[old];
+          sums[slot] = oldSums[old];
+          sides[slot] = oldSides[old];
+          System.arraycopy(oldPacked, old * cellBytes, packed, slot * cellBytes, cellBytes);
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds a store from an archive from the command line.
+   *
+   * <p>Options: --archive path (required), --out positions.bin, --shape hexagon, --size 6,
+   * --segment-rows 65536, --threads (all cores).</p>
+   *
+   * @param args the command line options.
+   * @throws Exception if the build fails.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    if (!options.containsKey("archive")) {
+      throw new IllegalArgumentException("--archive is required");
+    }
+    BoardTopology topology = BoardTopology.of(
+        BoardShape.parse(options.getOrDefault("shape", "hexagon")),
+        Integer.parseInt(options.getOrDefault("size", "6")));
+    PositionStoreBuilder builder = new PositionStoreBuilder(topology, Integer.parseInt(
+        options.getOrDefault("segment-rows", Integer.toString(DEFAULT_SEGMENT_ROWS))));
+    int threads = Integer.parseInt(options.getOrDefault("threads",
+        Integer.toString(Runtime.getRuntime().availableProcessors())));
+    long start = System.nanoTime();
+    try (GameArchive archive = new GameArchive(Paths.get(options.get("archive")))) {
+      builder.add(archive, threads);
+    }
+    builder.write(Paths.get(options.getOrDefault("out", "positions.bin")));
+    System.out.printf("games = %d, positions = %d, %.2f s%n", builder.getGames(),
+        builder.getPositions(), (System.nanoTime() - start) / 1e9);
+  }
+}
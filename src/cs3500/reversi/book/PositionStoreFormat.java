@@ -0,0 +1,82 @@
+package cs3500.reversi.book;
+
+/**
+ * The layout of position store files.
+ *
+ * <p>A store starts with a header of {@link #HEADER_LENGTH} bytes: the magic number, a version
+ * byte, the board shape's ordinal, the board size as two bytes, the number of rows and the
+ * number of rows per segment. The columns follow one after the other, each holding one value
+ * for every row, with rows sorted by canonical hash:</p>
+ * <pre>
+ *   hash          8 bytes   the canonical hash of the position
+ *   empties       1 byte    the number of empty cells, unsigned
+ *   side          1 byte    the color to move
+ *   differential  2 bytes   the mean final disc differential for the side to move, rounded
+ *   games         4 bytes   the number of games that reached the position
+ *   cells         2 bits a cell, 4 cells a byte, as in the training samples
+ * </pre>
+ * <p>After the columns come the secondary indexes of every segment, each a list of the
+ * segment's row numbers, counted from its first row, in another order: by empties, with
+ * {@code cellCount + 2} bucket starts before it; by side to move, with four bucket starts
+ * before it; and by differential. The rows of key k run from bucket start k to k + 1, and rows
+ * of equal keys stay in hash order. All numbers are big-endian.</p>
+ */
+final class PositionStoreFormat {
+  static final int MAGIC = 0x52565053; // "RVPS"
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 16;
+  // the most cells the unsigned byte of the empties column can count
+  static final int MAX_CELLS = 255;
+
+  static final int HASH = 0;
+  static final int EMPTIES = 1;
+  static final int SIDE = 2;
+  static final int DIFFERENTIAL = 3;
+  static final int GAMES = 4;
+  static final int CELLS = 5;
+
+  private PositionStoreFormat() {
+  }
+
+  /**
+   * Gets the width in bytes of a column.
+   */
+  static int width(int column, int cellCount) {
+    switch (column) {
+      case HASH:
+        return 8;
+      case EMPTIES:
+      case SIDE:
+        return 1;
+      case DIFFERENTIAL:
+        return 2;
+      case GAMES:
+        return 4;
+      default:
+        return cellBytes(cellCount);
+    }
+  }
+
+  static int cellBytes(int cellCount) {
+    return (cellCount + 3) / 4;
+  }
+
+  /**
+   * Gets the offset of a column in the file; the column after the last is where the indexes
+   * start.
+   */
+  static long columnOffset(int column, int rows, int cellCount) {
+    long offset = HEADER_LENGTH;
+    for (int before = 0; before < column; before++) {
+      offset += (long) rows * width(before, cellCount);
+    }
+    return offset;
+  }
+
+  /**
+   * Gets the length in bytes of the indexes of a segment.
+   */
+  static long indexLength(int segmentRows, int cellCount) {
+    return 4L * (cellCount + 2 + 4 + 3L * segmentRows);
+  }
+}
@@ -0,0 +1,132 @@
+package cs3500.reversi.book;
+
+import java.util.Arrays;
+
+/**
+ * A hash table from position hashes to game statistics, kept in flat arrays so that millions of
+ * positions do not turn into millions of objects. A slot is free when its game count is zero.
+ */
+final class PositionTable {
+  private long[] keys;
+  private int[] games;
+  private int[] blackWins;
+  private int[] whiteWins;
+  private int[] discSums;
+  private int size;
+
+  PositionTable() {
+    allocate(1 << 10);
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    games = new int[capacity];
+    blackWins = new int[capacity];
+    whiteWins = new int[capacity];
+    discSums = new int[capacity];
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Adds one finished game to the statistics of a position.
+   *
+   * @param key    the position hash.
+   * @param result the final disc differential of the game, black minus white.
+   */
+  void addGame(long key, int result) {
+    add(key, 1, result > 0 ? 1 : 0, result < 0 ? 1 : 0, result);
+  }
+
+  /**
+   * Adds all statistics of another table to this one.
+   */
+  void addAll(PositionTable other) {
+    for (int slot = 0; slot < other.keys.length; slot++) {
+      if (other.games[slot] != 0) {
+        add(other.keys[slot], other.games[slot], other.blackWins[slot], other.whiteWins[slot],
+            other.discSums[slot]);
+      }
+    }
+  }
+
+  private void add(long key, int gameCount, int black, int white, int discSum) {
+    if (size * 2 >= keys.length) {
+      grow();
+    }
+    int slot = find(key);
+    if (games[slot] == 0) {
+      keys[slot] = key;
+      size++;
+    }
+    games[slot] += gameCount;
+    blackWins[slot] += black;
+    whiteWins[slot] += white;
+    discSums[slot] += discSum;
+  }
+
+  /**
+   * Finds the slot of a key, or the free slot where it belongs.
+   */
+  int find(long key) {
+    int mask = keys.length - 1;
+    // the low bits of a zobrist hash are already random, mixing only spreads sequential keys
+    int slot = (int) (key ^ (key >>> 32)) & mask;
+    while (games[slot] != 0 && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    int[] oldGames = games;
+    int[] oldBlack = blackWins;
+    int[] oldWhite = whiteWins;
+    int[] oldSums = discSums;
+    allocate(oldKeys.length * 2);
+    for (int old = 0; old < oldKeys.length; old++) {
+      if (oldGames[old] != 0) {
+        int slot = find(oldKeys[old]);
+        keys[slot] = oldKeys[old];
+        games[slot] = oldGames[old];
+        blackWins[slot] = oldBlack[old];
+        whiteWins[slot] = oldWhite[old];
+        discSums[slot] = oldSums[old];
+      }
+    }
+  }
+
+  /**
+   * Gets the keys of all positions in the order they are stored in a book file.
+   */
+  long[] sortedKeys() {
+    long[] sorted = new long[size];
+    int count = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (games[slot] != 0) {
+        sorted[count++] = keys[slot];
+      }
+    }
+    Arrays.sort(sorted);
+    return sorted;
+  }
+
+  int games(int slot) {
+    return games[slot];
+  }
+
+  int blackWins(int slot) {
+    return blackWins[slot];
+  }
+
+  int whiteWins(int slot) {
+    return whiteWins[slot];
+  }
+
+  int discSum(int slot) {
+    return discSums[slot];
+  }
+}
@@ -1,5 +1,7 @@
 package cs3500.reversi.controller;
 
+import cs3500.reversi.metrics.Histogram;
+import cs3500.reversi.metrics.MetricsRegistry;
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
 import cs3500.reversi.model.ReversiMutableModel;
 import cs3500.reversi.player.AIPlayer;
@@ -18,6 +20,11 @@ import java.awt.Color;
  * BoardObserver interfaces.
  */
 public class ReversiController implements BoardObserver, ViewFeatures {
+  // shared by all controllers, see MetricsRegistry
+  private static final Histogram AUTO_PLAYS = MetricsRegistry.DEFAULT.histogram(
+      "reversi_controller_auto_play_seconds",
+      "Time from an AI player's turn reaching its controller to its move being chosen.",
+      Histogram.LATENCY_SECONDS);
 
   private ReversiMutableModel model;
   private final Player player;
@@ -103,9 +110,12 @@ public class ReversiController implements BoardObserver, ViewFeatures {
   protected void autoPlayIfAI() {
     if (player instanceof AIPlayer && player.isPlayerTurn()) {
       setPlayerTurn(player, view);
+      long start = System.nanoTime();
 
       try {
         Move move = player.play(0, 0);
+        // playing notifies the observers, which may already play the opponent's reply
+        AUTO_PLAYS.observeSince(start);
         if (move.getPass()) {
           model.pass();
         }
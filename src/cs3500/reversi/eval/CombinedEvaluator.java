@@ -0,0 +1,46 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.CompactBoard;
+
+/**
+ * Evaluates positions as the sum of several evaluators, all attached to the same board.
+ */
+public class CombinedEvaluator implements Evaluator {
+  private final Evaluator[] parts;
+
+  /**
+   * Constructs the sum of the given evaluators.
+   *
+   * @param parts the evaluators to add up.
+   * @throws IllegalArgumentException if there are no evaluators.
+   */
+  public CombinedEvaluator(Evaluator... parts) {
+    if (parts.length == 0) {
+      throw new IllegalArgumentException("at least one evaluator is needed");
+    }
+    this.parts = parts.clone();
+  }
+
+  @Override
+  public void attach(CompactBoard board) {
+    for (Evaluator part : parts) {
+      part.attach(board);
+    }
+  }
+
+  @Override
+  public void detach() {
+    for (Evaluator part : parts) {
+      part.detach();
+    }
+  }
+
+  @Override
+  public int evaluate(CompactBoard board) {
+    int score = 0;
+    for (Evaluator part : parts) {
+      score += part.evaluate(board);
+    }
+    return score;
+  }
+}
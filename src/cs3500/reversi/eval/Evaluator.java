@@ -0,0 +1,36 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.CompactBoard;
+
+/**
+ * Scores positions for a search, from the point of view of the side to move.
+ *
+ * <p>Scores are in hundredths of a disc, so an evaluator and the exact disc differential of a
+ * finished game can be compared. An evaluator may keep state that it updates as the board
+ * changes; it is then attached to one board at a time and must only be asked about that
+ * board.</p>
+ */
+public interface Evaluator {
+
+  /**
+   * Starts following a board, computing any incremental state from its current position.
+   * Detaches from the board followed before, if any.
+   *
+   * @param board the board to follow.
+   * @throws IllegalArgumentException if the evaluator is for another topology.
+   */
+  void attach(CompactBoard board);
+
+  /**
+   * Stops following the attached board.
+   */
+  void detach();
+
+  /**
+   * Scores the position of the attached board.
+   *
+   * @param board the attached board.
+   * @return the score for the side to move, in hundredths of a disc.
+   */
+  int evaluate(CompactBoard board);
+}
@@ -0,0 +1,215 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import java.util.Arrays;
+
+/**
+ * Follows a board and keeps, for every cell, how many of its neighbors are empty, black and
+ * white, so that the frontier and potential mobility of each player are known at all times.
+ *
+ * <p>A frontier disc is a disc next to an empty cell; it may be flipped by a later move, so
+ * fewer frontier discs is better. The potential mobility of a player is the number of empty
+ * cells next to an opponent's disc, the only cells where the player could ever play. Both are
+ * updated in a few steps per changed cell instead of rescanning the board.</p>
+ */
+public class FrontierTracker implements CompactBoard.CellListener {
+  private final BoardTopology topology;
+  private final byte[] cells;
+  private final int[] emptyNeighbors;
+  // the number of neighbors of each color, indexed by color and then cell
+  private final int[][] colorNeighbors = new int[3][];
+  private final int[] frontier = new int[3];
+  private final int[] potential = new int[3];
+  private CompactBoard board;
+
+  /**
+   * Constructs a tracker for boards of a topology.
+   *
+   * @param topology the topology of the boards.
+   */
+  public FrontierTracker(BoardTopology topology) {
+    this.topology = topology;
+    this.cells = new byte[topology.getCellCount()];
+    this.emptyNeighbors = new int[topology.getCellCount()];
+    for (int color = BoardTopology.BLACK; color <= BoardTopology.WHITE; color++) {
+      colorNeighbors[color] = new int[topology.getCellCount()];
+    }
+  }
+
+  /**
+   * Starts following a board, counting from its current position.
+   *
+   * @param board the board to follow.
+   * @throws IllegalArgumentException if the board has another topology.
+   */
+  public void attach(CompactBoard board) {
+    if (board.getTopology() != topology) {
+      throw new IllegalArgumentException("the tracker is for another board");
+    }
+    detach();
+    // start from an empty board and add every disc as if it were played
+    Arrays.fill(cells, BoardTopology.EMPTY);
+    Arrays.fill(frontier, 0);
+    Arrays.fill(potential, 0);
+    for (int cell = 0; cell < cells.length; cell++) {
+      emptyNeighbors[cell] = 0;
+      colorNeighbors[BoardTopology.BLACK][cell] = 0;
+      colorNeighbors[BoardTopology.WHITE][cell] = 0;
+      for (int d = 0; d < topology.getDirectionCount(); d++) {
+        if (topology.neighbor(cell, d) >= 0) {
+          emptyNeighbors[cell]++;
+        }
+      }
+    }
+    for (int cell = 0; cell < cells.length; cell++) {
+      if (board.get(cell) != BoardTopology.EMPTY) {
+        cellChanged(cell, BoardTopology.EMPTY, board.get(cell));
+      }
+    }
+    this.board = board;
+    board.addListener(this);
+  }
+
+  /**
+   * Stops following the attached board.
+   */
+  public void detach() {
+    if (board != null) {
+      board.removeListener(this);
+      board = null;
+    }
+  }
+
+  @Override
+  public void cellChanged(int cell, int oldColor, int newColor) {
+    if (oldColor != BoardTopology.EMPTY) {
+      removeDisc(cell, oldColor);
+    }
+    if (oldColor == BoardTopology.EMPTY) {
+      fill(cell, newColor);
+    } else if (newColor == BoardTopology.EMPTY) {
+      empty(cell);
+    } else {
+      cells[cell] = (byte) newColor;
+    }
+    if (newColor != BoardTopology.EMPTY) {
+      addDisc(cell, newColor);
+    }
+  }
+
+  /**
+   * Marks an empty cell as occupied, before its disc is added.
+   */
+  private void fill(int cell, int color) {
+    for (int player = BoardTopology.BLACK; player <= BoardTopology.WHITE; player++) {
+      if (colorNeighbors[opponent(player)][cell] > 0) {
+        potential[player]--;
+      }
+    }
+    cells[cell] = (byte) color;
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      int next = topology.neighbor(cell, d);
+      if (next >= 0 && --emptyNeighbors[next] == 0 && cells[next] != BoardTopology.EMPTY) {
+        frontier[cells[next]]--;
+      }
+    }
+  }
+
+  /**
+   * Marks an occupied cell as empty, after its disc was removed.
+   */
+  private void empty(int cell) {
+    cells[cell] = BoardTopology.EMPTY;
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      int next = topology.neighbor(cell, d);
+      if (next >= 0 && ++emptyNeighbors[next] == 1 && cells[next] != BoardTopology.EMPTY) {
+        frontier[cells[next]]++;
+      }
+    }
+    for (int player = BoardTopology.BLACK; player <= BoardTopology.WHITE; player++) {
+      if (colorNeighbors[opponent(player)][cell] > 0) {
+        potential[player]++;
+      }
+    }
+  }
+
+  private void addDisc(int cell, int color) {
+    if (emptyNeighbors[cell] > 0) {
+      frontier[color]++;
+    }
+    int[] neighbors = colorNeighbors[color];
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      int next = topology.neighbor(cell, d);
+      if (next >= 0 && neighbors[next]++ == 0 && cells[next] == BoardTopology.EMPTY) {
+        potential[opponent(color)]++;
+      }
+    }
+  }
+
+  private void removeDisc(int cell, int color) {
+    if (emptyNeighbors[cell] > 0) {
+      frontier[color]--;
+    }
+    int[] neighbors = colorNeighbors[color];
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      int next = topology.neighbor(cell, d);
+      if (next >= 0 && --neighbors[next] == 0 && cells[next] == BoardTopology.EMPTY) {
+        potential[opponent(color)]--;
+      }
+    }
+  }
+
+  private static int opponent(int color) {
+    return BoardTopology.BLACK + BoardTopology.WHITE - color;
+  }
+
+  /**
+   * Counts the frontier discs of a player.
+   *
+   * @param color BLACK or WHITE.
+   * @return the number of the player's discs next to an empty cell.
+   */
+  public int getFrontier(int color) {
+    return frontier[color];
+  }
+
+  /**
+   * Checks whether a cell holds a frontier disc.
+   *
+   * @param cell the cell id.
+   * @return true if the cell has a disc and an empty neighbor.
+   */
+  public boolean isFrontier(int cell) {
+    return cells[cell] != BoardTopology.EMPTY && emptyNeighbors[cell] > 0;
+  }
+
+  /**
+   * Counts the potential mobility of a player.
+   *
+   * @param color BLACK or WHITE.
+   * @return the number of empty cells next to an opponent's disc.
+   */
+  public int getPotentialMobility(int color) {
+    return potential[color];
+  }
+
+  /**
+   * Counts the legal moves of a player on the attached board, only checking the empty cells
+   * next to an opponent's disc.
+   *
+   * @param color BLACK or WHITE.
+   * @return the number of legal moves.
+   */
+  public int getMobility(int color) {
+    int[] opponents = colorNeighbors[opponent(color)];
+    int count = 0;
+    for (int cell = 0; cell < cells.length; cell++) {
+      if (opponents[cell] > 0 && cells[cell] == BoardTopology.EMPTY
+          && board.flipCount(cell, color) > 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
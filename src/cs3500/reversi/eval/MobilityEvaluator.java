@@ -0,0 +1,65 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+
+/**
+ * Evaluates positions by how free each player is to move: the difference in legal moves, in
+ * potential mobility and in frontier discs, each with its own weight.
+ *
+ * <p>Potential mobility and frontier are kept up to date by a {@link FrontierTracker}; legal
+ * moves are counted only on the cells next to an opponent's disc.</p>
+ */
+public class MobilityEvaluator implements Evaluator {
+  private final FrontierTracker tracker;
+  private final int mobilityWeight;
+  private final int potentialWeight;
+  private final int frontierWeight;
+
+  /**
+   * Constructs an evaluator with the given weights, in hundredths of a disc per unit.
+   *
+   * @param topology        the topology of the boards to evaluate.
+   * @param mobilityWeight  the value of one more legal move than the opponent.
+   * @param potentialWeight the value of one more potential move than the opponent.
+   * @param frontierWeight  the cost of one more frontier disc than the opponent.
+   */
+  public MobilityEvaluator(BoardTopology topology, int mobilityWeight, int potentialWeight,
+      int frontierWeight) {
+    this.tracker = new FrontierTracker(topology);
+    this.mobilityWeight = mobilityWeight;
+    this.potentialWeight = potentialWeight;
+    this.frontierWeight = frontierWeight;
+  }
+
+  /**
+   * Constructs an evaluator with hand-made weights: 60 per move, 20 per potential move and
+   * 30 per frontier disc.
+   *
+   * @param topology the topology of the boards to evaluate.
+   * @return the new evaluator.
+   */
+  public static MobilityEvaluator defaults(BoardTopology topology) {
+    return new MobilityEvaluator(topology, 60, 20, 30);
+  }
+
+  @Override
+  public void attach(CompactBoard board) {
+    tracker.attach(board);
+  }
+
+  @Override
+  public void detach() {
+    tracker.detach();
+  }
+
+  @Override
+  public int evaluate(CompactBoard board) {
+    int own = board.getSideToMove();
+    int other = BoardTopology.BLACK + BoardTopology.WHITE - own;
+    return mobilityWeight * (tracker.getMobility(own) - tracker.getMobility(other))
+        + potentialWeight * (tracker.getPotentialMobility(own)
+        - tracker.getPotentialMobility(other))
+        - frontierWeight * (tracker.getFrontier(own) - tracker.getFrontier(other));
+  }
+}
@@ -0,0 +1,97 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+
+/**
+ * Evaluates positions as the sum of the weights of the contents of every pattern.
+ *
+ * <p>The table index of every pattern and the total are kept up to date as cells change, so
+ * a disc that flips costs one table lookup for each of the few patterns it is in, and
+ * evaluating a position is a single read.</p>
+ */
+public class PatternEvaluator implements Evaluator, CompactBoard.CellListener {
+  private final PatternSet patterns;
+  // the weight table of every pattern
+  private final int[][] tables;
+  private final int[] indices;
+  private int score;
+  private CompactBoard board;
+
+  /**
+   * Constructs an evaluator with the given weights.
+   *
+   * @param weights the weights, which should not change while the evaluator is attached.
+   */
+  public PatternEvaluator(PatternWeights weights) {
+    this.patterns = weights.getPatterns();
+    this.tables = new int[patterns.size()][];
+    for (int p = 0; p < tables.length; p++) {
+      tables[p] = weights.table(patterns.getClass(p));
+    }
+    this.indices = new int[patterns.size()];
+  }
+
+  /**
+   * Constructs an evaluator with the default weights of a board.
+   *
+   * @param topology the topology of the board.
+   * @return the new evaluator.
+   */
+  public static PatternEvaluator defaults(BoardTopology topology) {
+    return new PatternEvaluator(PatternWeights.defaults(PatternSet.of(topology)));
+  }
+
+  /**
+   * Constructs an evaluator with the weights loaded for a board, see
+   * {@link PatternWeights#load(BoardTopology)}.
+   *
+   * @param topology the topology of the board.
+   * @return the new evaluator.
+   */
+  public static PatternEvaluator forBoard(BoardTopology topology) {
+    return new PatternEvaluator(PatternWeights.load(topology));
+  }
+
+  @Override
+  public void attach(CompactBoard board) {
+    if (board.getTopology() != patterns.getTopology()) {
+      throw new IllegalArgumentException("the weights are for another board");
+    }
+    detach();
+    byte[] cells = new byte[board.getTopology().getCellCount()];
+    board.copyCells(cells);
+    score = 0;
+    for (int p = 0; p < indices.length; p++) {
+      indices[p] = patterns.index(p, cells);
+      score += tables[p][indices[p]];
+    }
+    this.board = board;
+    board.addListener(this);
+  }
+
+  @Override
+  public void detach() {
+    if (board != null) {
+      board.removeListener(this);
+      board = null;
+    }
+  }
+
+  @Override
+  public void cellChanged(int cell, int oldColor, int newColor) {
+    int change = newColor - oldColor;
+    for (int i = patterns.cellStart(cell); i < patterns.cellStart(cell + 1); i++) {
+      int p = patterns.patternAt(i);
+      int index = indices[p];
+      int next = index + change * patterns.powerAt(i);
+      score += tables[p][next] - tables[p][index];
+      indices[p] = next;
+    }
+  }
+
+  @Override
+  public int evaluate(CompactBoard board) {
+    return board.getSideToMove() == BoardTopology.BLACK ? score : -score;
+  }
+}
@@ -0,0 +1,335 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The patterns of a board: small ordered groups of cells whose contents, read as a base 3
+ * number, index a table of weights.
+ *
+ * <p>Patterns come in classes. A class is found from one corner of the board and then copied to
+ * every other corner by the board's symmetries, and all patterns of a class share one weight
+ * table, since the rules see no difference between them. The classes are the same for both
+ * shapes, as they are derived from the topology alone:</p>
+ * <ul>
+ *   <li>EDGE: the border from a corner along one side,</li>
+ *   <li>INNER_EDGE: the line parallel to it one row further in,</li>
+ *   <li>DIAGONAL: the line from a corner towards the center,</li>
+ *   <li>CORNER: a corner, its neighbors and the next cells along the border.</li>
+ * </ul>
+ *
+ * <p>Patterns are capped at {@link #MAX_LENGTH} cells, so a table has at most 3^8 = 6561
+ * entries. The set is built once per topology.</p>
+ */
+public final class PatternSet {
+  /**
+   * The maximum number of cells in a pattern.
+   */
+  public static final int MAX_LENGTH = 8;
+
+  /**
+   * The names of the pattern classes, in class index order.
+   */
+  public static final List<String> CLASS_NAMES =
+      List.of("EDGE", "INNER_EDGE", "DIAGONAL", "CORNER");
+
+  private static final Map<BoardTopology, PatternSet> SETS = new ConcurrentHashMap<>();
+
+  private final BoardTopology topology;
+  // the cells of every pattern, in digit order: the first cell is the least significant digit
+  private final int[][] patterns;
+  // the class of every pattern
+  private final int[] classes;
+  // the length of the patterns of every class, 0 if the board is too small for the class
+  private final int[] classLengths;
+  // the patterns of cell c are cellPatterns[cellStart[c]] to cellPatterns[cellStart[c + 1]],
+  // with the power of 3 of the cell's digit in cellPowers
+  private final int[] cellStart;
+  private final int[] cellPatterns;
+  private final int[] cellPowers;
+
+  private PatternSet(BoardTopology topology) {
+    this.topology = topology;
+    int corner = topology.getCorners()[0];
+    int[][] bases = new int[CLASS_NAMES.size()][];
+    int[] edges = edgeDirections(topology, corner);
+    bases[0] = line(topology, corner, edges[0]);
+    bases[1] = topology.neighbor(corner, edges[1]) < 0 ? new int[0]
+        : line(topology, topology.neighbor(corner, edges[1]), edges[0]);
+    bases[2] = line(topology, corner, inwardDirection(topology, corner, edges));
+    bases[3] = nearest(topology, corner);
+
+    List<int[]> all = new ArrayList<>();
+    List<Integer> allClasses = new ArrayList<>();
+    this.classLengths = new int[bases.length];
+    BoardSymmetries symmetries = BoardSymmetries.of(topology);
+    for (int c = 0; c < bases.length; c++) {
+      if (bases[c].length < 2) {
+        continue;
+      }
+      classLengths[c] = bases[c].length;
+      // symmetric images covering the same cells would count the same discs twice
+      Set<List<Integer>> seen = new HashSet<>();
+      for (int s = 0; s < symmetries.size(); s++) {
+        int[] image = new int[bases[c].length];
+        for (int i = 0; i < image.length; i++) {
+          image[i] = symmetries.map(s, bases[c][i]);
+        }
+        int[] sorted = image.clone();
+        Arrays.sort(sorted);
+        if (seen.add(Arrays.asList(Arrays.stream(sorted).boxed().toArray(Integer[]::new)))) {
+          all.add(image);
+          allClasses.add(c);
+        }
+      }
+    }
+    this.patterns = all.toArray(new int[0][]);
+    this.classes = allClasses.stream().mapToInt(Integer::intValue).toArray();
+
+    int cellCount = topology.getCellCount();
+    this.cellStart = new int[cellCount + 1];
+    for (int[] pattern : patterns) {
+      for (int cell : pattern) {
+        cellStart[cell + 1]++;
+      }
+    }
+    for (int cell = 0; cell < cellCount; cell++) {
+      cellStart[cell + 1] += cellStart[cell];
+    }
+    this.cellPatterns = new int[cellStart[cellCount]];
+    this.cellPowers = new int[cellStart[cellCount]];
+    int[] filled = Arrays.copyOf(cellStart, cellCount);
+    for (int p = 0; p < patterns.length; p++) {
+      int power = 1;
+      for (int cell : patterns[p]) {
+        cellPatterns[filled[cell]] = p;
+        cellPowers[filled[cell]++] = power;
+        power *= 3;
+      }
+    }
+  }
+
+  /**
+   * Gets the patterns of a board.
+   *
+   * @param topology the topology of the board.
+   * @return the shared pattern set.
+   */
+  public static PatternSet of(BoardTopology topology) {
+    return SETS.computeIfAbsent(topology, PatternSet::new);
+  }
+
+  /**
+   * Counts the neighbors of a cell.
+   */
+  static int degree(BoardTopology topology, int cell) {
+    int degree = 0;
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      if (topology.neighbor(cell, d) >= 0) {
+        degree++;
+      }
+    }
+    return degree;
+  }
+
+  /**
+   * Checks whether a cell is on the border, missing a neighbor in some direction.
+   */
+  static boolean isBorder(BoardTopology topology, int cell) {
+    return degree(topology, cell) < topology.getDirectionCount();
+  }
+
+  /**
+   * Finds the two directions from a corner that follow the border.
+   */
+  private static int[] edgeDirections(BoardTopology topology, int corner) {
+    int[] edges = new int[2];
+    int count = 0;
+    for (int d = 0; d < topology.getDirectionCount() && count < 2; d++) {
+      int next = topology.neighbor(corner, d);
+      if (next >= 0 && isBorder(topology, next)) {
+        edges[count++] = d;
+      }
+    }
+    if (count < 2) {
+      throw new IllegalStateException("board of " + topology + " has no edges");
+    }
+    return edges;
+  }
+
+  /**
+   * Finds the direction from a corner towards the center, the one that leaves the border.
+   */
+  private static int inwardDirection(BoardTopology topology, int corner, int[] edges) {
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      if (d != edges[0] && d != edges[1] && topology.neighbor(corner, d) >= 0) {
+        return d;
+      }
+    }
+    return edges[0];
+  }
+
+  /**
+   * Walks from a cell in a direction, for at most {@link #MAX_LENGTH} cells.
+   */
+  private static int[] line(BoardTopology topology, int start, int direction) {
+    int[] line = new int[MAX_LENGTH];
+    int length = 0;
+    for (int cell = start; cell >= 0 && length < MAX_LENGTH;
+        cell = topology.neighbor(cell, direction)) {
+      line[length++] = cell;
+    }
+    return Arrays.copyOf(line, length);
+  }
+
+  /**
+   * Finds the cells around a corner: whole rings of neighbors while they fit in
+   * {@link #MAX_LENGTH} cells, then the border cells of the next ring if those fit. Taking
+   * whole rings keeps the pattern symmetric, so its images at each corner cover the same cells.
+   */
+  private static int[] nearest(BoardTopology topology, int start) {
+    int[] distance = new int[topology.getCellCount()];
+    Arrays.fill(distance, -1);
+    int[] queue = new int[topology.getCellCount()];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+    distance[start] = 0;
+    while (head < tail) {
+      int cell = queue[head++];
+      for (int d = 0; d < topology.getDirectionCount(); d++) {
+        int next = topology.neighbor(cell, d);
+        if (next >= 0 && distance[next] < 0) {
+          distance[next] = distance[cell] + 1;
+          queue[tail++] = next;
+        }
+      }
+    }
+    int length = 0;
+    int ring = 0;
+    while (length < tail) {
+      int end = length;
+      while (end < tail && distance[queue[end]] == ring) {
+        end++;
+      }
+      if (end > MAX_LENGTH) {
+        break;
+      }
+      length = end;
+      ring++;
+    }
+    int[] cells = Arrays.copyOf(queue, MAX_LENGTH);
+    int border = length;
+    for (int i = length; i < tail && distance[queue[i]] == ring; i++) {
+      if (isBorder(topology, queue[i])) {
+        if (border == MAX_LENGTH) {
+          return Arrays.copyOf(cells, length);
+        }
+        cells[border++] = queue[i];
+      }
+    }
+    return Arrays.copyOf(cells, border);
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the number of patterns on the board.
+   *
+   * @return the number of patterns of all classes.
+   */
+  public int size() {
+    return patterns.length;
+  }
+
+  /**
+   * Gets the cells of a pattern.
+   *
+   * @param pattern the pattern index.
+   * @return a copy of the cell ids, the first cell being the least significant digit.
+   */
+  public int[] getCells(int pattern) {
+    return patterns[pattern].clone();
+  }
+
+  /**
+   * Gets the class of a pattern.
+   *
+   * @param pattern the pattern index.
+   * @return the index of the pattern's class in {@link #CLASS_NAMES}.
+   */
+  public int getClass(int pattern) {
+    return classes[pattern];
+  }
+
+  /**
+   * Gets the number of cells of the patterns of a class.
+   *
+   * @param patternClass the class index.
+   * @return the number of cells, 0 if the board has no patterns of the class.
+   */
+  public int getClassLength(int patternClass) {
+    return classLengths[patternClass];
+  }
+
+  /**
+   * Gets the size of the weight table of a class.
+   *
+   * @param patternClass the class index.
+   * @return 3 to the power of the class's length, 0 if the board has no patterns of the class.
+   */
+  public int getTableSize(int patternClass) {
+    if (classLengths[patternClass] == 0) {
+      return 0;
+    }
+    int size = 1;
+    for (int i = 0; i < classLengths[patternClass]; i++) {
+      size *= 3;
+    }
+    return size;
+  }
+
+  /**
+   * Computes the table index of a pattern in a position.
+   *
+   * @param pattern the pattern index.
+   * @param cells   the position, indexed by cell id.
+   * @return the base 3 number formed by the pattern's cells.
+   */
+  public int index(int pattern, byte[] cells) {
+    int index = 0;
+    int[] members = patterns[pattern];
+    for (int i = members.length - 1; i >= 0; i--) {
+      index = index * 3 + cells[members[i]];
+    }
+    return index;
+  }
+
+  /**
+   * Gets where the patterns containing cell are listed, for {@link #patternAt(int)} and
+   * {@link #powerAt(int)}. They run from cellStart(cell) to cellStart(cell + 1).
+   *
+   * @param cell the cell id, or the cell count for the end of the last cell's patterns.
+   * @return the position of the cell's first pattern.
+   */
+  int cellStart(int cell) {
+    return cellStart[cell];
+  }
+
+  int patternAt(int position) {
+    return cellPatterns[position];
+  }
+
+  int powerAt(int position) {
+    return cellPowers[position];
+  }
+}
@@ -0,0 +1,249 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The weight tables of a {@link PatternSet}, one per pattern class, each indexed by the base 3
+ * contents of a pattern. Weights are in hundredths of a disc from black's point of view.
+ *
+ * <p>Tuned weights are stored in weight files, one per board: the magic number "RVPW", a
+ * version byte, the shape's ordinal, the size as two bytes and the number of classes, then for
+ * every class its pattern length as a byte followed by its table as four-byte weights. Files are
+ * found at startup in the data directory of {@link BoardFiles}, as for example
+ * hexagon-6.weights.</p>
+ */
+public class PatternWeights {
+  private static final int MAGIC = 0x52565057; // "RVPW"
+  private static final int VERSION = 1;
+  private static final Map<BoardTopology, PatternWeights> LOADED = new ConcurrentHashMap<>();
+
+  // the value of a corner, a cell next to a corner and another border cell, for the defaults
+  private static final int CORNER = 500;
+  private static final int NEXT_TO_EMPTY_CORNER = -200;
+  private static final int BORDER = 40;
+
+  private final PatternSet patterns;
+  private final int[][] tables;
+
+  /**
+   * Constructs all-zero tables for a pattern set.
+   *
+   * @param patterns the pattern set.
+   */
+  public PatternWeights(PatternSet patterns) {
+    this.patterns = patterns;
+    this.tables = new int[PatternSet.CLASS_NAMES.size()][];
+    for (int c = 0; c < tables.length; c++) {
+      tables[c] = new int[patterns.getTableSize(c)];
+    }
+  }
+
+  /**
+   * Constructs hand-made weights for a pattern set that value corners, avoid the cells next to
+   * empty corners, and slightly prefer the border. They are meant to be replaced by tuned
+   * weights.
+   *
+   * @param patterns the pattern set.
+   * @return the default weights.
+   */
+  public static PatternWeights defaults(PatternSet patterns) {
+    BoardTopology topology = patterns.getTopology();
+    boolean[] corner = new boolean[topology.getCellCount()];
+    for (int cell : topology.getCorners()) {
+      corner[cell] = true;
+    }
+    // a cell's value is shared by all patterns it is in, so that it is not counted many times
+    int[] coverage = new int[topology.getCellCount()];
+    for (int p = 0; p < patterns.size(); p++) {
+      for (int cell : patterns.getCells(p)) {
+        coverage[cell]++;
+      }
+    }
+    PatternWeights weights = new PatternWeights(patterns);
+    int[] representative = new int[weights.tables.length];
+    Arrays.fill(representative, -1);
+    for (int p = patterns.size() - 1; p >= 0; p--) {
+      representative[patterns.getClass(p)] = p;
+    }
+    for (int c = 0; c < weights.tables.length; c++) {
+      if (representative[c] < 0) {
+        continue;
+      }
+      int[] cells = patterns.getCells(representative[c]);
+      int[] digits = new int[cells.length];
+      for (int index = 0; index < weights.tables[c].length; index++) {
+        for (int i = 0, rest = index; i < cells.length; i++, rest /= 3) {
+          digits[i] = rest % 3;
+        }
+        double value = 0;
+        for (int i = 0; i < cells.length; i++) {
+          if (digits[i] == BoardTopology.EMPTY) {
+            continue;
+          }
+          int cellValue = corner[cells[i]] ? CORNER
+              : PatternSet.isBorder(topology, cells[i]) ? BORDER : 0;
+          for (int j = 0; j < cells.length; j++) {
+            if (corner[cells[j]] && digits[j] == BoardTopology.EMPTY
+                && topology.isNeighbor(cells[i], cells[j])) {
+              cellValue = NEXT_TO_EMPTY_CORNER;
+            }
+          }
+          value += (digits[i] == BoardTopology.BLACK ? cellValue : -cellValue)
+              / (double) coverage[cells[i]];
+        }
+        weights.tables[c][index] = (int) Math.round(value);
+      }
+    }
+    return weights;
+  }
+
+  /**
+   * Gets the weights strategies should play with on a board: the weight file of the board in
+   * the data directory of {@link BoardFiles} if there is one, and the defaults
+   * otherwise. The weights are loaded once and shared, so they must not be changed.
+   *
+   * @param topology the topology of the board.
+   * @return the shared weights.
+   * @throws UncheckedIOException if the weight file exists but cannot be read or is for another
+   *                              board.
+   */
+  public static PatternWeights load(BoardTopology topology) {
+    return LOADED.computeIfAbsent(topology, board -> {
+      Path file = BoardFiles.find(board, "weights");
+      if (file != null) {
+        try {
+          PatternWeights weights = read(file);
+          BoardTopology found = weights.patterns.getTopology();
+          if (found != board) {
+            throw new IOException("weights for " + found + " in " + file);
+          }
+          return weights;
+        } catch (IOException e) {
+          throw new UncheckedIOException("cannot read weights " + file, e);
+        }
+      }
+      return defaults(PatternSet.of(board));
+    });
+  }
+
+  /**
+   * Gets the name of the weight file of a board.
+   *
+   * @param topology the topology of the board.
+   * @return the file name, such as hexagon-6.weights.
+   */
+  public static String fileName(BoardTopology topology) {
+    return BoardFiles.fileName(topology, "weights");
+  }
+
+  /**
+   * Reads a weight file.
+   *
+   * @param file the weight file.
+   * @return the weights, for the board named in the file.
+   * @throws IOException if the file cannot be read, has an unknown version or does not match
+   *                     the patterns of its board.
+   */
+  public static PatternWeights read(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(file.toFile()), 1 << 16))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("not a weight file: " + file);
+      }
+      int version = in.readUnsignedByte();
+      if (version != VERSION) {
+        throw new IOException("unsupported weight file version " + version);
+      }
+      int shape = in.readUnsignedByte();
+      if (shape >= BoardShape.values().length) {
+        throw new IOException("unknown board shape " + shape);
+      }
+      BoardTopology topology = BoardTopology.of(BoardShape.values()[shape], in.readShort());
+      PatternWeights weights = new PatternWeights(PatternSet.of(topology));
+      if (in.readUnsignedByte() != weights.tables.length) {
+        throw new IOException("weights do not match the patterns of " + topology);
+      }
+      for (int c = 0; c < weights.tables.length; c++) {
+        if (in.readUnsignedByte() != weights.patterns.getClassLength(c)) {
+          throw new IOException("weights do not match the patterns of " + topology);
+        }
+        for (int index = 0; index < weights.tables[c].length; index++) {
+          weights.tables[c][index] = in.readInt();
+        }
+      }
+      return weights;
+    }
+  }
+
+  /**
+   * Writes the weights to a file, replacing it if it exists.
+   *
+   * @param file the weight file.
+   * @throws IOException if writing fails.
+   */
+  public void write(Path file) throws IOException {
+    BoardTopology topology = patterns.getTopology();
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file.toFile()), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeByte(topology.getShape().ordinal());
+      out.writeShort(topology.getSize());
+      out.writeByte(tables.length);
+      for (int c = 0; c < tables.length; c++) {
+        out.writeByte(patterns.getClassLength(c));
+        for (int weight : tables[c]) {
+          out.writeInt(weight);
+        }
+      }
+    }
+  }
+
+  public PatternSet getPatterns() {
+    return patterns;
+  }
+
+  /**
+   * Gets a weight.
+   *
+   * @param patternClass the class index.
+   * @param index        the base 3 contents of the pattern.
+   * @return the weight, in hundredths of a disc for black.
+   */
+  public int get(int patternClass, int index) {
+    return tables[patternClass][index];
+  }
+
+  /**
+   * Sets a weight.
+   *
+   * @param patternClass the class index.
+   * @param index        the base 3 contents of the pattern.
+   * @param weight       the weight, in hundredths of a disc for black.
+   */
+  public void set(int patternClass, int index, int weight) {
+    tables[patternClass][index] = weight;
+  }
+
+  /**
+   * Gets the table of a class for evaluators, which must not change it.
+   */
+  int[] table(int patternClass) {
+    return tables[patternClass];
+  }
+}
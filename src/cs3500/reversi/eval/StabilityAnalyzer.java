@@ -0,0 +1,239 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import java.util.Arrays;
+
+/**
+ * Finds discs that can never be flipped again, whatever is played.
+ *
+ * <p>A disc is stable when, along every axis through it (3 on a hexagonal board, 4 on a square
+ * one), either the whole line is full, or the next cell on one side is off the board or holds a
+ * stable disc of the same color. Walls come first, so discs are checked from the border inward
+ * and every disc that turns out stable makes its neighbors of the same color worth checking
+ * again. The result is a lower bound: every disc found is stable, but not every stable disc is
+ * found.</p>
+ *
+ * <p>Results are kept as bitsets in a direct-mapped cache keyed by the position's hash, so
+ * positions reached again through transpositions cost a lookup. An analyzer is not
+ * thread-safe.</p>
+ */
+public class StabilityAnalyzer {
+  private final BoardTopology topology;
+  private final int words;
+  // one direction of every axis, the other being its opposite
+  private final int[] axes;
+  // the line of every cell along every axis, at (axis * cells + cell)
+  private final int[] lineOf;
+  private final int[] lineEmpties;
+  // the cells from the border inward
+  private final int[] order;
+  private final int[] stack;
+  private final long[] stable;
+  private final long[] counted;
+
+  private final int cacheMask;
+  private final long[] cacheKeys;
+  private final boolean[] cacheUsed;
+  private final long[] cacheBits;
+
+  /**
+   * Constructs an analyzer for boards of a topology.
+   *
+   * @param topology  the topology of the boards.
+   * @param cacheBits the base 2 logarithm of the number of cached positions.
+   * @throws IllegalArgumentException if cacheBits is negative or above 24.
+   */
+  public StabilityAnalyzer(BoardTopology topology, int cacheBits) {
+    if (cacheBits < 0 || cacheBits > 24) {
+      throw new IllegalArgumentException("cacheBits must be between 0 and 24");
+    }
+    this.topology = topology;
+    int cells = topology.getCellCount();
+    this.words = (cells + 63) / 64;
+    int[] directions = new int[topology.getDirectionCount()];
+    int axisCount = 0;
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      if (d < topology.opposite(d)) {
+        directions[axisCount++] = d;
+      }
+    }
+    this.axes = Arrays.copyOf(directions, axisCount);
+
+    // number the lines of every axis, starting a line at every cell without a predecessor
+    this.lineOf = new int[axisCount * cells];
+    int lines = 0;
+    for (int a = 0; a < axisCount; a++) {
+      int back = topology.opposite(axes[a]);
+      for (int cell = 0; cell < cells; cell++) {
+        if (topology.neighbor(cell, back) < 0) {
+          for (int c = cell; c >= 0; c = topology.neighbor(c, axes[a])) {
+            lineOf[a * cells + c] = lines;
+          }
+          lines++;
+        }
+      }
+    }
+    this.lineEmpties = new int[lines];
+
+    this.order = inwardOrder(topology);
+    this.stack = new int[cells];
+    this.stable = new long[words];
+    this.counted = new long[words];
+
+    int cacheSize = 1 << cacheBits;
+    this.cacheMask = cacheSize - 1;
+    this.cacheKeys = new long[cacheSize];
+    this.cacheUsed = new boolean[cacheSize];
+    this.cacheBits = new long[cacheSize * words];
+  }
+
+  /**
+   * Orders the cells by their distance from the border, border cells first.
+   */
+  private static int[] inwardOrder(BoardTopology topology) {
+    int cells = topology.getCellCount();
+    int[] order = new int[cells];
+    boolean[] seen = new boolean[cells];
+    int tail = 0;
+    for (int cell = 0; cell < cells; cell++) {
+      for (int d = 0; d < topology.getDirectionCount(); d++) {
+        if (topology.neighbor(cell, d) < 0) {
+          order[tail++] = cell;
+          seen[cell] = true;
+          break;
+        }
+      }
+    }
+    for (int head = 0; head < tail; head++) {
+      for (int d = 0; d < topology.getDirectionCount(); d++) {
+        int next = topology.neighbor(order[head], d);
+        if (next >= 0 && !seen[next]) {
+          seen[next] = true;
+          order[tail++] = next;
+        }
+      }
+    }
+    return order;
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the number of longs in a bitset of stable discs.
+   *
+   * @return the bitset length.
+   */
+  public int getWords() {
+    return words;
+  }
+
+  /**
+   * Finds the stable discs of both players.
+   *
+   * @param board the position.
+   * @param out   the bitset to write to, with bit (cell % 64) of word (cell / 64) set for every
+   *              stable disc, at least {@link #getWords()} long.
+   */
+  public void stableDiscs(CompactBoard board, long[] out) {
+    // stability does not depend on the side to move
+    long key = board.getSideToMove() == BoardTopology.WHITE
+        ? board.getHash() ^ topology.getWhiteToMoveKey() : board.getHash();
+    int slot = (int) (key ^ (key >>> 32)) & cacheMask;
+    if (!cacheUsed[slot] || cacheKeys[slot] != key) {
+      compute(board);
+      cacheUsed[slot] = true;
+      cacheKeys[slot] = key;
+      System.arraycopy(stable, 0, cacheBits, slot * words, words);
+    }
+    System.arraycopy(cacheBits, slot * words, out, 0, words);
+  }
+
+  /**
+   * Counts the stable discs of a player.
+   *
+   * @param board the position.
+   * @param color BLACK or WHITE.
+   * @return the number of the player's discs that can never be flipped.
+   */
+  public int count(CompactBoard board, int color) {
+    stableDiscs(board, counted);
+    int count = 0;
+    for (int cell = 0; cell < topology.getCellCount(); cell++) {
+      if (isSet(counted, cell) && board.get(cell) == color) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Checks whether a cell is in a bitset of stable discs.
+   *
+   * @param bits the bitset.
+   * @param cell the cell id.
+   * @return true if the cell's bit is set.
+   */
+  public static boolean isSet(long[] bits, int cell) {
+    return (bits[cell >>> 6] & (1L << cell)) != 0;
+  }
+
+  private void compute(CompactBoard board) {
+    int cells = topology.getCellCount();
+    Arrays.fill(stable, 0);
+    Arrays.fill(lineEmpties, 0);
+    for (int cell = 0; cell < cells; cell++) {
+      if (board.get(cell) == BoardTopology.EMPTY) {
+        for (int a = 0; a < axes.length; a++) {
+          lineEmpties[lineOf[a * cells + cell]]++;
+        }
+      }
+    }
+    int top = 0;
+    // pushed in reverse, so the border is popped first
+    for (int i = order.length - 1; i >= 0; i--) {
+      if (board.get(order[i]) != BoardTopology.EMPTY) {
+        stack[top++] = order[i];
+      }
+    }
+    while (top > 0) {
+      int cell = stack[--top];
+      if (isSet(stable, cell) || !isStable(board, cell)) {
+        continue;
+      }
+      stable[cell >>> 6] |= 1L << cell;
+      int color = board.get(cell);
+      for (int d = 0; d < topology.getDirectionCount(); d++) {
+        int next = topology.neighbor(cell, d);
+        if (next >= 0 && board.get(next) == color && !isSet(stable, next) && top < cells) {
+          stack[top++] = next;
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether a disc is held along every axis by a full line, a wall or a stable disc of
+   * its own color.
+   */
+  private boolean isStable(CompactBoard board, int cell) {
+    int cells = topology.getCellCount();
+    int color = board.get(cell);
+    for (int a = 0; a < axes.length; a++) {
+      if (lineEmpties[lineOf[a * cells + cell]] == 0) {
+        continue;
+      }
+      if (!isAnchor(board, topology.neighbor(cell, axes[a]), color)
+          && !isAnchor(board, topology.neighbor(cell, topology.opposite(axes[a])), color)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isAnchor(CompactBoard board, int neighbor, int color) {
+    return neighbor < 0 || (board.get(neighbor) == color && isSet(stable, neighbor));
+  }
+}
@@ -0,0 +1,54 @@
+package cs3500.reversi.eval;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+
+/**
+ * Evaluates positions by the difference in discs that can never be flipped, as found by a
+ * {@link StabilityAnalyzer}.
+ *
+ * <p>The analyzer caches by hash, so this evaluator keeps no state of its own on the board and
+ * attaching it does nothing.</p>
+ */
+public class StabilityEvaluator implements Evaluator {
+  private final StabilityAnalyzer analyzer;
+  private final int weight;
+
+  /**
+   * Constructs an evaluator with the given weight.
+   *
+   * @param topology the topology of the boards to evaluate.
+   * @param weight   the value of one more stable disc than the opponent, in hundredths of a disc.
+   */
+  public StabilityEvaluator(BoardTopology topology, int weight) {
+    this.analyzer = new StabilityAnalyzer(topology, 14);
+    this.weight = weight;
+  }
+
+  /**
+   * Constructs an evaluator worth 120 per stable disc.
+   *
+   * @param topology the topology of the boards to evaluate.
+   * @return the new evaluator.
+   */
+  public static StabilityEvaluator defaults(BoardTopology topology) {
+    return new StabilityEvaluator(topology, 120);
+  }
+
+  @Override
+  public void attach(CompactBoard board) {
+    // nothing to track, results are cached by hash
+  }
+
+  @Override
+  public void detach() {
+    // nothing to track
+  }
+
+  @Override
+  public int evaluate(CompactBoard board) {
+    int own = board.getSideToMove();
+    int other = BoardTopology.BLACK + BoardTopology.WHITE - own;
+    return weight * (analyzer.count(board, own) - analyzer.count(board, other));
+  }
+}
@@ -0,0 +1,53 @@
+package cs3500.reversi.jfr;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for an AI player choosing a move with its strategy, lasting as long
+ * as the strategy thinks.
+ *
+ * <p>Disabled unless the recording's settings enable {@code cs3500.reversi.ChooseMove}.</p>
+ */
+@Name("cs3500.reversi.ChooseMove")
+@Label("Choose Move")
+@Category({"Reversi", "AI"})
+@Description("An AI player choosing its move with a strategy")
+@Enabled(false)
+@StackTrace(false)
+public class ChooseMoveEvent extends Event {
+  @Label("Strategy")
+  private String strategy;
+
+  @Label("Player")
+  private String player;
+
+  @Label("Candidates")
+  @Description("The number of legal moves the strategy chose from")
+  private int candidates;
+
+  @Label("Nodes")
+  @Description("The number of positions searched, 0 for strategies that do not search")
+  private long nodes;
+
+  /**
+   * Fills in the choice.
+   *
+   * @param strategy   the name of the strategy.
+   * @param player     the player the move was chosen for.
+   * @param candidates the number of legal moves.
+   * @param nodes      the number of positions searched.
+   */
+  public void set(String strategy, HexagonPlayer player, int candidates, long nodes) {
+    this.strategy = strategy;
+    this.player = player.name();
+    this.candidates = candidates;
+    this.nodes = nodes;
+  }
+}
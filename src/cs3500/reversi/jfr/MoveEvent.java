@@ -0,0 +1,67 @@
+package cs3500.reversi.jfr;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for a move or pass played on a board, lasting from the call until
+ * the board has changed, before its observers are notified.
+ *
+ * <p>Like the other events of this package it is disabled unless the recording's settings
+ * enable it, for example with {@code jdk.jfr.Recording#enable} or a .jfc file that sets
+ * {@code cs3500.reversi.Move#enabled} to true. While disabled, creating and committing it
+ * costs next to nothing, and the board skips counting the flipped cells.</p>
+ */
+@Name("cs3500.reversi.Move")
+@Label("Move")
+@Category({"Reversi", "Model"})
+@Description("A move or pass played on a board")
+@Enabled(false)
+@StackTrace(false)
+public class MoveEvent extends Event {
+  @Label("Player")
+  private String player;
+
+  @Label("Pass")
+  private boolean pass;
+
+  @Label("Q")
+  private int q;
+
+  @Label("R")
+  private int r;
+
+  @Label("Cells Flipped")
+  private int flipped;
+
+  /**
+   * Fills in a move.
+   *
+   * @param player  the player who moved.
+   * @param q       the q coordinate of the move.
+   * @param r       the r coordinate of the move.
+   * @param flipped the number of discs the move flipped.
+   */
+  public void setMove(HexagonPlayer player, int q, int r, int flipped) {
+    this.player = player.name();
+    this.q = q;
+    this.r = r;
+    this.flipped = flipped;
+  }
+
+  /**
+   * Fills in a pass.
+   *
+   * @param player the player who passed.
+   */
+  public void setPass(HexagonPlayer player) {
+    this.player = player.name();
+    this.pass = true;
+  }
+}
@@ -0,0 +1,35 @@
+package cs3500.reversi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for a view rebuilding its board after a change, not counting the
+ * painting Swing does later.
+ *
+ * <p>Disabled unless the recording's settings enable {@code cs3500.reversi.Refresh}.</p>
+ */
+@Name("cs3500.reversi.Refresh")
+@Label("View Refresh")
+@Category({"Reversi", "View"})
+@Description("A view rebuilding its board")
+@Enabled(false)
+@StackTrace(false)
+public class RefreshEvent extends Event {
+  @Label("View")
+  private String view;
+
+  /**
+   * Fills in the view.
+   *
+   * @param view the name of the view's class.
+   */
+  public void setView(String view) {
+    this.view = view;
+  }
+}
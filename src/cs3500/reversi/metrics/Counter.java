@@ -0,0 +1,45 @@
+package cs3500.reversi.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that only goes up, such as moves played or positions searched.
+ *
+ * <p>Increments go to a {@link LongAdder}, so threads counting at once do not contend on one
+ * memory location; reading the count sums the stripes and is the slower side.</p>
+ */
+public final class Counter {
+  private final LongAdder count = new LongAdder();
+
+  Counter() {
+  }
+
+  /**
+   * Adds one to the count.
+   */
+  public void increment() {
+    count.increment();
+  }
+
+  /**
+   * Adds to the count.
+   *
+   * @param amount the amount to add, not negative.
+   * @throws IllegalArgumentException if the amount is negative.
+   */
+  public void add(long amount) {
+    if (amount < 0) {
+      throw new IllegalArgumentException("counters cannot go down");
+    }
+    count.add(amount);
+  }
+
+  /**
+   * Gets the count.
+   *
+   * @return the sum of all increments so far.
+   */
+  public long get() {
+    return count.sum();
+  }
+}
@@ -0,0 +1,100 @@
+package cs3500.reversi.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts durations into buckets with fixed upper bounds, and keeps their count and sum, for
+ * latencies such as the time an AI takes to choose a move.
+ *
+ * <p>Every bucket, the count and the sum are {@link LongAdder}s, so recording takes no lock.
+ * Durations are recorded in nanoseconds and reported in seconds.</p>
+ */
+public final class Histogram {
+  /**
+   * Bucket bounds in seconds from 100 microseconds to 10 seconds, for latencies.
+   */
+  public static final double[] LATENCY_SECONDS =
+      {0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10};
+
+  private final long[] boundNanos;
+  private final double[] bounds;
+  private final LongAdder[] buckets;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sumNanos = new LongAdder();
+
+  /**
+   * Constructs an empty histogram.
+   *
+   * @param bounds the upper bounds of the buckets in seconds, increasing.
+   * @throws IllegalArgumentException if the bounds are not increasing.
+   */
+  Histogram(double[] bounds) {
+    for (int i = 1; i < bounds.length; i++) {
+      if (!(bounds[i] > bounds[i - 1])) {
+        throw new IllegalArgumentException("bucket bounds must increase");
+      }
+    }
+    this.bounds = bounds.clone();
+    this.boundNanos = new long[bounds.length];
+    this.buckets = new LongAdder[bounds.length];
+    for (int i = 0; i < bounds.length; i++) {
+      boundNanos[i] = Math.round(bounds[i] * 1e9);
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos the duration in nanoseconds.
+   */
+  public void observeNanos(long nanos) {
+    // durations above every bound are only in the count
+    for (int i = 0; i < boundNanos.length; i++) {
+      if (nanos <= boundNanos[i]) {
+        buckets[i].increment();
+        break;
+      }
+    }
+    count.increment();
+    sumNanos.add(nanos);
+  }
+
+  /**
+   * Records the time since a start.
+   *
+   * @param startNanos the start, from {@link System#nanoTime()}.
+   */
+  public void observeSince(long startNanos) {
+    observeNanos(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Gets the number of durations recorded.
+   *
+   * @return the count.
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Gets the sum of the durations recorded.
+   *
+   * @return the sum in seconds.
+   */
+  public double getSumSeconds() {
+    return sumNanos.sum() / 1e9;
+  }
+
+  double[] getBounds() {
+    return bounds;
+  }
+
+  /**
+   * Gets the number of durations at or below a bound and above the one before.
+   */
+  long getBucket(int index) {
+    return buckets[index].sum();
+  }
+}
@@ -0,0 +1,181 @@
+package cs3500.reversi.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * The counters and histograms of a process, by name and labels, written out in the Prometheus
+ * text format.
+ *
+ * <p>Instruments are looked up once, typically into a static or instance field, and then
+ * updated without touching the registry, so the registry's maps are never on a hot path. Asking
+ * for the same name and labels twice gives the same instrument. Rates, such as positions
+ * searched or games played per second, are left to the scraper, from the counters.</p>
+ *
+ * <p>The game reports to {@link #DEFAULT}:</p>
+ * <pre>
+ *   reversi_moves_total{kind}                     moves and passes played on any board
+ *   reversi_observer_notification_seconds         boards notifying their observers
+ *   reversi_ai_decision_seconds{strategy}         AI players choosing a move
+ *   reversi_search_nodes_total{strategy}          positions searched choosing them
+ *   reversi_cache_probes_total{cache}             lookups in the search caches
+ *   reversi_cache_hits_total{cache}               lookups that found their position
+ *   reversi_ponder_total{result}                  pondering used, cancelled or skipped
+ *   reversi_controller_auto_play_seconds          controllers waiting for an AI move
+ *   reversi_games_total                           self-play games finished
+ * </pre>
+ */
+public final class MetricsRegistry {
+  /**
+   * The registry the game's own instruments are in.
+   */
+  public static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+  private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+  private static final Pattern LABEL = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+  private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+  /**
+   * Gets a counter, creating it at zero the first time.
+   *
+   * @param name   the metric name, by convention ending in _total.
+   * @param help   what the counter counts.
+   * @param labels label names and values, alternating.
+   * @return the counter.
+   * @throws IllegalArgumentException if the name or a label is invalid, or the name is taken
+   *                                  by a histogram.
+   */
+  public Counter counter(String name, String help, String... labels) {
+    return (Counter) family(name, help, false, null).get(labels);
+  }
+
+  /**
+   * Gets a histogram, creating it empty the first time.
+   *
+   * @param name   the metric name, by convention ending in the unit, _seconds.
+   * @param help   what the histogram measures.
+   * @param bounds the upper bounds of the buckets in seconds; ignored if the histogram exists.
+   * @param labels label names and values, alternating.
+   * @return the histogram.
+   * @throws IllegalArgumentException if the name or a label is invalid, the name is taken by a
+   *                                  counter, or the bounds are not increasing.
+   */
+  public Histogram histogram(String name, String help, double[] bounds, String... labels) {
+    return (Histogram) family(name, help, true, bounds).get(labels);
+  }
+
+  private Family family(String name, String help, boolean histogram, double[] bounds) {
+    if (!NAME.matcher(name).matches()) {
+      throw new IllegalArgumentException("invalid metric name " + name);
+    }
+    Family family = families.computeIfAbsent(name,
+        key -> new Family(name, help, histogram, bounds));
+    if (family.histogram != histogram) {
+      throw new IllegalArgumentException(name + " is already a "
+          + (family.histogram ? "histogram" : "counter"));
+    }
+    return family;
+  }
+
+  /**
+   * Writes every instrument in the Prometheus text exposition format, families sorted by name.
+   *
+   * @param out the writer to write to, not flushed.
+   * @throws IOException if writing fails.
+   */
+  public void write(Writer out) throws IOException {
+    for (Family family : families.values()) {
+      family.write(out);
+    }
+  }
+
+  /**
+   * The instruments of one name, by their labels.
+   */
+  private static final class Family {
+    private final String name;
+    private final String help;
+    private final boolean histogram;
+    private final double[] bounds;
+    // keyed by the formatted labels, without braces
+    private final Map<String, Object> instruments = new ConcurrentSkipListMap<>();
+
+    private Family(String name, String help, boolean histogram, double[] bounds) {
+      this.name = name;
+      this.help = help;
+      this.histogram = histogram;
+      this.bounds = bounds;
+      if (histogram) {
+        // fail now rather than on the first lookup that creates one
+        new Histogram(bounds);
+      }
+    }
+
+    private Object get(String[] labels) {
+      String key = format(labels);
+      return instruments.computeIfAbsent(key,
+          k -> histogram ? new Histogram(bounds) : new Counter());
+    }
+
+    private static String format(String[] labels) {
+      if (labels.length % 2 != 0) {
+        throw new IllegalArgumentException("labels must be name and value pairs");
+      }
+      StringBuilder text = new StringBuilder();
+      for (int i = 0; i < labels.length; i += 2) {
+        if (!LABEL.matcher(labels[i]).matches() || labels[i].equals("le")) {
+          throw new IllegalArgumentException("invalid label name " + labels[i]);
+        }
+        if (i > 0) {
+          text.append(',');
+        }
+        text.append(labels[i]).append("=\"").append(labels[i + 1].replace("\\", "\\\\")
+            .replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+      }
+      return text.toString();
+    }
+
+    private void write(Writer out) throws IOException {
+      out.write("# HELP " + name + " " + help.replace("\\", "\\\\").replace("\n", "\\n")
+          + "\n");
+      out.write("# TYPE " + name + (histogram ? " histogram\n" : " counter\n"));
+      for (Map.Entry<String, Object> entry : instruments.entrySet()) {
+        String labels = entry.getKey();
+        if (!histogram) {
+          sample(out, name, labels, Long.toString(((Counter) entry.getValue()).get()));
+          continue;
+        }
+        Histogram values = (Histogram) entry.getValue();
+        String separator = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+          cumulative += values.getBucket(i);
+          sample(out, name + "_bucket", separator + "le=\"" + bounds[i] + "\"",
+              Long.toString(cumulative));
+        }
+        // read apart from the buckets, so it may be a little ahead of them but never behind
+        long count = Math.max(cumulative, values.getCount());
+        sample(out, name + "_bucket", separator + "le=\"+Inf\"", Long.toString(count));
+        sample(out, name + "_sum", labels, Double.toString(values.getSumSeconds()));
+        sample(out, name + "_count", labels, Long.toString(count));
+      }
+    }
+
+    private static void sample(Writer out, String name, String labels, String value)
+        throws IOException {
+      out.write(name);
+      if (!labels.isEmpty()) {
+        out.write('{');
+        out.write(labels);
+        out.write('}');
+      }
+      out.write(' ');
+      out.write(value);
+      out.write('\n');
+    }
+  }
+}
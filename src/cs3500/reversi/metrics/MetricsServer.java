@@ -0,0 +1,119 @@
+package cs3500.reversi.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a {@link MetricsRegistry} over HTTP on the loopback interface, at /metrics, for a
+ * Prometheus scraper or curl.
+ *
+ * <p>The game's main classes start one on the port named by the {@link #PORT_PROPERTY} system
+ * property, if it is set. Requests are answered one at a time on a daemon thread, so serving
+ * never keeps the process alive and never competes with the game for more than a core.</p>
+ */
+public final class MetricsServer implements Closeable {
+  /**
+   * The system property naming the port to serve the default registry on.
+   */
+  public static final String PORT_PROPERTY = "cs3500.reversi.metrics.port";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * Starts serving a registry.
+   *
+   * @param registry the registry to serve.
+   * @param port     the port to listen on, or 0 to pick any free port.
+   * @throws IOException if the port cannot be bound.
+   */
+  public MetricsServer(MetricsRegistry registry, int port) throws IOException {
+    this.server = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    this.executor = Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "reversi-metrics");
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.createContext("/metrics", exchange -> serve(registry, exchange));
+    server.setExecutor(executor);
+    // the server's own dispatcher thread takes after the thread starting it, so start it on ours
+    try {
+      executor.submit(server::start).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new IOException("interrupted while starting the metrics server", e);
+    } catch (ExecutionException e) {
+      close();
+      throw new IOException("failed to start the metrics server", e.getCause());
+    }
+  }
+
+  private static void serve(MetricsRegistry registry, HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!exchange.getRequestMethod().equals("GET")
+          && !exchange.getRequestMethod().equals("HEAD")) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      StringWriter text = new StringWriter();
+      registry.write(text);
+      byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type",
+          "text/plain; version=0.0.4; charset=utf-8");
+      if (exchange.getRequestMethod().equals("HEAD")) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+
+  /**
+   * Starts serving the default registry if the {@link #PORT_PROPERTY} system property is set.
+   *
+   * @return the server, or null if the property is not set.
+   * @throws IOException              if the port cannot be bound.
+   * @throws IllegalArgumentException if the property is not a port number.
+   */
+  public static MetricsServer startIfConfigured() throws IOException {
+    String port = System.getProperty(PORT_PROPERTY);
+    if (port == null) {
+      return null;
+    }
+    try {
+      return new MetricsServer(MetricsRegistry.DEFAULT, Integer.parseInt(port.trim()));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("invalid metrics port " + port, e);
+    }
+  }
+
+  /**
+   * Gets the port this server is listening on.
+   *
+   * @return the local port.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
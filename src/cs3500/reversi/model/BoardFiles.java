@@ -0,0 +1,62 @@
+package cs3500.reversi.model;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Locates the data files kept for every board, such as pattern weights, ProbCut parameters,
+ * opening books and perfect-play databases.
+ *
+ * <p>All of them live in one directory, named by the {@link #DIRECTORY_PROPERTY} system
+ * property, and are named after their board and kind, as for example hexagon-6.weights. Each
+ * loader decides what to do when its file is missing.</p>
+ */
+public final class BoardFiles {
+  /**
+   * The system property naming the directory of the data files. It is named after the weight
+   * files, the first files kept there.
+   */
+  public static final String DIRECTORY_PROPERTY = "cs3500.reversi.weights";
+
+  private BoardFiles() {
+  }
+
+  /**
+   * Gets the name of a data file of a board.
+   *
+   * @param topology  the topology of the board.
+   * @param extension the kind of file, such as weights.
+   * @return the file name, such as hexagon-6.weights.
+   */
+  public static String fileName(BoardTopology topology, String extension) {
+    return topology.getShape().name().toLowerCase(Locale.ROOT) + "-" + topology.getSize()
+        + "." + extension;
+  }
+
+  /**
+   * Finds a data file of a board in the data directory.
+   *
+   * @param topology  the topology of the board.
+   * @param extension the kind of file, such as weights.
+   * @return the absolute path of the file, or null if there is none.
+   */
+  public static Path find(BoardTopology topology, String extension) {
+    String directory = System.getProperty(DIRECTORY_PROPERTY);
+    if (directory == null) {
+      return null;
+    }
+    Path file = Paths.get(directory).resolve(fileName(topology, extension)).toAbsolutePath();
+    return Files.exists(file) ? file : null;
+  }
+
+  /**
+   * Gets the directory new data files are written to by default.
+   *
+   * @return the data directory, or the working directory if none is named.
+   */
+  public static Path directory() {
+    return Paths.get(System.getProperty(DIRECTORY_PROPERTY, "."));
+  }
+}
@@ -0,0 +1,56 @@
+package cs3500.reversi.model;
+
+/**
+ * Represents the shape of the grid a game of Reversi is played on.
+ *
+ * <p>A hexagonal board is a {@link ReversiBoard}, a square board is a
+ * {@link ReversiSquareBoard}. The shape of an existing model can be recovered from its array
+ * width, since only square boards are exactly as wide as their size.</p>
+ */
+public enum BoardShape {
+  HEXAGON, SQUARE;
+
+  /**
+   * Creates a new board of this shape with the given size.
+   *
+   * @param size the size of the board.
+   * @return a new board of this shape, with the starting players placed.
+   * @throws IllegalArgumentException if the size is not valid for this shape.
+   */
+  public ReversiBoard newBoard(int size) {
+    if (this == SQUARE) {
+      return new ReversiSquareBoard(size);
+    }
+    return new ReversiBoard(size);
+  }
+
+  /**
+   * Determines the shape of the given model.
+   *
+   * @param model the model whose shape is requested.
+   * @return SQUARE if the model is a square grid, HEXAGON otherwise.
+   */
+  public static BoardShape of(ReversiReadOnlyModel model) {
+    if (model.getArrayWidth() == model.getBoardSize()) {
+      return SQUARE;
+    }
+    return HEXAGON;
+  }
+
+  /**
+   * Parses a shape name as typed on the command line ("hexagon" or "square").
+   *
+   * @param name the name of the shape, case-insensitive.
+   * @return the matching shape.
+   * @throws IllegalArgumentException if the name is not a known shape.
+   */
+  public static BoardShape parse(String name) {
+    if ("hexagon".equalsIgnoreCase(name)) {
+      return HEXAGON;
+    }
+    if ("square".equalsIgnoreCase(name)) {
+      return SQUARE;
+    }
+    throw new IllegalArgumentException("unknown board shape: " + name);
+  }
+}
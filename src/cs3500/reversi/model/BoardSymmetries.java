@@ -0,0 +1,209 @@
+package cs3500.reversi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The symmetries of a board: the rotations and reflections that map the board onto itself.
+ *
+ * <p>A hexagonal board has 12 (six rotations by 60 degrees, each optionally reflected), a
+ * square board has 8 (four rotations by 90 degrees, each optionally reflected). The rules of
+ * the game do not change under any of them, so a position and its images are equivalent. Each
+ * symmetry is stored as a permutation of cell ids; symmetry 0 is the identity.</p>
+ *
+ * <p>The canonical hash of a position is the smallest hash among all of its images, so that
+ * caches and files can store one entry for all equivalent positions. The keys of every disc
+ * under every symmetry are precomputed, so all images are hashed in a single pass over the
+ * position without building them.</p>
+ */
+public final class BoardSymmetries {
+  private static final Map<BoardTopology, BoardSymmetries> SYMMETRIES = new ConcurrentHashMap<>();
+
+  private final BoardTopology topology;
+  // permutations[s][cell] is the cell that cell is mapped to by symmetry s
+  private final int[][] permutations;
+  // the key of a disc's image under every symmetry, at ((cell * 2 + color - 1) * size + s)
+  private final long[] imageKeys;
+
+  private BoardSymmetries(BoardTopology topology) {
+    this.topology = topology;
+    List<int[]> images = new ArrayList<>();
+    int rotations = topology.getShape() == BoardShape.HEXAGON ? 6 : 4;
+    for (int reflect = 0; reflect < 2; reflect++) {
+      for (int rotate = 0; rotate < rotations; rotate++) {
+        int[] permutation = new int[topology.getCellCount()];
+        for (int cell = 0; cell < permutation.length; cell++) {
+          permutation[cell] = image(cell, rotate, reflect == 1);
+        }
+        images.add(permutation);
+      }
+    }
+    this.permutations = images.toArray(new int[0][]);
+    int count = permutations.length;
+    this.imageKeys = new long[topology.getCellCount() * 2 * count];
+    for (int cell = 0; cell < topology.getCellCount(); cell++) {
+      for (int color = BoardTopology.BLACK; color <= BoardTopology.WHITE; color++) {
+        for (int symmetry = 0; symmetry < count; symmetry++) {
+          imageKeys[(cell * 2 + color - 1) * count + symmetry] =
+              topology.zobristKey(permutations[symmetry][cell], color);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the symmetries of boards with the given topology.
+   *
+   * @param topology the topology of the board.
+   * @return the shared symmetries instance.
+   */
+  public static BoardSymmetries of(BoardTopology topology) {
+    return SYMMETRIES.computeIfAbsent(topology, BoardSymmetries::new);
+  }
+
+  /**
+   * Maps a cell through a reflection followed by a number of rotations.
+   *
+   * @throws IllegalStateException if the image is not on the board.
+   */
+  private int image(int cell, int rotations, boolean reflect) {
+    int q = topology.getQ(cell);
+    int r = topology.getR(cell);
+    int image;
+    if (topology.getShape() == BoardShape.HEXAGON) {
+      // axial coordinates relative to the center cell, with the third cube coordinate implied
+      int center = topology.getSize() - 1;
+      int x = q - center;
+      int z = r - center;
+      if (reflect) {
+        z = -x - z;
+      }
+      for (int i = 0; i < rotations; i++) {
+        int rotatedX = -z;
+        z = x + z;
+        x = rotatedX;
+      }
+      image = topology.cellId(x + center, z + center);
+    } else {
+      int last = topology.getSize() - 1;
+      if (reflect) {
+        int swap = q;
+        q = r;
+        r = swap;
+      }
+      for (int i = 0; i < rotations; i++) {
+        int rotatedQ = last - r;
+        r = q;
+        q = rotatedQ;
+      }
+      image = topology.cellId(q, r);
+    }
+    if (image < 0) {
+      throw new IllegalStateException("board of " + topology + " is not symmetric");
+    }
+    return image;
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the number of symmetries, including the identity.
+   *
+   * @return 12 for hexagonal boards and 8 for square boards.
+   */
+  public int size() {
+    return permutations.length;
+  }
+
+  /**
+   * Maps a cell through a symmetry.
+   *
+   * @param symmetry the index of the symmetry.
+   * @param cell     the cell id.
+   * @return the id of the cell's image.
+   */
+  public int map(int symmetry, int cell) {
+    return permutations[symmetry][cell];
+  }
+
+  /**
+   * Computes the hashes of all images of a position in one pass.
+   *
+   * @param cells      the position, indexed by cell id.
+   * @param sideToMove the color of the player to move.
+   * @param hashes     the array to write the hash of the image under symmetry s to, at s.
+   */
+  public void imageHashes(byte[] cells, int sideToMove, long[] hashes) {
+    int count = permutations.length;
+    long side = sideToMove == BoardTopology.WHITE ? topology.getWhiteToMoveKey() : 0;
+    for (int symmetry = 0; symmetry < count; symmetry++) {
+      hashes[symmetry] = side;
+    }
+    for (int cell = 0; cell < cells.length; cell++) {
+      if (cells[cell] != BoardTopology.EMPTY) {
+        int keys = (cell * 2 + cells[cell] - 1) * count;
+        for (int symmetry = 0; symmetry < count; symmetry++) {
+          hashes[symmetry] ^= imageKeys[keys + symmetry];
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the hash of a position that is the same for all of its images.
+   *
+   * @param cells      the position, indexed by cell id.
+   * @param sideToMove the color of the player to move.
+   * @return the smallest hash of any image of the position.
+   */
+  public long canonicalHash(byte[] cells, int sideToMove) {
+    long[] hashes = new long[permutations.length];
+    imageHashes(cells, sideToMove, hashes);
+    return hashes[canonicalSymmetry(hashes)];
+  }
+
+  private static int canonicalSymmetry(long[] hashes) {
+    int best = 0;
+    for (int symmetry = 1; symmetry < hashes.length; symmetry++) {
+      if (hashes[symmetry] < hashes[best]) {
+        best = symmetry;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Writes the canonical image of a position, so that equivalent positions are stored the
+   * same way.
+   *
+   * @param cells      the position, indexed by cell id.
+   * @param sideToMove the color of the player to move.
+   * @param out        the array to write the image to, must not be the same array.
+   * @return the index of the symmetry applied, the lowest if several images are equal.
+   */
+  public int canonicalize(byte[] cells, int sideToMove, byte[] out) {
+    long[] hashes = new long[permutations.length];
+    imageHashes(cells, sideToMove, hashes);
+    int symmetry = canonicalSymmetry(hashes);
+    transform(symmetry, cells, out);
+    return symmetry;
+  }
+
+  /**
+   * Writes the image of a position under a symmetry.
+   *
+   * @param symmetry the index of the symmetry.
+   * @param cells    the position, indexed by cell id.
+   * @param out      the array to write the image to, must not be the same array.
+   */
+  public void transform(int symmetry, byte[] cells, byte[] out) {
+    int[] permutation = permutations[symmetry];
+    for (int cell = 0; cell < permutation.length; cell++) {
+      out[permutation[cell]] = cells[cell];
+    }
+  }
+}
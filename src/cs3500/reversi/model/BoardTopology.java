@@ -0,0 +1,385 @@
+package cs3500.reversi.model;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Describes the cells of a board of a given shape and size, numbered with dense cell ids.
+ *
+ * <p>Cell ids run over the valid positions row by row (r first, then q), so they can index
+ * plain arrays instead of the sparse 2D array of the board. The neighbor table follows the
+ * same search directions the board uses to validate moves. Topologies are immutable and shared:
+ * there is one instance per shape and size.</p>
+ *
+ * <p>Positions can be copied out of a model into a byte array indexed by cell id, holding
+ * {@link #EMPTY}, {@link #BLACK} or {@link #WHITE} for every cell.</p>
+ */
+public final class BoardTopology {
+  // the values of a cell in a byte array position
+  public static final byte EMPTY = 0;
+  public static final byte BLACK = 1;
+  public static final byte WHITE = 2;
+
+  // by shape, then by size, so looking a topology up allocates no key
+  private static final Map<BoardShape, Map<Integer, BoardTopology>> TOPOLOGIES =
+      new EnumMap<>(BoardShape.class);
+
+  static {
+    for (BoardShape shape : BoardShape.values()) {
+      TOPOLOGIES.put(shape, new ConcurrentHashMap<>());
+    }
+  }
+
+  private final BoardShape shape;
+  private final int size;
+  private final int width;
+  // the q and r coordinates of every cell id
+  private final int[] qs;
+  private final int[] rs;
+  // the cell id at every (r * width + q) array position, -1 where there is no cell
+  private final int[] ids;
+  // the (dq, dr) search directions of the board
+  private final int[][] directions;
+  // the neighbor of every cell in every direction at (cell * directions + d), -1 off the board
+  private final int[] neighbors;
+  // the direction pointing the opposite way of every direction
+  private final int[] opposites;
+  // the cells with the fewest neighbors, 4 on a square board and 6 on a hexagonal one
+  private final int[] corners;
+  private final boolean[] isCorner;
+  // random keys for hashing positions, one per cell and color at (cell * 2 + color - 1)
+  private final long[] zobristKeys;
+  // the key hashed in when white is to move
+  private final long whiteToMoveKey;
+
+  /**
+   * Constructs the topology by asking a fresh board of the given shape which positions are valid.
+   */
+  private BoardTopology(BoardShape shape, int size) {
+    ReversiBoard board = shape.newBoard(size);
+    this.shape = shape;
+    this.size = size;
+    this.width = board.getArrayWidth();
+    this.ids = new int[width * width];
+    int count = 0;
+    for (int r = 0; r < width; r++) {
+      for (int q = 0; q < width; q++) {
+        ids[r * width + q] = board.validHexPosition(q, r) ? count++ : -1;
+      }
+    }
+    this.qs = new int[count];
+    this.rs = new int[count];
+    for (int r = 0; r < width; r++) {
+      for (int q = 0; q < width; q++) {
+        int id = ids[r * width + q];
+        if (id >= 0) {
+          qs[id] = q;
+          rs[id] = r;
+        }
+      }
+    }
+    List<Pair<Integer, Integer>> pattern = board.hexGridSearchPattern();
+    this.directions = new int[pattern.size()][];
+    for (int d = 0; d < directions.length; d++) {
+      directions[d] = new int[] {pattern.get(d).getKey(), pattern.get(d).getValue()};
+    }
+    this.neighbors = new int[count * directions.length];
+    for (int cell = 0; cell < count; cell++) {
+      for (int d = 0; d < directions.length; d++) {
+        neighbors[cell * directions.length + d] =
+            cellId(qs[cell] + directions[d][0], rs[cell] + directions[d][1]);
+      }
+    }
+    this.opposites = new int[directions.length];
+    for (int d = 0; d < directions.length; d++) {
+      for (int e = 0; e < directions.length; e++) {
+        if (directions[e][0] == -directions[d][0] && directions[e][1] == -directions[d][1]) {
+          opposites[d] = e;
+        }
+      }
+    }
+    int fewest = Integer.MAX_VALUE;
+    int[] degrees = new int[count];
+    for (int cell = 0; cell < count; cell++) {
+      for (int d = 0; d < directions.length; d++) {
+        if (neighbors[cell * directions.length + d] >= 0) {
+          degrees[cell]++;
+        }
+      }
+      fewest = Math.min(fewest, degrees[cell]);
+    }
+    int cornerCount = 0;
+    for (int cell = 0; cell < count; cell++) {
+      if (degrees[cell] == fewest) {
+        cornerCount++;
+      }
+    }
+    this.corners = new int[cornerCount];
+    this.isCorner = new boolean[count];
+    for (int cell = 0, i = 0; cell < count; cell++) {
+      if (degrees[cell] == fewest) {
+        corners[i++] = cell;
+        isCorner[cell] = true;
+      }
+    }
+    // seeded per board so that hashes are the same in every run and can be stored in files
+    SplittableRandom random = new SplittableRandom(shape.ordinal() * 1000L + size);
+    this.zobristKeys = new long[count * 2];
+    for (int i = 0; i < zobristKeys.length; i++) {
+      zobristKeys[i] = random.nextLong();
+    }
+    this.whiteToMoveKey = random.nextLong();
+  }
+
+  /**
+   * Gets the topology of boards with the given shape and size.
+   *
+   * @param shape the shape of the board.
+   * @param size  the size of the board.
+   * @return the shared topology instance.
+   * @throws IllegalArgumentException if the size is not valid for the shape.
+   */
+  public static BoardTopology of(BoardShape shape, int size) {
+    Map<Integer, BoardTopology> sizes = TOPOLOGIES.get(shape);
+    BoardTopology topology = sizes.get(size);
+    if (topology == null) {
+      topology = new BoardTopology(shape, size);
+      BoardTopology raced = sizes.putIfAbsent(size, topology);
+      if (raced != null) {
+        topology = raced;
+      }
+    }
+    return topology;
+  }
+
+  /**
+   * Gets the topology of the board behind the given model.
+   *
+   * @param model the model whose topology is requested.
+   * @return the shared topology instance.
+   */
+  public static BoardTopology of(ReversiReadOnlyModel model) {
+    return of(BoardShape.of(model), model.getBoardSize());
+  }
+
+  public BoardShape getShape() {
+    return shape;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the width of the 2D array representation of the board.
+   *
+   * @return the number of rows and columns of the array.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Gets the number of cells on the board, which is one more than the largest cell id.
+   *
+   * @return the number of cells.
+   */
+  public int getCellCount() {
+    return qs.length;
+  }
+
+  /**
+   * Gets the cell id of the given position.
+   *
+   * @param q the q coordinate of the position.
+   * @param r the r coordinate of the position.
+   * @return the cell id, or -1 if the position is not on the board.
+   */
+  public int cellId(int q, int r) {
+    if (q < 0 || r < 0 || q >= width || r >= width) {
+      return -1;
+    }
+    return ids[r * width + q];
+  }
+
+  public int getQ(int cell) {
+    return qs[cell];
+  }
+
+  public int getR(int cell) {
+    return rs[cell];
+  }
+
+  /**
+   * Gets the number of search directions, 6 on a hexagonal board and 8 on a square one.
+   *
+   * @return the number of directions.
+   */
+  public int getDirectionCount() {
+    return directions.length;
+  }
+
+  /**
+   * Gets the neighbor of a cell in the given direction.
+   *
+   * @param cell      the cell id.
+   * @param direction the index of the direction, in the board's search order.
+   * @return the neighbor's cell id, or -1 if the neighbor is off the board.
+   */
+  public int neighbor(int cell, int direction) {
+    return neighbors[cell * directions.length + direction];
+  }
+
+  /**
+   * Gets the direction opposite to a direction.
+   *
+   * @param direction the index of the direction.
+   * @return the index of the direction pointing the other way.
+   */
+  public int opposite(int direction) {
+    return opposites[direction];
+  }
+
+  /**
+   * Gets the corners of the board, the cells with the fewest neighbors. A disc on a corner can
+   * never be flipped.
+   *
+   * @return a copy of the cell ids of the corners, in increasing order.
+   */
+  public int[] getCorners() {
+    return corners.clone();
+  }
+
+  /**
+   * Checks whether a cell is one of the corners of {@link #getCorners()}, without copying them.
+   *
+   * @param cell a cell id.
+   * @return true if the cell is a corner.
+   */
+  public boolean isCorner(int cell) {
+    return isCorner[cell];
+  }
+
+  /**
+   * Checks whether a cell is next to one of the corners.
+   *
+   * @param cell a cell id.
+   * @return true if a neighbor of the cell is a corner.
+   */
+  public boolean isNextToCorner(int cell) {
+    for (int d = 0; d < directions.length; d++) {
+      int neighbor = neighbors[cell * directions.length + d];
+      if (neighbor >= 0 && isCorner[neighbor]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether two cells are neighbors.
+   *
+   * @param cell  a cell id.
+   * @param other another cell id.
+   * @return true if other is next to cell in one of the search directions.
+   */
+  public boolean isNeighbor(int cell, int other) {
+    for (int d = 0; d < directions.length; d++) {
+      if (neighbors[cell * directions.length + d] == other) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the hash key of a disc of the given color on the given cell.
+   *
+   * <p>The hash of a position is the exclusive or of the keys of all its discs, and of
+   * {@link #getWhiteToMoveKey()} if white is to move. Keys are fixed per board, so hashes can be
+   * stored.</p>
+   *
+   * @param cell  the cell id.
+   * @param color BLACK or WHITE.
+   * @return the hash key.
+   */
+  public long zobristKey(int cell, int color) {
+    return zobristKeys[cell * 2 + color - 1];
+  }
+
+  public long getWhiteToMoveKey() {
+    return whiteToMoveKey;
+  }
+
+  /**
+   * Computes the hash of a position.
+   *
+   * @param cells      the position, indexed by cell id.
+   * @param sideToMove the color of the player to move.
+   * @return the hash of the position.
+   */
+  public long hash(byte[] cells, int sideToMove) {
+    long hash = sideToMove == WHITE ? whiteToMoveKey : 0;
+    for (int cell = 0; cell < qs.length; cell++) {
+      if (cells[cell] != EMPTY) {
+        hash ^= zobristKeys[cell * 2 + cells[cell] - 1];
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Copies the occupancy of every cell of the model into the given array.
+   *
+   * @param model the model to read, which must have this topology.
+   * @param cells the array to fill, indexed by cell id.
+   */
+  public void readCells(ReversiReadOnlyModel model, byte[] cells) {
+    for (int cell = 0; cell < qs.length; cell++) {
+      cells[cell] = colorOf(model.getOccupancy(qs[cell], rs[cell]));
+    }
+  }
+
+  /**
+   * Gets the cell value of a player.
+   *
+   * @param player the player.
+   * @return BLACK, WHITE, or EMPTY for NONE.
+   */
+  public static byte colorOf(HexagonPlayer player) {
+    switch (player) {
+      case BLACK:
+        return BLACK;
+      case WHITE:
+        return WHITE;
+      default:
+        return EMPTY;
+    }
+  }
+
+  /**
+   * Gets the player of a cell value.
+   *
+   * @param color BLACK, WHITE or EMPTY.
+   * @return the matching player, NONE for EMPTY.
+   */
+  public static HexagonPlayer playerOf(int color) {
+    switch (color) {
+      case BLACK:
+        return HexagonPlayer.BLACK;
+      case WHITE:
+        return HexagonPlayer.WHITE;
+      default:
+        return HexagonPlayer.NONE;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return shape + " " + size;
+  }
+}
@@ -0,0 +1,403 @@
+package cs3500.reversi.model;
+
+import java.util.Arrays;
+
+/**
+ * A small, fast board for searching: the position of a {@link BoardTopology} as one byte per
+ * cell, with moves that can be undone and a zobrist hash that is kept up to date.
+ *
+ * <p>Unlike {@link ReversiBoard} this board allocates nothing per move and never notifies
+ * observers. It only knows the rules, so it does not check whose turn it is beyond keeping
+ * track of the side to move. Evaluators that keep incremental state register a
+ * {@link CellListener} and are told about every cell that changes, including during undo.</p>
+ */
+public final class CompactBoard {
+  /**
+   * The move played by {@link #pass()}, as returned by {@link #getLastMove()}.
+   */
+  public static final int PASS = -1;
+
+  private final BoardTopology topology;
+  private final int directionCount;
+  private final byte[] cells;
+  private final int[] counts = new int[3];
+  private int side;
+  private long hash;
+
+  // every flipped cell of every move played, moves are delimited by frames
+  private int[] flipped;
+  private int flippedTop;
+  private int[] moves;
+  private int[] frames;
+  private int ply;
+
+  private CellListener[] listeners = new CellListener[0];
+
+  /**
+   * Constructs an empty board with black to move.
+   *
+   * @param topology the board's topology.
+   */
+  public CompactBoard(BoardTopology topology) {
+    this.topology = topology;
+    this.directionCount = topology.getDirectionCount();
+    this.cells = new byte[topology.getCellCount()];
+    this.flipped = new int[topology.getCellCount() * 4];
+    this.moves = new int[topology.getCellCount() * 2];
+    this.frames = new int[moves.length];
+    set(cells, BoardTopology.BLACK);
+  }
+
+  /**
+   * Constructs a board in the current position of a model.
+   *
+   * @param model the model to copy, with the current player to move.
+   * @return the new board.
+   */
+  public static CompactBoard of(ReversiReadOnlyModel model) {
+    BoardTopology topology = BoardTopology.of(model);
+    byte[] cells = new byte[topology.getCellCount()];
+    topology.readCells(model, cells);
+    CompactBoard board = new CompactBoard(topology);
+    board.set(cells, BoardTopology.colorOf(model.getCurrentPlayer()));
+    return board;
+  }
+
+  /**
+   * Constructs a board in the same position as this one, without its history or listeners.
+   *
+   * @return the new board.
+   */
+  public CompactBoard copy() {
+    CompactBoard copy = new CompactBoard(topology);
+    copy.set(cells, side);
+    return copy;
+  }
+
+  /**
+   * Sets up a position and forgets the moves played so far. Listeners are not told, they must
+   * reset themselves from the new position.
+   *
+   * @param position   the cell values, indexed by cell id.
+   * @param sideToMove the color of the player to move.
+   * @throws IllegalArgumentException if the side to move is not BLACK or WHITE.
+   */
+  public void set(byte[] position, int sideToMove) {
+    if (sideToMove != BoardTopology.BLACK && sideToMove != BoardTopology.WHITE) {
+      throw new IllegalArgumentException("invalid side to move " + sideToMove);
+    }
+    System.arraycopy(position, 0, cells, 0, cells.length);
+    Arrays.fill(counts, 0);
+    for (byte cell : cells) {
+      counts[cell]++;
+    }
+    side = sideToMove;
+    hash = topology.hash(cells, side);
+    flippedTop = 0;
+    ply = 0;
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the value of a cell.
+   *
+   * @param cell the cell id.
+   * @return EMPTY, BLACK or WHITE.
+   */
+  public int get(int cell) {
+    return cells[cell];
+  }
+
+  /**
+   * Copies the position into an array.
+   *
+   * @param out the array to copy to, indexed by cell id.
+   */
+  public void copyCells(byte[] out) {
+    System.arraycopy(cells, 0, out, 0, cells.length);
+  }
+
+  public int getSideToMove() {
+    return side;
+  }
+
+  /**
+   * Counts the cells of a value.
+   *
+   * @param color EMPTY, BLACK or WHITE.
+   * @return the number of cells with that value.
+   */
+  public int count(int color) {
+    return counts[color];
+  }
+
+  public int getEmptyCount() {
+    return counts[BoardTopology.EMPTY];
+  }
+
+  /**
+   * Gets the zobrist hash of the position and side to move, as computed by
+   * {@link BoardTopology#hash(byte[], int)}.
+   *
+   * @return the hash.
+   */
+  public long getHash() {
+    return hash;
+  }
+
+  /**
+   * Gets the number of moves and passes played since the position was set up.
+   *
+   * @return the number of plies that can be undone.
+   */
+  public int getPly() {
+    return ply;
+  }
+
+  /**
+   * Gets the last move played.
+   *
+   * @return the cell id of the move, or {@link #PASS}.
+   * @throws IllegalStateException if nothing was played since the position was set up.
+   */
+  public int getLastMove() {
+    if (ply == 0) {
+      throw new IllegalStateException("no move has been played");
+    }
+    return moves[ply - 1];
+  }
+
+  /**
+   * Counts the discs a move of the side to move would flip.
+   *
+   * @param cell the cell id of the move.
+   * @return the number of flipped discs, 0 if the move is not legal.
+   */
+  public int flipCount(int cell) {
+    return flipCount(cell, side);
+  }
+
+  /**
+   * Counts the discs a move of a player would flip.
+   *
+   * @param cell  the cell id of the move.
+   * @param color the color of the player.
+   * @return the number of flipped discs, 0 if the move is not legal.
+   */
+  public int flipCount(int cell, int color) {
+    if (cells[cell] != BoardTopology.EMPTY) {
+      return 0;
+    }
+    int opponent = BoardTopology.WHITE + BoardTopology.BLACK - color;
+    int total = 0;
+    for (int d = 0; d < directionCount; d++) {
+      int run = 0;
+      int next = topology.neighbor(cell, d);
+      while (next >= 0 && cells[next] == opponent) {
+        run++;
+        next = topology.neighbor(next, d);
+      }
+      if (next >= 0 && cells[next] == color) {
+        total += run;
+      }
+    }
+    return total;
+  }
+
+  public boolean isLegal(int cell) {
+    return flipCount(cell, side) > 0;
+  }
+
+  /**
+   * Lists the legal moves of the side to move in cell id order.
+   *
+   * @param out the array to write the cell ids to, at least as long as the number of cells.
+   * @return the number of legal moves.
+   */
+  public int legalMoves(int[] out) {
+    int count = 0;
+    for (int cell = 0; cell < cells.length; cell++) {
+      if (flipCount(cell, side) > 0) {
+        out[count++] = cell;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Checks whether a player has a legal move.
+   *
+   * @param color the color of the player.
+   * @return true if the player can play somewhere.
+   */
+  public boolean hasLegalMove(int color) {
+    for (int cell = 0; cell < cells.length; cell++) {
+      if (flipCount(cell, color) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether neither player can move.
+   *
+   * @return true if the game is over.
+   */
+  public boolean isGameOver() {
+    return !hasLegalMove(side)
+        && !hasLegalMove(BoardTopology.WHITE + BoardTopology.BLACK - side);
+  }
+
+  /**
+   * Plays a move for the side to move and passes the turn.
+   *
+   * @param cell the cell id of the move.
+   * @return the number of flipped discs.
+   * @throws IllegalArgumentException if the move is not legal.
+   */
+  public int play(int cell) {
+    if (cells[cell] != BoardTopology.EMPTY) {
+      throw new IllegalArgumentException("cell " + cell + " is not empty");
+    }
+    int opponent = BoardTopology.WHITE + BoardTopology.BLACK - side;
+    int frame = flippedTop;
+    ensureHistory();
+    for (int d = 0; d < directionCount; d++) {
+      int next = topology.neighbor(cell, d);
+      int run = 0;
+      while (next >= 0 && cells[next] == opponent) {
+        run++;
+        next = topology.neighbor(next, d);
+      }
+      if (run > 0 && next >= 0 && cells[next] == side) {
+        next = topology.neighbor(cell, d);
+        for (int i = 0; i < run; i++) {
+          flipped[flippedTop++] = next;
+          change(next, side);
+          next = topology.neighbor(next, d);
+        }
+      }
+    }
+    int flips = flippedTop - frame;
+    if (flips == 0) {
+      throw new IllegalArgumentException("cell " + cell + " is not a legal move");
+    }
+    change(cell, side);
+    frames[ply] = frame;
+    moves[ply++] = cell;
+    switchSide();
+    return flips;
+  }
+
+  /**
+   * Passes the turn without playing.
+   */
+  public void pass() {
+    ensureHistory();
+    frames[ply] = flippedTop;
+    moves[ply++] = PASS;
+    switchSide();
+  }
+
+  /**
+   * Takes back the last move or pass.
+   *
+   * @throws IllegalStateException if nothing was played since the position was set up.
+   */
+  public void undo() {
+    if (ply == 0) {
+      throw new IllegalStateException("no move to undo");
+    }
+    switchSide();
+    int move = moves[--ply];
+    if (move == PASS) {
+      return;
+    }
+    int opponent = BoardTopology.WHITE + BoardTopology.BLACK - side;
+    change(move, BoardTopology.EMPTY);
+    int frame = frames[ply];
+    while (flippedTop > frame) {
+      change(flipped[--flippedTop], opponent);
+    }
+  }
+
+  /**
+   * Registers a listener to be told about every changed cell.
+   *
+   * @param listener the listener.
+   */
+  public void addListener(CellListener listener) {
+    listeners = Arrays.copyOf(listeners, listeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+  }
+
+  /**
+   * Removes a listener, if it is registered.
+   *
+   * @param listener the listener.
+   */
+  public void removeListener(CellListener listener) {
+    for (int i = 0; i < listeners.length; i++) {
+      if (listeners[i] == listener) {
+        CellListener[] remaining = new CellListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, remaining, 0, i);
+        System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+        listeners = remaining;
+        return;
+      }
+    }
+  }
+
+  private void change(int cell, int color) {
+    int old = cells[cell];
+    if (old != BoardTopology.EMPTY) {
+      hash ^= topology.zobristKey(cell, old);
+    }
+    if (color != BoardTopology.EMPTY) {
+      hash ^= topology.zobristKey(cell, color);
+    }
+    counts[old]--;
+    counts[color]++;
+    cells[cell] = (byte) color;
+    for (CellListener listener : listeners) {
+      listener.cellChanged(cell, old, color);
+    }
+  }
+
+  private void switchSide() {
+    side = BoardTopology.WHITE + BoardTopology.BLACK - side;
+    hash ^= topology.getWhiteToMoveKey();
+  }
+
+  /**
+   * Makes room for one more move and all the discs it could flip.
+   */
+  private void ensureHistory() {
+    if (ply == moves.length) {
+      moves = Arrays.copyOf(moves, moves.length * 2);
+      frames = Arrays.copyOf(frames, frames.length * 2);
+    }
+    if (flippedTop + cells.length > flipped.length) {
+      flipped = Arrays.copyOf(flipped, flipped.length * 2 + cells.length);
+    }
+  }
+
+  /**
+   * Told about every cell that changes value on a board.
+   */
+  public interface CellListener {
+
+    /**
+     * Called after a cell changed.
+     *
+     * @param cell     the cell id.
+     * @param oldColor the previous value of the cell.
+     * @param newColor the new value of the cell.
+     */
+    void cellChanged(int cell, int oldColor, int newColor);
+  }
+}
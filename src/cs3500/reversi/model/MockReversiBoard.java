@@ -183,4 +183,28 @@ public class MockReversiBoard implements ReversiMutableModel, ReversiReadOnlyMod
   public int getArrayWidth() {
     return 0;
   }
+
+  /**
+   * Scores no moves, the mock has no board.
+   *
+   * @param player the player whose moves are scored
+   * @return an empty array
+   */
+  @Override
+  public int[] scoreMoves(Hexagon.HexagonPlayer player) {
+    log.add("scoreMoves was called!");
+    return new int[0];
+  }
+
+  /**
+   * Scores no moves, the mock has no board.
+   *
+   * @param player the player whose moves are scored
+   * @return an empty array
+   */
+  @Override
+  public int[] scoreMovesWithMobility(Hexagon.HexagonPlayer player) {
+    log.add("scoreMovesWithMobility was called!");
+    return new int[0];
+  }
 }
\ No newline at end of file
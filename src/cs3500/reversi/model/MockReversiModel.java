@@ -174,6 +174,42 @@ public class MockReversiModel implements ReversiReadOnlyModel {
     return board.getArrayWidth();
   }
 
+  /**
+   * Overrides scoreMoves to record every legal move it finds in the inspected coordinates
+   * transcript, in the same row by row order the strategies used to call canMove in.
+   *
+   * @param player The player (either BLACK or WHITE) whose moves are scored.
+   * @return the flip counts of the board.
+   */
+  @Override
+  public int[] scoreMoves(HexagonPlayer player) {
+    return inspect(board.scoreMoves(player));
+  }
+
+  /**
+   * Overrides scoreMovesWithMobility to record every legal move it finds in the inspected
+   * coordinates transcript.
+   *
+   * @param player The player (either BLACK or WHITE) whose moves are scored.
+   * @return the flip and mobility counts of the board.
+   */
+  @Override
+  public int[] scoreMovesWithMobility(HexagonPlayer player) {
+    return inspect(board.scoreMovesWithMobility(player));
+  }
+
+  private int[] inspect(int[] scores) {
+    int width = board.getArrayWidth();
+    for (int r = 0; r < width; r++) {
+      for (int q = 0; q < width; q++) {
+        if (scores[r * width + q] > 0) {
+          this.inspectedPossibleMoves.add(new Pair<>(q, r));
+        }
+      }
+    }
+    return scores;
+  }
+
   /**
    * Retrieves the list of coordinates that were inspected during the validity checks of moves.
    * This method provides access to the internal tracking of inspected coordinates,
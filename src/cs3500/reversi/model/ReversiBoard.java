@@ -1,5 +1,9 @@
 package cs3500.reversi.model;
 
+import cs3500.reversi.jfr.MoveEvent;
+import cs3500.reversi.metrics.Counter;
+import cs3500.reversi.metrics.Histogram;
+import cs3500.reversi.metrics.MetricsRegistry;
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
 import cs3500.reversi.view.BoardObserver;
 import java.util.ArrayList;
@@ -36,6 +40,15 @@ public class ReversiBoard implements ReversiMutableModel, ReversiReadOnlyModel {
   // List to keep track of all observers
   private List<BoardObserver> observers = new ArrayList<>();
 
+  // shared by all boards, see MetricsRegistry
+  private static final Counter MOVES = MetricsRegistry.DEFAULT.counter("reversi_moves_total",
+      "Moves and passes played on any board.", "kind", "move");
+  private static final Counter PASSES = MetricsRegistry.DEFAULT.counter("reversi_moves_total",
+      "Moves and passes played on any board.", "kind", "pass");
+  private static final Histogram NOTIFICATIONS = MetricsRegistry.DEFAULT.histogram(
+      "reversi_observer_notification_seconds", "Time spent notifying the observers of a board.",
+      Histogram.LATENCY_SECONDS);
+
 
   /**
    * Constructs a Reversi board with the given size.
@@ -164,9 +177,11 @@ public class ReversiBoard implements ReversiMutableModel, ReversiReadOnlyModel {
    * Notifies all registered observers of a change in the board state.
    */
   protected void notifyObserver() {
+    long start = System.nanoTime();
     for (BoardObserver observer : observers) {
       observer.onBoardChanged();
     }
+    NOTIFICATIONS.observeSince(start);
   }
 
   /**
@@ -325,8 +340,12 @@ public class ReversiBoard implements ReversiMutableModel, ReversiReadOnlyModel {
   @Override
   public void play(int q, int r, HexagonPlayer player)
       throws IllegalArgumentException, IllegalStateException {
+    MoveEvent event = new MoveEvent();
+    event.begin();
     // VALIDATE THE PLAY:
     validatePlay(player);
+    // the discs of the player before the move, only counted while recording
+    int before = event.isEnabled() ? getScore(player) : 0;
 
     // create directions in which to search as a list of Pair:
     List<Pair<Integer, Integer>> directions = hexGridSearchPattern();
@@ -347,6 +366,12 @@ public class ReversiBoard implements ReversiMutableModel, ReversiReadOnlyModel {
     // change the currentPlayer
     switchPlayer();
     this.countPasses = 0;
+    event.end();
+    if (event.shouldCommit()) {
+      event.setMove(player, q, r, getScore(player) - before - 1);
+      event.commit();
+    }
+    MOVES.increment();
     notifyObserver();
   }
 
@@ -391,6 +416,9 @@ public class ReversiBoard implements ReversiMutableModel, ReversiReadOnlyModel {
     if (gameEnded) {
       throw new IllegalStateException("The game has been ended");
     }
+    MoveEvent event = new MoveEvent();
+    event.begin();
+    event.setPass(currentPlayer);
     // switch the player whose turn it is to play:
     switchPlayer();
     // add one to the number of passes made
@@ -399,6 +427,8 @@ public class ReversiBoard implements ReversiMutableModel, ReversiReadOnlyModel {
     if (countPasses == 2) {
       this.gameEnded = true;
     }
+    event.commit();
+    PASSES.increment();
     notifyObserver();
   }
 
@@ -592,6 +622,98 @@ public class ReversiBoard implements ReversiMutableModel, ReversiReadOnlyModel {
   }
 
 
+  @Override
+  public int[] scoreMoves(HexagonPlayer player) {
+    return scoreMoves(player, false);
+  }
+
+  @Override
+  public int[] scoreMovesWithMobility(HexagonPlayer player) {
+    return scoreMoves(player, true);
+  }
+
+  /**
+   * Scores every move of a player without changing the board. To count the opponent's replies
+   * the position is copied once into a {@link CompactBoard}, where each move is made and taken
+   * back, so views and other threads reading this board never see a move half made.
+   *
+   * @param player       the player whose moves are scored.
+   * @param withMobility whether to count the opponent's moves after each move.
+   * @return the flip counts, followed by the mobility counts if asked for.
+   */
+  private int[] scoreMoves(HexagonPlayer player, boolean withMobility) {
+    int width = getArrayWidth();
+    int cells = width * width;
+    int[] scores = new int[withMobility ? cells * 2 : cells];
+    if (player != HexagonPlayer.BLACK && player != HexagonPlayer.WHITE) {
+      return scores;
+    }
+    List<Pair<Integer, Integer>> directions = hexGridSearchPattern();
+    BoardTopology topology = null;
+    CompactBoard scratch = null;
+    int[] replies = null;
+    if (withMobility) {
+      topology = BoardTopology.of(this);
+      byte[] position = new byte[topology.getCellCount()];
+      topology.readCells(this, position);
+      scratch = new CompactBoard(topology);
+      scratch.set(position, BoardTopology.colorOf(player));
+      replies = new int[topology.getCellCount()];
+    }
+    for (int r = 0; r < width; r++) {
+      for (int q = 0; q < width; q++) {
+        int flips = countFlips(q, r, player, directions);
+        scores[r * width + q] = flips;
+        if (withMobility && flips > 0) {
+          scratch.play(topology.cellId(q, r));
+          scores[cells + r * width + q] = scratch.legalMoves(replies);
+          scratch.undo();
+        }
+      }
+    }
+    return scores;
+  }
+
+  /**
+   * Counts the discs a move would flip, following the same rules as
+   * {@link #validateAndFlip}, without building the lists of flipped positions.
+   */
+  private int countFlips(int q, int r, HexagonPlayer player,
+      List<Pair<Integer, Integer>> directions) {
+    if (!validHexPosition(q, r) || hexList[r][q] == null
+        || hexList[r][q].getOccupancy() != HexagonPlayer.NONE) {
+      return 0;
+    }
+    int flips = 0;
+    for (Pair<Integer, Integer> direction : directions) {
+      flips += countDirection(q, r, player, direction.getKey(), direction.getValue());
+    }
+    return flips;
+  }
+
+  /**
+   * Counts the discs a move would flip in one direction, following {@link #checkDirection}.
+   */
+  private int countDirection(int q, int r, HexagonPlayer player, int dq, int dr) {
+    int currentQ = q + dq;
+    int currentR = r + dr;
+    int count = 0;
+    while (validHexPosition(currentQ, currentR) && currentQ >= 0 && currentQ < hexList[0].length
+        && currentR >= 0 && currentR < hexList.length) {
+      HexagonPlayer currentOccupancy = hexList[currentR][currentQ].getOccupancy();
+      if (currentOccupancy == HexagonPlayer.NONE) {
+        return 0;
+      }
+      if (currentOccupancy == player) {
+        return count;
+      }
+      count++;
+      currentQ += dq;
+      currentR += dr;
+    }
+    return 0;
+  }
+
   /**
    * Retrieves the occupancy state of the hexagon at the specified coordinates on the game board.
    *
@@ -89,6 +89,31 @@ public interface ReversiReadOnlyModel {
    */
   boolean canMove(HexagonPlayer player);
 
+  /**
+   * Scores every move of a player in one pass over the board.
+   *
+   * <p>Entry (r * getArrayWidth() + q) holds the number of discs a move at (q, r) would flip,
+   * not counting the disc placed, or 0 if the player cannot move there. Whose turn it is does
+   * not matter, only the rules of placing a disc.</p>
+   *
+   * @param player The player (either BLACK or WHITE) whose moves are scored.
+   * @return a new array of flip counts, one per position of the 2D board array.
+   */
+  int[] scoreMoves(HexagonPlayer player);
+
+  /**
+   * Scores every move of a player like {@link #scoreMoves(HexagonPlayer)}, and also counts the
+   * opponent's legal moves after each of them.
+   *
+   * <p>The first half of the array holds the flip counts. Entry (w * w + r * w + q), where w
+   * is getArrayWidth(), holds the number of moves the opponent would have after the move at
+   * (q, r), or 0 if the player cannot move there.</p>
+   *
+   * @param player The player (either BLACK or WHITE) whose moves are scored.
+   * @return a new array of flip counts followed by the opponent's mobility after each move.
+   */
+  int[] scoreMovesWithMobility(HexagonPlayer player);
+
   /**
    * Adds an observer to the list of observers.
    * @param observer The observer to be added.
@@ -1,9 +1,22 @@
 package cs3500.reversi.player;
 
+import cs3500.reversi.jfr.ChooseMoveEvent;
+import cs3500.reversi.metrics.Counter;
+import cs3500.reversi.metrics.Histogram;
+import cs3500.reversi.metrics.MetricsRegistry;
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
 import cs3500.reversi.model.ReversiReadOnlyModel;
+import cs3500.reversi.strategy.CandidateStrategy;
+import cs3500.reversi.strategy.Candidates;
 import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Moves;
+import cs3500.reversi.strategy.PonderingStrategy;
 import cs3500.reversi.strategy.ReversiStrategy;
+import cs3500.reversi.strategy.SearchingStrategy;
+import cs3500.reversi.strategy.TimedStrategy;
+import cs3500.reversi.time.GameClock;
+import cs3500.reversi.time.TimeManager;
+import cs3500.reversi.view.BoardObserver;
 import java.util.Objects;
 
 /**
@@ -11,11 +24,26 @@ import java.util.Objects;
  * This class implements the Player interface, providing AI-specific
  * logic for making moves and passing turns. It uses a specified strategy to determine
  * moves based on the current state of the game.
+ *
+ * <p>If the strategy is a {@link PonderingStrategy}, the player watches the board and lets the
+ * strategy think ahead whenever it is the opponent's turn.</p>
+ *
+ * <p>Given a clock, a player with a {@link TimedStrategy} asks its {@link TimeManager} for a
+ * budget before every move. Other strategies ignore the clock.</p>
+ *
+ * <p>The time every choice takes and the positions searched for it are reported to the default
+ * {@link MetricsRegistry}, by the strategy's name: the name it was looked up by if one is given,
+ * and its class name otherwise.</p>
  */
-public class AIPlayer implements Player {
+public class AIPlayer implements Player, BoardObserver {
   ReversiReadOnlyModel board;
   HexagonPlayer player;
   ReversiStrategy strategy;
+  private final GameClock clock;
+  private final TimeManager timeManager;
+  private final String name;
+  private final Histogram decisions;
+  private final Counter searched;
 
   /**
    * Constructs an AI player for the Reversi game.
@@ -31,17 +59,87 @@ public class AIPlayer implements Player {
    * @throws NullPointerException if any of the parameters are null.
    */
   public AIPlayer(ReversiReadOnlyModel board, HexagonPlayer player, ReversiStrategy strategy) {
+    this(board, player, strategy, null, null);
+  }
+
+  /**
+   * Constructs an AI player whose strategy is reported by the given name, such as the name it
+   * was looked up by on the command line.
+   *
+   * @param board    The current state of the Reversi game board. Must not be null.
+   * @param player   The player type (e.g., black or white) that
+   *                 this AI will represent. Must not be null.
+   * @param strategy The strategy that the AI will use to determine its moves. Must not be null.
+   * @param name     The name of the strategy in metrics and profiling events. Must not be null.
+   * @throws NullPointerException if any of the parameters are null.
+   */
+  public AIPlayer(ReversiReadOnlyModel board, HexagonPlayer player, ReversiStrategy strategy,
+      String name) {
+    this(board, player, strategy, name, null, null);
+  }
+
+  /**
+   * Constructs an AI player that budgets its moves by the game clock.
+   *
+   * @param board       The current state of the Reversi game board. Must not be null.
+   * @param player      The player type (e.g., black or white) that
+   *                    this AI will represent. Must not be null.
+   * @param strategy    The strategy that the AI will use to determine its moves. Must not be null.
+   * @param clock       The clock of the game, or null to play without time limits.
+   * @param timeManager Splits the clock into budgets per move, or null without a clock.
+   * @throws NullPointerException if the board, player or strategy is null, or if only one of
+   *                              the clock and the time manager is.
+   */
+  public AIPlayer(ReversiReadOnlyModel board, HexagonPlayer player, ReversiStrategy strategy,
+      GameClock clock, TimeManager timeManager) {
+    this(board, player, strategy, Objects.requireNonNull(strategy).getClass().getSimpleName(),
+        clock, timeManager);
+  }
+
+  /**
+   * Constructs an AI player that budgets its moves by the game clock and whose strategy is
+   * reported by the given name.
+   *
+   * @param board       The current state of the Reversi game board. Must not be null.
+   * @param player      The player type (e.g., black or white) that
+   *                    this AI will represent. Must not be null.
+   * @param strategy    The strategy that the AI will use to determine its moves. Must not be null.
+   * @param name        The name of the strategy in metrics and profiling events. Must not be
+   *                    null.
+   * @param clock       The clock of the game, or null to play without time limits.
+   * @param timeManager Splits the clock into budgets per move, or null without a clock.
+   * @throws NullPointerException if the board, player, strategy or name is null, or if only one
+   *                              of the clock and the time manager is.
+   */
+  public AIPlayer(ReversiReadOnlyModel board, HexagonPlayer player, ReversiStrategy strategy,
+      String name, GameClock clock, TimeManager timeManager) {
     Objects.requireNonNull(board);
     Objects.requireNonNull(player);
     Objects.requireNonNull(strategy);
+    Objects.requireNonNull(name);
+    if ((clock == null) != (timeManager == null)) {
+      throw new NullPointerException("clock and time manager must be given together");
+    }
     this.board = board;
     this.player = player;
     this.strategy = strategy;
+    this.clock = clock;
+    this.timeManager = timeManager;
+    this.name = name;
+    this.decisions = MetricsRegistry.DEFAULT.histogram("reversi_ai_decision_seconds",
+        "Time AI players take to choose a move.", Histogram.LATENCY_SECONDS, "strategy", name);
+    this.searched = MetricsRegistry.DEFAULT.counter("reversi_search_nodes_total",
+        "Positions searched by AI players choosing moves.", "strategy", name);
+    if (strategy instanceof PonderingStrategy) {
+      board.addObserver(this);
+    }
   }
 
 
   /**
-   * Determines the best move to be played by the AI player based on its strategy.
+   * Determines the best move to be played by the AI player based on its strategy, or a pass
+   * if the strategy finds none. Strategies made of {@link CandidateStrategy} stages report that
+   * without an exception.
    *
    * @param q The Q coordinate of the move.
    * @param r The R coordinate of the move.
@@ -49,13 +147,50 @@ public class AIPlayer implements Player {
    */
   @Override
   public Move play(int q, int r) {
+    ChooseMoveEvent event = new ChooseMoveEvent();
+    event.begin();
+    long start = System.nanoTime();
+    long nodes = nodes();
+    Move move = choose();
+    decisions.observeSince(start);
+    nodes = nodes() - nodes;
+    searched.add(nodes);
+    event.end();
+    if (event.shouldCommit()) {
+      event.set(name, player,
+          Candidates.of(board, player).size(), nodes);
+      event.commit();
+    }
+    return move;
+  }
+
+  /**
+   * Gets the number of positions the strategy has searched so far, 0 if it does not search.
+   */
+  private long nodes() {
+    return strategy instanceof SearchingStrategy ? ((SearchingStrategy) strategy).getNodes() : 0;
+  }
+
+  /**
+   * Asks the strategy for a move, or a pass if it finds none.
+   */
+  private Move choose() {
+    if (strategy instanceof CandidateStrategy) {
+      Candidates candidates = Candidates.of(board, player);
+      int id = ((CandidateStrategy) strategy).choose(candidates);
+      return id == Candidates.NONE ? Moves.pass(player) : candidates.toMove(id);
+    }
     try {
+      if (clock != null && strategy instanceof TimedStrategy) {
+        return ((TimedStrategy) strategy).chooseMove(board, player,
+            timeManager.allocate(board, player, clock));
+      }
       Move move = strategy.chooseMove(board, player);
       return move;
     }
     catch (IllegalStateException e) {
       // pass move:
-      return new Move(true, player);
+      return Moves.pass(player);
     }
   }
 
@@ -67,7 +202,7 @@ public class AIPlayer implements Player {
    */
   @Override
   public Move pass() {
-    return new Move(true, player);
+    return Moves.pass(player);
   }
 
   /**
@@ -90,4 +225,33 @@ public class AIPlayer implements Player {
   public boolean isPlayerTurn() {
     return board.getCurrentPlayer() == player;
   }
+
+  /**
+   * Starts pondering if it is now the opponent's turn, checks it against the opponent's move
+   * once it is this player's turn, and stops it once the game is over.
+   */
+  @Override
+  public void onBoardChanged() {
+    if (!(strategy instanceof PonderingStrategy)) {
+      return;
+    }
+    PonderingStrategy ponderer = (PonderingStrategy) strategy;
+    if (board.isGameOver()) {
+      ponderer.stopPondering();
+    }
+    else if (!isPlayerTurn()) {
+      ponderer.ponder(board, player);
+    }
+    else {
+      ponderer.opponentMoved(board, player);
+    }
+  }
+
+  /**
+   * Starts pondering if the opponent moves first.
+   */
+  @Override
+  public void startObserverGame() {
+    onBoardChanged();
+  }
 }
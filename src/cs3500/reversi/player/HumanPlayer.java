@@ -3,6 +3,7 @@ package cs3500.reversi.player;
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
 import cs3500.reversi.model.ReversiReadOnlyModel;
 import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Moves;
 import java.util.Objects;
 
 /**
@@ -45,7 +46,7 @@ public class HumanPlayer implements Player {
    */
   @Override
   public Move pass() {
-    return new Move(true, player);
+    return Moves.pass(player);
   }
 
   @Override
@@ -0,0 +1,102 @@
+package cs3500.reversi.record;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiMutableModel;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the games of a {@link GameArchive} straight out of the mapped file.
+ *
+ * <p>A cursor is moved to a game with {@link #moveTo(int)} and then read like a
+ * {@link GameRecordReader}. Moving to another game is cheap, so one cursor can be reused for a
+ * whole scan. Cursors are not thread-safe, but every thread can have its own.</p>
+ */
+public class ArchiveCursor {
+  private final GameArchive archive;
+  private final ByteBuffer[] views;
+  private final ByteBufferInputStream stream = new ByteBufferInputStream();
+  private final GameRecordReader reader = new GameRecordReader(stream);
+  private int game = -1;
+
+  ArchiveCursor(GameArchive archive) {
+    this.archive = archive;
+    // cursors get their own views of the segments so that their positions are independent
+    this.views = new ByteBuffer[archive.segmentCount()];
+  }
+
+  /**
+   * Moves to the given game and reads its header.
+   *
+   * @param index the index of the game in the archive.
+   * @return the header of the game.
+   * @throws IOException               if the game record is invalid.
+   * @throws IndexOutOfBoundsException if there is no such game.
+   */
+  public GameHeader moveTo(int index) throws IOException {
+    long offset = archive.offset(index);
+    int segment = (int) (offset / GameArchive.SEGMENT_SIZE);
+    if (segment >= views.length) {
+      throw new IOException("archive index points past the end of the data");
+    }
+    if (views[segment] == null) {
+      views[segment] = archive.segment(segment).duplicate();
+    }
+    stream.reset(views[segment], (int) (offset - segment * GameArchive.SEGMENT_SIZE));
+    reader.reset();
+    game = index;
+    GameHeader header = reader.nextGame();
+    if (header == null) {
+      throw new IOException("archive index points past the end of the data");
+    }
+    return header;
+  }
+
+  /**
+   * Gets the index of the game this cursor is on.
+   *
+   * @return the index of the current game, or -1 before the first move.
+   */
+  public int getIndex() {
+    return game;
+  }
+
+  /**
+   * Gets the header of the current game.
+   *
+   * @return the header, or null if the cursor has not been moved to a game.
+   */
+  public GameHeader getHeader() {
+    return reader.getHeader();
+  }
+
+  /**
+   * Reads the next move of the current game.
+   *
+   * @return a cell id, {@link GameRecordReader#PASS} or {@link GameRecordReader#END_OF_GAME}.
+   * @throws IOException if the record contains an invalid move.
+   */
+  public int nextMove() throws IOException {
+    return reader.nextMove();
+  }
+
+  /**
+   * Gets the player who made the move last returned by {@link #nextMove()}.
+   *
+   * @return the player of the last move, or NONE before the first move.
+   */
+  public HexagonPlayer getLastMover() {
+    return reader.getLastMover();
+  }
+
+  /**
+   * Plays the remaining moves of the current game on the given model.
+   *
+   * @param model a started model in the position the remaining moves were played from.
+   * @return the number of moves and passes played.
+   * @throws IOException if the record contains an invalid move.
+   */
+  public int replay(ReversiMutableModel model) throws IOException {
+    return reader.replay(model);
+  }
+}
@@ -0,0 +1,46 @@
+package cs3500.reversi.record;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream reading straight out of a byte buffer, so that records in a mapped file can
+ * be decoded without copying them first.
+ */
+final class ByteBufferInputStream extends InputStream {
+  private ByteBuffer buffer;
+
+  /**
+   * Points this stream at the given position of the given buffer.
+   *
+   * @param buffer   the buffer to read from, owned by the caller's thread.
+   * @param position the position to continue reading at.
+   */
+  void reset(ByteBuffer buffer, int position) {
+    this.buffer = buffer;
+    buffer.position(position);
+  }
+
+  @Override
+  public int read() {
+    return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) {
+    if (length == 0) {
+      return 0;
+    }
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    int count = Math.min(length, buffer.remaining());
+    buffer.get(bytes, offset, count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return buffer.remaining();
+  }
+}
@@ -0,0 +1,201 @@
+package cs3500.reversi.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A read-only, memory-mapped view of a game archive written by {@link GameArchiveWriter}.
+ *
+ * <p>The index is mapped as a table of offsets and the data file is mapped in overlapping
+ * segments, so that game K can be located in constant time and decoded in place without
+ * copying. Reading is done through {@link ArchiveCursor}s; every thread uses its own cursor and
+ * any number of cursors can read the archive at once. The archive sees the games that were
+ * complete when it was opened.</p>
+ */
+public class GameArchive implements Closeable {
+  // games start at most this far apart from the start of the segment they are read from
+  static final long SEGMENT_SIZE = 1L << 30;
+  // segments overlap by this much, which bounds the length of a single game record
+  static final long SEGMENT_OVERLAP = 1L << 20;
+
+  private final FileChannel dataChannel;
+  private final LongBuffer offsets;
+  private final MappedByteBuffer[] segments;
+
+  /**
+   * Opens the archive with the given base path.
+   *
+   * @param base the path of the archive, without the file extensions.
+   * @throws IOException if the files cannot be opened or mapped.
+   */
+  public GameArchive(Path base) throws IOException {
+    try (FileChannel indexChannel = FileChannel.open(indexFile(base), StandardOpenOption.READ)) {
+      long games = indexChannel.size() / Long.BYTES;
+      if (games > Integer.MAX_VALUE) {
+        throw new IOException("archive index is too large");
+      }
+      this.offsets = indexChannel.map(MapMode.READ_ONLY, 0, games * Long.BYTES).asLongBuffer();
+    }
+    this.dataChannel = FileChannel.open(dataFile(base), StandardOpenOption.READ);
+    long length = dataChannel.size();
+    int count = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+    this.segments = new MappedByteBuffer[count];
+    for (int i = 0; i < count; i++) {
+      long start = i * SEGMENT_SIZE;
+      long end = Math.min(length, start + SEGMENT_SIZE + SEGMENT_OVERLAP);
+      segments[i] = dataChannel.map(MapMode.READ_ONLY, start, end - start);
+    }
+  }
+
+  /**
+   * Gets the path of the data file of the archive with the given base path.
+   *
+   * @param base the path of the archive, without the file extensions.
+   * @return the path of the data file.
+   */
+  public static Path dataFile(Path base) {
+    return base.resolveSibling(base.getFileName() + ".games");
+  }
+
+  /**
+   * Gets the path of the index file of the archive with the given base path.
+   *
+   * @param base the path of the archive, without the file extensions.
+   * @return the path of the index file.
+   */
+  public static Path indexFile(Path base) {
+    return base.resolveSibling(base.getFileName() + ".index");
+  }
+
+  /**
+   * Gets the number of games in the archive.
+   *
+   * @return the number of games.
+   */
+  public int size() {
+    return offsets.limit();
+  }
+
+  /**
+   * Creates a new cursor for reading games. A cursor must only be used by one thread.
+   *
+   * @return a new cursor, not yet on any game.
+   */
+  public ArchiveCursor newCursor() {
+    return new ArchiveCursor(this);
+  }
+
+  /**
+   * Visits the games in the given range in order on the calling thread.
+   *
+   * @param from    the index of the first game to visit.
+   * @param to      the index after the last game to visit.
+   * @param visitor the visitor to call for every game.
+   * @throws IOException               if a game record is invalid.
+   * @throws IndexOutOfBoundsException if the range is outside of the archive.
+   */
+  public void scan(int from, int to, GameVisitor visitor) throws IOException {
+    if (from < 0 || to > size() || from > to) {
+      throw new IndexOutOfBoundsException("invalid range " + from + " to " + to);
+    }
+    ArchiveCursor cursor = newCursor();
+    for (int game = from; game < to; game++) {
+      cursor.moveTo(game);
+      visitor.visit(game, cursor);
+    }
+  }
+
+  /**
+   * Visits all games, splitting the archive into disjoint contiguous ranges that are scanned
+   * in parallel. Within a range games are visited in order.
+   *
+   * @param threads the number of threads to scan with.
+   * @param visitor the visitor to call for every game, from several threads at once.
+   * @throws IOException if a game record is invalid or the visitor fails.
+   */
+  public void parallelScan(int threads, GameVisitor visitor) throws IOException {
+    int games = size();
+    int parts = Math.max(1, Math.min(threads, games));
+    ExecutorService executor = Executors.newFixedThreadPool(parts);
+    try {
+      List<Future<Void>> results = new ArrayList<>();
+      for (int part = 0; part < parts; part++) {
+        int from = (int) ((long) games * part / parts);
+        int to = (int) ((long) games * (part + 1) / parts);
+        results.add(executor.submit(() -> {
+          scan(from, to, visitor);
+          return null;
+        }));
+      }
+      for (Future<Void> result : results) {
+        result.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted while scanning the archive", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("failed to scan the archive", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    dataChannel.close();
+  }
+
+  /**
+   * Gets the offset of a game in the data file.
+   */
+  long offset(int game) {
+    if (game < 0 || game >= size()) {
+      throw new IndexOutOfBoundsException("no game " + game + " in the archive");
+    }
+    return offsets.get(game);
+  }
+
+  /**
+   * Gets the number of mapped segments of the data file.
+   */
+  int segmentCount() {
+    return segments.length;
+  }
+
+  /**
+   * Gets a mapped segment of the data file.
+   */
+  MappedByteBuffer segment(int segment) {
+    return segments[segment];
+  }
+
+  /**
+   * Called for every game of a scan.
+   */
+  public interface GameVisitor {
+
+    /**
+     * Visits one game.
+     *
+     * @param index  the index of the game in the archive.
+     * @param cursor a cursor positioned on the game, valid only during this call.
+     * @throws IOException if the game record is invalid.
+     */
+    void visit(int index, ArchiveCursor cursor) throws IOException;
+  }
+}
@@ -0,0 +1,121 @@
+package cs3500.reversi.record;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Appends games to an archive: a data file of game records back to back and an index file
+ * holding the offset of every game as an 8 byte big-endian long.
+ *
+ * <p>A game's index entry is only written once the game has been ended and its bytes have been
+ * flushed to the data file, so an interrupted writer leaves at most some unreferenced bytes at
+ * the end of the data file and readers never see half a game. Reopening an archive keeps
+ * appending to it.</p>
+ */
+public class GameArchiveWriter extends GameRecordWriter {
+  // the most ended games whose index entries wait for their data to be flushed
+  private static final int PENDING_GAMES = 8192;
+
+  private final DataOutputStream index;
+  // the offsets of ended games whose data may not have been flushed yet
+  private final long[] pending = new long[PENDING_GAMES];
+  private int pendingCount;
+  // the length of the data file when this writer opened it
+  private final long dataStart;
+  // the offset of the game being written
+  private long gameOffset;
+
+  /**
+   * Opens the archive with the given base path for appending, creating it if needed.
+   *
+   * @param base the path of the archive, without the file extensions.
+   * @throws IOException if the files cannot be opened.
+   */
+  public GameArchiveWriter(Path base) throws IOException {
+    this(GameArchive.dataFile(base), GameArchive.indexFile(base));
+  }
+
+  private GameArchiveWriter(Path data, Path index) throws IOException {
+    super(new FileOutputStream(data.toFile(), true));
+    this.dataStart = Files.size(data);
+    this.index = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(index.toFile(), true), 1 << 16));
+  }
+
+  @Override
+  public void beginGame(GameHeader header) throws IOException {
+    long offset = dataStart + getBytesWritten();
+    super.beginGame(header);
+    gameOffset = offset;
+  }
+
+  @Override
+  public void endGame() throws IOException {
+    super.endGame();
+    pending[pendingCount++] = gameOffset;
+    if (pendingCount == pending.length) {
+      flush();
+    }
+  }
+
+  /**
+   * Copies every remaining game of a record stream into this archive.
+   *
+   * @param reader the games to copy.
+   * @return the number of games copied.
+   * @throws IOException if reading or writing fails.
+   */
+  public int appendAll(GameRecordReader reader) throws IOException {
+    int games = 0;
+    GameHeader header;
+    while ((header = reader.nextGame()) != null) {
+      beginGame(header);
+      int move;
+      while ((move = reader.nextMove()) != GameRecordReader.END_OF_GAME) {
+        if (move == GameRecordReader.PASS) {
+          writePass();
+        } else {
+          writeMove(header.getTopology().getQ(move), header.getTopology().getR(move));
+        }
+      }
+      endGame();
+      games++;
+    }
+    return games;
+  }
+
+  /**
+   * Flushes the data file before the index, so the index never refers to unwritten data.
+   */
+  @Override
+  public void flush() throws IOException {
+    super.flush();
+    writePending();
+    index.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+      writePending();
+    } finally {
+      index.close();
+    }
+  }
+
+  /**
+   * Hands the index entries of the games already flushed to the index stream, which may then
+   * flush them whenever its buffer fills.
+   */
+  private void writePending() throws IOException {
+    for (int i = 0; i < pendingCount; i++) {
+      index.writeLong(pending[i]);
+    }
+    pendingCount = 0;
+  }
+}
@@ -0,0 +1,73 @@
+package cs3500.reversi.record;
+
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.ReversiBoard;
+import java.util.Objects;
+
+/**
+ * The header of a recorded game: the board it was played on and who played each color.
+ */
+public final class GameHeader {
+  private final BoardShape shape;
+  private final int size;
+  private final String blackPlayer;
+  private final String whitePlayer;
+
+  /**
+   * Constructs a header.
+   *
+   * @param shape       the shape of the board.
+   * @param size        the size of the board.
+   * @param blackPlayer a name for the black player, e.g. the strategy it used.
+   * @param whitePlayer a name for the white player.
+   * @throws NullPointerException if any argument is null.
+   */
+  public GameHeader(BoardShape shape, int size, String blackPlayer, String whitePlayer) {
+    this.shape = Objects.requireNonNull(shape);
+    this.size = size;
+    this.blackPlayer = Objects.requireNonNull(blackPlayer);
+    this.whitePlayer = Objects.requireNonNull(whitePlayer);
+  }
+
+  public BoardShape getShape() {
+    return shape;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public String getBlackPlayer() {
+    return blackPlayer;
+  }
+
+  public String getWhitePlayer() {
+    return whitePlayer;
+  }
+
+  /**
+   * Gets the topology of the board the game was played on.
+   *
+   * @return the board topology.
+   */
+  public BoardTopology getTopology() {
+    return BoardTopology.of(shape, size);
+  }
+
+  /**
+   * Creates a started board in the starting position of this game, ready for a replay.
+   *
+   * @return a new board.
+   */
+  public ReversiBoard newModel() {
+    ReversiBoard board = shape.newBoard(size);
+    board.startGame();
+    return board;
+  }
+
+  @Override
+  public String toString() {
+    return shape + " " + size + " " + blackPlayer + " vs " + whitePlayer;
+  }
+}
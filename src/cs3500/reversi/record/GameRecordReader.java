@@ -0,0 +1,204 @@
+package cs3500.reversi.record;
+
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiMutableModel;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads games in the compact binary record format one game and one move at a time.
+ *
+ * <p>The reader never holds more than the current game's header, so files with any number of
+ * games can be streamed through it. Moves are returned as cell ids of the game's
+ * {@link BoardTopology}, or as {@link #PASS} and {@link #END_OF_GAME}.</p>
+ */
+public class GameRecordReader implements Closeable {
+  // returned by nextMove for a pass
+  public static final int PASS = -1;
+  // returned by nextMove once the current game has no more moves
+  public static final int END_OF_GAME = -2;
+
+  private final InputStream in;
+  private GameHeader header;
+  private BoardTopology topology;
+  private boolean inGame;
+  private HexagonPlayer sideToMove;
+  private HexagonPlayer lastMover;
+
+  /**
+   * Constructs a reader over the given stream.
+   *
+   * @param in the stream to read from, buffered by this reader.
+   */
+  public GameRecordReader(InputStream in) {
+    this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in, 1 << 16);
+  }
+
+  /**
+   * Constructs a reader over memory that is read in place, without buffering.
+   *
+   * @param in the stream over the memory to read from.
+   */
+  GameRecordReader(ByteBufferInputStream in) {
+    this.in = in;
+  }
+
+  /**
+   * Advances to the next game, skipping whatever is left of the current one.
+   *
+   * @return the header of the next game, or null if there are no more games.
+   * @throws IOException if the stream fails or does not contain a valid record.
+   */
+  public GameHeader nextGame() throws IOException {
+    while (inGame) {
+      nextMove();
+    }
+    int magic = in.read();
+    if (magic < 0) {
+      header = null;
+      return null;
+    }
+    if (magic != RecordFormat.MAGIC) {
+      throw new IOException("not a game record");
+    }
+    if (in.read() != RecordFormat.VERSION) {
+      throw new IOException("unsupported game record version");
+    }
+    int shape = in.read();
+    if (shape < 0 || shape >= BoardShape.values().length) {
+      throw new IOException("unknown board shape in game record");
+    }
+    int size = Varints.read(in);
+    String black = readName();
+    String white = readName();
+    try {
+      header = new GameHeader(BoardShape.values()[shape], size, black, white);
+      topology = header.getTopology();
+    } catch (IllegalArgumentException e) {
+      throw new IOException("invalid board size in game record: " + size);
+    }
+    inGame = true;
+    sideToMove = HexagonPlayer.BLACK;
+    lastMover = HexagonPlayer.NONE;
+    return header;
+  }
+
+  /**
+   * Forgets the current game, for when the underlying stream has been moved to the start of
+   * another record.
+   */
+  void reset() {
+    inGame = false;
+    header = null;
+  }
+
+  /**
+   * Gets the header of the current game.
+   *
+   * @return the current header, or null before the first game and after the last one.
+   */
+  public GameHeader getHeader() {
+    return header;
+  }
+
+  /**
+   * Reads the next move of the current game.
+   *
+   * @return the cell id of the move, {@link #PASS}, or {@link #END_OF_GAME}.
+   * @throws IOException if the stream fails or contains an invalid move.
+   */
+  public int nextMove() throws IOException {
+    if (!inGame) {
+      return END_OF_GAME;
+    }
+    int value = Varints.read(in);
+    if (value < 0) {
+      throw new EOFException("game record ends without an end marker");
+    }
+    if (value == RecordFormat.END) {
+      inGame = false;
+      return END_OF_GAME;
+    }
+    lastMover = sideToMove;
+    sideToMove = sideToMove == HexagonPlayer.BLACK ? HexagonPlayer.WHITE : HexagonPlayer.BLACK;
+    if (value == RecordFormat.PASS) {
+      return PASS;
+    }
+    int cell = value - RecordFormat.CELL_OFFSET;
+    if (cell >= topology.getCellCount()) {
+      throw new IOException("move outside of the board in game record");
+    }
+    return cell;
+  }
+
+  /**
+   * Gets the player who made the move last returned by {@link #nextMove()}.
+   *
+   * @return the player of the last move, or NONE before the first move of a game.
+   */
+  public HexagonPlayer getLastMover() {
+    return lastMover;
+  }
+
+  /**
+   * Plays the remaining moves of the current game on the given model.
+   *
+   * <p>The model must be started and in the position the remaining moves were played from,
+   * usually a fresh board from {@link GameHeader#newModel()}.</p>
+   *
+   * @param model the model to play the moves on.
+   * @return the number of moves and passes played.
+   * @throws IOException           if the stream fails or contains an invalid move.
+   * @throws IllegalStateException if a recorded move is not legal on the model.
+   */
+  public int replay(ReversiMutableModel model) throws IOException {
+    int count = 0;
+    int move;
+    while ((move = nextMove()) != END_OF_GAME) {
+      apply(model, topology, move, lastMover);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Plays a single recorded move on a model.
+   *
+   * @param model    the model to play on.
+   * @param topology the topology the move's cell id belongs to.
+   * @param move     a cell id or {@link #PASS}.
+   * @param player   the player making the move.
+   * @throws IllegalStateException if the move is not legal on the model.
+   */
+  public static void apply(ReversiMutableModel model, BoardTopology topology, int move,
+      HexagonPlayer player) {
+    if (move == PASS) {
+      model.pass();
+    } else {
+      model.play(topology.getQ(move), topology.getR(move), player);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private String readName() throws IOException {
+    int length = Varints.read(in);
+    if (length < 0 || length > RecordFormat.MAX_NAME_LENGTH) {
+      throw new IOException("invalid player name in game record");
+    }
+    byte[] bytes = in.readNBytes(length);
+    if (bytes.length != length) {
+      throw new EOFException("truncated game record header");
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
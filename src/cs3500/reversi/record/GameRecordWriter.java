@@ -0,0 +1,148 @@
+package cs3500.reversi.record;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.strategy.Move;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes games in the compact binary record format, one move at a time as the game is played.
+ *
+ * <p>A game starts with {@link #beginGame(GameHeader)}, continues with one call per move or
+ * pass and is closed with {@link #endGame()}. Any number of games can be written to the same
+ * stream. Most moves take a single byte.</p>
+ */
+public class GameRecordWriter implements Closeable, Flushable {
+  private final OutputStream out;
+  private BoardTopology topology;
+  private long bytesWritten;
+
+  /**
+   * Constructs a writer appending records to the given stream.
+   *
+   * @param out the stream to write to, buffered by this writer.
+   */
+  public GameRecordWriter(OutputStream out) {
+    this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 1 << 16);
+  }
+
+  /**
+   * Starts a new game record.
+   *
+   * @param header the header of the game.
+   * @throws IOException           if the stream fails.
+   * @throws IllegalStateException if the previous game has not been ended.
+   */
+  public void beginGame(GameHeader header) throws IOException {
+    if (topology != null) {
+      throw new IllegalStateException("the previous game has not been ended");
+    }
+    out.write(RecordFormat.MAGIC);
+    out.write(RecordFormat.VERSION);
+    out.write(header.getShape().ordinal());
+    bytesWritten += 3 + Varints.write(out, header.getSize());
+    writeName(header.getBlackPlayer());
+    writeName(header.getWhitePlayer());
+    topology = header.getTopology();
+  }
+
+  /**
+   * Appends a move to the current game.
+   *
+   * @param q the q coordinate of the move.
+   * @param r the r coordinate of the move.
+   * @throws IOException              if the stream fails.
+   * @throws IllegalArgumentException if the position is not on the board.
+   * @throws IllegalStateException    if no game has been started.
+   */
+  public void writeMove(int q, int r) throws IOException {
+    ensureInGame();
+    int cell = topology.cellId(q, r);
+    if (cell < 0) {
+      throw new IllegalArgumentException("not a position on the board: " + q + ", " + r);
+    }
+    bytesWritten += Varints.write(out, cell + RecordFormat.CELL_OFFSET);
+  }
+
+  /**
+   * Appends a pass to the current game.
+   *
+   * @throws IOException           if the stream fails.
+   * @throws IllegalStateException if no game has been started.
+   */
+  public void writePass() throws IOException {
+    ensureInGame();
+    out.write(RecordFormat.PASS);
+    bytesWritten++;
+  }
+
+  /**
+   * Appends a move chosen by a player or strategy to the current game.
+   *
+   * @param move the move, which may be a pass.
+   * @throws IOException           if the stream fails.
+   * @throws IllegalStateException if no game has been started.
+   */
+  public void writeMove(Move move) throws IOException {
+    if (move.getPass()) {
+      writePass();
+    } else {
+      writeMove(move.getQ(), move.getR());
+    }
+  }
+
+  /**
+   * Ends the current game record.
+   *
+   * @throws IOException           if the stream fails.
+   * @throws IllegalStateException if no game has been started.
+   */
+  public void endGame() throws IOException {
+    ensureInGame();
+    out.write(RecordFormat.END);
+    bytesWritten++;
+    topology = null;
+  }
+
+  /**
+   * Gets the number of bytes written so far, which is the offset the next game will start at
+   * relative to where this writer started.
+   *
+   * @return the number of bytes written.
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  /**
+   * Ends any game still in progress, so the output stays readable, and closes the stream.
+   */
+  @Override
+  public void close() throws IOException {
+    if (topology != null) {
+      endGame();
+    }
+    out.close();
+  }
+
+  private void writeName(String name) throws IOException {
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    bytesWritten += Varints.write(out, bytes.length) + bytes.length;
+    out.write(bytes);
+  }
+
+  private void ensureInGame() {
+    if (topology == null) {
+      throw new IllegalStateException("no game has been started");
+    }
+  }
+}
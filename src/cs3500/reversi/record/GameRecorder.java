@@ -0,0 +1,89 @@
+package cs3500.reversi.record;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import cs3500.reversi.view.BoardObserver;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Observes a model and appends every move made on it to a game record as it happens.
+ *
+ * <p>Each notification is compared with the previous one: a newly occupied cell is the move
+ * that was just made, no new cell means a pass. The recorder has to be notified of every move
+ * separately, so it should be created before the controllers are registered on the model;
+ * observers are notified in the order they were added.</p>
+ */
+public class GameRecorder implements BoardObserver {
+  private final ReversiReadOnlyModel model;
+  private final GameRecordWriter writer;
+  private final BoardTopology topology;
+  // which cells were occupied at the last notification
+  private final boolean[] occupied;
+  private boolean ended;
+
+  /**
+   * Constructs a recorder, starts the game record and registers itself on the model.
+   *
+   * @param model       the model to record, in its starting position.
+   * @param writer      the writer to append the game to.
+   * @param blackPlayer a name for the black player.
+   * @param whitePlayer a name for the white player.
+   * @throws IOException if the header cannot be written.
+   */
+  public GameRecorder(ReversiReadOnlyModel model, GameRecordWriter writer, String blackPlayer,
+      String whitePlayer) throws IOException {
+    this.model = model;
+    this.writer = writer;
+    this.topology = BoardTopology.of(model);
+    this.occupied = new boolean[topology.getCellCount()];
+    for (int cell = 0; cell < occupied.length; cell++) {
+      occupied[cell] = isOccupied(cell);
+    }
+    writer.beginGame(new GameHeader(topology.getShape(), topology.getSize(), blackPlayer,
+        whitePlayer));
+    model.addObserver(this);
+  }
+
+  /**
+   * Appends the move that was just made and ends the record once the game is over.
+   *
+   * @throws UncheckedIOException if the record cannot be written.
+   */
+  @Override
+  public void onBoardChanged() {
+    if (ended) {
+      return;
+    }
+    try {
+      int played = -1;
+      for (int cell = 0; cell < occupied.length; cell++) {
+        if (!occupied[cell] && isOccupied(cell)) {
+          occupied[cell] = true;
+          played = cell;
+        }
+      }
+      if (played < 0) {
+        writer.writePass();
+      } else {
+        writer.writeMove(topology.getQ(played), topology.getR(played));
+      }
+      if (model.isGameOver()) {
+        ended = true;
+        writer.endGame();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void startObserverGame() {
+    // nothing to record until the first move
+  }
+
+  private boolean isOccupied(int cell) {
+    return model.getOccupancy(topology.getQ(cell), topology.getR(cell)) != HexagonPlayer.NONE;
+  }
+}
@@ -0,0 +1,27 @@
+package cs3500.reversi.record;
+
+/**
+ * Constants of the binary game record format.
+ *
+ * <p>A record is a header followed by the moves of one game:</p>
+ * <pre>
+ *   'R' version shape(1 byte) size(varint)
+ *   blackName(varint length + UTF-8) whiteName(varint length + UTF-8)
+ *   move(varint)* END
+ * </pre>
+ * <p>Each move is stored as its cell id plus {@link #CELL_OFFSET}, a pass as {@link #PASS}, and
+ * the record ends with {@link #END}. Records are self-contained, so a file of games is simply
+ * records one after the other.</p>
+ */
+final class RecordFormat {
+  static final int MAGIC = 'R';
+  static final int VERSION = 1;
+  static final int END = 0;
+  static final int PASS = 1;
+  static final int CELL_OFFSET = 2;
+  // longest player name accepted when reading, guards against reading garbage as a header
+  static final int MAX_NAME_LENGTH = 1 << 12;
+
+  private RecordFormat() {
+  }
+}
@@ -0,0 +1,60 @@
+package cs3500.reversi.record;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads and writes unsigned variable length integers, seven bits per byte with the high bit
+ * marking that more bytes follow. Values below 128 take a single byte.
+ */
+final class Varints {
+
+  private Varints() {
+  }
+
+  /**
+   * Writes a non-negative value.
+   *
+   * @param out   the stream to write to.
+   * @param value the value to write.
+   * @return the number of bytes written.
+   * @throws IOException if the stream fails.
+   */
+  static int write(OutputStream out, int value) throws IOException {
+    int bytes = 1;
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+      bytes++;
+    }
+    out.write(value);
+    return bytes;
+  }
+
+  /**
+   * Reads a value, or returns -1 if the stream ends before its first byte.
+   *
+   * @param in the stream to read from.
+   * @return the value read, or -1 at the end of the stream.
+   * @throws IOException if the stream fails or ends in the middle of the value.
+   */
+  static int read(InputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.read();
+      if (b < 0) {
+        if (shift == 0) {
+          return -1;
+        }
+        throw new EOFException("truncated varint");
+      }
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("malformed varint");
+  }
+}
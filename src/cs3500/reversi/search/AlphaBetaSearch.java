@@ -0,0 +1,586 @@
+package cs3500.reversi.search;
+
+import cs3500.reversi.eval.Evaluator;
+import cs3500.reversi.eval.StabilityAnalyzer;
+import cs3500.reversi.metrics.Counter;
+import cs3500.reversi.metrics.MetricsRegistry;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A depth-limited negamax search with alpha-beta pruning over a {@link CompactBoard}.
+ *
+ * <p>Positions at the depth limit are scored by an {@link Evaluator}; finished games are scored
+ * by their disc differential plus {@link #WIN}, so that any win is better than any evaluation.
+ * A player without a move passes, which does not count towards the depth. A search is not
+ * thread-safe, but separate searches can run on separate boards at once.</p>
+ *
+ * <p>{@link #solve(CompactBoard)} searches to the end of the game instead. There the opponent's
+ * stable discs bound what the side to move can still reach, which cuts off lines that cannot
+ * beat alpha without searching them.</p>
+ *
+ * <p>Moves are tried in the order of a {@link MoveOrdering}, which learns from the cutoffs of
+ * every search and remembers the best move of the positions it searched. Between root moves of
+ * equal value the one on the lowest cell id is chosen, as if they were tried in cell order, so
+ * the move chosen does not depend on what the ordering learned before.</p>
+ *
+ * <p>Scores are fail-soft, so a search that fails still bounds the score as tightly as it can,
+ * and the bounds are kept in a {@link TranspositionTable} for the depth they were searched to.
+ * How the windows are chosen is up to the {@link SearchDriver}; all drivers find the same move
+ * and score.</p>
+ *
+ * <p>Given {@link ProbCut} parameters, a search also prunes selectively: at the depths they cut,
+ * a shallow null-window search predicts whether the full one would fail, and the position is
+ * cut if it would with confidence. The score is then no longer exact, so such a search is
+ * deeper in the same time rather than equal to a full-width one.</p>
+ *
+ * <p>Either kind of search can be given a stop condition, polled every {@link #POLL_INTERVAL}
+ * nodes. Once it holds, the search unwinds at once and returns the best move among the root
+ * moves it finished, and {@link #wasStopped()} reports that the result is incomplete.</p>
+ */
+public class AlphaBetaSearch {
+  /**
+   * A bound larger than any score.
+   */
+  public static final int INFINITY = 1_000_000;
+
+  /**
+   * The bonus added to the score of a won game, larger than any evaluation.
+   */
+  public static final int WIN = 100_000;
+
+  /**
+   * The number of nodes searched between two checks of the stop condition.
+   */
+  public static final int POLL_INTERVAL = 1024;
+
+  private static final BooleanSupplier NEVER = () -> false;
+  // the base 2 logarithm of the number of best moves the ordering keeps
+  private static final int ORDERING_BITS = 14;
+  // the base 2 logarithm of the number of positions the transposition table keeps
+  private static final int TABLE_BITS = 15;
+  // half the width of an aspiration window, in hundredths of a disc
+  private static final int ASPIRATION = 300;
+  // returned by probCut when it predicts nothing, not a possible score
+  private static final int NO_CUT = Integer.MIN_VALUE;
+  // marks the positions of a solve, whose scores are not comparable to evaluations
+  private static final long EXACT_KEY = 0x9E3779B97F4A7C15L;
+
+  // shared by all searches, and only added to once a search returns
+  private static final Counter PROBES = MetricsRegistry.DEFAULT.counter(
+      "reversi_cache_probes_total", "Lookups in the search caches.", "cache", "transposition");
+  private static final Counter HITS = MetricsRegistry.DEFAULT.counter(
+      "reversi_cache_hits_total", "Lookups in the search caches that found their position.",
+      "cache", "transposition");
+
+  private final Evaluator evaluator;
+  private final SearchDriver driver;
+  private final ProbCut cut;
+  private StabilityAnalyzer stability;
+  private MoveOrdering ordering;
+  private TranspositionTable table;
+  private boolean exact;
+  private BooleanSupplier stop = NEVER;
+  private boolean stopped;
+  // one move list per ply, grown as deeper plies are reached
+  private int[][] moveLists = new int[0][];
+  private long nodes;
+  // the node count as of the last search that returned, for other threads to read
+  private volatile long publishedNodes;
+  // the transposition table lookups of the running search
+  private long probes;
+  private long hits;
+  private int score;
+  // the key and score of the last complete search, the guess for searching it again
+  private long lastHash;
+  private int lastScore;
+
+  /**
+   * Constructs a search that scores leaves with the given evaluator.
+   *
+   * @param evaluator the leaf evaluator, attached to the board during each search.
+   */
+  public AlphaBetaSearch(Evaluator evaluator) {
+    this(evaluator, SearchDriver.ALPHA_BETA);
+  }
+
+  /**
+   * Constructs a search that scores leaves with the given evaluator and looks for the best move
+   * the way of the given driver.
+   *
+   * @param evaluator the leaf evaluator, attached to the board during each search.
+   * @param driver    how the search windows are chosen.
+   */
+  public AlphaBetaSearch(Evaluator evaluator, SearchDriver driver) {
+    this(evaluator, driver, null);
+  }
+
+  /**
+   * Constructs a search that also prunes with Multi-ProbCut. Solving is never pruned.
+   *
+   * @param evaluator the leaf evaluator, attached to the board during each search.
+   * @param driver    how the search windows are chosen.
+   * @param cut       the ProbCut parameters of the boards searched, or null to prune nothing.
+   */
+  public AlphaBetaSearch(Evaluator evaluator, SearchDriver driver, ProbCut cut) {
+    this.evaluator = evaluator;
+    this.driver = driver;
+    this.cut = cut == null || cut.isEmpty() ? null : cut;
+  }
+
+  /**
+   * Finds the best move for the side to move.
+   *
+   * @param board the position to search, left as it was when the search returns.
+   * @param depth the number of moves to look ahead, at least 1.
+   * @return the cell id of the best move, or {@link CompactBoard#PASS} if there is none.
+   * @throws IllegalArgumentException if the depth is less than 1, or the ProbCut parameters are
+   *                                  for another board.
+   */
+  public int search(CompactBoard board, int depth) {
+    return search(board, depth, NEVER);
+  }
+
+  /**
+   * Finds the best move for the side to move, giving up once a condition holds.
+   *
+   * @param board the position to search, left as it was when the search returns.
+   * @param depth the number of moves to look ahead, at least 1.
+   * @param stop  polled during the search, true once the search must return.
+   * @return the cell id of the best move found, or {@link CompactBoard#PASS} if there is none.
+   * @throws IllegalArgumentException if the depth is less than 1, or the ProbCut parameters are
+   *                                  for another board.
+   */
+  public int search(CompactBoard board, int depth, BooleanSupplier stop) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("depth must be at least 1");
+    }
+    if (cut != null && cut.getTopology() != board.getTopology()) {
+      throw new IllegalArgumentException("probcut parameters are for another board");
+    }
+    evaluator.attach(board);
+    try {
+      return root(board, depth, stop);
+    } finally {
+      evaluator.detach();
+    }
+  }
+
+  /**
+   * Finds the best move for the side to move by searching every line to the end of the game,
+   * without the evaluator.
+   *
+   * @param board the position to solve, left as it was when the search returns.
+   * @return the cell id of the best move, or {@link CompactBoard#PASS} if there is none. The
+   *         exact final score is available from {@link #getScore()}.
+   */
+  public int solve(CompactBoard board) {
+    return solve(board, NEVER);
+  }
+
+  /**
+   * Solves the game for the side to move, giving up once a condition holds.
+   *
+   * @param board the position to solve, left as it was when the search returns.
+   * @param stop  polled during the search, true once the search must return.
+   * @return the cell id of the best move found, or {@link CompactBoard#PASS} if there is none.
+   */
+  public int solve(CompactBoard board, BooleanSupplier stop) {
+    if (stability == null || stability.getTopology() != board.getTopology()) {
+      stability = new StabilityAnalyzer(board.getTopology(), 16);
+    }
+    exact = true;
+    try {
+      // every move fills a cell, so the game is over at this depth at the latest
+      return root(board, Math.max(1, board.getEmptyCount()), stop);
+    } finally {
+      exact = false;
+    }
+  }
+
+  /**
+   * Solves the game for the side to move within a window, for solvers that split the top of
+   * the game tree themselves.
+   *
+   * @param board the position to solve, left as it was when the search returns.
+   * @param alpha the lower end of the window.
+   * @param beta  the upper end of the window.
+   * @param stop  polled during the search, true once the search must return.
+   * @return the final score for the side to move, exact if it lies between alpha and beta and
+   *         otherwise a bound beyond the one it failed; meaningless if the search was stopped.
+   */
+  public int solve(CompactBoard board, int alpha, int beta, BooleanSupplier stop) {
+    if (stability == null || stability.getTopology() != board.getTopology()) {
+      stability = new StabilityAnalyzer(board.getTopology(), 16);
+    }
+    prepare(board, stop);
+    exact = true;
+    try {
+      return negamax(board, 0, Math.max(1, board.getEmptyCount()), alpha, beta, false);
+    } finally {
+      exact = false;
+      finish();
+    }
+  }
+
+  private void prepare(CompactBoard board, BooleanSupplier stop) {
+    if (ordering == null || ordering.getTopology() != board.getTopology()) {
+      ordering = new MoveOrdering(board.getTopology(), ORDERING_BITS);
+      table = new TranspositionTable(TABLE_BITS);
+    }
+    ordering.newSearch();
+    this.stop = stop;
+    stopped = false;
+  }
+
+  private int root(CompactBoard board, int depth, BooleanSupplier stop) {
+    prepare(board, stop);
+    try {
+      int best = rootMoves(board, depth);
+      if (!stopped) {
+        lastHash = key(board);
+        lastScore = score;
+      }
+      return best;
+    } finally {
+      finish();
+    }
+  }
+
+  /**
+   * Forgets the stop condition, publishes the node count and reports the cache lookups of the
+   * search that returned.
+   */
+  private void finish() {
+    this.stop = NEVER;
+    publishedNodes = nodes;
+    PROBES.add(probes);
+    HITS.add(hits);
+    probes = 0;
+    hits = 0;
+  }
+
+  private int rootMoves(CompactBoard board, int depth) {
+    int[] moves = moves(0, board);
+    int count = board.legalMoves(moves);
+    if (count == 0) {
+      board.pass();
+      score = -negamax(board, 1, depth, -INFINITY, INFINITY, true);
+      board.undo();
+      return CompactBoard.PASS;
+    }
+    ordering.order(board, 0, moves, count);
+    // the score of the last search of this position, from the previous iteration when deepening
+    boolean guessed = lastHash == key(board);
+    int best;
+    switch (driver) {
+      case PVS:
+        best = guessed ? aspiration(board, moves, count, depth, lastScore)
+            : window(board, moves, count, depth, -INFINITY, INFINITY);
+        break;
+      case MTDF:
+        best = mtdf(board, moves, count, depth, guessed ? lastScore : 0);
+        break;
+      default:
+        best = window(board, moves, count, depth, -INFINITY, INFINITY);
+        break;
+    }
+    ordering.store(board.getHash(), best);
+    return best;
+  }
+
+  /**
+   * Searches the root with a window around a guess of its score, and again with the window
+   * opened on the side the score fell out of.
+   */
+  private int aspiration(CompactBoard board, int[] moves, int count, int depth, int guess) {
+    int lower = guess - ASPIRATION;
+    int upper = guess + ASPIRATION;
+    int best = window(board, moves, count, depth, lower, upper);
+    if (stopped || (score > lower && score < upper)) {
+      return best;
+    }
+    // the failed search bounds the score, so the second one cannot fail again
+    int bound = score;
+    return bound <= lower ? window(board, moves, count, depth, -INFINITY, bound + 1)
+        : window(board, moves, count, depth, bound - 1, INFINITY);
+  }
+
+  /**
+   * Closes in on the score of the root with null-window searches, each one moving the window to
+   * the bound the last one returned. Once the score is known, the root is searched with a
+   * window just below it, which finds the move with the lowest cell id among the best.
+   */
+  private int mtdf(CompactBoard board, int[] moves, int count, int depth, int guess) {
+    int lower = -INFINITY;
+    int upper = INFINITY;
+    int value = guess;
+    int best = moves[0];
+    while (lower < upper) {
+      int beta = value == lower ? value + 1 : value;
+      int move = window(board, moves, count, depth, beta - 1, beta);
+      if (stopped) {
+        return best;
+      }
+      value = score;
+      if (value < beta) {
+        upper = value;
+      } else {
+        lower = value;
+        best = move;
+      }
+    }
+    int move = window(board, moves, count, depth, value - 1, INFINITY);
+    return stopped ? best : move;
+  }
+
+  /**
+   * Searches the root moves with a window, setting {@link #score} to the best value found,
+   * which is exact if it lies inside the window and a bound otherwise.
+   *
+   * @return the best move, the first one if the search failed low or was stopped first.
+   */
+  private int window(CompactBoard board, int[] moves, int count, int depth, int lower,
+      int upper) {
+    int best = -1;
+    int bestValue = -INFINITY;
+    int alpha = lower;
+    for (int i = 0; i < count; i++) {
+      // a move on a lower cell than the best also wins by tying it
+      int bound = best >= 0 && moves[i] < best ? alpha - 1 : alpha;
+      board.play(moves[i]);
+      int value;
+      if (driver == SearchDriver.PVS && best >= 0) {
+        value = -negamax(board, 1, depth - 1, -bound - 1, -bound, false);
+        if (value > bound && value < upper) {
+          value = -negamax(board, 1, depth - 1, -upper, -bound, false);
+        }
+      } else {
+        value = -negamax(board, 1, depth - 1, -upper, -bound, false);
+      }
+      board.undo();
+      if (stopped) {
+        // the value of an interrupted move is not known
+        break;
+      }
+      if (value > bound) {
+        alpha = value;
+        bestValue = value;
+        best = moves[i];
+        if (value >= upper) {
+          break;
+        }
+      } else {
+        bestValue = Math.max(bestValue, value);
+      }
+    }
+    score = best >= 0 ? alpha : bestValue;
+    return best >= 0 ? best : moves[0];
+  }
+
+  /**
+   * Scores a position for the side to move. The score is exact if it lies between alpha and
+   * beta, and otherwise a bound on the exact score beyond the one it failed.
+   *
+   * @param ply    the distance from the root.
+   * @param passed whether the previous ply was a pass.
+   */
+  private int negamax(CompactBoard board, int ply, int depth, int alpha, int beta,
+      boolean passed) {
+    nodes++;
+    if (stopped || (nodes % POLL_INTERVAL == 0 && stop.getAsBoolean())) {
+      stopped = true;
+      return 0;
+    }
+    if (depth == 0) {
+      return exact ? finalScore(board) : evaluator.evaluate(board);
+    }
+    long key = key(board);
+    int entry = table.find(key, depth);
+    probes++;
+    if (entry >= 0) {
+      hits++;
+      int lower = table.getLower(entry);
+      int upper = table.getUpper(entry);
+      if (lower >= beta || lower == upper) {
+        return lower;
+      }
+      if (upper <= alpha) {
+        return upper;
+      }
+    }
+    if (cut != null && !exact && cut.getShallow(depth) > 0) {
+      int value = probCut(board, ply, depth, alpha, beta, passed);
+      if (stopped) {
+        return 0;
+      }
+      if (value != NO_CUT) {
+        return value;
+      }
+    }
+    if (exact) {
+      int bound = stableBound(board, alpha);
+      if (bound <= alpha) {
+        return bound;
+      }
+    }
+    int[] moves = moves(ply, board);
+    int count = board.legalMoves(moves);
+    if (count == 0) {
+      if (passed) {
+        // neither player can move
+        return finalScore(board);
+      }
+      board.pass();
+      int value = -negamax(board, ply + 1, depth, -beta, -alpha, true);
+      board.undo();
+      return value;
+    }
+    ordering.order(board, ply, moves, count);
+    int window = alpha;
+    int best = -1;
+    int bestValue = -INFINITY;
+    for (int i = 0; i < count; i++) {
+      board.play(moves[i]);
+      int value;
+      if (driver == SearchDriver.PVS && i > 0) {
+        // scout: prove the move is no better than the first with a null window
+        value = -negamax(board, ply + 1, depth - 1, -alpha - 1, -alpha, false);
+        if (value > alpha && value < beta) {
+          value = -negamax(board, ply + 1, depth - 1, -beta, -alpha, false);
+        }
+      } else {
+        value = -negamax(board, ply + 1, depth - 1, -beta, -alpha, false);
+      }
+      board.undo();
+      if (stopped) {
+        return 0;
+      }
+      if (value > bestValue) {
+        bestValue = value;
+      }
+      if (value > alpha) {
+        alpha = value;
+        best = moves[i];
+        if (alpha >= beta) {
+          ordering.cutoff(board, ply, best, depth);
+          break;
+        }
+      }
+    }
+    if (best >= 0) {
+      ordering.store(board.getHash(), best);
+    }
+    table.store(key, depth, window, beta, bestValue);
+    return bestValue;
+  }
+
+  /**
+   * Tries to predict from a shallow search that a position fails high or low, the way Buro's
+   * Multi-ProbCut does. A shallow search is only started when the static evaluation is already
+   * past its bound, since it rarely gets there otherwise. Windows that reach won or lost games
+   * are left alone, since the regression of evaluations says nothing about them.
+   *
+   * @return beta or alpha if the position is predicted to fail, {@link #NO_CUT} otherwise.
+   */
+  private int probCut(CompactBoard board, int ply, int depth, int alpha, int beta,
+      boolean passed) {
+    int shallow = cut.getShallow(depth);
+    int estimate = evaluator.evaluate(board);
+    if (beta < WIN / 2) {
+      int bound = cut.highBound(depth, beta);
+      if (Math.abs(bound) < WIN / 2 && estimate >= bound
+          && negamax(board, ply, shallow, bound - 1, bound, passed) >= bound) {
+        return beta;
+      }
+    }
+    if (alpha > -WIN / 2 && !stopped) {
+      int bound = cut.lowBound(depth, alpha);
+      if (Math.abs(bound) < WIN / 2 && estimate <= bound
+          && negamax(board, ply, shallow, bound, bound + 1, passed) <= bound) {
+        return alpha;
+      }
+    }
+    return NO_CUT;
+  }
+
+  /**
+   * Gets the key of a position in the transposition table. Solved scores are kept apart from
+   * evaluated ones at the same depth.
+   */
+  private long key(CompactBoard board) {
+    return exact ? board.getHash() ^ EXACT_KEY : board.getHash();
+  }
+
+  /**
+   * Scores a finished game for the side to move.
+   *
+   * @param board the board of the finished game.
+   * @return the disc differential in hundredths, plus or minus {@link #WIN} unless drawn.
+   */
+  public static int finalScore(CompactBoard board) {
+    int own = board.count(board.getSideToMove());
+    int difference = own - (board.count(BoardTopology.BLACK) + board.count(BoardTopology.WHITE)
+        - own);
+    return differenceScore(difference);
+  }
+
+  /**
+   * Bounds the final score of the side to move: at best every disc but the opponent's stable
+   * ones. Only analyzes stability when even the opponent keeping all their discs could fail
+   * low, since otherwise the bound cannot cut.
+   */
+  private int stableBound(CompactBoard board, int alpha) {
+    int cells = board.getTopology().getCellCount();
+    int opponent = BoardTopology.BLACK + BoardTopology.WHITE - board.getSideToMove();
+    if (differenceScore(cells - 2 * board.count(opponent)) > alpha) {
+      return INFINITY;
+    }
+    return differenceScore(cells - 2 * stability.count(board, opponent));
+  }
+
+  private static int differenceScore(int difference) {
+    return difference * 100 + Integer.signum(difference) * WIN;
+  }
+
+  private int[] moves(int ply, CompactBoard board) {
+    if (ply >= moveLists.length) {
+      int[][] grown = new int[ply + 8][];
+      System.arraycopy(moveLists, 0, grown, 0, moveLists.length);
+      for (int i = moveLists.length; i < grown.length; i++) {
+        grown[i] = new int[board.getTopology().getCellCount()];
+      }
+      moveLists = grown;
+    }
+    return moveLists[ply];
+  }
+
+  /**
+   * Gets the score of the best move of the last search.
+   *
+   * @return the score for the side that was to move, in hundredths of a disc.
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Checks whether the last search was cut short by its stop condition.
+   *
+   * @return true if the last result is the best of only the root moves searched in full.
+   */
+  public boolean wasStopped() {
+    return stopped;
+  }
+
+  /**
+   * Gets the number of positions visited by all searches that have returned. Safe to call from
+   * any thread, even while a search is running on another.
+   *
+   * @return the node count.
+   */
+  public long getNodes() {
+    return publishedNodes;
+  }
+}
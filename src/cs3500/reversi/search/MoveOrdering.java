@@ -0,0 +1,233 @@
+package cs3500.reversi.search;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders the moves of a position so that alpha-beta searches the likely best move first.
+ *
+ * <p>Moves are tried in this order: the best move remembered for the position, the two killer
+ * moves of the ply (moves that caused a cutoff in a sibling), and then the rest by their
+ * history score (how often and how deep they caused cutoffs anywhere, per color and cell) on
+ * top of a static prior of their cell. The prior puts corners first and the cells diagonally
+ * next to them, the X-squares, last; the cells along an edge next to a corner, the C-squares,
+ * come just before them.</p>
+ *
+ * <p>Best moves are kept in a direct-mapped table keyed by the position's hash, so they survive
+ * from one iteration of a deepening search to the next. History scores are halved at the start
+ * of every search, so old cutoffs count for less. An ordering is not thread-safe.</p>
+ */
+public class MoveOrdering {
+  // the static priors of the cells, lowest first
+  public static final int X_SQUARE = 0;
+  public static final int C_SQUARE = 1;
+  public static final int PLAIN = 2;
+  public static final int CORNER = 3;
+
+  // history scores are kept below this, so that a prior always outweighs them
+  private static final int HISTORY_LIMIT = 1 << 20;
+  private static final int KILLER = 5 * HISTORY_LIMIT;
+  private static final int HASH_MOVE = 7 * HISTORY_LIMIT;
+  private static final Map<BoardTopology, int[]> PRIORS = new ConcurrentHashMap<>();
+
+  private final BoardTopology topology;
+  private final int[] priors;
+  // the history of every color and cell at ((color - 1) * cells + cell)
+  private final int[] history;
+  // the two killers of every ply at (ply * 2) and (ply * 2 + 1), -1 when unused
+  private int[] killers = new int[0];
+  private final int[] keys;
+
+  private final int hashMask;
+  private final long[] hashKeys;
+  // the best move of every entry plus one, so that 0 means the entry is unused
+  private final short[] hashMoves;
+
+  /**
+   * Constructs an ordering for boards of a topology.
+   *
+   * @param topology the topology of the boards.
+   * @param hashBits the base 2 logarithm of the number of positions whose best move is kept.
+   * @throws IllegalArgumentException if hashBits is negative or above 24.
+   */
+  public MoveOrdering(BoardTopology topology, int hashBits) {
+    if (hashBits < 0 || hashBits > 24) {
+      throw new IllegalArgumentException("hashBits must be between 0 and 24");
+    }
+    this.topology = topology;
+    this.priors = priors(topology);
+    this.history = new int[topology.getCellCount() * 2];
+    this.keys = new int[topology.getCellCount()];
+    int hashSize = 1 << hashBits;
+    this.hashMask = hashSize - 1;
+    this.hashKeys = new long[hashSize];
+    this.hashMoves = new short[hashSize];
+  }
+
+  /**
+   * Gets the static prior of every cell of a topology, from {@link #X_SQUARE} to
+   * {@link #CORNER}. The corners are the cells with the fewest neighbors, which works the same
+   * for the hexagonal and the square boards. Of their neighbors, the ones on the edge are
+   * C-squares and the ones inside the board are X-squares.
+   *
+   * @param topology the topology of the board.
+   * @return the prior of every cell id, shared and not to be changed.
+   */
+  public static int[] priors(BoardTopology topology) {
+    int[] priors = PRIORS.get(topology);
+    if (priors == null) {
+      priors = computePriors(topology);
+      int[] raced = PRIORS.putIfAbsent(topology, priors);
+      if (raced != null) {
+        priors = raced;
+      }
+    }
+    return priors;
+  }
+
+  private static int[] computePriors(BoardTopology topology) {
+    int cells = topology.getCellCount();
+    int[] priors = new int[cells];
+    for (int cell = 0; cell < cells; cell++) {
+      priors[cell] = PLAIN;
+    }
+    for (int corner : topology.getCorners()) {
+      priors[corner] = CORNER;
+    }
+    for (int corner : topology.getCorners()) {
+      for (int d = 0; d < topology.getDirectionCount(); d++) {
+        int next = topology.neighbor(corner, d);
+        if (next >= 0 && priors[next] != CORNER) {
+          priors[next] = isOnEdge(topology, next) ? C_SQUARE : X_SQUARE;
+        }
+      }
+    }
+    return priors;
+  }
+
+  private static boolean isOnEdge(BoardTopology topology, int cell) {
+    for (int d = 0; d < topology.getDirectionCount(); d++) {
+      if (topology.neighbor(cell, d) < 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Prepares for a new search: ages the history and forgets the killers, which belong to the
+   * plies of the last root. Remembered best moves are kept.
+   */
+  public void newSearch() {
+    for (int i = 0; i < history.length; i++) {
+      history[i] >>= 1;
+    }
+    for (int i = 0; i < killers.length; i++) {
+      killers[i] = -1;
+    }
+  }
+
+  /**
+   * Sorts the moves of a position, the most promising first. Moves with equal scores stay in
+   * the order they were given.
+   *
+   * @param board the position, with the side to move whose moves are sorted.
+   * @param ply   the distance of the position from the root.
+   * @param moves the cell ids of the moves, sorted in place.
+   * @param count the number of moves.
+   */
+  public void order(CompactBoard board, int ply, int[] moves, int count) {
+    int hashMove = hashMove(board.getHash());
+    growKillers(ply);
+    int base = (board.getSideToMove() - 1) * topology.getCellCount();
+    for (int i = 0; i < count; i++) {
+      int cell = moves[i];
+      int key;
+      if (cell == hashMove) {
+        key = HASH_MOVE;
+      } else if (cell == killers[ply * 2]) {
+        key = KILLER + 1;
+      } else if (cell == killers[ply * 2 + 1]) {
+        key = KILLER;
+      } else {
+        key = priors[cell] * HISTORY_LIMIT + history[base + cell];
+      }
+      // insertion sort, descending, which is quick for the few moves of a position
+      int j = i;
+      while (j > 0 && keys[j - 1] < key) {
+        keys[j] = keys[j - 1];
+        moves[j] = moves[j - 1];
+        j--;
+      }
+      keys[j] = key;
+      moves[j] = cell;
+    }
+  }
+
+  /**
+   * Records a move that caused a cutoff: it becomes the first killer of its ply and gains
+   * history, more for deeper cutoffs.
+   *
+   * @param board the position the move was played from, with its side to move.
+   * @param ply   the distance of the position from the root.
+   * @param cell  the cell id of the move.
+   * @param depth the remaining depth of the search at the position.
+   */
+  public void cutoff(CompactBoard board, int ply, int cell, int depth) {
+    growKillers(ply);
+    if (killers[ply * 2] != cell) {
+      killers[ply * 2 + 1] = killers[ply * 2];
+      killers[ply * 2] = cell;
+    }
+    int index = (board.getSideToMove() - 1) * topology.getCellCount() + cell;
+    history[index] += depth * depth;
+    if (history[index] >= HISTORY_LIMIT) {
+      for (int i = 0; i < history.length; i++) {
+        history[i] >>= 1;
+      }
+    }
+  }
+
+  /**
+   * Remembers the best move of a position.
+   *
+   * @param hash the hash of the position.
+   * @param cell the cell id of its best move.
+   */
+  public void store(long hash, int cell) {
+    int index = (int) hash & hashMask;
+    hashKeys[index] = hash;
+    hashMoves[index] = (short) (cell + 1);
+  }
+
+  /**
+   * Gets the best move remembered for a position.
+   *
+   * @param hash the hash of the position.
+   * @return the cell id of the move, or -1 if none is remembered.
+   */
+  public int hashMove(long hash) {
+    int index = (int) hash & hashMask;
+    if (hashMoves[index] == 0 || hashKeys[index] != hash) {
+      return -1;
+    }
+    return hashMoves[index] - 1;
+  }
+
+  private void growKillers(int ply) {
+    if (ply * 2 + 1 >= killers.length) {
+      int[] grown = new int[(ply + 8) * 2];
+      System.arraycopy(killers, 0, grown, 0, killers.length);
+      for (int i = killers.length; i < grown.length; i++) {
+        grown[i] = -1;
+      }
+      killers = grown;
+    }
+  }
+}
@@ -0,0 +1,271 @@
+package cs3500.reversi.search;
+
+import cs3500.reversi.model.CompactBoard;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solves endgames on the threads of a {@link ForkJoinPool}, for the exact score and best move
+ * that {@link AlphaBetaSearch#solve(CompactBoard)} finds on one thread.
+ *
+ * <p>The subtrees near the root of an endgame are independent but of very different sizes, so
+ * they are not divided up front. Every position with more than the split number of empties is a
+ * task: its first move, the one leaving the opponent fewest replies, is solved alone, and only
+ * then are the other moves forked with a null window on the score the first one set, since
+ * they mostly only need proving worse; the few that are not are solved again. Idle threads
+ * steal the forked moves, which splits large subtrees again and again while small ones stay
+ * whole. Positions with fewer empties are solved by a sequential search of the thread they
+ * land on.</p>
+ *
+ * <p>Once a move fails high, the siblings still running are abandoned: they see that an
+ * ancestor was cut through the stop condition of their sequential searches and unwind at once.
+ * The bounds found by every task and every sequential search go to a {@link SolveCache} shared
+ * by all threads, so a position reached by two threads through transposed moves is solved
+ * once. The cache is kept from one solve to the next.</p>
+ */
+public class ParallelSolver implements AutoCloseable {
+  /**
+   * The default number of empties at and below which positions are solved sequentially.
+   */
+  public static final int DEFAULT_SPLIT_EMPTIES = 8;
+
+  private static final int CACHE_BITS = 20;
+
+  private final ForkJoinPool pool;
+  private final int splitEmpties;
+  private final SolveCache cache = new SolveCache(CACHE_BITS);
+  private final ThreadLocal<AlphaBetaSearch> searches =
+      ThreadLocal.withInitial(() -> new AlphaBetaSearch(null, SearchDriver.PVS));
+  private final LongAdder nodes = new LongAdder();
+  private int score;
+
+  /**
+   * Constructs a solver that splits positions with more than {@link #DEFAULT_SPLIT_EMPTIES}
+   * empties.
+   *
+   * @param parallelism the number of threads to solve on.
+   * @throws IllegalArgumentException if parallelism is not positive.
+   */
+  public ParallelSolver(int parallelism) {
+    this(parallelism, DEFAULT_SPLIT_EMPTIES);
+  }
+
+  /**
+   * Constructs a solver.
+   *
+   * @param parallelism  the number of threads to solve on.
+   * @param splitEmpties the number of empties at and below which positions are solved by one
+   *                     thread.
+   * @throws IllegalArgumentException if either is not positive.
+   */
+  public ParallelSolver(int parallelism, int splitEmpties) {
+    if (parallelism < 1 || splitEmpties < 1) {
+      throw new IllegalArgumentException("parallelism and split empties must be positive");
+    }
+    this.pool = new ForkJoinPool(parallelism);
+    this.splitEmpties = splitEmpties;
+  }
+
+  /**
+   * Finds the best move for the side to move by solving the game to its end. Of equally good
+   * moves the one on the lowest cell id is chosen, as a sequential solve does.
+   *
+   * @param board the position to solve, left as it was.
+   * @return the cell id of the best move, or {@link CompactBoard#PASS} if there is none. The
+   *         exact final score is available from {@link #getScore()}.
+   */
+  public int solve(CompactBoard board) {
+    Split root = new Split(board.copy(), -AlphaBetaSearch.INFINITY, AlphaBetaSearch.INFINITY,
+        null);
+    score = pool.invoke(root);
+    return root.bestMove;
+  }
+
+  /**
+   * Gets the score of the last solve.
+   *
+   * @return the final score for the side that was to move, as
+   *         {@link AlphaBetaSearch#finalScore(CompactBoard)} gives it.
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Gets the number of positions visited by the sequential searches of all solves so far.
+   *
+   * @return the node count.
+   */
+  public long getNodes() {
+    return nodes.sum();
+  }
+
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+
+  /**
+   * Solves a position within a window, splitting its moves across threads.
+   */
+  private final class Split extends RecursiveTask<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    private final CompactBoard board;
+    private final int alpha;
+    private final int beta;
+    private final Split parent;
+    // set once a move failed high, abandons the moves still running
+    private volatile boolean cut;
+    private int bestMove = CompactBoard.PASS;
+
+    Split(CompactBoard board, int alpha, int beta, Split parent) {
+      this.board = board;
+      this.alpha = alpha;
+      this.beta = beta;
+      this.parent = parent;
+    }
+
+    /**
+     * Checks whether the result of this task is no longer needed.
+     */
+    boolean abandoned() {
+      for (Split ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+        if (ancestor.cut) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (abandoned()) {
+        return 0;
+      }
+      // the root is always split, so that its best move is known
+      if (parent != null && board.getEmptyCount() <= splitEmpties) {
+        return sequential();
+      }
+      long hash = board.getHash();
+      long bounds = parent == null ? SolveCache.MISS : cache.get(hash);
+      if (bounds != SolveCache.MISS) {
+        int lower = SolveCache.lower(bounds);
+        int upper = SolveCache.upper(bounds);
+        if (lower >= beta || lower == upper) {
+          return lower;
+        }
+        if (upper <= alpha) {
+          return upper;
+        }
+      }
+      int[] moves = new int[board.getTopology().getCellCount()];
+      int count = board.legalMoves(moves);
+      if (count == 0) {
+        if (board.isGameOver()) {
+          return AlphaBetaSearch.finalScore(board);
+        }
+        board.pass();
+        int value = -new Split(board, -beta, -alpha, this).compute();
+        board.undo();
+        return value;
+      }
+      order(moves, count);
+      board.play(moves[0]);
+      int best = -new Split(board, -beta, -alpha, this).compute();
+      board.undo();
+      bestMove = moves[0];
+      if (abandoned()) {
+        return 0;
+      }
+      // at the root, moves as good as the first are solved exactly to break ties by cell
+      int window = Math.max(alpha, parent == null ? best - 1 : best);
+      if (best < beta && count > 1) {
+        Split[] siblings = new Split[count];
+        // the owner takes back the last forked first, so the most promising is forked last
+        for (int i = count - 1; i > 0; i--) {
+          CompactBoard child = board.copy();
+          child.play(moves[i]);
+          siblings[i] = new Split(child, -window - 1, -window, this);
+          siblings[i].fork();
+        }
+        for (int i = 1; i < count; i++) {
+          int value = -siblings[i].join();
+          if (abandoned()) {
+            return 0;
+          }
+          if (value > window && value < beta) {
+            // better than the first after all, so it is solved again for its score
+            value = -new Split(siblings[i].board, -beta, -window, this).compute();
+            if (abandoned()) {
+              return 0;
+            }
+          }
+          if (value > best || (value == best && moves[i] < bestMove)) {
+            best = value;
+            bestMove = moves[i];
+          }
+          if (value >= beta) {
+            cut = true;
+            break;
+          }
+        }
+      }
+      cache.store(hash, alpha, beta, best);
+      return best;
+    }
+
+    private int sequential() {
+      long hash = board.getHash();
+      long bounds = cache.get(hash);
+      if (bounds != SolveCache.MISS) {
+        int lower = SolveCache.lower(bounds);
+        int upper = SolveCache.upper(bounds);
+        if (lower >= beta || lower == upper) {
+          return lower;
+        }
+        if (upper <= alpha) {
+          return upper;
+        }
+      }
+      AlphaBetaSearch search = searches.get();
+      long before = search.getNodes();
+      int value = search.solve(board, alpha, beta, this::abandoned);
+      nodes.add(search.getNodes() - before);
+      if (search.wasStopped()) {
+        return 0;
+      }
+      cache.store(hash, alpha, beta, value);
+      return value;
+    }
+
+    /**
+     * Orders moves fastest first, by the number of replies they leave the opponent, and by cell
+     * between those. The cell's prior counts too: a move to a plain cell counts as one reply
+     * more than a move to a corner, to a C-square two more and to an X-square three more.
+     */
+    private void order(int[] moves, int count) {
+      int[] replies = new int[count];
+      int[] scratch = new int[moves.length];
+      int[] priors = MoveOrdering.priors(board.getTopology());
+      for (int i = 0; i < count; i++) {
+        board.play(moves[i]);
+        replies[i] = board.legalMoves(scratch) + MoveOrdering.CORNER - priors[moves[i]];
+        board.undo();
+      }
+      for (int i = 1; i < count; i++) {
+        int move = moves[i];
+        int reply = replies[i];
+        int j = i - 1;
+        while (j >= 0 && (replies[j] > reply || (replies[j] == reply && moves[j] > move))) {
+          moves[j + 1] = moves[j];
+          replies[j + 1] = replies[j];
+          j--;
+        }
+        moves[j + 1] = move;
+        replies[j + 1] = reply;
+      }
+    }
+  }
+}
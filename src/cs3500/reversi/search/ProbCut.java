@@ -0,0 +1,265 @@
+package cs3500.reversi.search;
+
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The parameters of Multi-ProbCut, which lets {@link AlphaBetaSearch} prune a deep search
+ * early when a shallow search of the same position predicts its outcome with confidence.
+ *
+ * <p>For every depth that is cut, the score of a deep search is predicted from a shallower one
+ * by linear regression: deep is about {@code slope * shallow + intercept}, with the residuals
+ * having a standard deviation of sigma. When the shallow search proves the prediction lies
+ * more than {@code threshold} sigmas above beta, or below alpha, the position fails high or low
+ * without the deep search. The parameters are fitted to self-play positions by
+ * {@link ProbCutFitter}.</p>
+ *
+ * <p>Fitted parameters are stored in files, one per board, next to the weight files in the
+ * data directory of {@link BoardFiles}, as for example
+ * hexagon-6.probcut: the magic number "RVPC", a version byte, the shape's ordinal, the size as
+ * two bytes and the number of depths cut, then for every depth that depth and the shallow
+ * depth as bytes followed by the slope, intercept and sigma as doubles.</p>
+ */
+public class ProbCut {
+  /**
+   * The number of sigmas a prediction must clear the window by to cut, when not given.
+   */
+  public static final double DEFAULT_THRESHOLD = 1.5;
+
+  /**
+   * The deepest depth that can be cut.
+   */
+  public static final int MAX_DEPTH = 32;
+
+  private static final int MAGIC = 0x52565043; // "RVPC"
+  private static final int VERSION = 1;
+  private static final Map<BoardTopology, ProbCut> LOADED = new ConcurrentHashMap<>();
+
+  private final BoardTopology topology;
+  private final double threshold;
+  // indexed by the deep depth, a shallow depth of 0 means the depth is not cut
+  private final int[] shallow = new int[MAX_DEPTH + 1];
+  private final double[] slope = new double[MAX_DEPTH + 1];
+  private final double[] intercept = new double[MAX_DEPTH + 1];
+  private final double[] sigma = new double[MAX_DEPTH + 1];
+
+  /**
+   * Constructs parameters for a board that cut no depth yet.
+   *
+   * @param topology  the topology of the board.
+   * @param threshold the number of sigmas a prediction must clear the window by to cut.
+   * @throws IllegalArgumentException if the threshold is not positive.
+   */
+  public ProbCut(BoardTopology topology, double threshold) {
+    if (!(threshold > 0)) {
+      throw new IllegalArgumentException("threshold must be positive");
+    }
+    this.topology = topology;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Gets the parameters strategies should search with on a board: the parameter file of the
+   * board in the data directory of {@link BoardFiles} if there is one,
+   * and parameters that cut nothing otherwise. The parameters are loaded once and shared, so
+   * they must not be changed.
+   *
+   * @param topology the topology of the board.
+   * @return the shared parameters.
+   * @throws UncheckedIOException if the parameter file exists but cannot be read.
+   */
+  public static ProbCut load(BoardTopology topology) {
+    return LOADED.computeIfAbsent(topology, board -> {
+      Path file = BoardFiles.find(board, "probcut");
+      if (file != null) {
+        try {
+          return read(file, DEFAULT_THRESHOLD);
+        } catch (IOException e) {
+          throw new UncheckedIOException("cannot read probcut parameters " + file, e);
+        }
+      }
+      return new ProbCut(board, DEFAULT_THRESHOLD);
+    });
+  }
+
+  /**
+   * Gets the name of the parameter file of a board.
+   *
+   * @param topology the topology of the board.
+   * @return the file name, such as hexagon-6.probcut.
+   */
+  public static String fileName(BoardTopology topology) {
+    return BoardFiles.fileName(topology, "probcut");
+  }
+
+  /**
+   * Reads a parameter file.
+   *
+   * @param file      the parameter file.
+   * @param threshold the number of sigmas a prediction must clear the window by to cut.
+   * @return the parameters, for the board named in the file.
+   * @throws IOException if the file cannot be read, has an unknown version or invalid depths.
+   */
+  public static ProbCut read(Path file, double threshold) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(file.toFile())))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("not a probcut file: " + file);
+      }
+      int version = in.readUnsignedByte();
+      if (version != VERSION) {
+        throw new IOException("unsupported probcut file version " + version);
+      }
+      int shape = in.readUnsignedByte();
+      if (shape >= BoardShape.values().length) {
+        throw new IOException("unknown board shape " + shape);
+      }
+      ProbCut cut = new ProbCut(BoardTopology.of(BoardShape.values()[shape], in.readShort()),
+          threshold);
+      int depths = in.readUnsignedByte();
+      for (int i = 0; i < depths; i++) {
+        int deep = in.readUnsignedByte();
+        int shallow = in.readUnsignedByte();
+        try {
+          cut.set(deep, shallow, in.readDouble(), in.readDouble(), in.readDouble());
+        } catch (IllegalArgumentException e) {
+          throw new IOException("invalid probcut depths in " + file, e);
+        }
+      }
+      return cut;
+    }
+  }
+
+  /**
+   * Writes the parameters to a file, replacing it if it exists. The threshold is not written.
+   *
+   * @param file the parameter file.
+   * @throws IOException if writing fails.
+   */
+  public void write(Path file) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file.toFile())))) {
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeByte(topology.getShape().ordinal());
+      out.writeShort(topology.getSize());
+      int depths = 0;
+      for (int deep = 0; deep <= MAX_DEPTH; deep++) {
+        depths += shallow[deep] > 0 ? 1 : 0;
+      }
+      out.writeByte(depths);
+      for (int deep = 0; deep <= MAX_DEPTH; deep++) {
+        if (shallow[deep] > 0) {
+          out.writeByte(deep);
+          out.writeByte(shallow[deep]);
+          out.writeDouble(slope[deep]);
+          out.writeDouble(intercept[deep]);
+          out.writeDouble(sigma[deep]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets how a depth is cut.
+   *
+   * @param deep      the depth of the search that is cut.
+   * @param shallow   the depth of the search predicting it.
+   * @param slope     the slope of the regression of the deep score on the shallow one.
+   * @param intercept the intercept of the regression, in hundredths of a disc.
+   * @param sigma     the standard deviation of the residuals, in hundredths of a disc.
+   * @throws IllegalArgumentException if the depths are not 0 &lt; shallow &lt; deep &lt;=
+   *                                  {@link #MAX_DEPTH}, the slope is not positive or sigma is
+   *                                  negative.
+   */
+  public void set(int deep, int shallow, double slope, double intercept, double sigma) {
+    if (shallow < 1 || shallow >= deep || deep > MAX_DEPTH) {
+      throw new IllegalArgumentException("need 0 < shallow < deep <= " + MAX_DEPTH);
+    }
+    if (!(slope > 0) || !(sigma >= 0)) {
+      throw new IllegalArgumentException("slope must be positive and sigma not negative");
+    }
+    this.shallow[deep] = shallow;
+    this.slope[deep] = slope;
+    this.intercept[deep] = intercept;
+    this.sigma[deep] = sigma;
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  public double getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Gets the depth of the search that predicts a deeper one.
+   *
+   * @param deep the depth of the search that may be cut.
+   * @return the shallow depth, or 0 if the depth is not cut.
+   */
+  public int getShallow(int deep) {
+    return deep <= MAX_DEPTH ? shallow[deep] : 0;
+  }
+
+  public double getSlope(int deep) {
+    return slope[deep];
+  }
+
+  public double getIntercept(int deep) {
+    return intercept[deep];
+  }
+
+  public double getSigma(int deep) {
+    return sigma[deep];
+  }
+
+  /**
+   * Checks whether any depth is cut.
+   *
+   * @return true if no depth is cut.
+   */
+  public boolean isEmpty() {
+    for (int deep = 0; deep <= MAX_DEPTH; deep++) {
+      if (shallow[deep] > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the shallow score at or above which a deep search is expected to fail high on beta.
+   *
+   * @param deep the depth of the search, which must be cut.
+   * @param beta the upper end of its window.
+   * @return the bound on the shallow score.
+   */
+  int highBound(int deep, int beta) {
+    return (int) Math.ceil((beta + threshold * sigma[deep] - intercept[deep]) / slope[deep]);
+  }
+
+  /**
+   * Gets the shallow score at or below which a deep search is expected to fail low on alpha.
+   *
+   * @param deep  the depth of the search, which must be cut.
+   * @param alpha the lower end of its window.
+   * @return the bound on the shallow score.
+   */
+  int lowBound(int deep, int alpha) {
+    return (int) Math.floor((alpha - threshold * sigma[deep] - intercept[deep]) / slope[deep]);
+  }
+}
@@ -0,0 +1,245 @@
+package cs3500.reversi.search;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.selfplay.SampleReader;
+import cs3500.reversi.strategy.Strategies;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fits {@link ProbCut} parameters to positions, typically taken from self-play samples.
+ *
+ * <p>Every position is searched full-width to every depth of every pair, and the deep scores
+ * are regressed on the shallow ones by least squares. Positions whose searches reach the end
+ * of the game are skipped, since their scores are not evaluations. A fitter is not
+ * thread-safe, but fitters of separate threads can be merged.</p>
+ */
+public class ProbCutFitter {
+  private final BoardTopology topology;
+  private final int[] shallow = new int[ProbCut.MAX_DEPTH + 1];
+  private final AlphaBetaSearch search;
+  private final int deepest;
+  // the sums of the regression of every deep depth: n, x, y, xx, xy, yy
+  private final double[][] sums = new double[ProbCut.MAX_DEPTH + 1][6];
+
+  /**
+   * Constructs a fitter for a board.
+   *
+   * @param topology the topology of the board.
+   * @param pairs    the depth pairs to fit, each {deep, shallow}.
+   * @throws IllegalArgumentException if a pair does not have 0 &lt; shallow &lt; deep &lt;=
+   *                                  {@link ProbCut#MAX_DEPTH}, or a deep depth repeats.
+   */
+  public ProbCutFitter(BoardTopology topology, int[][] pairs) {
+    int deepest = 0;
+    for (int[] pair : pairs) {
+      if (pair[1] < 1 || pair[1] >= pair[0] || pair[0] > ProbCut.MAX_DEPTH) {
+        throw new IllegalArgumentException("need 0 < shallow < deep <= " + ProbCut.MAX_DEPTH);
+      }
+      if (shallow[pair[0]] != 0) {
+        throw new IllegalArgumentException("depth " + pair[0] + " is fitted twice");
+      }
+      shallow[pair[0]] = pair[1];
+      deepest = Math.max(deepest, pair[0]);
+    }
+    this.topology = topology;
+    this.deepest = deepest;
+    // full width, since the parameters are what makes a search selective
+    this.search = new AlphaBetaSearch(Strategies.evaluator(topology));
+  }
+
+  /**
+   * Searches a position to every depth fitted and adds its scores to the regressions.
+   *
+   * @param board the position, with a move for the side to move.
+   * @return true if the position was used.
+   */
+  public boolean add(CompactBoard board) {
+    int[] scores = new int[deepest + 1];
+    for (int depth = 1; depth <= deepest; depth++) {
+      if (search.search(board, depth) == CompactBoard.PASS
+          || Math.abs(search.getScore()) >= AlphaBetaSearch.WIN / 2) {
+        return false;
+      }
+      scores[depth] = search.getScore();
+    }
+    for (int deep = 1; deep <= deepest; deep++) {
+      if (shallow[deep] > 0) {
+        observe(deep, scores[shallow[deep]], scores[deep]);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Adds one pair of scores to the regression of a depth.
+   *
+   * @param deep         the deep depth, which must be fitted.
+   * @param shallowScore the score of the shallow search.
+   * @param deepScore    the score of the deep search of the same position.
+   * @throws IllegalArgumentException if the depth is not fitted.
+   */
+  public void observe(int deep, double shallowScore, double deepScore) {
+    if (deep > ProbCut.MAX_DEPTH || shallow[deep] == 0) {
+      throw new IllegalArgumentException("depth " + deep + " is not fitted");
+    }
+    double[] sum = sums[deep];
+    sum[0]++;
+    sum[1] += shallowScore;
+    sum[2] += deepScore;
+    sum[3] += shallowScore * shallowScore;
+    sum[4] += shallowScore * deepScore;
+    sum[5] += deepScore * deepScore;
+  }
+
+  /**
+   * Adds the observations of another fitter of the same pairs.
+   *
+   * @param other the other fitter.
+   */
+  public void merge(ProbCutFitter other) {
+    for (int deep = 0; deep < sums.length; deep++) {
+      for (int i = 0; i < sums[deep].length; i++) {
+        sums[deep][i] += other.sums[deep][i];
+      }
+    }
+  }
+
+  /**
+   * Gets the number of observations of a depth.
+   *
+   * @param deep the deep depth.
+   * @return the number of pairs of scores.
+   */
+  public int getCount(int deep) {
+    return (int) sums[deep][0];
+  }
+
+  /**
+   * Fits the regressions. Depths with fewer than three observations, or whose shallow scores
+   * do not predict their deep ones, are not cut.
+   *
+   * @param threshold the number of sigmas a prediction must clear the window by to cut.
+   * @return the fitted parameters.
+   */
+  public ProbCut fit(double threshold) {
+    ProbCut cut = new ProbCut(topology, threshold);
+    for (int deep = 0; deep < sums.length; deep++) {
+      double[] sum = sums[deep];
+      double n = sum[0];
+      if (n < 3) {
+        continue;
+      }
+      double sxx = sum[3] - sum[1] * sum[1] / n;
+      double sxy = sum[4] - sum[1] * sum[2] / n;
+      double syy = sum[5] - sum[2] * sum[2] / n;
+      if (!(sxx > 0) || !(sxy > 0)) {
+        continue;
+      }
+      double slope = sxy / sxx;
+      double intercept = (sum[2] - slope * sum[1]) / n;
+      double residuals = Math.max(0, syy - slope * sxy);
+      cut.set(deep, shallow[deep], slope, intercept, Math.sqrt(residuals / (n - 2)));
+    }
+    return cut;
+  }
+
+  /**
+   * Fits parameters from the command line and writes them as the parameter file of the board.
+   *
+   * <p>Options: --samples (required), --pairs 3:1,4:2,5:3,6:2,7:3,8:4 as deep:shallow,
+   * --every 13 (the stride through the samples, which skips the symmetric images of a
+   * position), --min-empties 12, --positions 2000, --threads (all cores), --out (the file name
+   * of the board in the weight directory, or in the current directory).</p>
+   *
+   * @param args the command line options.
+   * @throws Exception if reading the samples or writing the parameters fails.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    if (!options.containsKey("samples")) {
+      throw new IllegalArgumentException("--samples is required");
+    }
+    List<int[]> pairList = new ArrayList<>();
+    for (String pair : options.getOrDefault("pairs", "3:1,4:2,5:3,6:2,7:3,8:4").split(",")) {
+      String[] depths = pair.split(":");
+      pairList.add(new int[] {Integer.parseInt(depths[0]), Integer.parseInt(depths[1])});
+    }
+    int[][] pairs = pairList.toArray(new int[0][]);
+    int every = Integer.parseInt(options.getOrDefault("every", "13"));
+    int minEmpties = Integer.parseInt(options.getOrDefault("min-empties", "12"));
+    int positions = Integer.parseInt(options.getOrDefault("positions", "2000"));
+    int threads = Integer.parseInt(options.getOrDefault("threads",
+        Integer.toString(Runtime.getRuntime().availableProcessors())));
+
+    List<CompactBoard> boards = new ArrayList<>();
+    BoardTopology topology;
+    try (SampleReader reader = new SampleReader(new FileInputStream(options.get("samples")))) {
+      topology = reader.getTopology();
+      for (long i = 0; boards.size() < positions && reader.next(); i++) {
+        if (i % every != 0) {
+          continue;
+        }
+        CompactBoard board = new CompactBoard(topology);
+        board.set(reader.getCells(), reader.getSideToMove());
+        if (board.getEmptyCount() >= minEmpties && !board.isGameOver()) {
+          boards.add(board);
+        }
+      }
+    }
+
+    long start = System.nanoTime();
+    ExecutorService workers = Executors.newFixedThreadPool(threads);
+    List<Future<ProbCutFitter>> parts = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int first = t;
+      parts.add(workers.submit(() -> {
+        ProbCutFitter part = new ProbCutFitter(topology, pairs);
+        for (int i = first; i < boards.size(); i += threads) {
+          part.add(boards.get(i));
+        }
+        return part;
+      }));
+    }
+    workers.shutdown();
+    ProbCutFitter fitter = new ProbCutFitter(topology, pairs);
+    try {
+      for (Future<ProbCutFitter> part : parts) {
+        fitter.merge(part.get());
+      }
+    } catch (ExecutionException e) {
+      throw new IOException("fitting failed", e.getCause());
+    } finally {
+      workers.shutdownNow();
+    }
+
+    ProbCut cut = fitter.fit(ProbCut.DEFAULT_THRESHOLD);
+    for (int[] pair : pairs) {
+      int deep = pair[0];
+      if (cut.getShallow(deep) > 0) {
+        System.out.printf("depth %d from %d: %d positions, deep = %.3f * shallow %+.1f,"
+                + " sigma %.1f%n", deep, pair[1], fitter.getCount(deep), cut.getSlope(deep),
+            cut.getIntercept(deep), cut.getSigma(deep));
+      } else {
+        System.out.printf("depth %d from %d: not enough data, not cut%n", deep, pair[1]);
+      }
+    }
+    Path out = Paths.get(options.getOrDefault("out",
+        BoardFiles.directory().resolve(ProbCut.fileName(topology)).toString()));
+    cut.write(out);
+    System.out.printf("%d positions in %.1f s, written to %s%n", boards.size(),
+        (System.nanoTime() - start) / 1e9, out);
+  }
+}
@@ -0,0 +1,48 @@
+package cs3500.reversi.search;
+
+/**
+ * The ways an {@link AlphaBetaSearch} can look for the best move. They all find the same move
+ * and score, but visit different numbers of positions to do so.
+ */
+public enum SearchDriver {
+  /**
+   * Searches every move with the full window left by its elder siblings.
+   */
+  ALPHA_BETA,
+
+  /**
+   * Principal variation search: the first move of every position gets the full window, the
+   * others are only scouted with a null window to prove they are no better, and are searched
+   * again if they turn out to be. At the root, the search starts with an aspiration window
+   * around the score of the previous search of the same position, and widens it if the score
+   * falls outside.
+   */
+  PVS,
+
+  /**
+   * MTD(f): the score is closed in on with null-window searches of the root only, starting from
+   * the score of the previous search of the same position, and relying on the transposition
+   * table to make the repeated searches cheap.
+   */
+  MTDF;
+
+  /**
+   * Parses a driver name as typed on the command line ("ab", "pvs" or "mtdf").
+   *
+   * @param name the name of the driver, case-insensitive.
+   * @return the matching driver.
+   * @throws IllegalArgumentException if the name is not a known driver.
+   */
+  public static SearchDriver parse(String name) {
+    switch (name.toLowerCase()) {
+      case "ab":
+        return ALPHA_BETA;
+      case "pvs":
+        return PVS;
+      case "mtdf":
+        return MTDF;
+      default:
+        throw new IllegalArgumentException("unknown search driver: " + name);
+    }
+  }
+}
@@ -0,0 +1,493 @@
+package cs3500.reversi.search;
+
+import cs3500.reversi.eval.Evaluator;
+import cs3500.reversi.metrics.Counter;
+import cs3500.reversi.metrics.MetricsRegistry;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Moves;
+import cs3500.reversi.strategy.PonderingStrategy;
+import cs3500.reversi.strategy.ReversiStrategy;
+import cs3500.reversi.strategy.SearchingStrategy;
+import cs3500.reversi.strategy.TimedStrategy;
+import cs3500.reversi.time.Deadline;
+import cs3500.reversi.time.TimeBudget;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * A strategy that looks a fixed number of moves ahead with an {@link AlphaBetaSearch} and
+ * scores the positions it reaches with an {@link Evaluator}.
+ *
+ * <p>The position is copied into a {@link CompactBoard} once per move, so the search never
+ * touches the model. Evaluators are created once per board topology and kept, so an instance
+ * of this strategy must not be used by several threads at once.</p>
+ *
+ * <p>Once few enough cells are empty, the strategy solves the game to the end instead.</p>
+ *
+ * <p>A board may come with a strategy that knows the best move in some of its positions, such
+ * as an opening book. It is asked first, and the search only runs where it finds no move.</p>
+ *
+ * <p>When pondering, the opponent's reply is predicted with a search one move shallower, and
+ * the position after it is searched on a shared background thread with the same search, so its
+ * caches stay warm either way. There are only as many background threads as cores, so that
+ * pondering never starves the searches that must answer in time; when all are busy, the
+ * strategy does not ponder. The background search is cancelled as soon as the opponent plays
+ * another reply, and is always finished or cancelled before the search is used again.</p>
+ *
+ * <p>Given a {@link TimeBudget}, the strategy deepens one move at a time instead, with no
+ * depth limit but the end of the game. It starts no new iteration once the soft limit has
+ * passed, stretched for every change of the best move or swing of its score, and the hard
+ * limit stops the search outright, keeping the last complete iteration's move. Endgames it
+ * would solve are solved only if time is left after deepening.</p>
+ */
+public class SearchStrategy implements PonderingStrategy, TimedStrategy, SearchingStrategy {
+  // a change of score between iterations, in hundredths of a disc, that counts as instability
+  private static final int SCORE_SWING = 150;
+  // shared by all strategies; idle threads expire
+  private static final ExecutorService PONDER_THREADS = Executors.newCachedThreadPool(task -> {
+    Thread thread = new Thread(task, "reversi-ponder");
+    thread.setDaemon(true);
+    return thread;
+  });
+  // one background search per core at most, taken before submitting and released as it ends
+  private static final Semaphore PONDER_SLOTS =
+      new Semaphore(Runtime.getRuntime().availableProcessors());
+  private static final Counter PONDER_HITS = ponderCounter("hit");
+  private static final Counter PONDER_MISSES = ponderCounter("miss");
+  private static final Counter PONDER_SKIPS = ponderCounter("skipped");
+
+  private final int depth;
+  private final int solveEmpties;
+  private final SearchDriver driver;
+  private final Function<BoardTopology, ProbCut> cuts;
+  private final Function<BoardTopology, Evaluator> evaluators;
+  private final Function<BoardTopology, ReversiStrategy> knownMoves;
+  private final Map<BoardTopology, AlphaBetaSearch> searches = new HashMap<>();
+  // null for boards without known moves
+  private final Map<BoardTopology, ReversiStrategy> known = new HashMap<>();
+  private Ponder ponder;
+  // the node count when the running pondering started
+  private long nodesBeforePondering;
+  private int ponderHits;
+  private int ponderMisses;
+
+  /**
+   * Constructs a strategy searching to the given depth.
+   *
+   * @param depth      the number of moves to look ahead.
+   * @param evaluators creates the evaluator for a board topology.
+   * @throws IllegalArgumentException if the depth is less than 1.
+   */
+  public SearchStrategy(int depth, Function<BoardTopology, Evaluator> evaluators) {
+    this(depth, 0, evaluators);
+  }
+
+  /**
+   * Constructs a strategy searching to the given depth and solving endgames exactly.
+   *
+   * @param depth        the number of moves to look ahead.
+   * @param solveEmpties the number of empty cells at or below which the game is solved.
+   * @param evaluators   creates the evaluator for a board topology.
+   * @throws IllegalArgumentException if the depth is less than 1 or solveEmpties is negative.
+   */
+  public SearchStrategy(int depth, int solveEmpties,
+      Function<BoardTopology, Evaluator> evaluators) {
+    this(depth, solveEmpties, SearchDriver.ALPHA_BETA, topology -> null, evaluators);
+  }
+
+  /**
+   * Constructs a strategy searching to the given depth with the given driver, pruning with
+   * Multi-ProbCut and solving endgames exactly.
+   *
+   * @param depth        the number of moves to look ahead.
+   * @param solveEmpties the number of empty cells at or below which the game is solved.
+   * @param driver       how the searches choose their windows.
+   * @param cuts         gets the {@link ProbCut} parameters for a board topology, or null to
+   *                     search it full-width.
+   * @param evaluators   creates the evaluator for a board topology.
+   * @throws IllegalArgumentException if the depth is less than 1 or solveEmpties is negative.
+   */
+  public SearchStrategy(int depth, int solveEmpties, SearchDriver driver,
+      Function<BoardTopology, ProbCut> cuts, Function<BoardTopology, Evaluator> evaluators) {
+    this(depth, solveEmpties, driver, cuts, evaluators, topology -> null);
+  }
+
+  /**
+   * Constructs a strategy that plays known moves where it can, and otherwise searches to the
+   * given depth with the given driver, pruning with Multi-ProbCut and solving endgames exactly.
+   *
+   * @param depth        the number of moves to look ahead.
+   * @param solveEmpties the number of empty cells at or below which the game is solved.
+   * @param driver       how the searches choose their windows.
+   * @param cuts         gets the {@link ProbCut} parameters for a board topology, or null to
+   *                     search it full-width.
+   * @param evaluators   creates the evaluator for a board topology.
+   * @param knownMoves   gets the strategy to ask before searching a board topology, which
+   *                     throws where it knows no move, or null if there is none.
+   * @throws IllegalArgumentException if the depth is less than 1 or solveEmpties is negative.
+   */
+  public SearchStrategy(int depth, int solveEmpties, SearchDriver driver,
+      Function<BoardTopology, ProbCut> cuts, Function<BoardTopology, Evaluator> evaluators,
+      Function<BoardTopology, ReversiStrategy> knownMoves) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("depth must be at least 1");
+    }
+    if (solveEmpties < 0) {
+      throw new IllegalArgumentException("solveEmpties must not be negative");
+    }
+    this.depth = depth;
+    this.solveEmpties = solveEmpties;
+    this.driver = driver;
+    this.cuts = cuts;
+    this.evaluators = evaluators;
+    this.knownMoves = knownMoves;
+  }
+
+  @Override
+  public Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player) {
+    CompactBoard board = boardFor(model, player);
+    Move move = knownMove(model, player, board.getTopology());
+    if (move != null) {
+      return move;
+    }
+    int cell = ponderedMove(board, Long.MAX_VALUE);
+    if (cell == CompactBoard.PASS) {
+      cell = bestMove(search(board.getTopology()), board, () -> false);
+    }
+    return toMove(board, cell, player);
+  }
+
+  @Override
+  public Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player, TimeBudget budget) {
+    long start = System.nanoTime();
+    CompactBoard board = boardFor(model, player);
+    Move move = knownMove(model, player, board.getTopology());
+    if (move != null) {
+      return move;
+    }
+    Deadline hard = Deadline.after(start, budget.getHardMillis());
+    int cell = ponderedMove(board, Deadline.after(start, budget.getSoftMillis()).remainingNanos());
+    if (cell == CompactBoard.PASS) {
+      cell = deepen(search(board.getTopology()), board, start, budget, hard);
+    }
+    return toMove(board, cell, player);
+  }
+
+  /**
+   * Searches one move deeper at a time until the budget is used up or the game is solved.
+   *
+   * @return the move of the deepest complete iteration, or PASS if there is no move.
+   */
+  private int deepen(AlphaBetaSearch search, CompactBoard board, long start, TimeBudget budget,
+      Deadline hard) {
+    int best = CompactBoard.PASS;
+    int score = 0;
+    int instability = 0;
+    for (int d = 1; d <= Math.max(1, board.getEmptyCount()); d++) {
+      int cell = search.search(board, d, hard);
+      if (search.wasStopped() && best != CompactBoard.PASS) {
+        break;
+      }
+      if (d > 1 && (cell != best || Math.abs(search.getScore() - score) >= SCORE_SWING)) {
+        instability++;
+      }
+      best = cell;
+      score = search.getScore();
+      if (best == CompactBoard.PASS || search.wasStopped()
+          || System.nanoTime() - start >= budget.getSoftMillis(instability) * 1_000_000) {
+        break;
+      }
+    }
+    if (best != CompactBoard.PASS && board.getEmptyCount() <= solveEmpties && !hard.isPassed()) {
+      int cell = search.solve(board, hard);
+      if (!search.wasStopped()) {
+        best = cell;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public void ponder(ReversiReadOnlyModel model, HexagonPlayer player) {
+    CompactBoard board = CompactBoard.of(model);
+    if (board.getSideToMove() == BoardTopology.colorOf(player)) {
+      // the opponent has no move, so there is nothing to predict
+      board.pass();
+    }
+    if (ponder != null && ponder.from == board.getHash()) {
+      return;
+    }
+    stopPondering();
+    if (board.isGameOver()) {
+      return;
+    }
+    Ponder started = new Ponder(board.getHash());
+    AlphaBetaSearch search = search(board.getTopology());
+    nodesBeforePondering = getNodes();
+    if (!PONDER_SLOTS.tryAcquire()) {
+      // every core is already thinking
+      PONDER_SKIPS.increment();
+      return;
+    }
+    started.task = PONDER_THREADS.submit(() -> {
+      try {
+        started.run(search, board);
+      } finally {
+        PONDER_SLOTS.release();
+      }
+    });
+    ponder = started;
+  }
+
+  @Override
+  public void opponentMoved(ReversiReadOnlyModel model, HexagonPlayer player) {
+    if (ponder == null) {
+      return;
+    }
+    long hash = boardFor(model, player).getHash();
+    ponder.reply = hash;
+    // a pondering still predicting stops itself once it finds its prediction wrong
+    if (ponder.predicted != ponder.from && ponder.predicted != hash) {
+      miss();
+    }
+  }
+
+  @Override
+  public void stopPondering() {
+    if (ponder != null) {
+      ponder.cancelled = true;
+      ponder.await();
+      ponder = null;
+    }
+  }
+
+  /**
+   * Takes the result of pondering if it searched the given position, waiting a while for it to
+   * finish, and cancels it otherwise.
+   *
+   * @param waitNanos how long to wait for pondering to finish on the right position.
+   * @return the pondered move, or {@link CompactBoard#PASS} if there is none to use.
+   */
+  private int ponderedMove(CompactBoard board, long waitNanos) {
+    if (ponder == null) {
+      return CompactBoard.PASS;
+    }
+    Ponder done = ponder;
+    long hash = board.getHash();
+    done.reply = hash;
+    // a pondering still predicting the reply is waited for, and stops itself if it was wrong
+    if ((done.predicted != done.from && done.predicted != hash) || !done.awaitFor(waitNanos)
+        || done.predicted != hash) {
+      miss();
+      return CompactBoard.PASS;
+    }
+    ponder = null;
+    ponderHits++;
+    PONDER_HITS.increment();
+    return done.move;
+  }
+
+  /**
+   * Cancels pondering that cannot be used, counting it as a miss.
+   */
+  private void miss() {
+    ponderMisses++;
+    PONDER_MISSES.increment();
+    stopPondering();
+  }
+
+  /**
+   * Gets the number of moves taken from pondering, the opponent having played the predicted
+   * reply.
+   *
+   * @return the number of hits.
+   */
+  public int getPonderHits() {
+    return ponderHits;
+  }
+
+  /**
+   * Gets the number of times pondering was cancelled because the opponent played another reply
+   * or it did not finish in time.
+   *
+   * @return the number of misses.
+   */
+  public int getPonderMisses() {
+    return ponderMisses;
+  }
+
+  /**
+   * Asks the board's known moves for a move, cancelling any pondering if they have one.
+   *
+   * @return the known move, or null if there is none and the position must be searched.
+   */
+  private Move knownMove(ReversiReadOnlyModel model, HexagonPlayer player,
+      BoardTopology topology) {
+    if (!known.containsKey(topology)) {
+      known.put(topology, knownMoves.apply(topology));
+    }
+    ReversiStrategy strategy = known.get(topology);
+    if (strategy == null) {
+      return null;
+    }
+    Move move;
+    try {
+      move = strategy.chooseMove(model, player);
+    } catch (IllegalStateException e) {
+      return null;
+    }
+    stopPondering();
+    return move;
+  }
+
+  /**
+   * Gets the number of positions visited by all searches of this strategy so far. Pondering is
+   * counted once it has been used or cancelled, so the count never changes while it runs.
+   *
+   * @return the node count.
+   */
+  @Override
+  public long getNodes() {
+    if (ponder != null) {
+      return nodesBeforePondering;
+    }
+    long nodes = 0;
+    for (AlphaBetaSearch search : searches.values()) {
+      nodes += search.getNodes();
+    }
+    return nodes;
+  }
+
+  private AlphaBetaSearch search(BoardTopology topology) {
+    return searches.computeIfAbsent(topology,
+        t -> new AlphaBetaSearch(evaluators.apply(t), driver, cuts.apply(t)));
+  }
+
+  private int bestMove(AlphaBetaSearch search, CompactBoard board, BooleanSupplier stop) {
+    return board.getEmptyCount() <= solveEmpties ? search.solve(board, stop)
+        : search.search(board, depth, stop);
+  }
+
+  private static Counter ponderCounter(String result) {
+    return MetricsRegistry.DEFAULT.counter("reversi_ponder_total",
+        "Background searches on the opponent's turn, by how they ended.", "result", result);
+  }
+
+  private static Move toMove(CompactBoard board, int cell, HexagonPlayer player) {
+    if (cell == CompactBoard.PASS) {
+      throw new IllegalStateException("no move available, must be passed");
+    }
+    return Moves.of(board.getTopology()).get(cell, player);
+  }
+
+  private static CompactBoard boardFor(ReversiReadOnlyModel model, HexagonPlayer player) {
+    CompactBoard board = CompactBoard.of(model);
+    if (board.getSideToMove() != BoardTopology.colorOf(player)) {
+      board.pass();
+    }
+    return board;
+  }
+
+  /**
+   * One background search, from the position with the opponent to move.
+   */
+  private final class Ponder {
+    private final long from;
+    private volatile boolean cancelled;
+    // the hash of the position expected after the opponent's reply, written before searching it
+    private volatile long predicted;
+    // the hash of the position after the opponent's actual reply, once it has been played
+    private volatile long reply;
+    private volatile int move = CompactBoard.PASS;
+    private Future<?> task;
+
+    private Ponder(long from) {
+      this.from = from;
+      // a hash with the opponent to move can never match a position with us to move
+      this.predicted = from;
+      this.reply = from;
+    }
+
+    private void run(AlphaBetaSearch search, CompactBoard board) {
+      int predictedCell = search.search(board, Math.max(1, depth - 1), () -> cancelled);
+      if (cancelled) {
+        return;
+      }
+      if (predictedCell == CompactBoard.PASS) {
+        board.pass();
+      } else {
+        board.play(predictedCell);
+      }
+      predicted = board.getHash();
+      if (this.reply != from && this.reply != predicted) {
+        // the opponent has already played another reply
+        return;
+      }
+      int cell = bestMove(search, board, () -> cancelled);
+      if (!search.wasStopped()) {
+        move = cell;
+      }
+    }
+
+    /**
+     * Waits a while for the background search to end.
+     *
+     * @return true if it ended in time.
+     */
+    private boolean awaitFor(long nanos) {
+      if (nanos == Long.MAX_VALUE) {
+        await();
+        return true;
+      }
+      try {
+        task.get(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+        return true;
+      } catch (TimeoutException e) {
+        return false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("pondering failed", e.getCause());
+      }
+    }
+
+    /**
+     * Waits for the background search to end. Interrupts only cancel it, since the search must
+     * not be shared by two threads.
+     */
+    private void await() {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            task.get();
+            return;
+          } catch (InterruptedException e) {
+            interrupted = true;
+            cancelled = true;
+          }
+        }
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("pondering failed", e.getCause());
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
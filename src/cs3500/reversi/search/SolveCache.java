@@ -0,0 +1,80 @@
+package cs3500.reversi.search;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounds on the exact final scores of positions, shared by the threads of a
+ * {@link ParallelSolver} without locks.
+ *
+ * <p>The table is direct-mapped. Every slot holds its bounds and its key xored with them, so a
+ * slot torn by two threads writing at once no longer matches its key and reads as a miss.
+ * Bounds from different threads may overwrite each other, which loses information but never
+ * makes it wrong, since they all bound the same exact score.</p>
+ */
+class SolveCache {
+  /**
+   * Returned by {@link #get(long)} for a position that is not cached.
+   */
+  static final long MISS = Long.MIN_VALUE;
+
+  private final int mask;
+  private final AtomicLongArray checks;
+  private final AtomicLongArray bounds;
+
+  /**
+   * Constructs an empty cache.
+   *
+   * @param bits the base 2 logarithm of the number of slots.
+   * @throws IllegalArgumentException if bits is negative or above 24.
+   */
+  SolveCache(int bits) {
+    if (bits < 0 || bits > 24) {
+      throw new IllegalArgumentException("bits must be between 0 and 24");
+    }
+    this.mask = (1 << bits) - 1;
+    this.checks = new AtomicLongArray(1 << bits);
+    this.bounds = new AtomicLongArray(1 << bits);
+  }
+
+  /**
+   * Gets the bounds of a position.
+   *
+   * @param hash the hash of the position.
+   * @return the bounds, to be read with {@link #lower(long)} and {@link #upper(long)}, or
+   *         {@link #MISS}.
+   */
+  long get(long hash) {
+    int slot = (int) hash & mask;
+    long packed = bounds.get(slot);
+    // an empty slot would match a zero hash, so that position is never cached
+    return (checks.get(slot) ^ packed) == hash && hash != 0 ? packed : MISS;
+  }
+
+  /**
+   * Records the result of solving a position with a window: a lower bound if it is at or above
+   * beta, an upper bound if at or below alpha, and the exact score in between.
+   */
+  void store(long hash, int alpha, int beta, int value) {
+    long old = get(hash);
+    int lower = old == MISS ? -AlphaBetaSearch.INFINITY : lower(old);
+    int upper = old == MISS ? AlphaBetaSearch.INFINITY : upper(old);
+    if (value > alpha) {
+      lower = Math.max(lower, value);
+    }
+    if (value < beta) {
+      upper = Math.min(upper, value);
+    }
+    long packed = ((long) lower << 32) | (upper & 0xFFFFFFFFL);
+    int slot = (int) hash & mask;
+    bounds.set(slot, packed);
+    checks.set(slot, hash ^ packed);
+  }
+
+  static int lower(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  static int upper(long packed) {
+    return (int) packed;
+  }
+}
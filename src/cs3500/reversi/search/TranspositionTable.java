@@ -0,0 +1,97 @@
+package cs3500.reversi.search;
+
+import java.util.Arrays;
+
+/**
+ * Remembers bounds on the scores of searched positions, so that a position reached again, by a
+ * transposition or by a re-search with another window, costs a lookup.
+ *
+ * <p>The table is direct-mapped and keyed by the position's hash; a new entry replaces whatever
+ * was in its slot. An entry is only used for the depth it was searched to, so a search gets the
+ * same scores with or without the table, whatever was searched before. A table is not
+ * thread-safe.</p>
+ */
+public class TranspositionTable {
+  private final int mask;
+  private final long[] keys;
+  // the remaining depth of every entry plus one, so that 0 means the entry is unused
+  private final short[] depths;
+  private final int[] lowers;
+  private final int[] uppers;
+
+  /**
+   * Constructs an empty table.
+   *
+   * @param bits the base 2 logarithm of the number of entries.
+   * @throws IllegalArgumentException if bits is negative or above 24.
+   */
+  public TranspositionTable(int bits) {
+    if (bits < 0 || bits > 24) {
+      throw new IllegalArgumentException("bits must be between 0 and 24");
+    }
+    int size = 1 << bits;
+    this.mask = size - 1;
+    this.keys = new long[size];
+    this.depths = new short[size];
+    this.lowers = new int[size];
+    this.uppers = new int[size];
+  }
+
+  /**
+   * Finds the entry of a position searched to a depth.
+   *
+   * @param hash  the hash of the position.
+   * @param depth the remaining depth.
+   * @return the index of the entry, or -1 if there is none.
+   */
+  public int find(long hash, int depth) {
+    int index = (int) hash & mask;
+    if (depths[index] != depth + 1 || keys[index] != hash) {
+      return -1;
+    }
+    return index;
+  }
+
+  public int getLower(int index) {
+    return lowers[index];
+  }
+
+  public int getUpper(int index) {
+    return uppers[index];
+  }
+
+  /**
+   * Records the result of searching a position with a window. A result at or below alpha is an
+   * upper bound, one at or above beta a lower bound, and one in between exact. Bounds from
+   * earlier searches of the same position and depth are tightened, not lost.
+   *
+   * @param hash  the hash of the position.
+   * @param depth the remaining depth.
+   * @param alpha the lower end of the window the position was searched with.
+   * @param beta  the upper end of the window.
+   * @param value the result of the search.
+   */
+  public void store(long hash, int depth, int alpha, int beta, int value) {
+    int index = find(hash, depth);
+    if (index < 0) {
+      index = (int) hash & mask;
+      keys[index] = hash;
+      depths[index] = (short) (depth + 1);
+      lowers[index] = -AlphaBetaSearch.INFINITY;
+      uppers[index] = AlphaBetaSearch.INFINITY;
+    }
+    if (value > alpha) {
+      lowers[index] = Math.max(lowers[index], value);
+    }
+    if (value < beta) {
+      uppers[index] = Math.min(uppers[index], value);
+    }
+  }
+
+  /**
+   * Forgets every entry.
+   */
+  public void clear() {
+    Arrays.fill(depths, (short) 0);
+  }
+}
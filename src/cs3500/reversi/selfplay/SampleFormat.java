@@ -0,0 +1,32 @@
+package cs3500.reversi.selfplay;
+
+/**
+ * Constants of the binary training sample format.
+ *
+ * <p>A sample file starts with a header naming the board, followed by fixed length samples:</p>
+ * <pre>
+ *   "RVSP" version(1 byte) shape(1 byte) size(1 byte) cellCount(2 bytes)
+ *   sample* = sideToMove(1 byte) result(2 bytes, signed) cells(2 bits each, 4 per byte)
+ * </pre>
+ * <p>The side to move and the cells use the values of
+ * {@link cs3500.reversi.model.BoardTopology}. The result is the final disc count of black minus
+ * that of white in the game the position was taken from. Cell i is stored in the bits
+ * {@code 2 * (i % 4)} of cell byte {@code i / 4}.</p>
+ */
+final class SampleFormat {
+  static final byte[] MAGIC = {'R', 'V', 'S', 'P'};
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 9;
+  // where the cells start within a sample
+  static final int CELLS_OFFSET = 3;
+
+  private SampleFormat() {
+  }
+
+  /**
+   * Gets the length in bytes of one sample on a board with the given number of cells.
+   */
+  static int sampleLength(int cellCount) {
+    return CELLS_OFFSET + (cellCount + 3) / 4;
+  }
+}
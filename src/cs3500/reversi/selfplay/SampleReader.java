@@ -0,0 +1,115 @@
+package cs3500.reversi.selfplay;
+
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Streams the samples of a binary sample file one at a time, so files far larger than the heap
+ * can be read. The fields of the current sample are overwritten by every call to
+ * {@link #next()}.
+ */
+public class SampleReader implements Closeable {
+  private final InputStream in;
+  private final BoardTopology topology;
+  private final byte[] sample;
+  private final byte[] cells;
+  private int sideToMove;
+  private int result;
+
+  /**
+   * Constructs a reader and reads the file header.
+   *
+   * @param in the stream to read from, buffered by this reader.
+   * @throws IOException if the stream does not start with a valid header.
+   */
+  public SampleReader(InputStream in) throws IOException {
+    this.in = new BufferedInputStream(in, 1 << 16);
+    byte[] header = this.in.readNBytes(SampleFormat.HEADER_LENGTH);
+    if (header.length != SampleFormat.HEADER_LENGTH
+        || !Arrays.equals(Arrays.copyOf(header, 4), SampleFormat.MAGIC)) {
+      throw new IOException("not a sample file");
+    }
+    if (header[4] != SampleFormat.VERSION || header[5] < 0
+        || header[5] >= BoardShape.values().length) {
+      throw new IOException("unsupported sample file");
+    }
+    this.topology = BoardTopology.of(BoardShape.values()[header[5]], header[6]);
+    int cellCount = ((header[7] & 0xFF) << 8) | (header[8] & 0xFF);
+    if (cellCount != topology.getCellCount()) {
+      throw new IOException("sample file does not match its board");
+    }
+    this.sample = new byte[SampleFormat.sampleLength(cellCount)];
+    this.cells = new byte[cellCount];
+  }
+
+  /**
+   * Reads the next sample.
+   *
+   * @return true if a sample was read, false at the end of the file.
+   * @throws IOException if the stream fails or ends in the middle of a sample.
+   */
+  public boolean next() throws IOException {
+    int read = in.readNBytes(sample, 0, sample.length);
+    if (read == 0) {
+      return false;
+    }
+    if (read != sample.length) {
+      throw new EOFException("truncated sample");
+    }
+    decode(sample, 0, cells);
+    sideToMove = sample[0];
+    result = (short) ((sample[1] << 8) | (sample[2] & 0xFF));
+    return true;
+  }
+
+  /**
+   * Decodes the cells of an encoded sample.
+   *
+   * @param samples the encoded samples.
+   * @param offset  where in the array the sample starts.
+   * @param cells   the array to write the cells to, its length is the number of cells.
+   */
+  public static void decode(byte[] samples, int offset, byte[] cells) {
+    int start = offset + SampleFormat.CELLS_OFFSET;
+    for (int cell = 0; cell < cells.length; cell++) {
+      cells[cell] = (byte) ((samples[start + cell / 4] >>> (2 * (cell % 4))) & 3);
+    }
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the cells of the current sample. The array is reused by the next sample.
+   *
+   * @return the cells, indexed by cell id.
+   */
+  public byte[] getCells() {
+    return cells;
+  }
+
+  public int getSideToMove() {
+    return sideToMove;
+  }
+
+  /**
+   * Gets the result of the current sample's game.
+   *
+   * @return black's final disc count minus white's.
+   */
+  public int getResult() {
+    return result;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
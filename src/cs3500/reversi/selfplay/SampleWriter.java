@@ -0,0 +1,104 @@
+package cs3500.reversi.selfplay;
+
+import cs3500.reversi.model.BoardTopology;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes training samples, positions labelled with the result of their game, in the binary
+ * sample format.
+ */
+public class SampleWriter implements Closeable {
+  private final OutputStream out;
+  private final BoardTopology topology;
+  private final byte[] sample;
+  private long count;
+
+  /**
+   * Constructs a writer and writes the file header.
+   *
+   * @param out      the stream to write to, buffered by this writer.
+   * @param topology the topology of every sample that will be written.
+   * @throws IOException if the header cannot be written.
+   */
+  public SampleWriter(OutputStream out, BoardTopology topology) throws IOException {
+    this.out = new BufferedOutputStream(out, 1 << 16);
+    this.topology = topology;
+    this.sample = new byte[SampleFormat.sampleLength(topology.getCellCount())];
+    this.out.write(SampleFormat.MAGIC);
+    this.out.write(SampleFormat.VERSION);
+    this.out.write(topology.getShape().ordinal());
+    this.out.write(topology.getSize());
+    this.out.write(topology.getCellCount() >>> 8);
+    this.out.write(topology.getCellCount());
+  }
+
+  /**
+   * Encodes one sample into the given array.
+   *
+   * @param cells      the position, indexed by cell id.
+   * @param sideToMove the color of the player to move.
+   * @param result     black's final disc count minus white's.
+   * @param out        the array to write to.
+   * @param offset     where in the array the sample starts.
+   */
+  public static void encode(byte[] cells, int sideToMove, int result, byte[] out, int offset) {
+    out[offset] = (byte) sideToMove;
+    out[offset + 1] = (byte) (result >> 8);
+    out[offset + 2] = (byte) result;
+    int start = offset + SampleFormat.CELLS_OFFSET;
+    int length = (cells.length + 3) / 4;
+    for (int i = 0; i < length; i++) {
+      out[start + i] = 0;
+    }
+    for (int cell = 0; cell < cells.length; cell++) {
+      out[start + cell / 4] |= (byte) (cells[cell] << (2 * (cell % 4)));
+    }
+  }
+
+  /**
+   * Writes one sample.
+   *
+   * @param cells      the position, indexed by cell id.
+   * @param sideToMove the color of the player to move.
+   * @param result     black's final disc count minus white's.
+   * @throws IOException if the stream fails.
+   */
+  public void write(byte[] cells, int sideToMove, int result) throws IOException {
+    encode(cells, sideToMove, result, sample, 0);
+    out.write(sample);
+    count++;
+  }
+
+  /**
+   * Writes samples that have already been encoded.
+   *
+   * @param samples the encoded samples, back to back.
+   * @param length  the number of bytes to write, a multiple of the sample length.
+   * @throws IOException if the stream fails.
+   */
+  public void writeEncoded(byte[] samples, int length) throws IOException {
+    out.write(samples, 0, length);
+    count += length / sample.length;
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Gets the number of samples written so far.
+   *
+   * @return the number of samples.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+}
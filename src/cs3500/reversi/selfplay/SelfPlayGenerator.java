@@ -0,0 +1,350 @@
+package cs3500.reversi.selfplay;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.metrics.Counter;
+import cs3500.reversi.metrics.MetricsRegistry;
+import cs3500.reversi.metrics.MetricsServer;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.player.Player;
+import cs3500.reversi.record.GameArchiveWriter;
+import cs3500.reversi.record.GameHeader;
+import cs3500.reversi.record.GameRecordReader;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.Moves;
+import cs3500.reversi.strategy.ReversiStrategy;
+import cs3500.reversi.strategy.Strategies;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates training data by letting AI strategies play each other on all cores.
+ *
+ * <p>Every position of every game is recorded with the side to move and labelled with the final
+ * disc differential of its game. With augmentation on, each position is also written under every
+ * symmetry of the board (12 images on a hexagonal board, 8 on a square one). The first few plies
+ * of each game are random so that deterministic strategies still produce varied games.</p>
+ *
+ * <p>Games are played by worker threads and handed to the calling thread through a bounded
+ * queue, which does all the writing; workers block when the disk cannot keep up. Games are
+ * written in the order of their numbers, whichever finishes first, so a seed always gives the
+ * same file.</p>
+ */
+public class SelfPlayGenerator {
+  // see MetricsRegistry
+  private static final Counter GAMES = MetricsRegistry.DEFAULT.counter("reversi_games_total",
+      "Self-play games finished.");
+
+  private final BoardTopology topology;
+  private final List<String[]> pairs;
+  private final int openingPlies;
+  private final boolean augment;
+  private final long seed;
+
+  /**
+   * Constructs a generator.
+   *
+   * @param topology     the board to play on.
+   * @param pairs        the strategy names of the black and white players, games cycle through
+   *                     the pairs in order.
+   * @param openingPlies the number of random plies at the start of every game.
+   * @param augment      whether to write every position under all board symmetries.
+   * @param seed         the seed of the random openings, game i uses a generator derived from it.
+   * @throws IllegalArgumentException if there are no pairs or a strategy name is unknown.
+   */
+  public SelfPlayGenerator(BoardTopology topology, List<String[]> pairs, int openingPlies,
+      boolean augment, long seed) {
+    if (pairs.isEmpty()) {
+      throw new IllegalArgumentException("at least one strategy pair is needed");
+    }
+    for (String[] pair : pairs) {
+      Strategies.named(pair[0]);
+      Strategies.named(pair[1]);
+    }
+    this.topology = topology;
+    this.pairs = new ArrayList<>(pairs);
+    this.openingPlies = openingPlies;
+    this.augment = augment;
+    this.seed = seed;
+  }
+
+  /**
+   * Plays the given number of games and writes their samples and, optionally, their records.
+   *
+   * @param games   the number of games to play.
+   * @param threads the number of threads playing games.
+   * @param samples the writer for the samples, must have this generator's topology.
+   * @param archive the archive to append the game records to, or null.
+   * @return a summary of the run.
+   * @throws IOException          if writing fails or a game could not be played.
+   * @throws InterruptedException if interrupted while waiting for games.
+   */
+  public String run(int games, int threads, SampleWriter samples, GameArchiveWriter archive)
+      throws IOException, InterruptedException {
+    int window = threads * 4;
+    BlockingQueue<PlayedGame> finished = new ArrayBlockingQueue<>(window);
+    // a game may only be started while fewer than window games are played but not yet written,
+    // which bounds the games held back waiting for an earlier one
+    Semaphore unwritten = new Semaphore(window);
+    AtomicInteger nextGame = new AtomicInteger();
+    ExecutorService workers = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime();
+    for (int i = 0; i < threads; i++) {
+      workers.execute(() -> playGames(games, nextGame, unwritten, finished));
+    }
+    workers.shutdown();
+    Map<Integer, PlayedGame> early = new HashMap<>();
+    try {
+      for (int i = 0; i < games; i++) {
+        PlayedGame game = early.remove(i);
+        while (game == null) {
+          PlayedGame next = finished.take();
+          if (next.failure != null) {
+            throw new IOException("self-play game failed", next.failure);
+          }
+          if (next.index == i) {
+            game = next;
+          } else {
+            early.put(next.index, next);
+          }
+        }
+        samples.writeEncoded(game.samples, game.samples.length);
+        if (archive != null) {
+          archive.beginGame(game.header);
+          for (int m = 0; m < game.moveCount; m++) {
+            if (game.moves[m] == GameRecordReader.PASS) {
+              archive.writePass();
+            } else {
+              archive.writeMove(topology.getQ(game.moves[m]), topology.getR(game.moves[m]));
+            }
+          }
+          archive.endGame();
+        }
+        unwritten.release();
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    return String.format("games = %d, samples = %d, %.2f s, %.0f samples/hour%n", games,
+        samples.getCount(), seconds, samples.getCount() / seconds * 3600);
+  }
+
+  /**
+   * Plays games until the requested number has been claimed by the workers, or one fails.
+   */
+  private void playGames(int games, AtomicInteger nextGame, Semaphore unwritten,
+      BlockingQueue<PlayedGame> finished) {
+    // strategies are created per thread and per seat, so strategies that keep state between
+    // moves are safe, even when a strategy plays itself
+    Map<String, ReversiStrategy> blackStrategies = new HashMap<>();
+    Map<String, ReversiStrategy> whiteStrategies = new HashMap<>();
+    try {
+      while (true) {
+        unwritten.acquire();
+        int game = nextGame.getAndIncrement();
+        if (game >= games) {
+          return;
+        }
+        PlayedGame played;
+        try {
+          played = playGame(game, blackStrategies, whiteStrategies);
+        } catch (Throwable e) {
+          // anything, even an Error, must reach the writing thread, or it waits forever
+          finished.put(new PlayedGame(game, e));
+          return;
+        }
+        finished.put(played);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Plays one game and encodes its samples.
+   *
+   * @param game            the number of the game, which picks the strategy pair and random
+   *                        opening.
+   * @param blackStrategies this thread's strategies for the black player, by name.
+   * @param whiteStrategies this thread's strategies for the white player, by name.
+   * @return the played game.
+   */
+  PlayedGame playGame(int game, Map<String, ReversiStrategy> blackStrategies,
+      Map<String, ReversiStrategy> whiteStrategies) {
+    String[] pair = pairs.get(game % pairs.size());
+    SplittableRandom random = new SplittableRandom(seed + game);
+    ReversiBoard board = topology.getShape().newBoard(topology.getSize());
+    board.startGame();
+    Player black = new AIPlayer(board, HexagonPlayer.BLACK,
+        blackStrategies.computeIfAbsent(pair[0], Strategies::named), pair[0]);
+    Player white = new AIPlayer(board, HexagonPlayer.WHITE,
+        whiteStrategies.computeIfAbsent(pair[1], Strategies::named), pair[1]);
+
+    int cellCount = topology.getCellCount();
+    byte[] positions = new byte[cellCount * cellCount];
+    byte[] sides = new byte[cellCount];
+    int[] moves = new int[cellCount];
+    int plies = 0;
+    byte[] cells = new byte[cellCount];
+    while (!board.isGameOver()) {
+      if (plies == sides.length) {
+        positions = Arrays.copyOf(positions, positions.length * 2);
+        sides = Arrays.copyOf(sides, sides.length * 2);
+        moves = Arrays.copyOf(moves, moves.length * 2);
+      }
+      HexagonPlayer toMove = board.getCurrentPlayer();
+      topology.readCells(board, cells);
+      System.arraycopy(cells, 0, positions, plies * cellCount, cellCount);
+      sides[plies] = BoardTopology.colorOf(toMove);
+      Move move;
+      if (plies < openingPlies) {
+        move = randomMove(board, toMove, random);
+      } else {
+        move = toMove == HexagonPlayer.BLACK ? black.play(0, 0) : white.play(0, 0);
+      }
+      if (move.getPass()) {
+        board.pass();
+        moves[plies] = GameRecordReader.PASS;
+      } else {
+        board.play(move.getQ(), move.getR(), move.getPlayer());
+        moves[plies] = topology.cellId(move.getQ(), move.getR());
+      }
+      plies++;
+    }
+    int result = board.getScore(HexagonPlayer.BLACK) - board.getScore(HexagonPlayer.WHITE);
+    GAMES.increment();
+    return new PlayedGame(game, new GameHeader(topology.getShape(), topology.getSize(), pair[0],
+        pair[1]), moves, plies, encodeSamples(positions, sides, plies, result));
+  }
+
+  /**
+   * Encodes the recorded positions of a game, under every symmetry if augmenting.
+   */
+  private byte[] encodeSamples(byte[] positions, byte[] sides, int plies, int result) {
+    int cellCount = topology.getCellCount();
+    BoardSymmetries symmetries = BoardSymmetries.of(topology);
+    int images = augment ? symmetries.size() : 1;
+    int length = SampleFormat.sampleLength(cellCount);
+    byte[] samples = new byte[plies * images * length];
+    byte[] cells = new byte[cellCount];
+    byte[] image = new byte[cellCount];
+    int offset = 0;
+    for (int ply = 0; ply < plies; ply++) {
+      System.arraycopy(positions, ply * cellCount, cells, 0, cellCount);
+      for (int symmetry = 0; symmetry < images; symmetry++) {
+        symmetries.transform(symmetry, cells, image);
+        SampleWriter.encode(image, sides[ply], result, samples, offset);
+        offset += length;
+      }
+    }
+    return samples;
+  }
+
+  /**
+   * Picks a uniformly random legal move, or a pass if there is none.
+   */
+  private Move randomMove(ReversiBoard board, HexagonPlayer player, SplittableRandom random) {
+    int[] legal = new int[topology.getCellCount()];
+    int count = 0;
+    for (int cell = 0; cell < legal.length; cell++) {
+      if (board.canMove(topology.getQ(cell), topology.getR(cell), player)) {
+        legal[count++] = cell;
+      }
+    }
+    if (count == 0) {
+      return Moves.pass(player);
+    }
+    int cell = legal[random.nextInt(count)];
+    return Moves.of(topology).get(cell, player);
+  }
+
+  /**
+   * A finished game on its way from a worker to the writing thread.
+   */
+  static final class PlayedGame {
+    final int index;
+    final GameHeader header;
+    final int[] moves;
+    final int moveCount;
+    final byte[] samples;
+    final Throwable failure;
+
+    PlayedGame(int index, GameHeader header, int[] moves, int moveCount, byte[] samples) {
+      this.index = index;
+      this.header = header;
+      this.moves = moves;
+      this.moveCount = moveCount;
+      this.samples = samples;
+      this.failure = null;
+    }
+
+    PlayedGame(int index, Throwable failure) {
+      this.index = index;
+      this.header = null;
+      this.moves = null;
+      this.moveCount = 0;
+      this.samples = null;
+      this.failure = failure;
+    }
+  }
+
+  /**
+   * Runs self-play from the command line.
+   *
+   * <p>Options, all optional: --shape hexagon, --size 6, --games 1000,
+   * --pairs strategy1:strategy12,strategy123:strategy2, --threads (all cores), --opening 6,
+   * --seed 1, --out samples.bin, --archive path (no archive by default), --augment true.
+   * Metrics are served while the games are played if {@link MetricsServer#PORT_PROPERTY} is
+   * set.</p>
+   *
+   * @param args the command line options.
+   * @throws Exception if the run fails.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    BoardTopology topology = BoardTopology.of(
+        BoardShape.parse(options.getOrDefault("shape", "hexagon")),
+        Integer.parseInt(options.getOrDefault("size", "6")));
+    List<String[]> pairs = new ArrayList<>();
+    for (String pair : options.getOrDefault("pairs", "strategy1:strategy12").split(",")) {
+      pairs.add(pair.split(":"));
+    }
+    int games = Integer.parseInt(options.getOrDefault("games", "1000"));
+    int threads = Integer.parseInt(options.getOrDefault("threads",
+        Integer.toString(Runtime.getRuntime().availableProcessors())));
+    SelfPlayGenerator generator = new SelfPlayGenerator(topology, pairs,
+        Integer.parseInt(options.getOrDefault("opening", "6")),
+        Boolean.parseBoolean(options.getOrDefault("augment", "true")),
+        Long.parseLong(options.getOrDefault("seed", "1")));
+
+    Path out = Paths.get(options.getOrDefault("out", "samples.bin"));
+    try (MetricsServer metrics = MetricsServer.startIfConfigured();
+        SampleWriter samples = new SampleWriter(new FileOutputStream(out.toFile()), topology);
+        GameArchiveWriter archive = options.containsKey("archive")
+            ? new GameArchiveWriter(Paths.get(options.get("archive"))) : null) {
+      if (metrics != null) {
+        System.out.println("Metrics served on port " + metrics.getPort());
+      }
+      System.out.print(generator.run(games, threads, samples, archive));
+    }
+  }
+}
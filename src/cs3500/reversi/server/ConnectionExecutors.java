@@ -0,0 +1,38 @@
+package cs3500.reversi.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors that run one task per connection for the server and the load generator.
+ *
+ * <p>On a runtime with virtual threads each connection gets its own virtual thread, so thousands
+ * of mostly idle games cost almost nothing. Older runtimes fall back to a cached pool of daemon
+ * platform threads, which behaves the same way but with a heavier thread per connection.</p>
+ */
+final class ConnectionExecutors {
+
+  private ConnectionExecutors() {
+  }
+
+  /**
+   * Creates an executor that starts a new thread for every submitted task.
+   *
+   * @param name the prefix for the names of platform threads, if those are used.
+   * @return an executor running each task on its own thread.
+   */
+  static ExecutorService newThreadPerTaskExecutor(String name) {
+    try {
+      // looked up reflectively so that the game still builds and runs on runtimes without it
+      Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) virtual.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package cs3500.reversi.server;
+
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.Hexagon;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.player.HumanPlayer;
+import cs3500.reversi.player.Player;
+import cs3500.reversi.strategy.Move;
+import cs3500.reversi.strategy.ReversiStrategy;
+import cs3500.reversi.time.GameClock;
+import cs3500.reversi.time.TimeManager;
+
+/**
+ * Represents a single game hosted by the server: its own model, the remote client's player and
+ * the AI player answering it.
+ *
+ * <p>Every method returns the protocol line that should be sent back to the client. Moves are
+ * applied the same way the controller applies them, so a remote client is simply a human player
+ * whose key presses arrive over a socket. A session is only ever used by the thread serving its
+ * connection.</p>
+ *
+ * <p>A session can be timed by a {@link GameClock}, which the AI player's moves are budgeted
+ * from. The clock runs for the client too, but only the AI player is held to it.</p>
+ *
+ * <p>If the AI player fails to answer, the game is abandoned: the failure is thrown to the caller
+ * and every later move is rejected, since the AI player would otherwise stay to move forever. The
+ * state of the abandoned game can still be asked for.</p>
+ */
+public class GameSession {
+  private final ReversiBoard model;
+  private final Player client;
+  private final Player ai;
+  // set once the AI player failed to answer, after which no more moves are played
+  private boolean abandoned;
+
+  /**
+   * Constructs a new game between a remote client and an AI player.
+   *
+   * @param shape       the shape of the board.
+   * @param size        the size of the board.
+   * @param aiStrategy  the strategy the AI player answers with.
+   * @param clientColor the color played by the remote client.
+   * @throws IllegalArgumentException if the size is invalid or the color is NONE.
+   */
+  public GameSession(BoardShape shape, int size, ReversiStrategy aiStrategy,
+      HexagonPlayer clientColor) {
+    this(shape, size, aiStrategy, clientColor, null, null);
+  }
+
+  /**
+   * Constructs a new timed game between a remote client and an AI player.
+   *
+   * @param shape       the shape of the board.
+   * @param size        the size of the board.
+   * @param aiStrategy  the strategy the AI player answers with.
+   * @param clientColor the color played by the remote client.
+   * @param clock       a new clock for this game, or null for an untimed game.
+   * @param timeManager budgets the AI player's moves, or null for an untimed game.
+   * @throws IllegalArgumentException if the size is invalid or the color is NONE.
+   */
+  public GameSession(BoardShape shape, int size, ReversiStrategy aiStrategy,
+      HexagonPlayer clientColor, GameClock clock, TimeManager timeManager) {
+    this(shape, size, aiStrategy, aiStrategy.getClass().getSimpleName(), clientColor, clock,
+        timeManager);
+  }
+
+  /**
+   * Constructs a new timed game between a remote client and an AI player whose strategy is
+   * reported by the given name.
+   *
+   * @param shape       the shape of the board.
+   * @param size        the size of the board.
+   * @param aiStrategy  the strategy the AI player answers with.
+   * @param aiName      the name of the strategy in metrics, such as its command line name.
+   * @param clientColor the color played by the remote client.
+   * @param clock       a new clock for this game, or null for an untimed game.
+   * @param timeManager budgets the AI player's moves, or null for an untimed game.
+   * @throws IllegalArgumentException if the size is invalid or the color is NONE.
+   */
+  public GameSession(BoardShape shape, int size, ReversiStrategy aiStrategy, String aiName,
+      HexagonPlayer clientColor, GameClock clock, TimeManager timeManager) {
+    if (clientColor == HexagonPlayer.NONE) {
+      throw new IllegalArgumentException("client must play BLACK or WHITE");
+    }
+    HexagonPlayer aiColor =
+        clientColor == HexagonPlayer.BLACK ? HexagonPlayer.WHITE : HexagonPlayer.BLACK;
+    this.model = shape.newBoard(size);
+    this.client = new HumanPlayer(model, clientColor);
+    this.ai = new AIPlayer(model, aiColor, aiStrategy, aiName, clock, timeManager);
+    if (clock != null) {
+      clock.watch(model);
+    }
+  }
+
+  /**
+   * Starts the game. If the AI player moves first its move is made right away.
+   *
+   * @return READY if the client is to move, otherwise the AI player's reply.
+   */
+  public String start() {
+    model.startGame();
+    if (ai.isPlayerTurn()) {
+      return respond();
+    }
+    return "READY";
+  }
+
+  /**
+   * Plays the client's move at the given position and lets the AI player answer.
+   *
+   * @param q the q coordinate of the client's move.
+   * @param r the r coordinate of the client's move.
+   * @return the AI player's reply, OVER if the game ended, or ERR if the move was rejected.
+   */
+  public String play(int q, int r) {
+    if (abandoned) {
+      return abandonedError();
+    }
+    try {
+      Move move = client.play(q, r);
+      model.play(move.getQ(), move.getR(), move.getPlayer());
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      return "ERR " + e.getMessage();
+    }
+    return respond();
+  }
+
+  /**
+   * Passes the client's turn and lets the AI player answer.
+   *
+   * @return the AI player's reply, OVER if the game ended, or ERR if the pass was rejected.
+   */
+  public String pass() {
+    if (abandoned) {
+      return abandonedError();
+    }
+    if (!client.isPlayerTurn()) {
+      return "ERR it's not " + client.getPlayerColor() + "'s turn";
+    }
+    try {
+      model.pass();
+    } catch (IllegalStateException e) {
+      return "ERR " + e.getMessage();
+    }
+    return respond();
+  }
+
+  /**
+   * Describes the current state of the game.
+   *
+   * <p>The cells are listed row by row, skipping the positions that are not on the board,
+   * using B, W and _ like the textual view.</p>
+   *
+   * @return a STATE line with the player to move, both scores and the cells.
+   */
+  public String state() {
+    StringBuilder cells = new StringBuilder();
+    for (Hexagon[] row : model.getHexList()) {
+      for (Hexagon hexagon : row) {
+        if (hexagon != null) {
+          cells.append(hexagon);
+        }
+      }
+    }
+    return "STATE " + model.getCurrentPlayer() + " " + model.getScore(HexagonPlayer.BLACK) + " "
+        + model.getScore(HexagonPlayer.WHITE) + " " + cells;
+  }
+
+  /**
+   * Determines if this game is over.
+   *
+   * @return true if neither player can move anymore.
+   */
+  public boolean isOver() {
+    return model.isGameOver();
+  }
+
+  /**
+   * Lets the AI player make its move, passing when its strategy finds none.
+   *
+   * @return the move line, or OVER if the game is over before or after the move.
+   * @throws RuntimeException if the AI player fails, which abandons the game.
+   */
+  private String respond() {
+    if (model.isGameOver()) {
+      return over();
+    }
+    Move move;
+    try {
+      move = ai.play(0, 0);
+    } catch (RuntimeException e) {
+      abandoned = true;
+      throw e;
+    }
+    String reply;
+    if (move.getPass()) {
+      model.pass();
+      reply = "PASS";
+    } else {
+      model.play(move.getQ(), move.getR(), move.getPlayer());
+      reply = "MOVE " + move.getQ() + " " + move.getR();
+    }
+    if (model.isGameOver()) {
+      return over();
+    }
+    return reply;
+  }
+
+  private String abandonedError() {
+    return "ERR game abandoned after the AI player failed, start a NEW one";
+  }
+
+  private String over() {
+    return "OVER " + model.getScore(HexagonPlayer.BLACK) + " "
+        + model.getScore(HexagonPlayer.WHITE);
+  }
+}
@@ -0,0 +1,228 @@
+package cs3500.reversi.server;
+
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.player.AIPlayer;
+import cs3500.reversi.player.Player;
+import cs3500.reversi.strategy.AggressiveReversiStrategy;
+import cs3500.reversi.strategy.Move;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A client that opens many simultaneous games against a {@link ReversiServer} and measures how
+ * fast the server answers.
+ *
+ * <p>Each game keeps a local copy of the board, chooses its own moves with the aggressive
+ * strategy and times every round trip to the server. Once all games are over the throughput in
+ * moves per second and the latency percentiles are reported.</p>
+ */
+public final class LoadGenerator {
+  private final String host;
+  private final int port;
+  private final BoardShape shape;
+  private final int size;
+  private final String serverStrategy;
+
+  // latencies of every round trip, one array per finished game
+  private final Queue<long[]> latencies = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger finishedGames = new AtomicInteger();
+  private final AtomicInteger failedGames = new AtomicInteger();
+
+  /**
+   * Constructs a load generator for the given server and game setup.
+   *
+   * @param host           the host the server runs on.
+   * @param port           the port the server listens on.
+   * @param shape          the shape of the boards to play on.
+   * @param size           the size of the boards to play on.
+   * @param serverStrategy the name of the strategy the server's AI players should use.
+   */
+  public LoadGenerator(String host, int port, BoardShape shape, int size,
+      String serverStrategy) {
+    this.host = host;
+    this.port = port;
+    this.shape = shape;
+    this.size = size;
+    this.serverStrategy = serverStrategy;
+  }
+
+  /**
+   * Plays the given number of games at the same time and waits for all of them to finish.
+   *
+   * @param games the number of simultaneous games.
+   * @return a summary of the throughput and latency observed.
+   * @throws InterruptedException if interrupted while waiting for the games.
+   */
+  public String run(int games) throws InterruptedException {
+    ExecutorService executor = ConnectionExecutors.newThreadPerTaskExecutor("reversi-load");
+    CountDownLatch startGate = new CountDownLatch(1);
+    for (int i = 0; i < games; i++) {
+      executor.execute(() -> {
+        try {
+          startGate.await();
+          playGame();
+          finishedGames.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+          failedGames.incrementAndGet();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+    long start = System.nanoTime();
+    startGate.countDown();
+    executor.shutdown();
+    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    long elapsed = System.nanoTime() - start;
+    return summarize(elapsed);
+  }
+
+  /**
+   * Plays one full game over a new connection, recording the latency of every move.
+   *
+   * @throws IOException if the connection fails or the server rejects a move.
+   */
+  private void playGame() throws IOException {
+    ReversiBoard mirror = shape.newBoard(size);
+    mirror.startGame();
+    Player self = new AIPlayer(mirror, HexagonPlayer.BLACK, new AggressiveReversiStrategy());
+    long[] times = new long[mirror.getArrayWidth() * mirror.getArrayWidth() * 2];
+    int count = 0;
+
+    try (Socket socket = new Socket(host, port);
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+      socket.setTcpNoDelay(true);
+      String reply = request(in, out, "NEW " + shape + " " + size + " " + serverStrategy);
+      while (reply.equals("READY") || reply.startsWith("MOVE") || reply.equals("PASS")) {
+        applyServerReply(mirror, reply);
+        Move move = self.play(0, 0);
+        String command;
+        if (move.getPass()) {
+          mirror.pass();
+          command = "PASS";
+        } else {
+          mirror.play(move.getQ(), move.getR(), move.getPlayer());
+          command = "PLAY " + move.getQ() + " " + move.getR();
+        }
+        long before = System.nanoTime();
+        reply = request(in, out, command);
+        if (count == times.length) {
+          times = Arrays.copyOf(times, count * 2);
+        }
+        times[count++] = System.nanoTime() - before;
+      }
+      request(in, out, "QUIT");
+      if (!reply.startsWith("OVER")) {
+        throw new IOException("server rejected the game: " + reply);
+      }
+    } finally {
+      latencies.add(Arrays.copyOf(times, count));
+    }
+  }
+
+  /**
+   * Applies the AI player's answer to the local copy of the board.
+   *
+   * @param mirror the local copy of the board.
+   * @param reply  the server's reply line.
+   */
+  private static void applyServerReply(ReversiBoard mirror, String reply) {
+    if (reply.equals("PASS")) {
+      mirror.pass();
+    } else if (reply.startsWith("MOVE")) {
+      String[] words = reply.split(" ");
+      mirror.play(Integer.parseInt(words[1]), Integer.parseInt(words[2]),
+          mirror.getCurrentPlayer());
+    }
+  }
+
+  private static String request(BufferedReader in, Writer out, String command)
+      throws IOException {
+    out.write(command);
+    out.write('\n');
+    out.flush();
+    String reply = in.readLine();
+    if (reply == null) {
+      throw new IOException("server closed the connection");
+    }
+    return reply;
+  }
+
+  /**
+   * Summarizes the recorded latencies.
+   *
+   * @param elapsedNanos the wall clock time all games took together.
+   * @return a human readable report.
+   */
+  private String summarize(long elapsedNanos) {
+    long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    double seconds = elapsedNanos / 1e9;
+    StringBuilder sb = new StringBuilder();
+    sb.append("games finished = ").append(finishedGames.get())
+        .append(", failed = ").append(failedGames.get()).append("\n");
+    sb.append("moves = ").append(all.length)
+        .append(String.format(", %.1f moves/sec over %.2f s%n", all.length / seconds, seconds));
+    if (all.length > 0) {
+      sb.append(String.format("latency p50 = %.3f ms, p99 = %.3f ms, max = %.3f ms%n",
+          percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[all.length - 1] / 1e6));
+    }
+    return sb.toString();
+  }
+
+  private static long percentile(long[] sorted, double fraction) {
+    int index = (int) Math.ceil(fraction * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+
+  /**
+   * Runs the load generator from the command line.
+   *
+   * <p>Arguments: [games] [shape] [size] [strategy] [host] [port]. Without a port an
+   * in-process server is started on a free port, so one box can be measured on its own.</p>
+   *
+   * @param args the command line arguments, all optional.
+   * @throws Exception if the server cannot be started or the run is interrupted.
+   */
+  public static void main(String[] args) throws Exception {
+    int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    BoardShape shape = args.length > 1 ? BoardShape.parse(args[1]) : BoardShape.HEXAGON;
+    int size = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+    String strategy = args.length > 3 ? args[3] : "strategy1";
+    String host = args.length > 4 ? args[4] : "localhost";
+    ReversiServer embedded = null;
+    int port;
+    if (args.length > 5) {
+      port = Integer.parseInt(args[5]);
+    } else {
+      embedded = new ReversiServer(0);
+      embedded.start();
+      port = embedded.getPort();
+    }
+    try {
+      LoadGenerator generator = new LoadGenerator(host, port, shape, size, strategy);
+      System.out.print(generator.run(games));
+    } finally {
+      if (embedded != null) {
+        embedded.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package cs3500.reversi.server;
+
+import cs3500.reversi.metrics.MetricsServer;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.strategy.Strategies;
+import cs3500.reversi.time.GameClock;
+import cs3500.reversi.time.TimeManager;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A local TCP server that hosts many independent games of Reversi at once.
+ *
+ * <p>Every connection is served on its own thread and plays one game at a time against an
+ * AI player. The protocol is line based; each command gets exactly one line back:</p>
+ * <pre>
+ *   NEW shape size strategy [black|white]  -> READY | MOVE q r | PASS | OVER b w | ERR msg
+ *   PLAY q r                               -> MOVE q r | PASS | OVER b w | ERR msg
+ *   PASS                                   -> MOVE q r | PASS | OVER b w | ERR msg
+ *   STATE                                  -> STATE player b w cells
+ *   QUIT                                   -> BYE
+ * </pre>
+ * <p>MOVE and PASS describe the AI player's answer, OVER gives the final scores of black and
+ * white. The strategy is one of the names accepted on the command line, e.g. strategy1. If a
+ * strategy or game fails, the command gets an ERR reply and the connection stays open. A game
+ * whose AI player failed is abandoned and rejects further moves.</p>
+ *
+ * <p>Every game gets a clock of {@link #GAME_MILLIS} per player plus {@link #INCREMENT_MILLIS}
+ * per move, and no AI reply may take longer than the server's reply limit. Strategies that
+ * search, like strategy5, fit their search into that; the simple ones answer well within
+ * it.</p>
+ */
+public class ReversiServer implements Closeable {
+  /**
+   * The time each player starts a game with.
+   */
+  public static final long GAME_MILLIS = 60_000;
+
+  /**
+   * The time added to a player's clock after each of their moves.
+   */
+  public static final long INCREMENT_MILLIS = 500;
+
+  /**
+   * The reply limit used when none is given.
+   */
+  public static final long DEFAULT_REPLY_MILLIS = 1_000;
+
+  private final ServerSocket serverSocket;
+  private final ExecutorService connections;
+  private final TimeManager timeManager;
+
+  /**
+   * Constructs a server listening on the loopback interface, with the default reply limit.
+   *
+   * @param port the port to listen on, or 0 to pick any free port.
+   * @throws IOException if the port cannot be bound.
+   */
+  public ReversiServer(int port) throws IOException {
+    this(port, DEFAULT_REPLY_MILLIS);
+  }
+
+  /**
+   * Constructs a server listening on the loopback interface.
+   *
+   * @param port        the port to listen on, or 0 to pick any free port.
+   * @param replyMillis the longest the AI player may think about a reply.
+   * @throws IOException              if the port cannot be bound.
+   * @throws IllegalArgumentException if the reply limit is too short to search at all.
+   */
+  public ReversiServer(int port, long replyMillis) throws IOException {
+    this.timeManager = new TimeManager(replyMillis);
+    this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+    this.connections = ConnectionExecutors.newThreadPerTaskExecutor("reversi-connection");
+  }
+
+  /**
+   * Gets the port this server is listening on.
+   *
+   * @return the local port of the server socket.
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Accepts connections until the server is closed. Blocks the calling thread.
+   */
+  public void serve() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        connections.execute(() -> handleConnection(socket));
+      } catch (IOException e) {
+        // the server socket was closed, or this one connection could not be set up
+        if (serverSocket.isClosed()) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Starts accepting connections on a background thread.
+   */
+  public void start() {
+    Thread acceptor = new Thread(this::serve, "reversi-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Stops accepting connections and abandons the games in progress.
+   */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    connections.shutdownNow();
+  }
+
+  /**
+   * Reads commands from one client until it quits or disconnects.
+   *
+   * @param socket the client's socket.
+   */
+  private void handleConnection(Socket socket) {
+    try (socket;
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+      GameSession session = null;
+      String line;
+      while ((line = in.readLine()) != null) {
+        String[] words = line.trim().split("\\s+");
+        String reply;
+        if (words[0].equalsIgnoreCase("QUIT")) {
+          out.write("BYE\n");
+          out.flush();
+          return;
+        } else if (words[0].equalsIgnoreCase("NEW")) {
+          session = null;
+          GameSession created;
+          try {
+            created = newSession(words);
+          } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            created = null;
+          }
+          if (created == null) {
+            reply = "ERR usage: NEW shape size strategy [black|white]";
+          } else {
+            try {
+              reply = created.start();
+              session = created;
+            } catch (RuntimeException e) {
+              // the game could not start, so there is no game to continue
+              reply = error(e);
+            }
+          }
+        } else if (session == null) {
+          reply = "ERR no game in progress";
+        } else {
+          try {
+            reply = handleCommand(session, words);
+          } catch (RuntimeException e) {
+            // the client can still ask for the game's state or start another
+            reply = error(e);
+          }
+        }
+        out.write(reply);
+        out.write('\n');
+        out.flush();
+      }
+    } catch (SocketException e) {
+      // the client disconnected or the server is shutting down, the game is abandoned
+    } catch (IOException e) {
+      // nothing can be reported to a client whose connection failed
+    }
+  }
+
+  /**
+   * Describes a failure of a strategy or game as an ERR line.
+   *
+   * @param e the failure.
+   * @return the reply line.
+   */
+  private static String error(RuntimeException e) {
+    String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+    return "ERR " + message.replace('\r', ' ').replace('\n', ' ');
+  }
+
+  /**
+   * Creates a new game from the words of a NEW command.
+   *
+   * @param words the words of the command.
+   * @return the new session.
+   * @throws IllegalArgumentException if the shape, size, strategy or color is invalid.
+   */
+  private GameSession newSession(String[] words) {
+    BoardShape shape = BoardShape.parse(words[1]);
+    int size = Integer.parseInt(words[2]);
+    HexagonPlayer clientColor = HexagonPlayer.BLACK;
+    if (words.length > 4) {
+      clientColor = HexagonPlayer.valueOf(words[4].toUpperCase());
+    }
+    String strategy = words[3].toLowerCase();
+    return new GameSession(shape, size, Strategies.named(strategy), strategy, clientColor,
+        new GameClock(GAME_MILLIS, INCREMENT_MILLIS), timeManager);
+  }
+
+  /**
+   * Applies a PLAY, PASS or STATE command to a game in progress.
+   *
+   * @param session the game in progress.
+   * @param words   the words of the command.
+   * @return the reply line.
+   */
+  private static String handleCommand(GameSession session, String[] words) {
+    switch (words[0].toUpperCase()) {
+      case "PLAY":
+        try {
+          return session.play(Integer.parseInt(words[1]), Integer.parseInt(words[2]));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+          return "ERR usage: PLAY q r";
+        }
+      case "PASS":
+        return session.pass();
+      case "STATE":
+        return session.state();
+      default:
+        return "ERR unknown command " + words[0];
+    }
+  }
+
+  /**
+   * Runs the server until the process is killed.
+   *
+   * @param args optionally the port to listen on, 7777 by default, and the reply limit in
+   *             milliseconds.
+   * @throws IOException if the port cannot be bound.
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+    long replyMillis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_REPLY_MILLIS;
+    ReversiServer server = new ReversiServer(port, replyMillis);
+    MetricsServer metrics = MetricsServer.startIfConfigured();
+    if (metrics != null) {
+      System.out.println("Metrics served on port " + metrics.getPort());
+    }
+    System.out.println("Reversi server listening on port " + server.getPort());
+    server.serve();
+  }
+}
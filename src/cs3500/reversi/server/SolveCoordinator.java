@@ -0,0 +1,542 @@
+package cs3500.reversi.server;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardSymmetries;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.ReversiBoard;
+import cs3500.reversi.search.AlphaBetaSearch;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Solves a position exactly with the help of {@link SolveWorker}s running in other processes,
+ * on this host or others.
+ *
+ * <p>The coordinator plays out every line of a shallow tree from the position, and every
+ * position at its leaves that is not a finished game becomes a job; rotations and reflections
+ * of a position are the same job. Workers connect and pull jobs over a line based protocol:</p>
+ * <pre>
+ *   JOB              -> SOLVE id shape size side cells | WAIT | DONE
+ *   RESULT id score  -> OK | ERR msg
+ *   QUIT             -> BYE
+ * </pre>
+ * <p>The cells are one digit per cell id, 0 for empty, 1 for black and 2 for white, and side is
+ * the color to move. A score is the exact final score for the side to move, as
+ * {@link AlphaBetaSearch#finalScore(CompactBoard)} gives it. WAIT means that every open job is
+ * handed out and the worker should ask again shortly, DONE that everything is solved.</p>
+ *
+ * <p>A job handed out is leased to its connection. If the connection drops, its jobs go back to
+ * the queue at once; if a worker stays connected but has not answered when the lease runs out,
+ * the job is handed out again to the next worker that asks, and the first result wins. Every
+ * result is appended to a checkpoint file as it arrives, so a coordinator started again on the
+ * same file only hands out the jobs that are not solved yet.</p>
+ *
+ * <p>Once every job is solved, the shallow tree is minimaxed from the results for the best move
+ * and its score, with ties going to the lowest cell id as in {@link AlphaBetaSearch}.</p>
+ */
+public class SolveCoordinator implements Closeable {
+  /**
+   * The time a worker has for a job before it is handed out again, when none is given.
+   */
+  public static final long DEFAULT_LEASE_MILLIS = 600_000;
+
+  private static final String CHECKPOINT_MAGIC = "RVDS";
+
+  private final CompactBoard root;
+  private final int plies;
+  private final BoardSymmetries symmetries;
+  private final byte[] cells;
+  private final Map<Long, Integer> jobIds = new HashMap<>();
+  private final List<CompactBoard> jobs = new ArrayList<>();
+  private final int[] results;
+  private final boolean[] solved;
+  private final long[] leaseExpiry;
+  // the set of jobs of the connection holding each lease
+  private final Object[] holders;
+  private final Deque<Integer> open = new ArrayDeque<>();
+  private final long leaseMillis;
+  private final Writer checkpoint;
+  private final ServerSocket serverSocket;
+  private final ExecutorService connections;
+  private int solvedCount;
+
+  /**
+   * Constructs a coordinator listening on the loopback interface, with the default lease.
+   *
+   * @param root       the position to solve, copied.
+   * @param plies      the depth of the tree played out into jobs, at least 1.
+   * @param checkpoint the checkpoint file, continued if it exists, or null for none.
+   * @param port       the port to listen on, or 0 to pick any free port.
+   * @throws IOException              if the port cannot be bound or the checkpoint is unusable.
+   * @throws IllegalArgumentException if plies is less than 1.
+   */
+  public SolveCoordinator(CompactBoard root, int plies, Path checkpoint, int port)
+      throws IOException {
+    this(root, plies, checkpoint, InetAddress.getLoopbackAddress(), port, DEFAULT_LEASE_MILLIS);
+  }
+
+  /**
+   * Constructs a coordinator.
+   *
+   * @param root        the position to solve, copied.
+   * @param plies       the depth of the tree played out into jobs, at least 1.
+   * @param checkpoint  the checkpoint file, continued if it exists, or null for none.
+   * @param address     the address to listen on.
+   * @param port        the port to listen on, or 0 to pick any free port.
+   * @param leaseMillis the time a worker has for a job before it is handed out again.
+   * @throws IOException              if the port cannot be bound, or the checkpoint cannot be
+   *                                  read or is for another position.
+   * @throws IllegalArgumentException if plies or the lease is less than 1.
+   */
+  public SolveCoordinator(CompactBoard root, int plies, Path checkpoint, InetAddress address,
+      int port, long leaseMillis) throws IOException {
+    if (plies < 1 || leaseMillis < 1) {
+      throw new IllegalArgumentException("plies and lease must be positive");
+    }
+    this.root = root.copy();
+    this.plies = plies;
+    this.symmetries = BoardSymmetries.of(root.getTopology());
+    this.cells = new byte[root.getTopology().getCellCount()];
+    this.leaseMillis = leaseMillis;
+    expand(this.root, plies);
+    this.results = new int[jobs.size()];
+    this.solved = new boolean[jobs.size()];
+    this.leaseExpiry = new long[jobs.size()];
+    this.holders = new Object[jobs.size()];
+    this.checkpoint = checkpoint == null ? null : openCheckpoint(checkpoint);
+    for (int id = 0; id < jobs.size(); id++) {
+      if (!solved[id]) {
+        open.add(id);
+      }
+    }
+    try {
+      this.serverSocket = new ServerSocket(port, 1024, address);
+    } catch (IOException e) {
+      if (this.checkpoint != null) {
+        this.checkpoint.close();
+      }
+      throw e;
+    }
+    this.connections = ConnectionExecutors.newThreadPerTaskExecutor("reversi-solve");
+  }
+
+  /**
+   * Adds a job for every unfinished position the given number of plies from a position. A pass
+   * does not count as a ply.
+   */
+  private void expand(CompactBoard board, int depth) {
+    if (board.isGameOver()) {
+      return;
+    }
+    if (depth == 0) {
+      long hash = canonicalHash(board);
+      if (!jobIds.containsKey(hash)) {
+        jobIds.put(hash, jobs.size());
+        jobs.add(board.copy());
+      }
+      return;
+    }
+    int[] moves = new int[cells.length];
+    int count = board.legalMoves(moves);
+    if (count == 0) {
+      board.pass();
+      expand(board, depth);
+      board.undo();
+      return;
+    }
+    for (int i = 0; i < count; i++) {
+      board.play(moves[i]);
+      expand(board, depth - 1);
+      board.undo();
+    }
+  }
+
+  private long canonicalHash(CompactBoard board) {
+    board.copyCells(cells);
+    return symmetries.canonicalHash(cells, board.getSideToMove());
+  }
+
+  /**
+   * Reads the results of an earlier run from a checkpoint, or starts a new one, and opens it
+   * for appending. A last line cut short by a crash is cut off.
+   *
+   * @throws IOException if the file cannot be read or written, or is for another solve.
+   */
+  private Writer openCheckpoint(Path file) throws IOException {
+    String header = CHECKPOINT_MAGIC + " " + describe(root) + " " + plies;
+    if (Files.exists(file)) {
+      String[] lines = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII)
+          .split("\n", -1);
+      if (!lines[0].equals(header)) {
+        throw new IOException("checkpoint is for another solve: " + file);
+      }
+      // the last piece is what follows the last newline: nothing, or a line cut short
+      for (int i = 1; i < lines.length - 1; i++) {
+        String[] words = lines[i].split(" ");
+        try {
+          Integer id = jobIds.get(Long.parseLong(words[0]));
+          if (id != null && !solved[id]) {
+            results[id] = Integer.parseInt(words[1]);
+            solved[id] = true;
+            solvedCount++;
+          }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+          throw new IOException("corrupt checkpoint line " + (i + 1) + ": " + file);
+        }
+      }
+      String cut = lines[lines.length - 1];
+      if (!cut.isEmpty()) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+          channel.truncate(channel.size() - cut.length());
+        }
+      }
+      return Files.newBufferedWriter(file, StandardCharsets.US_ASCII,
+          StandardOpenOption.APPEND);
+    }
+    Writer out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII);
+    out.write(header);
+    out.write('\n');
+    out.flush();
+    return out;
+  }
+
+  /**
+   * Describes a position the way a SOLVE line does: shape, size, side to move and cells.
+   */
+  private static String describe(CompactBoard board) {
+    BoardTopology topology = board.getTopology();
+    StringBuilder line = new StringBuilder();
+    line.append(topology.getShape()).append(' ').append(topology.getSize()).append(' ')
+        .append(board.getSideToMove()).append(' ');
+    for (int cell = 0; cell < topology.getCellCount(); cell++) {
+      line.append(board.get(cell));
+    }
+    return line.toString();
+  }
+
+  /**
+   * Gets the port this coordinator is listening on.
+   *
+   * @return the local port of the server socket.
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Gets the number of jobs the position was split into.
+   *
+   * @return the number of distinct positions at the leaves of the shallow tree.
+   */
+  public int getJobCount() {
+    return jobs.size();
+  }
+
+  /**
+   * Gets the number of jobs solved so far, including those read from the checkpoint.
+   *
+   * @return the number of solved jobs.
+   */
+  public synchronized int getSolvedCount() {
+    return solvedCount;
+  }
+
+  /**
+   * Starts accepting workers on a background thread.
+   */
+  public void start() {
+    Thread acceptor = new Thread(() -> {
+      while (!serverSocket.isClosed()) {
+        try {
+          Socket socket = serverSocket.accept();
+          socket.setTcpNoDelay(true);
+          connections.execute(() -> handleConnection(socket));
+        } catch (IOException e) {
+          // the server socket was closed, or this one connection could not be set up
+        }
+      }
+    }, "reversi-solve-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Waits until every job is solved.
+   *
+   * @param timeoutMillis the longest to wait.
+   * @return true if every job is solved.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public synchronized boolean awaitSolved(long timeoutMillis) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (solvedCount < jobs.size()) {
+      long left = deadline - System.currentTimeMillis();
+      if (left <= 0) {
+        return false;
+      }
+      wait(left);
+    }
+    return true;
+  }
+
+  /**
+   * Gets the best move of the position, once every job is solved. Of equally good moves the
+   * one on the lowest cell id is chosen.
+   *
+   * @return the cell id of the best move, or {@link CompactBoard#PASS} if there is none.
+   * @throws IllegalStateException if some job is not solved yet.
+   */
+  public synchronized int getBestMove() {
+    checkSolved();
+    int[] moves = new int[cells.length];
+    int count = root.legalMoves(moves);
+    int best = CompactBoard.PASS;
+    int bestValue = -AlphaBetaSearch.INFINITY;
+    for (int i = 0; i < count; i++) {
+      root.play(moves[i]);
+      int value = -value(root, plies - 1);
+      root.undo();
+      if (value > bestValue) {
+        bestValue = value;
+        best = moves[i];
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Gets the score of the position, once every job is solved.
+   *
+   * @return the exact final score for the side to move.
+   * @throws IllegalStateException if some job is not solved yet.
+   */
+  public synchronized int getScore() {
+    checkSolved();
+    return value(root, plies);
+  }
+
+  private void checkSolved() {
+    if (solvedCount < jobs.size()) {
+      throw new IllegalStateException((jobs.size() - solvedCount) + " jobs are not solved");
+    }
+  }
+
+  /**
+   * Minimaxes the shallow tree below a position from the results of its jobs.
+   */
+  private int value(CompactBoard board, int depth) {
+    if (board.isGameOver()) {
+      return AlphaBetaSearch.finalScore(board);
+    }
+    if (depth == 0) {
+      return results[jobIds.get(canonicalHash(board))];
+    }
+    int[] moves = new int[cells.length];
+    int count = board.legalMoves(moves);
+    if (count == 0) {
+      board.pass();
+      int value = -value(board, depth);
+      board.undo();
+      return value;
+    }
+    int best = -AlphaBetaSearch.INFINITY;
+    for (int i = 0; i < count; i++) {
+      board.play(moves[i]);
+      best = Math.max(best, -value(board, depth - 1));
+      board.undo();
+    }
+    return best;
+  }
+
+  /**
+   * Stops accepting workers and closes the checkpoint. Results that arrive later are lost.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    serverSocket.close();
+    connections.shutdownNow();
+    if (checkpoint != null) {
+      checkpoint.close();
+    }
+  }
+
+  /**
+   * Serves one worker until it quits or disconnects, and then gives up its leases.
+   *
+   * @param socket the worker's socket.
+   */
+  private void handleConnection(Socket socket) {
+    Set<Integer> leased = new HashSet<>();
+    try (socket;
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        String[] words = line.trim().split("\\s+");
+        String reply;
+        switch (words[0].toUpperCase()) {
+          case "JOB":
+            reply = lease(leased);
+            break;
+          case "RESULT":
+            try {
+              reply = complete(Integer.parseInt(words[1]), Integer.parseInt(words[2]), leased);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+              reply = "ERR usage: RESULT id score";
+            }
+            break;
+          case "QUIT":
+            out.write("BYE\n");
+            out.flush();
+            return;
+          default:
+            reply = "ERR unknown command " + words[0];
+        }
+        out.write(reply);
+        out.write('\n');
+        out.flush();
+      }
+    } catch (SocketException e) {
+      // the worker died or the coordinator is shutting down
+    } catch (IOException e) {
+      // nothing can be reported to a worker whose connection failed
+    } finally {
+      release(leased);
+    }
+  }
+
+  /**
+   * Hands out the next open job, or a job whose lease ran out.
+   */
+  private synchronized String lease(Set<Integer> leased) {
+    if (solvedCount == jobs.size()) {
+      return "DONE";
+    }
+    Integer id = open.poll();
+    while (id != null && solved[id]) {
+      id = open.poll();
+    }
+    if (id == null) {
+      long now = System.currentTimeMillis();
+      for (int job = 0; job < jobs.size() && id == null; job++) {
+        if (!solved[job] && leaseExpiry[job] != 0 && leaseExpiry[job] <= now) {
+          id = job;
+        }
+      }
+      if (id == null) {
+        return "WAIT";
+      }
+    }
+    leaseExpiry[id] = System.currentTimeMillis() + leaseMillis;
+    holders[id] = leased;
+    leased.add(id);
+    return "SOLVE " + id + " " + describe(jobs.get(id));
+  }
+
+  /**
+   * Records the result of a job, unless another worker's result came first.
+   */
+  private synchronized String complete(int id, int score, Set<Integer> leased)
+      throws IOException {
+    if (id < 0 || id >= jobs.size()) {
+      return "ERR no job " + id;
+    }
+    leased.remove(id);
+    if (!solved[id]) {
+      results[id] = score;
+      solved[id] = true;
+      solvedCount++;
+      if (checkpoint != null) {
+        checkpoint.write(canonicalHash(jobs.get(id)) + " " + score + "\n");
+        checkpoint.flush();
+      }
+      if (solvedCount == jobs.size()) {
+        notifyAll();
+      }
+    }
+    return "OK";
+  }
+
+  /**
+   * Puts the unsolved jobs of a connection that is gone back at the front of the queue.
+   */
+  private synchronized void release(Set<Integer> leased) {
+    for (int id : leased) {
+      if (!solved[id] && holders[id] == leased) {
+        leaseExpiry[id] = 0;
+        holders[id] = null;
+        open.addFirst(id);
+      }
+    }
+  }
+
+  /**
+   * Solves a position from the command line, printing progress until it is solved.
+   *
+   * <p>Options, all optional: --shape square, --size 6, --moves (cell ids played from the
+   * start, separated by commas), --plies 4, --port 7878, --bind (the loopback address; 0.0.0.0
+   * for workers on other hosts), --lease (seconds) and --checkpoint solve.checkpoint.</p>
+   *
+   * @param args the command line options.
+   * @throws IOException          if the port cannot be bound or the checkpoint is unusable.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    BoardShape shape = BoardShape.parse(options.getOrDefault("shape", "square"));
+    ReversiBoard model = shape.newBoard(Integer.parseInt(options.getOrDefault("size", "6")));
+    model.startGame();
+    CompactBoard board = CompactBoard.of(model);
+    for (String move : options.getOrDefault("moves", "").split(",")) {
+      if (!move.isEmpty()) {
+        board.play(Integer.parseInt(move));
+      }
+    }
+    InetAddress address = options.containsKey("bind")
+        ? InetAddress.getByName(options.get("bind")) : InetAddress.getLoopbackAddress();
+    try (SolveCoordinator coordinator = new SolveCoordinator(board,
+        Integer.parseInt(options.getOrDefault("plies", "4")),
+        Paths.get(options.getOrDefault("checkpoint", "solve.checkpoint")), address,
+        Integer.parseInt(options.getOrDefault("port", "7878")),
+        Long.parseLong(options.getOrDefault("lease", String.valueOf(DEFAULT_LEASE_MILLIS / 1000)))
+            * 1000)) {
+      coordinator.start();
+      System.out.printf("%d jobs, %d solved already, listening on port %d%n",
+          coordinator.getJobCount(), coordinator.getSolvedCount(), coordinator.getPort());
+      while (!coordinator.awaitSolved(10_000)) {
+        System.out.printf("%d of %d jobs solved%n", coordinator.getSolvedCount(),
+            coordinator.getJobCount());
+      }
+      System.out.printf("best move %d, score %d%n", coordinator.getBestMove(),
+          coordinator.getScore());
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package cs3500.reversi.server;
+
+import cs3500.reversi.model.BoardShape;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.search.ParallelSolver;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pulls jobs from a {@link SolveCoordinator}, solves them with a {@link ParallelSolver} on the
+ * cores of this process and sends back the exact scores, until the coordinator has nothing
+ * left.
+ *
+ * <p>The solver is kept from one job to the next, so positions that jobs share are solved by
+ * the worker once.</p>
+ */
+public final class SolveWorker {
+  /**
+   * How long a worker waits before asking again when every open job is handed out.
+   */
+  public static final long WAIT_MILLIS = 200;
+
+  private final String host;
+  private final int port;
+  private final int threads;
+
+  /**
+   * Constructs a worker for a coordinator.
+   *
+   * @param host    the host the coordinator runs on.
+   * @param port    the port the coordinator listens on.
+   * @param threads the number of threads to solve on.
+   * @throws IllegalArgumentException if threads is not positive.
+   */
+  public SolveWorker(String host, int port, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    this.host = host;
+    this.port = port;
+    this.threads = threads;
+  }
+
+  /**
+   * Solves jobs until the coordinator reports that everything is solved.
+   *
+   * @return the number of jobs this worker solved.
+   * @throws IOException          if the connection fails or the coordinator sends something
+   *                              unexpected.
+   * @throws InterruptedException if interrupted while waiting for a job.
+   */
+  public int run() throws IOException, InterruptedException {
+    int solved = 0;
+    try (ParallelSolver solver = new ParallelSolver(threads);
+        Socket socket = new Socket(host, port);
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+      socket.setTcpNoDelay(true);
+      while (true) {
+        String reply = request(in, out, "JOB");
+        String[] words = reply.split(" ");
+        if (words[0].equals("DONE")) {
+          request(in, out, "QUIT");
+          return solved;
+        } else if (words[0].equals("WAIT")) {
+          Thread.sleep(WAIT_MILLIS);
+        } else if (words[0].equals("SOLVE") && words.length == 6) {
+          solver.solve(parse(words));
+          reply = request(in, out, "RESULT " + words[1] + " " + solver.getScore());
+          if (!reply.equals("OK")) {
+            throw new IOException("coordinator rejected a result: " + reply);
+          }
+          solved++;
+        } else {
+          throw new IOException("unexpected reply from the coordinator: " + reply);
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the position of a SOLVE line.
+   *
+   * @param words the words of the line: SOLVE id shape size side cells.
+   * @return the position.
+   * @throws IOException if the position is not valid.
+   */
+  private static CompactBoard parse(String[] words) throws IOException {
+    try {
+      BoardTopology topology = BoardTopology.of(BoardShape.parse(words[2]),
+          Integer.parseInt(words[3]));
+      String digits = words[5];
+      if (digits.length() != topology.getCellCount()) {
+        throw new IOException("wrong number of cells in " + String.join(" ", words));
+      }
+      byte[] cells = new byte[digits.length()];
+      for (int cell = 0; cell < cells.length; cell++) {
+        cells[cell] = (byte) (digits.charAt(cell) - '0');
+        if (cells[cell] < BoardTopology.EMPTY || cells[cell] > BoardTopology.WHITE) {
+          throw new IOException("invalid cell in " + String.join(" ", words));
+        }
+      }
+      CompactBoard board = new CompactBoard(topology);
+      board.set(cells, Integer.parseInt(words[4]));
+      return board;
+    } catch (IllegalArgumentException e) {
+      throw new IOException("invalid job " + String.join(" ", words), e);
+    }
+  }
+
+  private static String request(BufferedReader in, Writer out, String command)
+      throws IOException {
+    out.write(command);
+    out.write('\n');
+    out.flush();
+    String reply = in.readLine();
+    if (reply == null) {
+      throw new IOException("coordinator closed the connection");
+    }
+    return reply;
+  }
+
+  /**
+   * Runs a worker until the coordinator is done.
+   *
+   * @param args the host and port of the coordinator, the loopback address and 7878 by
+   *             default, and the number of threads, all the processors by default.
+   * @throws IOException          if the connection fails.
+   * @throws InterruptedException if interrupted while waiting for a job.
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    String host = args.length > 0 ? args[0]
+        : InetAddress.getLoopbackAddress().getHostAddress();
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : 7878;
+    int threads = args.length > 2 ? Integer.parseInt(args[2])
+        : Runtime.getRuntime().availableProcessors();
+    int solved = new SolveWorker(host, port, threads).run();
+    System.out.println("solved " + solved + " jobs");
+  }
+}
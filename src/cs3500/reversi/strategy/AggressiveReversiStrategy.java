@@ -1,8 +1,6 @@
 package cs3500.reversi.strategy;
 
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
-import cs3500.reversi.model.Pair;
-import cs3500.reversi.model.ReversiMutableModel;
 import cs3500.reversi.model.ReversiReadOnlyModel;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,86 +9,73 @@ import java.util.List;
  * An aggressive strategy implementation for choosing moves in the Reversi game.
  * This strategy aims to maximize the number of opponent pieces flipped with each move.
  */
-public class AggressiveReversiStrategy implements ReversiStrategy {
+public class AggressiveReversiStrategy implements CandidateStrategy {
 
   /**
-   * Chooses the next move for a given player in the Reversi game based on an aggressive strategy.
+   * Chooses the move in play that flips the most pieces, the upper leftmost one in a tie.
    *
-   * @param model The read-only model of the Reversi game, providing the current game state.
-   * @param player The player (BLACK or WHITE) for whom the move is being chosen.
-   * @return A Move representing the chosen move for the player.
-   * @throws IllegalStateException If no valid moves are available.
+   * @param candidates The moves in play, left as they were.
+   * @return The id of the chosen move, or NONE if no move is in play.
    */
   @Override
-  public Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player) {
-    List<Move> validMoves = getAllValidMoves(model, player);
-    if (!validMoves.isEmpty()) {
-      return chooseBestMove(validMoves, model, player);
-    } else {
-      throw new IllegalStateException("no valid moves");
+  public int choose(Candidates candidates) {
+    int best = Candidates.NONE;
+    int bestFlips = 0;
+    for (int i = 0; i < candidates.size(); i++) {
+      int id = candidates.get(i);
+      int flipped = candidates.flips(id);
+      if (flipped > bestFlips || (flipped == bestFlips && isUpperLeftOf(candidates, id, best))) {
+        best = id;
+        bestFlips = flipped;
+      }
     }
+    return best;
   }
 
   /**
-   * Calculates the number of opponent pieces that would be flipped by playing a specific move.
-   *
-   * @param move The move to be played.
-   * @param model The game model for context.
-   * @param player The player making the move.
-   * @return The number of flipped pieces if the move is played.
+   * Determines if a move is above, or on the same row and left of, another one. Cell ids run
+   * row by row, so that is the move on the smaller cell id.
    */
-  protected static int calculateFlippedPieces(Move move,
-      ReversiReadOnlyModel model, HexagonPlayer player) {
-    ReversiMutableModel copyModel = model.mutableCopy();
-    copyModel.play(move.getQ(), move.getR(), player);
-    int newScore = copyModel.getScore(player);
-    return newScore - model.getScore(player);
+  private static boolean isUpperLeftOf(Candidates candidates, int id, int other) {
+    return other == Candidates.NONE
+        || Moves.getCell(candidates.getCode(id)) < Moves.getCell(candidates.getCode(other));
   }
 
   /**
-   * Chooses the upper leftmost move in case of a tie in the number of flipped pieces.
+   * Chooses the best move from a list of valid moves based on the aggressive strategy.
    *
-   * @param bestMove The current best move and its flipped piece count.
-   * @param increase The number of pieces flipped by the new move.
-   * @param r Row index of the new move.
-   * @param q Column index of the new move.
-   * @param move The new move being considered.
-   * @return The updated best move after considering the new move.
+   * @param moves The list of valid moves.
+   * @param model The game model for context.
+   * @param player The player making the move.
+   * @return The move that maximizes the number of flipped opponent pieces.
    */
-  protected static Pair<Move, Integer> chooseUpperLeftInTie(Pair<Move, Integer> bestMove,
-      int increase,
-      int r, int q, Move move) {
-    if (increase == bestMove.getValue()) {
-      if (bestMove.getKey() == null || r < bestMove.getKey().getR() ||
-          (r == bestMove.getKey().getR() && q < bestMove.getKey().getQ())) {
-        // update the move to the one with the uppermost-leftmost coordinate
-        bestMove = new Pair<>(move, increase);
-      }
-    }
-    return bestMove;
+  public Move chooseBestMove(List<Move> moves, ReversiReadOnlyModel model, HexagonPlayer player) {
+    return chooseBestMove(moves, model.scoreMoves(player), model.getArrayWidth());
   }
 
   /**
-   * Chooses the best move from a list of valid moves based on the aggressive strategy.
+   * Chooses the best move from a list of valid moves, given the scores of all the moves.
    *
    * @param moves The list of valid moves.
-   * @param model The game model for context.
-   * @param player The player making the move.
+   * @param scores The flip counts of the player's moves, from the model's scoreMoves.
+   * @param width The width of the board array.
    * @return The move that maximizes the number of flipped opponent pieces.
    */
-  public Move chooseBestMove(List<Move> moves, ReversiReadOnlyModel model, HexagonPlayer player) {
-    Pair<Move, Integer> bestMove = new Pair<>(null, 0);
+  protected Move chooseBestMove(List<Move> moves, int[] scores, int width) {
+    Move bestMove = null;
+    int bestFlips = 0;
 
     for (Move move : moves) {
-      int flipped = calculateFlippedPieces(move, model, player);
-      if (flipped > bestMove.getValue()) {
-        bestMove = new Pair<>(move, flipped);
-      }
-      if (flipped == bestMove.getValue()) {
-        bestMove = chooseUpperLeftInTie(bestMove, flipped, move.getR(), move.getQ(), move);
+      int flipped = scores[move.getR() * width + move.getQ()];
+      // the upper leftmost move wins a tie
+      if (flipped > bestFlips || (flipped == bestFlips && (bestMove == null
+          || move.getR() < bestMove.getR()
+          || (move.getR() == bestMove.getR() && move.getQ() < bestMove.getQ())))) {
+        bestMove = move;
+        bestFlips = flipped;
       }
     }
-    return bestMove.getKey();
+    return bestMove;
   }
 
   /**
@@ -101,18 +86,28 @@ public class AggressiveReversiStrategy implements ReversiStrategy {
    * @return A list of valid moves for the player.
    */
   protected List<Move> getAllValidMoves(ReversiReadOnlyModel model, HexagonPlayer player) {
-    List<Move> moves = new ArrayList<>();
-    int maxColRow = model.getBoardSize() * 2 - 1;
-    for (int r = 0; r < model.getArrayWidth(); r++) {
-      for (int q = 0; q < model.getArrayWidth(); q++) {
-        if (model.getHexList()[q][r] != null && model.canMove(q, r, player)) {
-          moves.add(new Move(q, r, player));
+    return getAllValidMoves(model.scoreMoves(player), Moves.of(model), player);
+  }
+
+  /**
+   * Gets a list of all valid moves for a given player from the scores of all the moves.
+   *
+   * @param scores The flip counts of the player's moves, from the model's scoreMoves.
+   * @param moves The moves of the board.
+   * @param player The player for whom to find valid moves.
+   * @return A list of the shared valid moves for the player, row by row.
+   */
+  protected List<Move> getAllValidMoves(int[] scores, Moves moves, HexagonPlayer player) {
+    List<Move> valid = new ArrayList<>();
+    int width = moves.getTopology().getWidth();
+    for (int r = 0; r < width; r++) {
+      for (int q = 0; q < width; q++) {
+        if (scores[r * width + q] > 0) {
+          valid.add(moves.get(moves.encode(q, r, player)));
         }
       }
     }
-    return moves;
+    return valid;
   }
-
-
 }
 
@@ -0,0 +1,56 @@
+package cs3500.reversi.strategy;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+
+/**
+ * A strategy that chooses from a shared set of {@link Candidates} instead of the model.
+ *
+ * <p>Stages of this kind compose without exceptions: a stage that finds nothing answers
+ * {@link Candidates#NONE} and leaves the set as it found it, so the next stage can try.
+ * {@link #chooseMove} still throws when nothing is chosen, for callers of the plain
+ * strategy interface.</p>
+ */
+public interface CandidateStrategy extends ReversiStrategy {
+
+  /**
+   * Chooses among the moves in play.
+   *
+   * @param candidates the moves in play, left as they were when this returns.
+   * @return the id of the chosen move, or {@link Candidates#NONE} if this stage chooses none.
+   */
+  int choose(Candidates candidates);
+
+  /**
+   * Chooses a move, or another stage's move if this stage finds none.
+   *
+   * @param candidates the moves in play, left as they were when this returns.
+   * @param strategy   the stage to try, which may be any strategy, or null to choose none.
+   * @return the id of the chosen move, or {@link Candidates#NONE}.
+   */
+  static int choose(Candidates candidates, ReversiStrategy strategy) {
+    if (strategy instanceof CandidateStrategy) {
+      return ((CandidateStrategy) strategy).choose(candidates);
+    }
+    if (strategy == null || candidates.size() == 0) {
+      return Candidates.NONE;
+    }
+    try {
+      Move move = strategy.chooseMove(candidates.getModel(), candidates.getPlayer());
+      return move.getPass() ? Candidates.NONE : candidates.indexOf(move.getQ(), move.getR());
+    } catch (IllegalStateException e) {
+      // strategies outside the pipeline still report finding no move by throwing
+      return Candidates.NONE;
+    }
+  }
+
+  @Override
+  default Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player) {
+    Candidates candidates = Candidates.of(model, player);
+    int id = choose(candidates);
+    if (id == Candidates.NONE) {
+      throw new IllegalStateException("no move available, must be passed");
+    }
+    return candidates.toMove(id);
+  }
+}
@@ -0,0 +1,234 @@
+package cs3500.reversi.strategy;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import java.util.function.IntPredicate;
+
+/**
+ * The legal moves of a player in one position, found once and shared by every stage of a
+ * {@link CandidateStrategy}.
+ *
+ * <p>Every legal move has a fixed id, from 0 in the order the board is scanned: row by row,
+ * left to right. Stages narrow the set to the moves still in play and restore it when they are
+ * done, so that a fallback stage sees the moves its predecessor saw. Narrowing only reorders
+ * ids within the set, it allocates nothing. The flip counts of every move come from one
+ * {@link ReversiReadOnlyModel#scoreMoves} call on the model, and every move is kept as its
+ * {@link Moves} code, so the chosen one is handed out without making a new Move.</p>
+ */
+public final class Candidates {
+  /**
+   * The id returned by a stage that chooses no move.
+   */
+  public static final int NONE = -1;
+
+  private static final int[] EMPTY = new int[0];
+
+  private final ReversiReadOnlyModel model;
+  private final HexagonPlayer player;
+  // the moves of the board, or null if there are no candidates
+  private final Moves moves;
+  // the code of every move, by id
+  private final int[] codes;
+  private final int[] flips;
+  // the ids of the moves in play, in the first size entries
+  private final int[] active;
+  private int size;
+
+  private Candidates(ReversiReadOnlyModel model, HexagonPlayer player, Moves moves,
+      int[] codes, int[] flips) {
+    this.model = model;
+    this.player = player;
+    this.moves = moves;
+    this.codes = codes;
+    this.flips = flips;
+    this.active = new int[codes.length];
+    for (int id = 0; id < codes.length; id++) {
+      active[id] = id;
+    }
+    this.size = codes.length;
+  }
+
+  /**
+   * Finds the legal moves of a player. A player who is not to move has none, since the model
+   * would not accept their move.
+   *
+   * @param model  the game.
+   * @param player the player to find moves for.
+   * @return the candidates, all in play.
+   */
+  public static Candidates of(ReversiReadOnlyModel model, HexagonPlayer player) {
+    if (model.getCurrentPlayer() != player) {
+      return new Candidates(model, player, null, EMPTY, EMPTY);
+    }
+    int[] scores = model.scoreMoves(player);
+    int count = 0;
+    for (int score : scores) {
+      if (score > 0) {
+        count++;
+      }
+    }
+    Moves moves = Moves.of(model);
+    int width = model.getArrayWidth();
+    int[] codes = new int[count];
+    int[] flips = new int[count];
+    for (int index = 0, id = 0; id < count; index++) {
+      if (scores[index] > 0) {
+        codes[id] = moves.encode(index % width, index / width, player);
+        flips[id] = scores[index];
+        id++;
+      }
+    }
+    return new Candidates(model, player, moves, codes, flips);
+  }
+
+  public ReversiReadOnlyModel getModel() {
+    return model;
+  }
+
+  public HexagonPlayer getPlayer() {
+    return player;
+  }
+
+  /**
+   * Gets the number of moves in play.
+   *
+   * @return the size of the current set.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets a move in play.
+   *
+   * @param index a position in the current set, from 0 to size() - 1.
+   * @return the id of the move.
+   */
+  public int get(int index) {
+    return active[index];
+  }
+
+  /**
+   * Gets the {@link Moves} code of a move.
+   *
+   * @param id the id of the move.
+   * @return the move code.
+   */
+  public int getCode(int id) {
+    return codes[id];
+  }
+
+  public int getQ(int id) {
+    return moves.getQ(codes[id]);
+  }
+
+  public int getR(int id) {
+    return moves.getR(codes[id]);
+  }
+
+  /**
+   * Gets the number of opponent discs a move flips, not counting the placed one.
+   *
+   * @param id the id of the move.
+   * @return the number of flipped discs.
+   */
+  public int flips(int id) {
+    return flips[id];
+  }
+
+  /**
+   * Finds the id of the move at a position.
+   *
+   * @param q the q coordinate.
+   * @param r the r coordinate.
+   * @return the id, or {@link #NONE} if there is no legal move there.
+   */
+  public int indexOf(int q, int r) {
+    for (int id = 0; id < codes.length; id++) {
+      if (getQ(id) == q && getR(id) == r) {
+        return id;
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Keeps only the moves in play that pass a test.
+   *
+   * @param keep tests the id of a move.
+   * @return the size before narrowing, to pass to {@link #restore(int)}.
+   */
+  public int narrow(IntPredicate keep) {
+    int before = size;
+    for (int i = 0; i < size; ) {
+      if (keep.test(active[i])) {
+        i++;
+      } else {
+        drop(i);
+      }
+    }
+    return before;
+  }
+
+  /**
+   * Keeps only the moves in play that pass a test of the candidates and the move's id. A
+   * filter that captures nothing is created once, so narrowing with it allocates nothing.
+   *
+   * @param keep tests a move.
+   * @return the size before narrowing, to pass to {@link #restore(int)}.
+   */
+  public int narrow(Filter keep) {
+    int before = size;
+    for (int i = 0; i < size; ) {
+      if (keep.test(this, active[i])) {
+        i++;
+      } else {
+        drop(i);
+      }
+    }
+    return before;
+  }
+
+  /**
+   * Swaps the move at a position of the set just past its end.
+   */
+  private void drop(int index) {
+    int dropped = active[index];
+    active[index] = active[--size];
+    active[size] = dropped;
+  }
+
+  /**
+   * Undoes the narrowing since a size returned by one of the narrow methods.
+   *
+   * @param before the size to go back to.
+   */
+  public void restore(int before) {
+    size = before;
+  }
+
+  /**
+   * Gets the move with an id.
+   *
+   * @param id the id of the move.
+   * @return the shared move, played by the player.
+   */
+  public Move toMove(int id) {
+    return moves.get(codes[id]);
+  }
+
+  /**
+   * Tests a move of a set of candidates.
+   */
+  public interface Filter {
+
+    /**
+     * Tests a move.
+     *
+     * @param candidates the candidates the move is one of.
+     * @param id         the id of the move.
+     * @return true to keep the move in play.
+     */
+    boolean test(Candidates candidates, int id);
+  }
+}
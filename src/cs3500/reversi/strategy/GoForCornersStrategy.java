@@ -1,63 +1,35 @@
 package cs3500.reversi.strategy;
 
-import static cs3500.reversi.strategy.AvoidCornersStrategy.getCornerPairs;
-
-import cs3500.reversi.model.Hexagon.HexagonPlayer;
-import cs3500.reversi.model.Pair;
-import cs3500.reversi.model.ReversiReadOnlyModel;
-import java.util.ArrayList;
-import java.util.List;
+import cs3500.reversi.model.BoardTopology;
 
 /**
  * A strategy implementation for the Reversi game that prioritizes capturing corner positions.
  * Corner positions are often advantageous in Reversi, as they cannot be flipped once captured.
+ *
+ * <p>The corners are those of the board's {@link BoardTopology}: six on a hexagonal board and
+ * four on a square one.</p>
  */
-public class GoForCornersStrategy implements ReversiStrategy {
+public class GoForCornersStrategy implements CandidateStrategy {
+  private static final AggressiveReversiStrategy AGGRESSIVE = new AggressiveReversiStrategy();
+  private static final Candidates.Filter ON_CORNER = (candidates, id) -> {
+    BoardTopology topology = BoardTopology.of(candidates.getModel());
+    return topology.isCorner(topology.cellId(candidates.getQ(id), candidates.getR(id)));
+  };
 
   /**
-   * Chooses the next move for a given player in the Reversi game, prioritizing corner moves.
+   * Chooses the corner move flipping the most pieces among the moves in play.
    *
-   * @param model The read-only model of the Reversi game, providing the current game state.
-   * @param player The player (BLACK or WHITE) for whom the move is being chosen.
-   * @return A Move representing the chosen move for the player.
-   * @throws IllegalStateException If no valid moves are available.
+   * @param candidates The moves in play, left as they were.
+   * @return The id of the chosen move, or NONE if no corner move is in play.
    */
   @Override
-  public Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player) {
-    AggressiveReversiStrategy aggressiveStrat = new AggressiveReversiStrategy();
-    List<Pair<Integer, Integer>> corners = getCornerPairs(model.getBoardSize());
-    List<Move> validMoves = aggressiveStrat.getAllValidMoves(model, player);
-
-    // if there are corner moves pick from them:
-    List<Move> cornerMoves = findCornerMoves(validMoves, corners);
-
-    // choose the best corner move
-    if (!cornerMoves.isEmpty()) {
-      return aggressiveStrat.chooseBestMove(cornerMoves, model, player);
-    }
-    else {
-      throw new IllegalStateException("there are no valid moves here");
-    }
-
-  }
-
-  /**
-   * Finds moves that target corner positions.
-   *
-   * @param moves The list of potential moves.
-   * @param corners The list of corner coordinates.
-   * @return A list of moves that target the corners.
-   */
-  private List<Move> findCornerMoves(List<Move> moves, List<Pair<Integer, Integer>> corners) {
-    List<Move> cornerMoves = new ArrayList<>();
-    for (Move move : moves) {
-      for (Pair<Integer, Integer> pair : corners) {
-        if ((move.getQ() == pair.getKey()) && (move.getR() == pair.getValue())) {
-          cornerMoves.add(new Move(move.getQ(), move.getR(), move.getPlayer()));
-        }
-      }
+  public int choose(Candidates candidates) {
+    int before = candidates.narrow(ON_CORNER);
+    try {
+      return AGGRESSIVE.choose(candidates);
+    } finally {
+      candidates.restore(before);
     }
-    return cornerMoves;
   }
 
 }
@@ -1,5 +1,7 @@
 package cs3500.reversi.strategy;
 
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.CompactBoard;
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
 import cs3500.reversi.model.ReversiBoard;
 import cs3500.reversi.model.ReversiReadOnlyModel;
@@ -37,12 +39,19 @@ public class MinimaxStrategy implements ReversiStrategy {
     Move opponentsBestMove = findOtherPlayerMove(otherPlayer, model);
 
     AggressiveReversiStrategy strat = new AggressiveReversiStrategy();
-    // find all possible moves:
-    List<Move> validMoves = strat.getAllValidMoves(model, player);
-    List<Move> moveToBeMade = findMatchingMove(model, validMoves, opponentsBestMove);
+    // score all possible moves once, to find them and to choose between them:
+    int[] scores = model.scoreMoves(player);
+    List<Move> validMoves = strat.getAllValidMoves(scores, Moves.of(model), player);
+    // one scratch copy of the position to try every move on
+    BoardTopology topology = BoardTopology.of(model);
+    byte[] position = new byte[topology.getCellCount()];
+    topology.readCells(model, position);
+    CompactBoard board = new CompactBoard(topology);
+    board.set(position, BoardTopology.colorOf(player));
+    List<Move> moveToBeMade = findMatchingMove(board, validMoves, opponentsBestMove);
 
     if (!moveToBeMade.isEmpty()) {
-      return strat.chooseBestMove(moveToBeMade, model, player);
+      return strat.chooseBestMove(moveToBeMade, scores, model.getArrayWidth());
     }
     else {
       throw new IllegalStateException("no matching move in MinOpponentMaxMove");
@@ -53,19 +62,19 @@ public class MinimaxStrategy implements ReversiStrategy {
   /**
    * Finds moves that counter the opponent's best move.
    *
-   * @param model            the current state of the game.
+   * @param board            the current position, with the player to move.
    * @param validMoves       list of valid moves for the player.
    * @param opponentsBestMove the best move of the opponent.
    * @return a list of moves that effectively disrupt the opponent's strategy.
    */
-  private List<Move> findMatchingMove(ReversiReadOnlyModel model,
+  private List<Move> findMatchingMove(CompactBoard board,
       List<Move> validMoves, Move opponentsBestMove) {
     List<Move> disruptiveMoves = new ArrayList<>();
     for (Move move : validMoves) {
       if ((move.getQ() == opponentsBestMove.getQ()) && (move.getR() == opponentsBestMove.getR())) {
         disruptiveMoves.add(move);
       }
-      if (disruptsOtherPlayerMove(model, move, opponentsBestMove)) {
+      if (disruptsOtherPlayerMove(board, move, opponentsBestMove)) {
         disruptiveMoves.add(move);
       }
     }
@@ -93,24 +102,22 @@ public class MinimaxStrategy implements ReversiStrategy {
   }
 
   /**
-   * Checks if a move disrupts the other player's move.
+   * Checks if a move disrupts the other player's move, by playing it on the scratch board and
+   * taking it back.
    *
-   * @param model          the game model.
+   * @param board          the current position, with the player to move, left as it was.
    * @param move           the player's move.
    * @param otherPlayerMove the opponent's move.
    * @return true if the move disrupts the opponent's move, false otherwise.
    */
-  private boolean disruptsOtherPlayerMove(ReversiReadOnlyModel model,
+  private boolean disruptsOtherPlayerMove(CompactBoard board,
       Move move, Move otherPlayerMove) {
-    ReversiBoard copyModel = new ReversiBoard(model);
-    copyModel.play(move.getQ(), move.getR(), move.getPlayer());
-    try {
-      copyModel.play(otherPlayerMove.getQ(), otherPlayerMove.getR(), otherPlayerMove.getPlayer());
-    }
-    catch (IllegalStateException e) {
-      return true;
-    }
-    return false;
+    BoardTopology topology = board.getTopology();
+    board.play(topology.cellId(move.getQ(), move.getR()));
+    boolean disrupts = board.flipCount(topology.cellId(otherPlayerMove.getQ(),
+        otherPlayerMove.getR()), BoardTopology.colorOf(otherPlayerMove.getPlayer())) == 0;
+    board.undo();
+    return disrupts;
   }
 
   /**
@@ -5,12 +5,15 @@ import cs3500.reversi.model.Hexagon.HexagonPlayer;
 /**
  * Represents a move in the Reversi game.
  * A move consists of the coordinates where a player places their piece.
+ *
+ * <p>Moves are immutable. Strategies hand out the shared moves of {@link Moves} rather than
+ * new ones, so two equal moves may or may not be the same object.</p>
  */
 public class Move {
-  private int q;
-  private int r;
-  private HexagonPlayer player;
-  private boolean pass;
+  private final int q;
+  private final int r;
+  private final HexagonPlayer player;
+  private final boolean pass;
 
   /**
    * Constructs a Move with specified coordinates and player.
@@ -26,7 +29,15 @@ public class Move {
     this.pass = false;
   }
 
+  /**
+   * Constructs a pass, or a move at (0, 0) if pass is false.
+   *
+   * @param pass whether the move is a pass
+   * @param player the player making the move
+   */
   public Move(boolean pass, HexagonPlayer player) {
+    this.q = 0;
+    this.r = 0;
     this.pass = pass;
     this.player = player;
   }
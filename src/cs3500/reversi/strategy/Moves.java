@@ -0,0 +1,215 @@
+package cs3500.reversi.strategy;
+
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes moves as a single int, and keeps one shared {@link Move} per move of a board.
+ *
+ * <p>A move code holds the cell id of the move in its low bits, as numbered by the board's
+ * {@link BoardTopology}, the {@link #PASS} bit for a pass, and the {@link #WHITE} bit if white
+ * plays it. Codes fit in plain int arrays and compare with ==, so strategies can handle moves
+ * without allocating. A pass has cell id 0.</p>
+ *
+ * <p>Moves are immutable, so every board has one table of them, made on first use and shared
+ * like its topology. Turning a code into a Move for the {@link ReversiStrategy} interface only
+ * looks it up.</p>
+ */
+public final class Moves {
+  /**
+   * The bit set in the code of a pass.
+   */
+  public static final int PASS = 1 << 16;
+
+  /**
+   * The bit set in the code of a move by white.
+   */
+  public static final int WHITE = 1 << 17;
+
+  private static final int CELL_MASK = PASS - 1;
+  private static final Move BLACK_PASS = new Move(true, HexagonPlayer.BLACK);
+  private static final Move WHITE_PASS = new Move(true, HexagonPlayer.WHITE);
+  private static final Map<BoardTopology, Moves> TABLES = new ConcurrentHashMap<>();
+
+  private final BoardTopology topology;
+  // the move of every cell by black at (cell * 2), and by white at (cell * 2 + 1)
+  private final Move[] moves;
+
+  private Moves(BoardTopology topology) {
+    this.topology = topology;
+    this.moves = new Move[topology.getCellCount() * 2];
+    for (int cell = 0; cell < topology.getCellCount(); cell++) {
+      moves[cell * 2] = new Move(topology.getQ(cell), topology.getR(cell), HexagonPlayer.BLACK);
+      moves[cell * 2 + 1] =
+          new Move(topology.getQ(cell), topology.getR(cell), HexagonPlayer.WHITE);
+    }
+  }
+
+  /**
+   * Gets the moves of a board.
+   *
+   * @param topology the topology of the board.
+   * @return the shared table of the board.
+   */
+  public static Moves of(BoardTopology topology) {
+    Moves table = TABLES.get(topology);
+    if (table == null) {
+      table = new Moves(topology);
+      Moves raced = TABLES.putIfAbsent(topology, table);
+      if (raced != null) {
+        table = raced;
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Gets the moves of the board behind a model.
+   *
+   * @param model the game.
+   * @return the shared table of the board.
+   */
+  public static Moves of(ReversiReadOnlyModel model) {
+    return of(BoardTopology.of(model));
+  }
+
+  /**
+   * Encodes a move on a cell.
+   *
+   * @param cell   the cell id of the move.
+   * @param player the player making the move.
+   * @return the move code.
+   * @throws IllegalArgumentException if the player is not BLACK or WHITE.
+   */
+  public static int encode(int cell, HexagonPlayer player) {
+    return cell | colorBit(player);
+  }
+
+  /**
+   * Encodes a pass.
+   *
+   * @param player the player passing.
+   * @return the move code.
+   * @throws IllegalArgumentException if the player is not BLACK or WHITE.
+   */
+  public static int encodePass(HexagonPlayer player) {
+    return PASS | colorBit(player);
+  }
+
+  private static int colorBit(HexagonPlayer player) {
+    if (player == HexagonPlayer.BLACK) {
+      return 0;
+    }
+    if (player == HexagonPlayer.WHITE) {
+      return WHITE;
+    }
+    throw new IllegalArgumentException("only BLACK or WHITE can move");
+  }
+
+  public static boolean isPass(int code) {
+    return (code & PASS) != 0;
+  }
+
+  public static int getCell(int code) {
+    return code & CELL_MASK;
+  }
+
+  public static HexagonPlayer getPlayer(int code) {
+    return (code & WHITE) != 0 ? HexagonPlayer.WHITE : HexagonPlayer.BLACK;
+  }
+
+  /**
+   * Gets the shared pass of a player.
+   *
+   * @param player the player passing.
+   * @return the pass move.
+   * @throws IllegalArgumentException if the player is not BLACK or WHITE.
+   */
+  public static Move pass(HexagonPlayer player) {
+    return colorBit(player) == 0 ? BLACK_PASS : WHITE_PASS;
+  }
+
+  public BoardTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Encodes a move at a position.
+   *
+   * @param q      the q coordinate of the move.
+   * @param r      the r coordinate of the move.
+   * @param player the player making the move.
+   * @return the move code.
+   * @throws IllegalArgumentException if the position is not on the board or the player is not
+   *                                  BLACK or WHITE.
+   */
+  public int encode(int q, int r, HexagonPlayer player) {
+    int cell = topology.cellId(q, r);
+    if (cell < 0) {
+      throw new IllegalArgumentException("not a valid hexagon position");
+    }
+    return encode(cell, player);
+  }
+
+  /**
+   * Encodes a move made on this board.
+   *
+   * @param move the move.
+   * @return the move code.
+   * @throws IllegalArgumentException if the move is not on the board or has no player.
+   */
+  public int encode(Move move) {
+    if (move.getPass()) {
+      return encodePass(move.getPlayer());
+    }
+    return encode(move.getQ(), move.getR(), move.getPlayer());
+  }
+
+  /**
+   * Gets the q coordinate of a move code, which must not be a pass.
+   *
+   * @param code the move code.
+   * @return the q coordinate of its cell.
+   */
+  public int getQ(int code) {
+    return topology.getQ(getCell(code));
+  }
+
+  /**
+   * Gets the r coordinate of a move code, which must not be a pass.
+   *
+   * @param code the move code.
+   * @return the r coordinate of its cell.
+   */
+  public int getR(int code) {
+    return topology.getR(getCell(code));
+  }
+
+  /**
+   * Gets the shared move of a code.
+   *
+   * @param code the move code.
+   * @return the shared move.
+   */
+  public Move get(int code) {
+    if (isPass(code)) {
+      return getPlayer(code) == HexagonPlayer.BLACK ? BLACK_PASS : WHITE_PASS;
+    }
+    return moves[getCell(code) * 2 + ((code & WHITE) != 0 ? 1 : 0)];
+  }
+
+  /**
+   * Gets the shared move of a player on a cell.
+   *
+   * @param cell   the cell id of the move.
+   * @param player the player making the move.
+   * @return the shared move.
+   * @throws IllegalArgumentException if the player is not BLACK or WHITE.
+   */
+  public Move get(int cell, HexagonPlayer player) {
+    return get(encode(cell, player));
+  }
+}
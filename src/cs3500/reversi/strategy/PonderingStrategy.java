@@ -0,0 +1,38 @@
+package cs3500.reversi.strategy;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+
+/**
+ * A strategy that can think about its next move while the opponent is still choosing theirs.
+ *
+ * <p>While pondering, the strategy guesses the opponent's reply and searches the position it
+ * leads to in the background. If the opponent does play that reply, the next call to
+ * {@link #chooseMove} uses the work already done; otherwise the background search is cancelled
+ * and the move is searched as usual.</p>
+ */
+public interface PonderingStrategy extends ReversiStrategy {
+
+  /**
+   * Starts thinking ahead while the opponent is to move. Does nothing if already pondering
+   * the same position. Returns at once, the model is read before it does.
+   *
+   * @param model  the game, with the opponent of the player to move.
+   * @param player the player this strategy chooses moves for.
+   */
+  void ponder(ReversiReadOnlyModel model, HexagonPlayer player);
+
+  /**
+   * Tells the strategy the opponent has played, cancelling any background search at once if
+   * it predicted another reply.
+   *
+   * @param model  the game, with the player to move.
+   * @param player the player this strategy chooses moves for.
+   */
+  void opponentMoved(ReversiReadOnlyModel model, HexagonPlayer player);
+
+  /**
+   * Cancels any background search and waits for it to finish.
+   */
+  void stopPondering();
+}
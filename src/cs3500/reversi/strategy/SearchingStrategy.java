@@ -0,0 +1,16 @@
+package cs3500.reversi.strategy;
+
+/**
+ * A strategy that searches positions to choose its moves and counts how many it has visited,
+ * so that profiling can report its work as well as its time.
+ */
+public interface SearchingStrategy extends ReversiStrategy {
+
+  /**
+   * Gets the number of positions visited by all searches of this strategy so far, pondering
+   * included.
+   *
+   * @return the node count.
+   */
+  long getNodes();
+}
@@ -0,0 +1,107 @@
+package cs3500.reversi.strategy;
+
+import cs3500.reversi.book.OpeningBook;
+import cs3500.reversi.book.OpeningBookStrategy;
+import cs3500.reversi.book.PerfectPlayDatabase;
+import cs3500.reversi.book.PerfectPlayStrategy;
+import cs3500.reversi.eval.CombinedEvaluator;
+import cs3500.reversi.eval.Evaluator;
+import cs3500.reversi.eval.MobilityEvaluator;
+import cs3500.reversi.eval.PatternEvaluator;
+import cs3500.reversi.eval.StabilityEvaluator;
+import cs3500.reversi.model.BoardFiles;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.search.ProbCut;
+import cs3500.reversi.search.SearchDriver;
+import cs3500.reversi.search.SearchStrategy;
+
+/**
+ * Looks up the AI strategies by the names used on the command line.
+ *
+ * <p>The names match the ones accepted by the game's main class:
+ * strategy1 (aggressive), strategy2 (avoid corners), strategy3 (go for corners),
+ * strategy4 (minimax), strategy5 (alpha-beta search over pattern, mobility and stability
+ * evaluation, solving the last moves exactly), strategy12 and strategy123 (fallback chains).
+ * strategy5 searches with principal variation search; strategy5-ab, strategy5-pvs and
+ * strategy5-mtdf pick the {@link SearchDriver} of that search by its name. All of them prune
+ * with the {@link ProbCut} parameters of the board, if any were fitted, and before searching
+ * play perfectly on boards that have been solved and from the opening book of the board, if
+ * there is one.</p>
+ */
+public final class Strategies {
+  /**
+   * The number of games a book position needs for strategy5 to play into it.
+   */
+  public static final int BOOK_MIN_GAMES = 4;
+
+  private Strategies() {
+  }
+
+  /**
+   * Creates the strategy with the given name.
+   *
+   * @param name the command line name of the strategy.
+   * @return a new strategy instance.
+   * @throws IllegalArgumentException if the name is not a known strategy.
+   */
+  public static ReversiStrategy named(String name) {
+    String lower = name.toLowerCase();
+    if (lower.startsWith("strategy5-")) {
+      return strategy5(SearchDriver.parse(lower.substring("strategy5-".length())));
+    }
+    switch (lower) {
+      case "strategy1":
+        return new AggressiveReversiStrategy();
+      case "strategy2":
+        return new AvoidCornersStrategy();
+      case "strategy3":
+        return new GoForCornersStrategy();
+      case "strategy4":
+        return new MinimaxStrategy(new AggressiveReversiStrategy());
+      case "strategy5":
+        return strategy5(SearchDriver.PVS);
+      case "strategy12":
+        return new TryTwo(new AvoidCornersStrategy(), new AggressiveReversiStrategy());
+      case "strategy123":
+        return new TryTwo(new GoForCornersStrategy(),
+            new TryTwo(new AvoidCornersStrategy(), new AggressiveReversiStrategy()));
+      default:
+        throw new IllegalArgumentException("unknown strategy: " + name);
+    }
+  }
+
+  /**
+   * Creates the evaluator strategy5 searches with: patterns with the loaded weights, mobility
+   * and stability.
+   *
+   * @param topology the topology of the board.
+   * @return a new evaluator.
+   */
+  public static Evaluator evaluator(BoardTopology topology) {
+    return new CombinedEvaluator(PatternEvaluator.forBoard(topology),
+        MobilityEvaluator.defaults(topology), StabilityEvaluator.defaults(topology));
+  }
+
+  /**
+   * Gets the strategy strategy5 plays from before searching: the perfect-play database of the
+   * board, or else its opening book, from the data directory of {@link BoardFiles}.
+   *
+   * @param topology the topology of the board.
+   * @return a strategy that throws where it knows no move, or null if the board has neither.
+   * @throws java.io.UncheckedIOException if a file exists but cannot be read.
+   */
+  public static ReversiStrategy knownMoves(BoardTopology topology) {
+    PerfectPlayDatabase database = PerfectPlayDatabase.load(topology);
+    if (database != null) {
+      // every reachable position is solved, so a book has nothing to add
+      return new PerfectPlayStrategy(database);
+    }
+    OpeningBook book = OpeningBook.load(topology);
+    return book == null ? null : new OpeningBookStrategy(book, BOOK_MIN_GAMES);
+  }
+
+  private static ReversiStrategy strategy5(SearchDriver driver) {
+    return new SearchStrategy(4, 8, driver, ProbCut::load, Strategies::evaluator,
+        Strategies::knownMoves);
+  }
+}
@@ -0,0 +1,22 @@
+package cs3500.reversi.strategy;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import cs3500.reversi.time.TimeBudget;
+
+/**
+ * A strategy that can fit its thinking into a time budget.
+ */
+public interface TimedStrategy extends ReversiStrategy {
+
+  /**
+   * Chooses the next move for a given player, returning within the budget's hard limit.
+   *
+   * @param model  The read-only model of the Reversi game, providing the current game state.
+   * @param player The player (BLACK or WHITE) for whom the move is being chosen.
+   * @param budget The time the choice should and may take.
+   * @return A Move representing the chosen move for the player.
+   * @throws IllegalStateException if there is no move to be found for the current player.
+   */
+  Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player, TimeBudget budget);
+}
@@ -1,13 +1,13 @@
 package cs3500.reversi.strategy;
 
-import cs3500.reversi.model.Hexagon.HexagonPlayer;
-import cs3500.reversi.model.ReversiReadOnlyModel;
-
 /**
  * A strategy that attempts to use two different strategies for making a move in a Reversi game.
  * It first tries the primary strategy and, if it fails, resorts to the secondary strategy.
+ *
+ * <p>Both strategies choose from the same candidates, found once. Strategies that are not
+ * {@link CandidateStrategy} stages are asked through the model, and fail by throwing.</p>
  */
-public class TryTwo implements ReversiStrategy {
+public class TryTwo implements CandidateStrategy {
   ReversiStrategy first;
   ReversiStrategy second;
 
@@ -23,36 +23,18 @@ public class TryTwo implements ReversiStrategy {
   }
 
   /**
-   * Chooses a move for a player in a Reversi game using the primary strategy.
-   * If the primary strategy fails (no valid moves), it tries the secondary strategy.
+   * Chooses a move using the primary strategy, or the secondary strategy if the primary one
+   * finds none. A missing strategy finds none.
    *
-   * @param model The read-only model of the Reversi game, providing the current game state.
-   * @param player The player (BLACK or WHITE) for whom the move is being chosen.
-   * @return A Move representing the chosen move for the player.
-   * @throws IllegalStateException If no valid moves are available using either strategy.
+   * @param candidates The moves in play, left as they were.
+   * @return The id of the chosen move, or NONE if neither strategy finds a move.
    */
   @Override
-  public Move chooseMove(ReversiReadOnlyModel model, HexagonPlayer player) {
-    // try the first strategy
-    try {
-      if (this.first == null) {
-        throw new IllegalStateException("null first Player");
-      }
-      return this.first.chooseMove(model, player);
-    }
-    // if first strategy throws an exception because no move is available using that strategy,
-    // try the second strategy:
-    catch (IllegalStateException e) {
-      try {
-        if (this.second == null) {
-          throw new IllegalStateException("null second Player");
-        }
-        return second.chooseMove(model, player);
-      }
-      // if the second strategy has no available moves, throw an exception
-      catch (IllegalStateException exception) {
-        throw new IllegalStateException("no move available, must be passed");
-      }
+  public int choose(Candidates candidates) {
+    int id = CandidateStrategy.choose(candidates, first);
+    if (id != Candidates.NONE) {
+      return id;
     }
+    return CandidateStrategy.choose(candidates, second);
   }
 }
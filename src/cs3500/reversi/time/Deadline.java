@@ -0,0 +1,61 @@
+package cs3500.reversi.time;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A point in time, usable as the stop condition of a search.
+ *
+ * <p>Checking it reads {@link System#nanoTime()} and nothing else, which is cheap enough to
+ * poll every few thousand nodes.</p>
+ */
+public final class Deadline implements BooleanSupplier {
+  private final long nanos;
+
+  private Deadline(long nanos) {
+    this.nanos = nanos;
+  }
+
+  /**
+   * Creates a deadline some time from now.
+   *
+   * @param millis the time until the deadline, in milliseconds.
+   * @return the deadline.
+   */
+  public static Deadline in(long millis) {
+    return new Deadline(System.nanoTime() + millis * 1_000_000);
+  }
+
+  /**
+   * Creates a deadline some time after another point in time.
+   *
+   * @param startNanos a value of {@link System#nanoTime()}.
+   * @param millis     the time from startNanos until the deadline, in milliseconds.
+   * @return the deadline.
+   */
+  public static Deadline after(long startNanos, long millis) {
+    return new Deadline(startNanos + millis * 1_000_000);
+  }
+
+  /**
+   * Checks whether the deadline has passed.
+   *
+   * @return true once the deadline is reached.
+   */
+  public boolean isPassed() {
+    return System.nanoTime() - nanos >= 0;
+  }
+
+  /**
+   * Gets the time left until the deadline.
+   *
+   * @return the remaining nanoseconds, negative once passed.
+   */
+  public long remainingNanos() {
+    return nanos - System.nanoTime();
+  }
+
+  @Override
+  public boolean getAsBoolean() {
+    return isPassed();
+  }
+}
@@ -0,0 +1,131 @@
+package cs3500.reversi.time;
+
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+import cs3500.reversi.view.BoardObserver;
+import java.util.function.LongSupplier;
+
+/**
+ * A chess clock for one game: both players start with the same total time, and every move
+ * adds a fixed increment to the time of the player who made it.
+ *
+ * <p>Once it watches a model, the clock charges each player for the time between the board
+ * changing to their turn and the board changing again, so it needs no calls from the players.
+ * Time is not stopped when it runs out; {@link #isFlagged} reports it and the caller decides
+ * what that means for the game.</p>
+ */
+public class GameClock implements BoardObserver {
+  private final long incrementNanos;
+  // the time left of black and white, at index 0 and 1
+  private final long[] remainingNanos = new long[2];
+  private final LongSupplier nanoTime;
+  private ReversiReadOnlyModel model;
+  private HexagonPlayer running = HexagonPlayer.NONE;
+  private long turnStart;
+
+  /**
+   * Constructs a clock that is not running yet.
+   *
+   * @param totalMillis     the time each player starts with.
+   * @param incrementMillis the time added to a player's clock after each of their moves.
+   * @throws IllegalArgumentException if the total is not positive or the increment is negative.
+   */
+  public GameClock(long totalMillis, long incrementMillis) {
+    this(totalMillis, incrementMillis, System::nanoTime);
+  }
+
+  /**
+   * Constructs a clock that is not running yet and reads the time from the given source.
+   *
+   * @param totalMillis     the time each player starts with.
+   * @param incrementMillis the time added to a player's clock after each of their moves.
+   * @param nanoTime        the current time in nanoseconds, like {@link System#nanoTime()}.
+   * @throws IllegalArgumentException if the total is not positive or the increment is negative.
+   */
+  public GameClock(long totalMillis, long incrementMillis, LongSupplier nanoTime) {
+    if (totalMillis <= 0) {
+      throw new IllegalArgumentException("total time must be positive");
+    }
+    if (incrementMillis < 0) {
+      throw new IllegalArgumentException("increment must not be negative");
+    }
+    this.incrementNanos = incrementMillis * 1_000_000;
+    this.remainingNanos[0] = totalMillis * 1_000_000;
+    this.remainingNanos[1] = totalMillis * 1_000_000;
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * Starts following a game. The clock starts when the game does.
+   *
+   * @param model the game to time.
+   */
+  public void watch(ReversiReadOnlyModel model) {
+    this.model = model;
+    model.addObserver(this);
+  }
+
+  @Override
+  public void onBoardChanged() {
+    switchTo(model.isGameOver() ? HexagonPlayer.NONE : model.getCurrentPlayer());
+  }
+
+  @Override
+  public void startObserverGame() {
+    onBoardChanged();
+  }
+
+  /**
+   * Stops the running player's time, adding the increment, and starts the next player's.
+   * Does nothing if the next player's time is already running.
+   *
+   * @param next the player to move now, or NONE to stop the clock.
+   */
+  public void switchTo(HexagonPlayer next) {
+    if (next == running) {
+      return;
+    }
+    long now = nanoTime.getAsLong();
+    if (running != HexagonPlayer.NONE) {
+      remainingNanos[index(running)] -= now - turnStart;
+      remainingNanos[index(running)] += incrementNanos;
+    }
+    running = next;
+    turnStart = now;
+  }
+
+  /**
+   * Gets the time a player has left, counting the turn in progress.
+   *
+   * @param player BLACK or WHITE.
+   * @return the remaining time in milliseconds, negative once the player has run out.
+   */
+  public long getRemainingMillis(HexagonPlayer player) {
+    long remaining = remainingNanos[index(player)];
+    if (player == running) {
+      remaining -= nanoTime.getAsLong() - turnStart;
+    }
+    return remaining / 1_000_000;
+  }
+
+  public long getIncrementMillis() {
+    return incrementNanos / 1_000_000;
+  }
+
+  /**
+   * Checks whether a player has run out of time.
+   *
+   * @param player BLACK or WHITE.
+   * @return true if the player's time is used up.
+   */
+  public boolean isFlagged(HexagonPlayer player) {
+    return getRemainingMillis(player) <= 0;
+  }
+
+  private static int index(HexagonPlayer player) {
+    if (player == HexagonPlayer.NONE) {
+      throw new IllegalArgumentException("only BLACK and WHITE have a clock");
+    }
+    return player == HexagonPlayer.BLACK ? 0 : 1;
+  }
+}
@@ -0,0 +1,65 @@
+package cs3500.reversi.time;
+
+/**
+ * The time a strategy may spend on one move.
+ *
+ * <p>The soft limit is what the move should take: a search starts no new iteration past it.
+ * When the best move keeps changing between iterations the soft limit stretches, up to the
+ * hard limit, which the search must never pass.</p>
+ */
+public final class TimeBudget {
+  private final long softMillis;
+  private final long hardMillis;
+
+  /**
+   * Constructs a budget.
+   *
+   * @param softMillis the time the move should take.
+   * @param hardMillis the time the move must not exceed.
+   * @throws IllegalArgumentException if a limit is not positive or soft exceeds hard.
+   */
+  public TimeBudget(long softMillis, long hardMillis) {
+    if (softMillis <= 0 || hardMillis <= 0) {
+      throw new IllegalArgumentException("limits must be positive");
+    }
+    if (softMillis > hardMillis) {
+      throw new IllegalArgumentException("soft limit must not exceed the hard limit");
+    }
+    this.softMillis = softMillis;
+    this.hardMillis = hardMillis;
+  }
+
+  /**
+   * Constructs a budget for exactly the given time.
+   *
+   * @param millis the time the move may take.
+   * @return a budget whose soft and hard limits are both millis.
+   */
+  public static TimeBudget fixed(long millis) {
+    return new TimeBudget(millis, millis);
+  }
+
+  public long getSoftMillis() {
+    return softMillis;
+  }
+
+  public long getHardMillis() {
+    return hardMillis;
+  }
+
+  /**
+   * Gets the soft limit stretched for an unstable search: half as much again for every change
+   * of the best move or large swing of its score.
+   *
+   * @param instability the number of changes seen so far.
+   * @return the time the move should take, at most the hard limit.
+   */
+  public long getSoftMillis(int instability) {
+    return Math.min(hardMillis, softMillis + softMillis * instability / 2);
+  }
+
+  @Override
+  public String toString() {
+    return "TimeBudget[" + softMillis + "ms, at most " + hardMillis + "ms]";
+  }
+}
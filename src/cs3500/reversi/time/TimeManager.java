@@ -0,0 +1,87 @@
+package cs3500.reversi.time;
+
+import cs3500.reversi.model.CompactBoard;
+import cs3500.reversi.model.Hexagon.HexagonPlayer;
+import cs3500.reversi.model.ReversiReadOnlyModel;
+
+/**
+ * Splits a player's remaining time into a budget for the move at hand.
+ *
+ * <p>The base share is the remaining time over the moves the player still has to make, which
+ * is about half the empty cells, plus most of the increment. It is scaled by the position's
+ * complexity: a forced move gets almost nothing, and a position with many legal moves gets up
+ * to twice the base. The hard limit allows the search to stretch for an unstable best move,
+ * but always leaves a reserve on the clock and stays under the reply limit, if there is one.
+ * The stretching itself happens in the search, see {@link TimeBudget#getSoftMillis(int)}.</p>
+ */
+public class TimeManager {
+  /**
+   * The time kept back from every hard limit for the work around the search.
+   */
+  public static final long SAFETY_MILLIS = 10;
+
+  // moves planned for beyond the ones left, so that the clock never runs down to zero
+  private static final int RESERVE_MOVES = 3;
+  // how far the hard limit may be from the soft one
+  private static final int MAX_STRETCH = 4;
+
+  private final long replyLimitMillis;
+
+  /**
+   * Constructs a time manager without a limit per reply.
+   */
+  public TimeManager() {
+    this.replyLimitMillis = Long.MAX_VALUE;
+  }
+
+  /**
+   * Constructs a time manager that never budgets more than the given time for a reply.
+   *
+   * @param replyLimitMillis the longest any move may take.
+   * @throws IllegalArgumentException if the limit is not more than {@link #SAFETY_MILLIS}.
+   */
+  public TimeManager(long replyLimitMillis) {
+    if (replyLimitMillis <= SAFETY_MILLIS) {
+      throw new IllegalArgumentException("reply limit must be more than " + SAFETY_MILLIS + "ms");
+    }
+    this.replyLimitMillis = replyLimitMillis;
+  }
+
+  public long getReplyLimitMillis() {
+    return replyLimitMillis;
+  }
+
+  /**
+   * Budgets the next move of a player in a game.
+   *
+   * @param model  the game, with player to move.
+   * @param player the player to move.
+   * @param clock  the clock of the game.
+   * @return the budget for the move.
+   */
+  public TimeBudget allocate(ReversiReadOnlyModel model, HexagonPlayer player, GameClock clock) {
+    return allocate(CompactBoard.of(model), clock.getRemainingMillis(player),
+        clock.getIncrementMillis());
+  }
+
+  /**
+   * Budgets the next move of the side to move.
+   *
+   * @param board           the position, with the side to move about to choose.
+   * @param remainingMillis the time left on the side to move's clock.
+   * @param incrementMillis the time added to the clock after the move.
+   * @return the budget for the move.
+   */
+  public TimeBudget allocate(CompactBoard board, long remainingMillis, long incrementMillis) {
+    int movesLeft = (board.getEmptyCount() + 1) / 2 + RESERVE_MOVES;
+    double base = (double) Math.max(0, remainingMillis) / movesLeft + incrementMillis * 0.9;
+    int mobility = board.legalMoves(new int[board.getTopology().getCellCount()]);
+    double complexity = mobility <= 1 ? 0.1 : Math.min(2.0, 0.5 + mobility / 8.0);
+
+    long hard = Math.min(replyLimitMillis - SAFETY_MILLIS,
+        Math.min(remainingMillis - SAFETY_MILLIS, (long) (base * complexity * MAX_STRETCH)));
+    hard = Math.max(1, hard);
+    long soft = Math.max(1, Math.min(hard, (long) (base * complexity)));
+    return new TimeBudget(soft, hard);
+  }
+}
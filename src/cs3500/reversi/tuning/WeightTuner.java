@@ -0,0 +1,274 @@
+package cs3500.reversi.tuning;
+
+import cs3500.reversi.CommandLineOptions;
+import cs3500.reversi.eval.PatternSet;
+import cs3500.reversi.eval.PatternWeights;
+import cs3500.reversi.model.BoardTopology;
+import cs3500.reversi.selfplay.SampleReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fits pattern weights to labelled positions from a sample file by logistic regression.
+ *
+ * <p>The evaluation of a position, divided by a scale, is read as the odds of black winning
+ * through the logistic function, and the weights are moved to reduce the log loss against the
+ * game's actual outcome (1 for a black win, 0 for a loss, one half for a draw). Samples are
+ * streamed from the file in minibatches, so files far larger than the heap can be used; the
+ * gradient of each minibatch is computed in parallel on slices of the batch and summed before
+ * every update. Updates use AdaGrad, as most weights are only seen in a few positions.</p>
+ */
+public class WeightTuner {
+  private final PatternSet patterns;
+  private final int threads;
+  private final int batchSize;
+  private final double rate;
+  private final double scale;
+  private final double[][] weights;
+  // the sum of the squared gradients of every weight, for AdaGrad
+  private final double[][] squares;
+
+  /**
+   * Constructs a tuner starting from all-zero weights.
+   *
+   * @param topology  the board of the samples.
+   * @param threads   the number of threads computing gradients.
+   * @param batchSize the number of samples per update.
+   * @param rate      the learning rate, roughly the first step of a weight in hundredths of a
+   *                  disc.
+   * @param scale     the evaluation, in hundredths of a disc, at which black is expected to win
+   *                  e to 1.
+   * @throws IllegalArgumentException if a count or the scale is not positive.
+   */
+  public WeightTuner(BoardTopology topology, int threads, int batchSize, double rate,
+      double scale) {
+    if (threads < 1 || batchSize < 1 || scale <= 0) {
+      throw new IllegalArgumentException("threads, batch size and scale must be positive");
+    }
+    this.patterns = PatternSet.of(topology);
+    this.threads = threads;
+    this.batchSize = batchSize;
+    this.rate = rate;
+    this.scale = scale;
+    this.weights = newTables();
+    this.squares = newTables();
+  }
+
+  private double[][] newTables() {
+    double[][] tables = new double[PatternSet.CLASS_NAMES.size()][];
+    for (int c = 0; c < tables.length; c++) {
+      tables[c] = new double[patterns.getTableSize(c)];
+    }
+    return tables;
+  }
+
+  /**
+   * Starts from the given weights instead of zero.
+   *
+   * @param start the weights to start from, for the same board.
+   * @throws IllegalArgumentException if the weights are for another board.
+   */
+  public void initialize(PatternWeights start) {
+    if (start.getPatterns() != patterns) {
+      throw new IllegalArgumentException("the weights are for another board");
+    }
+    for (int c = 0; c < weights.length; c++) {
+      for (int index = 0; index < weights[c].length; index++) {
+        weights[c][index] = start.get(c, index);
+      }
+    }
+  }
+
+  /**
+   * Passes over a sample file a number of times.
+   *
+   * @param samples the sample file, for this tuner's board.
+   * @param epochs  the number of passes.
+   * @return the mean log loss of every pass, each sample measured before its batch's update.
+   * @throws IOException if the file cannot be read or is for another board.
+   */
+  public double[] tune(Path samples, int epochs) throws IOException {
+    double[] losses = new double[epochs];
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      for (int epoch = 0; epoch < epochs; epoch++) {
+        try (SampleReader reader = new SampleReader(new FileInputStream(samples.toFile()))) {
+          if (reader.getTopology() != patterns.getTopology()) {
+            throw new IOException("the samples are for another board");
+          }
+          losses[epoch] = epoch(reader, pool);
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    return losses;
+  }
+
+  /**
+   * Streams all samples of a reader through minibatch updates.
+   *
+   * @return the mean log loss.
+   */
+  private double epoch(SampleReader reader, ExecutorService pool) throws IOException {
+    int cellCount = patterns.getTopology().getCellCount();
+    byte[] batch = new byte[batchSize * cellCount];
+    double[] targets = new double[batchSize];
+    double[][][] gradients = new double[threads][][];
+    for (int t = 0; t < threads; t++) {
+      gradients[t] = newTables();
+    }
+    double totalLoss = 0;
+    long total = 0;
+    while (true) {
+      int size = 0;
+      while (size < batchSize && reader.next()) {
+        System.arraycopy(reader.getCells(), 0, batch, size * cellCount, cellCount);
+        int result = reader.getResult();
+        targets[size++] = result > 0 ? 1 : result < 0 ? 0 : 0.5;
+      }
+      if (size == 0) {
+        break;
+      }
+      int parts = Math.min(threads, size);
+      List<Future<Double>> losses = new ArrayList<>();
+      for (int part = 0; part < parts; part++) {
+        int from = size * part / parts;
+        int to = size * (part + 1) / parts;
+        double[][] gradient = gradients[part];
+        losses.add(pool.submit(() -> gradient(batch, targets, from, to, gradient)));
+      }
+      for (Future<Double> loss : losses) {
+        totalLoss += get(loss);
+      }
+      total += size;
+      update(gradients, parts, size);
+    }
+    return total == 0 ? 0 : totalLoss / total;
+  }
+
+  private static double get(Future<Double> result) throws IOException {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted while tuning", e);
+    } catch (ExecutionException e) {
+      throw new IOException("failed to compute a gradient", e.getCause());
+    }
+  }
+
+  /**
+   * Adds the log loss gradient of a slice of a batch to a thread's tables.
+   *
+   * @return the summed log loss of the slice.
+   */
+  private double gradient(byte[] batch, double[] targets, int from, int to,
+      double[][] gradient) {
+    int cellCount = patterns.getTopology().getCellCount();
+    byte[] cells = new byte[cellCount];
+    int[] indices = new int[patterns.size()];
+    double loss = 0;
+    for (int sample = from; sample < to; sample++) {
+      System.arraycopy(batch, sample * cellCount, cells, 0, cellCount);
+      double evaluation = 0;
+      for (int p = 0; p < indices.length; p++) {
+        indices[p] = patterns.index(p, cells);
+        evaluation += weights[patterns.getClass(p)][indices[p]];
+      }
+      double predicted = 1 / (1 + Math.exp(-evaluation / scale));
+      double target = targets[sample];
+      // clamped so that a confidently wrong prediction does not make the loss infinite
+      double clamped = Math.min(Math.max(predicted, 1e-12), 1 - 1e-12);
+      loss -= target * Math.log(clamped) + (1 - target) * Math.log(1 - clamped);
+      double slope = (predicted - target) / scale;
+      for (int p = 0; p < indices.length; p++) {
+        gradient[patterns.getClass(p)][indices[p]] += slope;
+      }
+    }
+    return loss;
+  }
+
+  /**
+   * Sums the threads' gradients, averages them over the batch, applies them and clears them.
+   */
+  private void update(double[][][] gradients, int parts, int size) {
+    for (int c = 0; c < weights.length; c++) {
+      for (int index = 0; index < weights[c].length; index++) {
+        double sum = 0;
+        for (int part = 0; part < parts; part++) {
+          sum += gradients[part][c][index];
+          gradients[part][c][index] = 0;
+        }
+        if (sum != 0) {
+          double step = sum / size;
+          squares[c][index] += step * step;
+          weights[c][index] -= rate * step / (Math.sqrt(squares[c][index]) + 1e-12);
+        }
+      }
+    }
+  }
+
+  /**
+   * Rounds the current weights to hundredths of a disc.
+   *
+   * @return the weights.
+   */
+  public PatternWeights toWeights() {
+    PatternWeights result = new PatternWeights(patterns);
+    for (int c = 0; c < weights.length; c++) {
+      for (int index = 0; index < weights[c].length; index++) {
+        result.set(c, index, (int) Math.round(weights[c][index]));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Tunes weights from the command line and writes them to a weight file.
+   *
+   * <p>Options: --samples path (required), --out (the board's weight file name),
+   * --epochs 4, --batch 8192, --threads (all cores), --rate 20, --scale 600,
+   * --init zero or defaults.</p>
+   *
+   * @param args the command line options.
+   * @throws Exception if tuning fails.
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = CommandLineOptions.parse(args);
+    if (!options.containsKey("samples")) {
+      throw new IllegalArgumentException("--samples is required");
+    }
+    Path samples = Paths.get(options.get("samples"));
+    BoardTopology topology;
+    try (SampleReader reader = new SampleReader(new FileInputStream(samples.toFile()))) {
+      topology = reader.getTopology();
+    }
+    WeightTuner tuner = new WeightTuner(topology,
+        Integer.parseInt(options.getOrDefault("threads",
+            Integer.toString(Runtime.getRuntime().availableProcessors()))),
+        Integer.parseInt(options.getOrDefault("batch", "8192")),
+        Double.parseDouble(options.getOrDefault("rate", "20")),
+        Double.parseDouble(options.getOrDefault("scale", "600")));
+    if (options.getOrDefault("init", "zero").equals("defaults")) {
+      tuner.initialize(PatternWeights.defaults(PatternSet.of(topology)));
+    }
+    long start = System.nanoTime();
+    double[] losses = tuner.tune(samples, Integer.parseInt(options.getOrDefault("epochs", "4")));
+    for (int epoch = 0; epoch < losses.length; epoch++) {
+      System.out.printf("epoch %d: loss %.5f%n", epoch + 1, losses[epoch]);
+    }
+    Path out = Paths.get(options.getOrDefault("out", PatternWeights.fileName(topology)));
+    tuner.toWeights().write(out);
+    System.out.printf("wrote %s in %.2f s%n", out, (System.nanoTime() - start) / 1e9);
+  }
+}
@@ -1,5 +1,6 @@
 package cs3500.reversi.view;
 
+import cs3500.reversi.jfr.RefreshEvent;
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
 import cs3500.reversi.model.ReversiReadOnlyModel;
 import java.awt.BorderLayout;
@@ -180,6 +181,8 @@ public class GameBoardLayout extends JFrame implements IReversiView, BoardObserv
    */
   @Override
   public void refresh() {
+    RefreshEvent event = new RefreshEvent();
+    event.begin();
     this.updateScore();
     this.remove(buttonPanel);
     newPanel();
@@ -190,6 +193,10 @@ public class GameBoardLayout extends JFrame implements IReversiView, BoardObserv
     this.add(buttonPanel, BorderLayout.CENTER);
     revalidate();
     repaint();
+    if (event.shouldCommit()) {
+      event.setView(getClass().getSimpleName());
+      event.commit();
+    }
   }
 
   /**
@@ -1,7 +1,6 @@
 package cs3500.reversi.view;
 
 import cs3500.reversi.model.Hexagon.HexagonPlayer;
-import cs3500.reversi.model.ReversiMutableModel;
 import cs3500.reversi.model.ReversiReadOnlyModel;
 import java.awt.Color;
 import java.awt.Font;
@@ -11,13 +10,32 @@ import java.awt.Graphics2D;
 import java.awt.Polygon;
 
 public class HexHintButton extends HexagonButton {
-  private final ReversiReadOnlyModel model;
-  private final HexagonPlayer playerTurn;
+  private final int flips;
 
-  public HexHintButton(HexagonButton button, ReversiReadOnlyModel model, HexagonPlayer playerTurn) {
+  /**
+   * Creates a hint button showing how many discs a move on it would flip.
+   *
+   * @param button the button to show the hint on.
+   * @param flips  the discs the player to move would flip there, see {@link #scoresFor}.
+   */
+  public HexHintButton(HexagonButton button, int flips) {
     super(button.getQ(), button.getR(), button.getPlayer());
-    this.playerTurn = playerTurn;
-    this.model = model;
+    this.flips = flips;
+  }
+
+  /**
+   * Scores the moves of every hint button of a panel at once.
+   *
+   * @param model      the game.
+   * @param playerTurn the player the hints are shown to, or null for no hints.
+   * @return the flip counts by r * getArrayWidth() + q, all 0 unless that player is to move.
+   */
+  public static int[] scoresFor(ReversiReadOnlyModel model, HexagonPlayer playerTurn) {
+    int width = model.getArrayWidth();
+    if (playerTurn == null || model.getCurrentPlayer() != playerTurn) {
+      return new int[width * width];
+    }
+    return model.scoreMoves(playerTurn);
   }
 
   @Override
@@ -26,7 +44,7 @@ public class HexHintButton extends HexagonButton {
     int centerX = getWidth() / 2;
     int centerY = getHeight() / 2;
     int radius = Math.min(getWidth(), getHeight()) / 2;
-    String buttonScore = getButtonScore(this.getQ(), this.getR());
+    String buttonScore = Integer.toString(flips);
 
 
     Polygon hexagon = calculateHexagon(centerX, centerY, radius);
@@ -73,21 +91,4 @@ public class HexHintButton extends HexagonButton {
     }
     g2d.dispose();
   }
-
-
-  private String getButtonScore(int q, int r) {
-    if (this.playerTurn != null) {
-      try {
-        ReversiMutableModel copyModel = model.mutableCopy();
-        copyModel.play(q, r, playerTurn);
-        int newScore = copyModel.getScore(playerTurn);
-        return Integer.toString(newScore - model.getScore(playerTurn) - 1);
-      }
-      catch (Exception e) {
-        return "0";
-      }
-    }
-    return "0";
-  }
-
 }
@@ -13,6 +13,9 @@ public class HexHintPanel extends HexagonPanel {
   @Override
   protected HexagonButton[][] addHexButtonsToArray(Hexagon[][] hexList) {
     HexagonButton[][] hexButtonList = new HexagonButton[maxColRow][maxColRow];
+    // score the hints of every button at once
+    int[] scores = HexHintButton.scoresFor(model, player);
+    int width = model.getArrayWidth();
     // add a button for every hexagon in the game
     for (int r = 0; r < maxColRow; r++) {
       for (int q = 0; q < maxColRow; q++) {
@@ -21,7 +24,7 @@ public class HexHintPanel extends HexagonPanel {
         } else {
           HexagonPlayer hexPlayer = hexList[r][q].getOccupancy();
           HexagonButton button = new HexagonButton(q, r, hexPlayer);
-          HexagonButton hexButton = new HexHintButton(button, model, player);
+          HexagonButton hexButton = new HexHintButton(button, scores[r * width + q]);
           hexButtonList[r][q] = hexButton;
         }
       }
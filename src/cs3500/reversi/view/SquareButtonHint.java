@@ -1,13 +1,10 @@
 package cs3500.reversi.view;
 
-import cs3500.reversi.model.Hexagon.HexagonPlayer;
-import cs3500.reversi.model.ReversiReadOnlyModel;
 import java.awt.Polygon;
 
 public class SquareButtonHint extends HexHintButton {
-  public SquareButtonHint(HexagonButton button, ReversiReadOnlyModel model,
-      HexagonPlayer playerTurn) {
-    super(button, model, playerTurn);
+  public SquareButtonHint(HexagonButton button, int flips) {
+    super(button, flips);
   }
 
   @Override
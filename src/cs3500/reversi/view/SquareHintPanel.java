@@ -15,6 +15,9 @@ public class SquareHintPanel extends ReversiSquarePanel {
   protected HexagonButton[][] addHexButtonsToArray(Hexagon[][] hexList) {
     int boardSize = model.getBoardSize();
     HexagonButton[][] hexButtonList = new HexagonButton[boardSize][boardSize];
+    // score the hints of every button at once
+    int[] scores = HexHintButton.scoresFor(model, player);
+    int width = model.getArrayWidth();
     // add a button for every hexagon in the game
     for (int r = 0; r < boardSize; r++) {
       for (int q = 0; q < boardSize; q++) {
@@ -23,7 +26,7 @@ public class SquareHintPanel extends ReversiSquarePanel {
         } else {
           HexagonPlayer hexPlayer = hexList[r][q].getOccupancy();
           HexagonButton square = new SquareButton(q, r, hexPlayer);
-          HexagonButton hexButton = new SquareButtonHint(square, model, player);
+          HexagonButton hexButton = new SquareButtonHint(square, scores[r * width + q]);
 
           hexButtonList[r][q] = hexButton;
         }